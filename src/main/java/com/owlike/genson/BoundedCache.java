@@ -0,0 +1,158 @@
+package com.owlike.genson;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A concurrent cache holding at most maxSize entries, used by Genson to cache converters, bean
+ * descriptors and expanded types. This class is mainly intended for internal use.
+ * <p>
+ * Reading an entry takes no lock, it is only marked as used. When the cache grows beyond maxSize,
+ * entries are removed until the cache is back to 7/8 of its maximum size, so the evictions are
+ * amortized over many insertions. The entries not read since the previous eviction are removed
+ * first, then the ones added since then and not read yet, then the other ones if needed. Within
+ * each of these groups the entries are removed in no particular order. A maxSize of 0 or less
+ * means the cache is unbounded.
+ * <p>
+ * The cache does not reference class loaders itself, but the cached values usually reference
+ * classes and through them their class loader. Use {@link #removeAll(KeyFilter)} to release the
+ * entries of a class loader that is no longer used, otherwise they are released only once evicted.
+ */
+public final class BoundedCache<K, V> {
+    /**
+     * Selects the keys of the entries to remove in {@link BoundedCache#removeAll(KeyFilter)}.
+     */
+    public interface KeyFilter<K> {
+        boolean accept(K key);
+    }
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<K, Entry<V>>();
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile int maxSize;
+
+    public BoundedCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null ? entry.use() : null;
+    }
+
+    /**
+     * @return the value already cached for this key or value if there was none.
+     */
+    public V putIfAbsent(K key, V value) {
+        Entry<V> entry = putIfAbsentEntry(key, value);
+        if (entry.value != value) return entry.use();
+        evictIfNeeded();
+        return value;
+    }
+
+    /**
+     * @return the number of removed entries.
+     */
+    public int removeAll(KeyFilter<? super K> filter) {
+        int removed = 0;
+        for (Iterator<K> it = entries.keySet().iterator(); it.hasNext();) {
+            if (filter.accept(it.next())) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Changes the maximum size of this cache, evicting entries right away if it holds too many.
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        evictIfNeeded();
+    }
+
+    /**
+     * @return the number of entries removed because the cache was full since its creation.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    Entry<V> entry(K key) {
+        return entries.get(key);
+    }
+
+    Entry<V> putIfAbsentEntry(K key, V value) {
+        Entry<V> entry = new Entry<V>(value);
+        Entry<V> cached = entries.putIfAbsent(key, entry);
+        return cached != null ? cached : entry;
+    }
+
+    Set<Map.Entry<K, Entry<V>>> entries() {
+        return entries.entrySet();
+    }
+
+    /**
+     * @return true if some entries have been evicted.
+     */
+    boolean evictIfNeeded() {
+        int max = maxSize;
+        if (max <= 0 || entries.size() <= max) return false;
+
+        synchronized (this) {
+            int excess = entries.size() - (max - max / 8);
+            if (excess <= 0) return false;
+            // first the unused entries, then the new ones and finally the used ones if needed
+            for (int pass = Entry.UNUSED; excess > 0 && pass <= Entry.USED; pass++) {
+                for (Iterator<Entry<V>> it = entries.values().iterator(); excess > 0 && it.hasNext();) {
+                    Entry<V> entry = it.next();
+                    if (entry.state <= pass) {
+                        it.remove();
+                        excess--;
+                        evictions.incrementAndGet();
+                    }
+                }
+            }
+            for (Entry<V> entry : entries.values())
+                entry.state = Entry.UNUSED;
+            return true;
+        }
+    }
+
+    static final class Entry<V> {
+        // not read since the previous eviction
+        final static int UNUSED = 0;
+        // added since the previous eviction and not read yet
+        final static int NEW = 1;
+        // read since the previous eviction
+        final static int USED = 2;
+
+        final V value;
+        // racy on purpose, losing a mark only makes the entry a bit more likely to be evicted
+        int state = NEW;
+
+        Entry(V value) {
+            this.value = value;
+        }
+
+        V use() {
+            if (state != USED) state = USED;
+            return value;
+        }
+    }
+}
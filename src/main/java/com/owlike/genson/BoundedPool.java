@@ -0,0 +1,44 @@
+package com.owlike.genson;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A small lock free pool holding at most size instances. When the pool is empty poll returns null
+ * and when it is full offered instances are dropped, so it never blocks nor grows. Threads start
+ * looking at a different slot depending on their id to limit contention.
+ */
+final class BoundedPool<T> {
+    private final AtomicReferenceArray<T> slots;
+    private final int size;
+
+    BoundedPool(int size) {
+        this.size = size;
+        this.slots = new AtomicReferenceArray<T>(size);
+    }
+
+    T poll() {
+        int start = startIndex();
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            T instance = slots.get(index);
+            if (instance != null && slots.compareAndSet(index, instance, null)) return instance;
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the instance has been added to the pool, false if the pool was full.
+     */
+    boolean offer(T instance) {
+        int start = startIndex();
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, instance)) return true;
+        }
+        return false;
+    }
+
+    private int startIndex() {
+        return (int) (Thread.currentThread().getId() % size);
+    }
+}
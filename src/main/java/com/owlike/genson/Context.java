@@ -37,7 +37,8 @@
 public class Context {
 	public final Genson genson;
 	private List<Class<? extends BeanView<?>>> views;
-	private Map<String, Object> _ctxData = new HashMap<String, Object>();
+	// created only when something is stored, most contexts never use it
+	private Map<String, Object> _ctxData;
 
 	public Context(Genson genson) {
 		this(genson, null);
@@ -73,6 +74,7 @@ public List<Class<? extends BeanView<?>>> views() {
 	 */
 	public Object store(String key, Object o) {
 		checkNotNull(key);
+		if (_ctxData == null) _ctxData = new HashMap<String, Object>();
 		Object old = _ctxData.get(key);
 		_ctxData.put(key, o);
 		return old;
@@ -107,6 +109,7 @@ public <T> T get(String key) {
 	 */
 	public <T> T get(String key, Class<T> valueType) {
 		checkNotNull(key, valueType);
+		if (_ctxData == null) return null;
 		return valueType.cast(_ctxData.get(key));
 	}
 
@@ -140,6 +143,7 @@ public <T> T remove(String key) {
 	 */
 	public <T> T remove(String key, Class<T> valueType) {
 		checkNotNull(key, valueType);
+		if (_ctxData == null) return null;
 		T value = valueType.cast(_ctxData.get(key));
 		_ctxData.remove(key);
 		return value;
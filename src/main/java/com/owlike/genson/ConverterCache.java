@@ -0,0 +1,122 @@
+package com.owlike.genson;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * The converters cache of a Genson instance. The converters are stored by type in a
+ * {@link BoundedCache} using equals, the type under which a converter is first stored becomes the
+ * canonical instance of this type. Classes and canonical types are also indexed by identity in an
+ * open addressing table, so the lookup of a type already seen costs a field load and a few
+ * reference comparisons, without hashing the type nor taking a lock. Other instances of a
+ * canonical type, for example a ParameterizedType built by the caller, are looked up in the
+ * bounded cache.
+ * <p>
+ * The table is filled in place under the lock and copied only when it grows, its size doubling
+ * each time. A slot is written once per table, so a reader racing with an insertion sees either
+ * nothing, the key without its entry or both, the two first cases falling back to the bounded
+ * cache. As slots are never reused, the table is rebuilt when entries are evicted or removed. The
+ * cache evicts an eighth of its entries at once, so the rebuilds stay amortized.
+ */
+final class ConverterCache {
+    private final static int INITIAL_CAPACITY = 64;
+
+    private final BoundedCache<Type, Converter<?>> converters;
+    // keys at even indexes and their cache entry right after them
+    private volatile Object[] identityTable = new Object[INITIAL_CAPACITY * 2];
+    // guarded by this
+    private int identityCount;
+
+    ConverterCache(int maxSize) {
+        converters = new BoundedCache<Type, Converter<?>>(maxSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    Converter<?> get(Type type) {
+        Object[] table = identityTable;
+        int mask = table.length - 2;
+        for (int i = (System.identityHashCode(type) << 1) & mask;; i = (i + 2) & mask) {
+            Object key = table[i];
+            if (key == type) {
+                Object entry = table[i + 1];
+                if (entry == null) break;
+                return ((BoundedCache.Entry<Converter<?>>) entry).use();
+            }
+            if (key == null) break;
+        }
+        return converters.get(type);
+    }
+
+    /**
+     * @return the converter already cached for this type or the one passed in if there was none.
+     */
+    Converter<?> putIfAbsent(Type type, Converter<?> converter) {
+        BoundedCache.Entry<Converter<?>> entry = converters.putIfAbsentEntry(type, converter);
+        if (entry.value != converter) return entry.use();
+        synchronized (this) {
+            if (converters.evictIfNeeded()) reindex();
+            // the entry may have been evicted or removed in the meantime
+            else if (converters.entry(type) == entry) index(type, entry);
+        }
+        return converter;
+    }
+
+    int removeAll(BoundedCache.KeyFilter<? super Type> filter) {
+        synchronized (this) {
+            int removed = converters.removeAll(filter);
+            if (removed > 0) reindex();
+            return removed;
+        }
+    }
+
+    int size() {
+        return converters.size();
+    }
+
+    int getMaxSize() {
+        return converters.getMaxSize();
+    }
+
+    long getEvictions() {
+        return converters.getEvictions();
+    }
+
+    private void index(Type type, BoundedCache.Entry<Converter<?>> entry) {
+        Object[] table = identityTable;
+        // keep the table at most half full so the probes stay short
+        if ((identityCount + 1) * 4 > table.length) {
+            Object[] larger = grow(table);
+            insert(larger, type, entry);
+            identityTable = larger;
+        } else insert(table, type, entry);
+        identityCount++;
+    }
+
+    private void reindex() {
+        int count = 0;
+        Object[] table = new Object[INITIAL_CAPACITY * 2];
+        for (Map.Entry<Type, BoundedCache.Entry<Converter<?>>> entry : converters.entries()) {
+            if ((count + 1) * 4 > table.length) table = grow(table);
+            insert(table, entry.getKey(), entry.getValue());
+            count++;
+        }
+        identityCount = count;
+        identityTable = table;
+    }
+
+    private static Object[] grow(Object[] table) {
+        Object[] larger = new Object[table.length * 2];
+        for (int i = 0; i < table.length; i += 2)
+            if (table[i] != null) insert(larger, table[i], table[i + 1]);
+        return larger;
+    }
+
+    private static void insert(Object[] table, Object key, Object value) {
+        int mask = table.length - 2;
+        int i = (System.identityHashCode(key) << 1) & mask;
+        while (table[i] != null)
+            i = (i + 2) & mask;
+        table[i + 1] = value;
+        table[i] = key;
+    }
+}
@@ -0,0 +1,131 @@
+package com.owlike.genson;
+
+import java.io.InputStream;
+import java.io.Reader;
+
+import com.owlike.genson.stream.JsonReader;
+import com.owlike.genson.stream.ObjectReader;
+import com.owlike.genson.stream.Utf8JsonReader;
+
+/**
+ * A reusable deserializer obtained with {@link Genson#newDeserializer()}. It keeps its readers and
+ * their buffers from one call to the other, so deserializing many small documents does not
+ * allocate a new reader and buffers for each of them.
+ *
+ * <pre>
+ * DeserializationSession deserializer = genson.newDeserializer();
+ * for (byte[] message : messages)
+ * 	handle(deserializer.deserialize(message, Message.class));
+ * </pre>
+ *
+ * Sessions are not thread safe, use one session per thread. The one shot methods of Genson use
+ * sessions taken from a bounded pool.
+ *
+ * @see SerializationSession
+ */
+public final class DeserializationSession {
+    private final static byte[] EMPTY_SOURCE = new byte[0];
+
+    private final Genson genson;
+    private final StringSource stringSource = new StringSource();
+    private JsonReader charReader;
+    private Utf8JsonReader byteReader;
+
+    DeserializationSession(Genson genson) {
+        this.genson = genson;
+    }
+
+    public <T> T deserialize(String json, Class<T> toType) {
+        return deserialize(json, GenericType.of(toType));
+    }
+
+    public <T> T deserialize(String json, GenericType<T> toType) {
+        return genson.deserialize(toType, reader(json), new Context(genson));
+    }
+
+    public <T> T deserialize(byte[] json, Class<T> toType) {
+        return deserialize(json, 0, json.length, GenericType.of(toType));
+    }
+
+    public <T> T deserialize(byte[] json, GenericType<T> toType) {
+        return deserialize(json, 0, json.length, toType);
+    }
+
+    /**
+     * Deserializes the json document contained in json from offset to offset+length.
+     */
+    public <T> T deserialize(byte[] json, int offset, int length, GenericType<T> toType) {
+        return genson.deserialize(toType, reader(json, offset, length), new Context(genson));
+    }
+
+    /**
+     * As the session did not create the Reader it will not be closed.
+     */
+    public <T> T deserialize(Reader reader, GenericType<T> toType) {
+        return genson.deserialize(toType, reader(reader), new Context(genson));
+    }
+
+    /**
+     * As the session did not create the InputStream it will not be closed.
+     */
+    public <T> T deserialize(InputStream input, GenericType<T> toType) {
+        return genson.deserialize(toType, reader(input), new Context(genson));
+    }
+
+    ObjectReader reader(String json) {
+        return reader(stringSource.reset(json));
+    }
+
+    ObjectReader reader(Reader reader) {
+        if (charReader == null) charReader = (JsonReader) genson.createReader(reader);
+        else charReader.reset(reader);
+        return charReader;
+    }
+
+    ObjectReader reader(byte[] json, int offset, int length) {
+        if (byteReader == null) byteReader = (Utf8JsonReader) genson.createReader(EMPTY_SOURCE);
+        return byteReader.reset(json, offset, length);
+    }
+
+    ObjectReader reader(InputStream input) {
+        if (byteReader == null) byteReader = (Utf8JsonReader) genson.createReader(input);
+        else byteReader.reset(input);
+        return byteReader;
+    }
+
+    /**
+     * Drops the references to the last input, called before returning the session to the pool.
+     */
+    void release() {
+        if (charReader != null) charReader.reset(stringSource.reset(""));
+        if (byteReader != null) byteReader.reset(EMPTY_SOURCE, 0, 0);
+    }
+
+    /*
+     * An unsynchronized StringReader that can be reset.
+     */
+    private final static class StringSource extends Reader {
+        private String source;
+        private int position;
+
+        StringSource reset(String source) {
+            this.source = source;
+            this.position = 0;
+            return this;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            int remaining = source.length() - position;
+            if (remaining <= 0) return -1;
+            int n = Math.min(len, remaining);
+            source.getChars(position, position + n, cbuf, off);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -1,25 +1,30 @@
 package com.owlike.genson;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
-import java.io.StringReader;
-import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
 
+import com.owlike.genson.convert.RuntimeTypeCache;
+import com.owlike.genson.reflect.ASMBeanPropertyFactory;
 import com.owlike.genson.reflect.BeanDescriptorProvider;
+import com.owlike.genson.reflect.TypeUtil;
 import com.owlike.genson.stream.*;
 
 /**
@@ -64,10 +69,19 @@ public final class Genson {
 	 */
 	private final static Genson _default = new GensonBuilder().create();
 
-	private final ConcurrentHashMap<Type, Converter<?>> converterCache = new ConcurrentHashMap<Type, Converter<?>>();
+	private final ConverterCache converterCache;
+	private final ConcurrentHashMap<Type, PendingConverter> pendingConverters;
+	// the types of the converters being created by the current thread for this cache, other instances
+	// have their own so their creations do not affect each other
+	private final ThreadLocal<List<Type>> creatingTypes;
+	private final AtomicLong avoidedConverterCreations;
 	private final Factory<Converter<?>> converterFactory;
 	private final BeanDescriptorProvider beanDescriptorFactory;
 	private final Converter<Object> nullConverter;
+	private final SymbolTable symbolTable;
+	// sessions reused by the one shot serialize/deserialize methods
+	private final BoundedPool<SerializationSession> serializerPool = new BoundedPool<SerializationSession>(POOL_SIZE);
+	private final BoundedPool<DeserializationSession> deserializerPool = new BoundedPool<DeserializationSession>(POOL_SIZE);
 
 	private final Map<Class<?>, String> classAliasMap;
 	private final Map<String, Class<?>> aliasClassMap;
@@ -80,6 +94,7 @@ public final class Genson {
 	private final boolean indent;
 
 	private final static Charset UTF8_CHARSET = Charset.forName("UTF-8");
+	private final static int POOL_SIZE = Math.min(64, 2 * Runtime.getRuntime().availableProcessors());
 
 	/**
 	 * The default constructor will use the default configuration provided by the {@link GensonBuilder}.
@@ -89,7 +104,7 @@ public Genson() {
 		this(_default.converterFactory, _default.beanDescriptorFactory, _default.nullConverter,
 				_default.skipNull, _default.htmlSafe, _default.aliasClassMap,
 				_default.withClassMetadata, _default.strictDoubleParse, _default.indent,
-				_default.withMetadata);
+				_default.withMetadata, _default.converterCache.getMaxSize());
 	}
 
 	/**
@@ -132,6 +147,34 @@ public Genson(Factory<Converter<?>> converterFactory, BeanDescriptorProvider bea
 			Converter<Object> nullConverter, boolean skipNull, boolean htmlSafe,
 			Map<String, Class<?>> classAliases, boolean withClassMetadata,
 			boolean strictDoubleParse, boolean indent, boolean withMetadata) {
+		this(converterFactory, beanDescProvider, nullConverter, skipNull, htmlSafe, classAliases,
+				withClassMetadata, strictDoubleParse, indent, withMetadata,
+				GensonBuilder.DEFAULT_MAX_CACHED_CONVERTERS);
+	}
+
+	/**
+	 * Instead of using this constructor you should use {@link Builder}. The parameters are the
+	 * same as in the other constructor, plus:
+	 * 
+	 * @param maxCachedConverters
+	 *            the maximum number of converters kept in the cache, the ones not used since the
+	 *            previous eviction are evicted first, in no particular order. 0 or less means the
+	 *            cache is unbounded.
+	 */
+	public Genson(Factory<Converter<?>> converterFactory, BeanDescriptorProvider beanDescProvider,
+			Converter<Object> nullConverter, boolean skipNull, boolean htmlSafe,
+			Map<String, Class<?>> classAliases, boolean withClassMetadata,
+			boolean strictDoubleParse, boolean indent, boolean withMetadata, int maxCachedConverters) {
+		this.converterCache = new ConverterCache(maxCachedConverters);
+		this.pendingConverters = new ConcurrentHashMap<Type, PendingConverter>();
+		this.creatingTypes = new ThreadLocal<List<Type>>() {
+			@Override
+			protected List<Type> initialValue() {
+				return new ArrayList<Type>();
+			}
+		};
+		this.avoidedConverterCreations = new AtomicLong();
+		this.symbolTable = new SymbolTable();
 		this.converterFactory = converterFactory;
 		this.beanDescriptorFactory = beanDescProvider;
 		this.nullConverter = nullConverter;
@@ -148,6 +191,29 @@ public Genson(Factory<Converter<?>> converterFactory, BeanDescriptorProvider bea
 		this.withMetadata = withClassMetadata || withMetadata;
 	}
 
+	/**
+	 * Creates an instance sharing everything used to bind objects with base, see {@link #derive()}.
+	 */
+	private Genson(Genson base, boolean skipNull, boolean htmlSafe, boolean strictDoubleParse,
+			boolean indent, boolean withMetadata) {
+		this.converterCache = base.converterCache;
+		this.pendingConverters = base.pendingConverters;
+		this.creatingTypes = base.creatingTypes;
+		this.avoidedConverterCreations = base.avoidedConverterCreations;
+		this.symbolTable = base.symbolTable;
+		this.converterFactory = base.converterFactory;
+		this.beanDescriptorFactory = base.beanDescriptorFactory;
+		this.nullConverter = base.nullConverter;
+		this.aliasClassMap = base.aliasClassMap;
+		this.classAliasMap = base.classAliasMap;
+		this.withClassMetadata = base.withClassMetadata;
+		this.skipNull = skipNull;
+		this.htmlSafe = htmlSafe;
+		this.strictDoubleParse = strictDoubleParse;
+		this.indent = indent;
+		this.withMetadata = withClassMetadata || withMetadata;
+	}
+
 	/**
 	 * Provides an instance of Converter capable of handling objects of type forType.
 	 * 
@@ -160,16 +226,152 @@ public Genson(Factory<Converter<?>> converterFactory, BeanDescriptorProvider bea
 	@SuppressWarnings("unchecked")
 	public <T> Converter<T> provideConverter(Type forType) {
 		Converter<T> converter = (Converter<T>) converterCache.get(forType);
-		if (converter == null) {
-			converter = (Converter<T>) converterFactory.create(forType, this);
-			if (converter == null)
-				throw new JsonBindingException("No converter found for type " + forType);
-			if (!Boolean.TRUE.equals(ThreadLocalHolder.get("__GENOSN$DO_NOT_CACHE_CONVERTER",
-					Boolean.class))) converterCache.putIfAbsent(forType, converter);
+		if (converter == null) converter = (Converter<T>) createOnce(forType);
+		return converter;
+	}
+
+	/**
+	 * Only one thread creates the converter of a type, the other threads asking for it in the
+	 * meantime wait for its result. The threads that are already creating converters never wait,
+	 * they could wait for each other when the types depend on each other.
+	 */
+	private Converter<?> createOnce(Type forType) {
+		List<Type> creating = creatingTypes.get();
+		if (!creating.isEmpty()) return createAndCache(forType, creating);
+
+		PendingConverter pending = new PendingConverter();
+		PendingConverter existing = pendingConverters.putIfAbsent(forType, pending);
+		if (existing != null) {
+			Converter<?> converter = existing.await();
+			if (converter != null) {
+				avoidedConverterCreations.incrementAndGet();
+				return converter;
+			}
+			// interrupted while waiting or the creation failed, lets try it in this thread
+			return createAndCache(forType, creating);
+		}
+
+		Converter<?> converter = null;
+		try {
+			// the converter may have been cached after the cache miss and before putIfAbsent
+			converter = converterCache.get(forType);
+			if (converter == null) converter = createAndCache(forType, creating);
+			return converter;
+		} finally {
+			pendingConverters.remove(forType, pending);
+			pending.complete(converter);
+		}
+	}
+
+	private Converter<?> createAndCache(Type forType, List<Type> creating) {
+		// a type referencing itself gets a converter delegating to the one being created by
+		// CircularClassReferenceConverterFactory, it is usable only once the creation is done
+		if (creating.contains(forType)) return createConverter(forType);
+		creating.add(forType);
+		try {
+			Converter<?> converter = createConverter(forType);
+			// when converters are created concurrently for the same type, all use the first one
+			Converter<?> cached = converterCache.putIfAbsent(forType, converter);
+			return cached != null ? cached : converter;
+		} finally {
+			creating.remove(creating.size() - 1);
 		}
+	}
+
+	/**
+	 * @return the number of times a converter has not been created because another thread was
+	 *         already creating it.
+	 */
+	public long getAvoidedConverterCreations() {
+		return avoidedConverterCreations.get();
+	}
+
+	/**
+	 * @return the number of converters in the cache of this instance.
+	 */
+	public int getCachedConverterCount() {
+		return converterCache.size();
+	}
+
+	/**
+	 * @return the number of converters evicted from the cache because it was full.
+	 */
+	public long getConverterCacheEvictions() {
+		return converterCache.getEvictions();
+	}
+
+	/**
+	 * Removes from the caches the converters, the expanded types and the generated accessors of the
+	 * classes loaded by classLoader or one of its children, for example when a web application is
+	 * undeployed, so that they do not keep the class loader from being garbage collected. The
+	 * converters using them from other converters still in the cache are not removed.
+	 * 
+	 * @return the number of converters removed from the cache of this instance.
+	 */
+	public int releaseClassLoader(final ClassLoader classLoader) {
+		TypeUtil.removeExpandedTypes(classLoader);
+		try {
+			ASMBeanPropertyFactory.removeClassAccesses(classLoader);
+		} catch (NoClassDefFoundError e) {
+			// ASM is missing, no accessor has been generated
+		}
+		return converterCache.removeAll(new BoundedCache.KeyFilter<Type>() {
+			public boolean accept(Type type) {
+				return TypeUtil.isLoadedBy(type, classLoader);
+			}
+		});
+	}
+
+	/**
+	 * Creates a new Converter for objects of type forType, without looking for it in the cache of
+	 * converters nor storing it there. Prefer {@link #provideConverter(Type)}, this method is
+	 * intended for converters depending on a context, such as the converters of bean properties
+	 * created by a {@link com.owlike.genson.convert.ContextualFactory ContextualFactory}.
+	 * 
+	 * @param forType
+	 *            the type for which a converter is needed.
+	 * @return the new converter instance.
+	 * @throws com.owlike.genson.JsonBindingException
+	 *             if a problem occurs during converters lookup/construction.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Converter<T> createConverter(Type forType) {
+		Converter<T> converter = (Converter<T>) converterFactory.create(forType, this);
+		if (converter == null)
+			throw new JsonBindingException("No converter found for type " + forType);
 		return converter;
 	}
 
+	/**
+	 * Builds and caches the converters of all the types, so the first serializations and
+	 * deserializations of these types don't pay for it. The converters are created concurrently
+	 * on a pool of threads that is stopped once they are all done, this Genson instance can be
+	 * used in the meantime. Failures don't stop the warm up, they are part of the returned report.
+	 * 
+	 * @param types
+	 *            the types for which the converters must be ready.
+	 * @return the time spent for each type and the failures.
+	 */
+	public WarmUpReport warmUp(Collection<? extends Type> types) {
+		return new WarmUp(this).run(types);
+	}
+
+	/**
+	 * Same as {@link #warmUp(Collection)} for the classes found in the given packages and their
+	 * sub packages, looked up in the directories and jars of the context class loader. Interfaces,
+	 * annotations, anonymous and local classes are ignored as well as the classes that can not be
+	 * loaded.
+	 * 
+	 * @param packageNames
+	 *            names of the packages to scan, for example "com.mycompany.model".
+	 * @return the time spent for each type and the failures.
+	 */
+	public WarmUpReport warmUp(String... packageNames) {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		if (classLoader == null) classLoader = Genson.class.getClassLoader();
+		return warmUp(WarmUp.scan(classLoader, packageNames));
+	}
+
 	/**
 	 * Serializes the object into a json string.
 	 * 
@@ -180,13 +382,12 @@ public <T> Converter<T> provideConverter(Type forType) {
 	 * @throws JsonStreamException if there was a problem during writing of the object to the output.
 	 */
 	public String serialize(Object object) {
-		StringWriter sw = new StringWriter();
-		ObjectWriter writer = createWriter(sw);
-
-        if (object == null) serializeNull(writer);
-		else serialize(object, object.getClass(), writer, new Context(this));
-
-		return sw.toString();
+		SerializationSession session = borrowSerializer();
+		try {
+			return session.serialize(object);
+		} finally {
+			release(session);
+		}
 	}
 
 	/**
@@ -201,13 +402,12 @@ public String serialize(Object object) {
 	 * @throws JsonStreamException
 	 */
 	public String serialize(Object object, GenericType<?> type) {
-		StringWriter sw = new StringWriter();
-		ObjectWriter writer = createWriter(sw);
-
-        if (object == null) serializeNull(writer);
-		else serialize(object, type.getType(), writer, new Context(this));
-
-		return sw.toString();
+		SerializationSession session = borrowSerializer();
+		try {
+			return session.serialize(object, type);
+		} finally {
+			release(session);
+		}
 	}
 
 	/**
@@ -222,17 +422,16 @@ public String serialize(Object object, GenericType<?> type) {
 	 * @throws com.owlike.genson.stream.JsonStreamException
 	 */
 	public String serialize(Object object, Class<? extends BeanView<?>> firstView, Class<? extends BeanView<?>>... withViews) {
-		StringWriter sw = new StringWriter();
-		ObjectWriter writer = createWriter(sw);
-
         List<Class<? extends BeanView<?>>> views = new ArrayList(withViews.length);
         for (Class<? extends BeanView<?>> view : withViews) views.add(view);
         views.add(firstView);
 
-        if (object == null) serializeNull(writer);
-		else serialize(object, object.getClass(), writer, new Context(this, views));
-
-		return sw.toString();
+		SerializationSession session = borrowSerializer();
+		try {
+			return session.serialize(object, null, new Context(this, views));
+		} finally {
+			release(session);
+		}
 	}
 
 	/**
@@ -240,34 +439,71 @@ public String serialize(Object object, Class<? extends BeanView<?>> firstView, C
      * responsible of calling close on it.
 	 */
 	public void serialize(Object object, Writer writer) {
-		ObjectWriter objectWriter = createWriter(writer);
-
-        if (object == null) serializeNull(objectWriter);
-		else serialize(object, object.getClass(), objectWriter, new Context(this));
-    }
+		SerializationSession session = borrowSerializer();
+		try {
+			session.serialize(object, writer);
+		} finally {
+			release(session);
+		}
+	}
 
 	/**
 	 * Serializes this object to the passed OutputStream, as Genson did not instantiate it, you are
 	 * responsible of calling close on it.
 	 */
 	public void serialize(Object object, OutputStream output) {
-		ObjectWriter objectWriter = createWriter(output);
+		SerializationSession session = borrowSerializer();
+		try {
+			session.serialize(object, output);
+		} finally {
+			release(session);
+		}
+	}
 
-        if (object == null) serializeNull(objectWriter);
-		else serialize(object, object.getClass(), objectWriter, new Context(this));
+	/**
+	 * Serializes the values one per line (json lines) to the passed OutputStream, UTF8 encoded.
+	 * Each value is serialized with the converter of its runtime type, the same writer and buffer
+	 * are used for all of them and the output is flushed only once at the end. As Genson did not
+	 * instantiate the stream, you are responsible of calling close on it.
+	 */
+	public void serializeValues(Iterator<?> values, OutputStream output) {
+		serializeValues(values, (ExtendedObjectWriter) createWriter(output));
 	}
 
 	/**
-	 * Serializes this object to its json form in a byte array.
+	 * Same as {@link #serializeValues(Iterator, OutputStream)} but writes to a Writer.
 	 */
-	public byte[] serializeBytes(Object object) {
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		ObjectWriter objectWriter = createWriter(baos);
+	public void serializeValues(Iterator<?> values, Writer writer) {
+		serializeValues(values, (ExtendedObjectWriter) createWriter(writer));
+	}
 
-        if (object == null) serializeNull(objectWriter);
-		else serialize(object, object.getClass(), objectWriter, new Context(this));
+	private void serializeValues(Iterator<?> values, ExtendedObjectWriter writer) {
+		RuntimeTypeCache converters = new RuntimeTypeCache();
+		Context ctx = new Context(this);
+		while (values.hasNext()) {
+			Object value = values.next();
+			try {
+				if (value == null) nullConverter.serialize(null, writer, ctx);
+				else converters.serialize(value, writer, ctx);
+			} catch (Exception e) {
+				throw new JsonBindingException("Failed to serialize object of type "
+						+ (value == null ? null : value.getClass()), e);
+			}
+			writer.nextRootValue();
+		}
+		writer.flush();
+	}
 
-		return baos.toByteArray();
+	/**
+	 * Serializes this object to its json form in a byte array.
+	 */
+	public byte[] serializeBytes(Object object) {
+		SerializationSession session = borrowSerializer();
+		try {
+			return session.serializeBytes(object);
+		} finally {
+			release(session);
+		}
 	}
 
     /**
@@ -319,8 +555,7 @@ private void serializeNull(ObjectWriter writer) {
 	 * @throws JsonStreamException
 	 */
 	public <T> T deserialize(String fromSource, Class<T> toClass) {
-		return deserialize(GenericType.of(toClass), createReader(new StringReader(fromSource)),
-				new Context(this));
+		return deserialize(fromSource, GenericType.of(toClass));
 	}
 
 	/**
@@ -336,7 +571,12 @@ public <T> T deserialize(String fromSource, Class<T> toClass) {
 	 * @throws JsonStreamException
 	 */
 	public <T> T deserialize(String fromSource, GenericType<T> toType) {
-		return deserialize(toType, createReader(new StringReader(fromSource)), new Context(this));
+		DeserializationSession session = borrowDeserializer();
+		try {
+			return session.deserialize(fromSource, toType);
+		} finally {
+			release(session);
+		}
 	}
 
 	/**
@@ -344,7 +584,12 @@ public <T> T deserialize(String fromSource, GenericType<T> toType) {
      * Genson did not create the instance of Reader so it will not be closed
 	 */
 	public <T> T deserialize(Reader reader, GenericType<T> toType) {
-		return deserialize(toType, createReader(reader), new Context(this));
+		DeserializationSession session = borrowDeserializer();
+		try {
+			return session.deserialize(reader, toType);
+		} finally {
+			release(session);
+		}
 	}
 
 	/**
@@ -352,7 +597,7 @@ public <T> T deserialize(Reader reader, GenericType<T> toType) {
      * Genson did not create the instance of Reader so it will not be closed
      */
 	public <T> T deserialize(Reader reader, Class<T> toType) {
-		return deserialize(GenericType.of(toType), createReader(reader), new Context(this));
+		return deserialize(reader, GenericType.of(toType));
 	}
 
 	/**
@@ -360,7 +605,7 @@ public <T> T deserialize(Reader reader, Class<T> toType) {
      * Genson did not create the instance of InputStream so it will not be closed
      */
 	public <T> T deserialize(InputStream input, Class<T> toType) {
-		return deserialize(GenericType.of(toType), createReader(input), new Context(this));
+		return deserialize(input, GenericType.of(toType));
 	}
 
 	/**
@@ -368,37 +613,131 @@ public <T> T deserialize(InputStream input, Class<T> toType) {
      * Genson did not create the instance of InputStream so it will not be closed.
      */
 	public <T> T deserialize(InputStream input, GenericType<T> toType) {
-		return deserialize(toType, createReader(input), new Context(this));
+		DeserializationSession session = borrowDeserializer();
+		try {
+			return session.deserialize(input, toType);
+		} finally {
+			release(session);
+		}
 	}
 
 	/**
      * Deserializes the incoming json byte array into an instance of T.
      */
 	public <T> T deserialize(byte[] input, Class<T> toType) {
-		return deserialize(GenericType.of(toType), createReader(input), new Context(this));
+		return deserialize(input, GenericType.of(toType));
 	}
 
 	/**
      * Deserializes the incoming json byte array into an instance of T.
      */
 	public <T> T deserialize(byte[] input, GenericType<T> toType) {
-		return deserialize(toType, createReader(input), new Context(this));
+		DeserializationSession session = borrowDeserializer();
+		try {
+			return session.deserialize(input, toType);
+		} finally {
+			release(session);
+		}
+	}
+
+	/**
+	 * Deserializes the UTF8 encoded json content of this file into an instance of T. The file is
+	 * memory mapped, see {@link MappedFileInputStream}.
+	 */
+	public <T> T deserialize(File file, Class<T> toType) {
+		return deserialize(file, GenericType.of(toType));
+	}
+
+	/**
+	 * Deserializes the UTF8 encoded json content of this file into an instance of T. The file is
+	 * memory mapped, see {@link MappedFileInputStream}.
+	 */
+	public <T> T deserialize(File file, GenericType<T> toType) {
+		InputStream input = openMapped(file);
+		try {
+			return deserialize(input, toType);
+		} finally {
+			try {
+				input.close();
+			} catch (IOException e) {
+				throw new JsonStreamException(e);
+			}
+		}
+	}
+
+	/**
+	 * Lazily deserializes the root values contained in the UTF8 encoded input, they can be
+	 * separated by any whitespace such as in json lines (one value per line) or concatenated json
+	 * documents. Each call to next on the iterator reads and deserializes the next value. Genson
+	 * did not create the instance of InputStream so it will not be closed.
+	 */
+	public <T> Iterator<T> deserializeValues(InputStream input, Class<T> toType) {
+		return deserializeValues(input, GenericType.of(toType));
+	}
+
+	/**
+	 * @see #deserializeValues(InputStream, Class)
+	 */
+	public <T> Iterator<T> deserializeValues(InputStream input, GenericType<T> toType) {
+		return new RootValuesIterator<T>(this, toType, (ExtendedObjectReader) createReader(input));
+	}
+
+	/**
+	 * @see #deserializeValues(InputStream, Class)
+	 */
+	public <T> Iterator<T> deserializeValues(Reader reader, Class<T> toType) {
+		return deserializeValues(reader, GenericType.of(toType));
+	}
+
+	/**
+	 * @see #deserializeValues(InputStream, Class)
+	 */
+	public <T> Iterator<T> deserializeValues(Reader reader, GenericType<T> toType) {
+		return new RootValuesIterator<T>(this, toType, (ExtendedObjectReader) createReader(reader));
+	}
+
+	/**
+	 * Deserializes the values of a json lines file (one value per line) on as many threads as
+	 * there are available processors and gives them to the sink, see {@link ParallelValuesReader}
+	 * to configure the threads and the size of the chunks read by each thread.
+	 *
+	 * @param ordered true if the values must be given to the sink in the order of the file, from
+	 *        the calling thread. Otherwise they are given concurrently from the reading threads.
+	 * @return the number of values read.
+	 */
+	public <T> long deserializeValues(File file, Class<T> toType, ValueSink<? super T> sink, boolean ordered) {
+		return deserializeValues(file, GenericType.of(toType), sink, ordered);
+	}
+
+	/**
+	 * @see #deserializeValues(File, Class, ValueSink, boolean)
+	 */
+	public <T> long deserializeValues(File file, GenericType<T> toType, ValueSink<? super T> sink,
+			boolean ordered) {
+		return new ParallelValuesReader(this).read(file, toType, sink, ordered);
 	}
 
 	public <T> T deserialize(String fromSource, GenericType<T> toType, Class<? extends BeanView<?>>... withViews) {
-		StringReader reader = new StringReader(fromSource);
-		return deserialize(toType, createReader(reader),
-				new Context(this, Arrays.asList(withViews)));
+		DeserializationSession session = borrowDeserializer();
+		try {
+			return deserialize(toType, session.reader(fromSource),
+					new Context(this, Arrays.asList(withViews)));
+		} finally {
+			release(session);
+		}
 	}
 
 	public <T> T deserialize(String fromSource, Class<T> toType, Class<? extends BeanView<?>>... withViews) {
-		StringReader reader = new StringReader(fromSource);
-		return deserialize(GenericType.of(toType), createReader(reader),
-				new Context(this, Arrays.asList(withViews)));
+		return deserialize(fromSource, GenericType.of(toType), withViews);
 	}
 
 	public <T> T deserialize(GenericType<T> type, Reader reader, Class<? extends BeanView<?>>... withViews) {
-		return deserialize(type, createReader(reader), new Context(this, Arrays.asList(withViews)));
+		DeserializationSession session = borrowDeserializer();
+		try {
+			return deserialize(type, session.reader(reader), new Context(this, Arrays.asList(withViews)));
+		} finally {
+			release(session);
+		}
 	}
 
 	public <T> T deserialize(GenericType<T> type, ObjectReader reader, Context ctx) {
@@ -410,6 +749,63 @@ public <T> T deserialize(GenericType<T> type, ObjectReader reader, Context ctx)
         }
     }
 
+	/**
+	 * Creates a new serializer that can be reused for many serializations, it keeps its buffers
+	 * from one call to the other. Sessions are not thread safe, use one per thread.
+	 *
+	 * @see SerializationSession
+	 */
+	public SerializationSession newSerializer() {
+		return new SerializationSession(this);
+	}
+
+	/**
+	 * Creates a new deserializer that can be reused for many deserializations, it keeps its
+	 * buffers from one call to the other. Sessions are not thread safe, use one per thread.
+	 *
+	 * @see DeserializationSession
+	 */
+	public DeserializationSession newDeserializer() {
+		return new DeserializationSession(this);
+	}
+
+	/**
+	 * Creates a deserializer of UTF8 encoded json fed chunk by chunk, it never blocks waiting for
+	 * input and deserializes each root value once all its bytes have been fed.
+	 *
+	 * @see NonBlockingDeserializer
+	 */
+	public <T> NonBlockingDeserializer<T> newNonBlockingDeserializer(Class<T> toType) {
+		return newNonBlockingDeserializer(GenericType.of(toType));
+	}
+
+	/**
+	 * @see #newNonBlockingDeserializer(Class)
+	 */
+	public <T> NonBlockingDeserializer<T> newNonBlockingDeserializer(GenericType<T> toType) {
+		return new NonBlockingDeserializer<T>(this, toType, createNonBlockingReader());
+	}
+
+	private SerializationSession borrowSerializer() {
+		SerializationSession session = serializerPool.poll();
+		return session != null ? session : new SerializationSession(this);
+	}
+
+	private void release(SerializationSession session) {
+		session.release();
+		serializerPool.offer(session);
+	}
+
+	private DeserializationSession borrowDeserializer() {
+		DeserializationSession session = deserializerPool.poll();
+		return session != null ? session : new DeserializationSession(this);
+	}
+
+	private void release(DeserializationSession session) {
+		session.release();
+		deserializerPool.offer(session);
+	}
+
 	/**
 	 * Searches if an alias has been registered for clazz. If not will take the class full name and
 	 * use it as alias. This method never returns null.
@@ -447,13 +843,15 @@ public Class<?> classFor(String alias) throws ClassNotFoundException {
 	 * UTF8.
 	 */
 	public ObjectWriter createWriter(OutputStream os) {
-		return new JsonWriter(new OutputStreamWriter(os, UTF8_CHARSET), skipNull, htmlSafe, indent);
+		return new Utf8JsonWriter(os, skipNull, htmlSafe, indent);
 	}
 
 	/**
-	 * Creates a new ObjectWriter with this Genson instance configuration.
+	 * Creates a new ObjectWriter with this Genson instance configuration. If the charset is UTF8
+	 * the bytes will be written directly by a {@link Utf8JsonWriter}.
 	 */
 	public ObjectWriter createWriter(OutputStream os, Charset charset) {
+		if (UTF8_CHARSET.equals(charset)) return createWriter(os);
 		return createWriter(new OutputStreamWriter(os, charset));
 	}
 
@@ -465,10 +863,32 @@ public ObjectWriter createWriter(Writer writer) {
 	}
 
 	/**
-	 * Creates a new ObjectWriter with this Genson instance configuration.
+	 * Creates a new ObjectReader with this Genson instance configuration, the content is expected
+	 * to be UTF8 encoded. The array is read in place, it is not copied.
 	 */
 	public ObjectReader createReader(byte[] in) {
-		return createReader(new ByteArrayInputStream(in));
+		return createReader(in, 0, in.length);
+	}
+
+	Utf8JsonReader createReader(byte[] in, int offset, int length) {
+		return new Utf8JsonReader(in, offset, length, strictDoubleParse, withMetadata, symbolTable);
+	}
+
+	/**
+	 * Creates a new ObjectReader with this Genson instance configuration reading the UTF8 encoded
+	 * content of this file. The file is memory mapped, see {@link MappedFileInputStream}, and
+	 * errors report the byte offset where they occurred. Closing the reader closes the file.
+	 */
+	public ObjectReader createReader(File file) {
+		return createReader(openMapped(file));
+	}
+
+	private InputStream openMapped(File file) {
+		try {
+			return new MappedFileInputStream(file);
+		} catch (IOException e) {
+			throw new JsonStreamException(e);
+		}
 	}
 
 	/**
@@ -476,13 +896,15 @@ public ObjectReader createReader(byte[] in) {
 	 * UTF8.
 	 */
 	public ObjectReader createReader(InputStream is) {
-		return createReader(is, UTF8_CHARSET);
+		return new Utf8JsonReader(is, strictDoubleParse, withMetadata, symbolTable);
 	}
 
 	/**
-	 * Creates a new ObjectReader with this Genson instance configuration.
+	 * Creates a new ObjectReader with this Genson instance configuration. If the charset is UTF8
+	 * the bytes will be read directly by a {@link Utf8JsonReader}.
 	 */
 	public ObjectReader createReader(InputStream is, Charset charset) {
+		if (UTF8_CHARSET.equals(charset)) return createReader(is);
 		return createReader(new InputStreamReader(is, charset));
 	}
 
@@ -490,7 +912,14 @@ public ObjectReader createReader(InputStream is, Charset charset) {
 	 * Creates a new ObjectReader with this Genson instance configuration.
 	 */
 	public ObjectReader createReader(Reader reader) {
-		return new JsonReader(reader, strictDoubleParse, withMetadata);
+		return new JsonReader(reader, strictDoubleParse, withMetadata, symbolTable);
+	}
+
+	/**
+	 * Creates a new NonBlockingJsonReader with this Genson instance configuration.
+	 */
+	public NonBlockingJsonReader createNonBlockingReader() {
+		return new NonBlockingJsonReader(strictDoubleParse, withMetadata, symbolTable);
 	}
 
 	public boolean isSkipNull() {
@@ -509,10 +938,110 @@ public BeanDescriptorProvider getBeanDescriptorFactory() {
 		return beanDescriptorFactory;
 	}
 
+	/**
+	 * The table of canonical property names used by the readers created by this instance. Converters
+	 * can canonicalize the names they expect with it and then compare them by identity with the
+	 * names returned by {@link ObjectReader#name()}.
+	 */
+	public SymbolTable getSymbolTable() {
+		return symbolTable;
+	}
+
 	public Converter<Object> getNullConverter() {
 		return nullConverter;
 	}
 
+	/**
+	 * Starts the configuration of a new Genson instance that differs from this one only by the
+	 * settings of its readers and writers. As these settings do not change how objects are bound,
+	 * the new instance shares the converters, their cache and the bean descriptors with this one,
+	 * nothing is created again. For example:
+	 * 
+	 * <pre>
+	 * Genson indented = genson.derive().useIndentation(true).setSkipNull(true).create();
+	 * </pre>
+	 * 
+	 * The settings start with the values of this instance. To change how objects are bound, use a
+	 * {@link GensonBuilder}.
+	 */
+	public DerivedBuilder derive() {
+		return new DerivedBuilder(this);
+	}
+
+	/**
+	 * @return true if this instance and other use the same converters, because one has been
+	 *         derived from the other or both from the same instance.
+	 * @see #derive()
+	 */
+	public boolean sharesConvertersWith(Genson other) {
+		return other != null && converterCache == other.converterCache;
+	}
+
+	/**
+	 * Configures a Genson instance derived from another one, see {@link Genson#derive()}.
+	 */
+	public static final class DerivedBuilder {
+		private final Genson base;
+		private boolean skipNull;
+		private boolean htmlSafe;
+		private boolean strictDoubleParse;
+		private boolean indent;
+		private boolean metadata;
+
+		DerivedBuilder(Genson base) {
+			this.base = base;
+			this.skipNull = base.skipNull;
+			this.htmlSafe = base.htmlSafe;
+			this.strictDoubleParse = base.strictDoubleParse;
+			this.indent = base.indent;
+			this.metadata = base.withMetadata;
+		}
+
+		/**
+		 * @see GensonBuilder#setSkipNull(boolean)
+		 */
+		public DerivedBuilder setSkipNull(boolean skipNull) {
+			this.skipNull = skipNull;
+			return this;
+		}
+
+		/**
+		 * @see GensonBuilder#setHtmlSafe(boolean)
+		 */
+		public DerivedBuilder setHtmlSafe(boolean htmlSafe) {
+			this.htmlSafe = htmlSafe;
+			return this;
+		}
+
+		/**
+		 * @see GensonBuilder#useStrictDoubleParse(boolean)
+		 */
+		public DerivedBuilder useStrictDoubleParse(boolean strictDoubleParse) {
+			this.strictDoubleParse = strictDoubleParse;
+			return this;
+		}
+
+		/**
+		 * @see GensonBuilder#useIndentation(boolean)
+		 */
+		public DerivedBuilder useIndentation(boolean indent) {
+			this.indent = indent;
+			return this;
+		}
+
+		/**
+		 * @see GensonBuilder#useMetadata(boolean)
+		 */
+		public DerivedBuilder useMetadata(boolean metadata) {
+			this.metadata = metadata;
+			return this;
+		}
+
+		public Genson create() {
+			return new Genson(base, skipNull, htmlSafe, strictDoubleParse, indent, metadata);
+		}
+	}
+
     /**
      * @deprecated use GensonBuilder
      */
@@ -520,4 +1049,28 @@ public Converter<Object> getNullConverter() {
 	public static class Builder extends GensonBuilder {
 
 	}
+
+	private final static class PendingConverter {
+		private final CountDownLatch done = new CountDownLatch(1);
+		private volatile Converter<?> converter;
+
+		void complete(Converter<?> converter) {
+			this.converter = converter;
+			done.countDown();
+		}
+
+		/**
+		 * @return the created converter or null if its creation failed or this thread has been
+		 *         interrupted.
+		 */
+		Converter<?> await() {
+			try {
+				done.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			return converter;
+		}
+	}
 }
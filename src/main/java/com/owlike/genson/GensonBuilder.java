@@ -1,5 +1,6 @@
 package com.owlike.genson;
 
+import com.owlike.genson.apt.ConverterRegistry;
 import com.owlike.genson.convert.*;
 import com.owlike.genson.ext.GensonBundle;
 import com.owlike.genson.reflect.*;
@@ -30,6 +31,8 @@
  * @author eugen
  */
 public class GensonBuilder {
+    final static int DEFAULT_MAX_CACHED_CONVERTERS = 4096;
+
     private final Map<Type, Serializer<?>> serializersMap = new HashMap<Type, Serializer<?>>();
     private final Map<Type, Deserializer<?>> deserializersMap = new HashMap<Type, Deserializer<?>>();
     private final List<Factory<?>> converterFactories = new ArrayList<Factory<?>>();
@@ -48,6 +51,10 @@ public class GensonBuilder {
     private boolean strictDoubleParse = false;
     private boolean indent = false;
     private boolean metadata = false;
+    private boolean generatedAccessors = false;
+    private boolean generatedSerializers = false;
+    private boolean generatedConverters = true;
+    private int maxCachedConverters = DEFAULT_MAX_CACHED_CONVERTERS;
 
     private List<GensonBundle> _bundles = new ArrayList<GensonBundle>();
 
@@ -544,6 +551,68 @@ public GensonBuilder useConstructorWithArguments(boolean enabled) {
         return this;
     }
 
+    /**
+     * If true, the properties of public classes will be accessed through classes generated with
+     * ASM instead of reflection, see {@link com.owlike.genson.reflect.ASMBeanPropertyFactory
+     * ASMBeanPropertyFactory}. Disabled by default.
+     *
+     * @param enabled
+     * @return a reference to this builder.
+     */
+    public GensonBuilder useGeneratedAccessors(boolean enabled) {
+        this.generatedAccessors = enabled;
+        return this;
+    }
+
+    /**
+     * If true, a serializer writing all the properties in a single method will be generated with
+     * ASM for each bean class, see {@link com.owlike.genson.reflect.ASMBeanDescriptorProvider
+     * ASMBeanDescriptorProvider}. The produced json does not change. Disabled by default.
+     *
+     * @param enabled
+     * @return a reference to this builder.
+     */
+    public GensonBuilder useGeneratedSerializers(boolean enabled) {
+        this.generatedSerializers = enabled;
+        return this;
+    }
+
+    /**
+     * If true, the converters generated at compile time for the classes annotated with
+     * {@link com.owlike.genson.annotation.JsonSerializable JsonSerializable} are registered, see
+     * {@link com.owlike.genson.apt.ConverterProcessor ConverterProcessor}. They are discovered
+     * through the {@link com.owlike.genson.apt.ConverterRegistry ConverterRegistry} services
+     * available in the context class loader. As they follow the default rules, they are not used if
+     * you change how the properties are resolved (name or accessor resolvers, visibility filters,
+     * contextual factories, bean property factories, use of fields or methods). Converters
+     * registered with {@link #withConverters(Converter...)} are preferred. Enabled by default, the
+     * registries exist only if the processor was enabled in the compilation of the annotated
+     * classes, which is the actual opt-in.
+     *
+     * @param enabled
+     * @return a reference to this builder.
+     */
+    public GensonBuilder useGeneratedConverters(boolean enabled) {
+        this.generatedConverters = enabled;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of converters kept in the cache of the Genson instance, 4096 by
+     * default. When the cache is full the converters not used since the previous eviction are
+     * evicted first, in no particular order, then the ones created since then and not used yet.
+     * They are created again if needed. Use 0 or less for an unbounded cache. The size of the cache and the
+     * number of evictions are available through {@link Genson#getCachedConverterCount()} and
+     * {@link Genson#getConverterCacheEvictions()}.
+     *
+     * @param maxCachedConverters
+     * @return a reference to this builder.
+     */
+    public GensonBuilder setMaxCachedConverters(int maxCachedConverters) {
+        this.maxCachedConverters = maxCachedConverters;
+        return this;
+    }
+
     /**
      * Sets the null converter that should be used to handle null object values. If the
      * converter is called you are guaranteed that the value is null (for both, ser and deser).
@@ -613,6 +682,8 @@ public Genson create() {
         for (GensonBundle bundle : _bundles)
             bundle.configure(this);
 
+        if (generatedConverters && useDefaultPropertyRules()) addGeneratedConverters();
+
         if (nullConverter == null) nullConverter = new NullConverter();
         if (propertyNameResolver == null) propertyNameResolver = createPropertyNameResolver();
         if (mutatorAccessorResolver == null) mutatorAccessorResolver = createBeanMutatorAccessorResolver();
@@ -690,7 +761,28 @@ protected Genson create(Factory<Converter<?>> converterFactory,
                             Map<String, Class<?>> classAliases) {
         return new Genson(converterFactory, getBeanDescriptorProvider(), nullConverter,
                 isSkipNull(), isHtmlSafe(), classAliases, withClassMetadata,
-                strictDoubleParse, indent, metadata);
+                strictDoubleParse, indent, metadata, maxCachedConverters);
+    }
+
+    private boolean useDefaultPropertyRules() {
+        return propertyNameResolver == null && mutatorAccessorResolver == null && useFields && useGettersAndSetters
+                && propertyFilter == VisibilityFilter.PACKAGE_PUBLIC && methodFilter == VisibilityFilter.PACKAGE_PUBLIC
+                && constructorFilter == VisibilityFilter.PACKAGE_PUBLIC && contextualFactories.isEmpty()
+                && beanPropertyFactories.isEmpty();
+    }
+
+    private void addGeneratedConverters() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) classLoader = GensonBuilder.class.getClassLoader();
+        for (ConverterRegistry registry : ServiceLoader.load(ConverterRegistry.class, classLoader)) {
+            for (Map.Entry<Class<?>, Converter<?>> entry : registry.converters().entrySet()) {
+                // custom converters have priority
+                if (!serializersMap.containsKey(entry.getKey()) && !deserializersMap.containsKey(entry.getKey())) {
+                    serializersMap.put(entry.getKey(), entry.getValue());
+                    deserializersMap.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
     }
 
     /**
@@ -705,6 +797,8 @@ protected Factory<Converter<?>> createConverterFactory() {
         ChainedFactory chainHead = new CircularClassReferenceConverterFactory();
         ChainedFactory chainTail = chainHead;
 
+        // merges the null, runtime type and class metadata wrappers created by the next factories
+        chainTail = chainTail.withNext(new FusedConverter.FusedConverterFactory());
         chainTail = chainTail.withNext(new NullConverter.NullConverterFactory());
 
         if (useRuntimeTypeForSerialization) chainTail = chainTail
@@ -846,10 +940,17 @@ protected BeanDescriptorProvider createBeanDescriptorProvider() {
             if (provider != null) providers.add(provider);
         }
 
-        providers.add(new BaseBeanDescriptorProvider(
-                new AbstractBeanDescriptorProvider.ContextualConverterFactory(contextualFactories),
-                createBeanPropertyFactory(), getMutatorAccessorResolver(), getPropertyNameResolver(),
-                useGettersAndSetters, useFields, true));
+        if (generatedSerializers) {
+            providers.add(new ASMBeanDescriptorProvider(
+                    new AbstractBeanDescriptorProvider.ContextualConverterFactory(contextualFactories),
+                    createBeanPropertyFactory(), getMutatorAccessorResolver(), getPropertyNameResolver(),
+                    useGettersAndSetters, useFields, true));
+        } else {
+            providers.add(new BaseBeanDescriptorProvider(
+                    new AbstractBeanDescriptorProvider.ContextualConverterFactory(contextualFactories),
+                    createBeanPropertyFactory(), getMutatorAccessorResolver(), getPropertyNameResolver(),
+                    useGettersAndSetters, useFields, true));
+        }
 
         return new CompositeBeanDescriptorProvider(providers);
     }
@@ -858,6 +959,7 @@ protected BeanPropertyFactory createBeanPropertyFactory() {
         if (withBeanViewConverter)
             beanPropertyFactories.add(new BeanViewDescriptorProvider.BeanViewPropertyFactory(
                     registeredViews));
+        if (generatedAccessors) beanPropertyFactories.add(new ASMBeanPropertyFactory());
         beanPropertyFactories.add(new BeanPropertyFactory.StandardFactory());
         return new BeanPropertyFactory.CompositeFactory(beanPropertyFactories);
     }
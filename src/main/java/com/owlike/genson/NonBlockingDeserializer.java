@@ -0,0 +1,88 @@
+package com.owlike.genson;
+
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+
+import com.owlike.genson.stream.NonBlockingJsonReader;
+
+/**
+ * Deserializes instances of T from UTF8 encoded json fed chunk by chunk, without ever blocking to
+ * wait for input. The json may contain many root values separated by whitespaces, each one is
+ * deserialized once all its bytes have been fed. Use
+ * {@link Genson#newNonBlockingDeserializer(GenericType)} to create one.
+ *
+ * <pre>
+ * NonBlockingDeserializer&lt;Event&gt; events = genson.newNonBlockingDeserializer(GenericType.of(Event.class));
+ * // each time some bytes are received
+ * events.feed(buffer);
+ * while (events.hasNext())
+ *     handle(events.next());
+ * // once the connection is closed
+ * events.endOfInput();
+ * while (events.hasNext())
+ *     handle(events.next());
+ * </pre>
+ *
+ * This class is not thread safe, use one instance per input.
+ *
+ * @see NonBlockingJsonReader
+ */
+public final class NonBlockingDeserializer<T> {
+    private final Genson genson;
+    private final GenericType<T> type;
+    private final NonBlockingJsonReader reader;
+    private NonBlockingJsonReader.Status status;
+
+    NonBlockingDeserializer(Genson genson, GenericType<T> type, NonBlockingJsonReader reader) {
+        this.genson = genson;
+        this.type = type;
+        this.reader = reader;
+    }
+
+    /**
+     * Appends the remaining bytes of chunk to the input, the chunk is consumed but not kept.
+     */
+    public NonBlockingDeserializer<T> feed(ByteBuffer chunk) {
+        reader.feed(chunk);
+        if (status != NonBlockingJsonReader.Status.VALUE) status = null;
+        return this;
+    }
+
+    /**
+     * Tells that all the input has been fed, the last value will be available even if it is a
+     * literal not followed by a whitespace.
+     */
+    public NonBlockingDeserializer<T> endOfInput() {
+        reader.endOfInput();
+        if (status != NonBlockingJsonReader.Status.VALUE) status = null;
+        return this;
+    }
+
+    /**
+     * @return true if a complete value can be deserialized with {@link #next()}.
+     * @throws com.owlike.genson.stream.JsonStreamException if the input is malformed.
+     */
+    public boolean hasNext() {
+        if (status == null) status = reader.next();
+        return status == NonBlockingJsonReader.Status.VALUE;
+    }
+
+    /**
+     * @return true if the end of input has been reached and all the values have been read.
+     */
+    public boolean isFinished() {
+        hasNext();
+        return status == NonBlockingJsonReader.Status.END_OF_INPUT;
+    }
+
+    /**
+     * Deserializes the next complete value.
+     *
+     * @throws NoSuchElementException if no value is complete yet, see {@link #hasNext()}.
+     */
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        status = null;
+        return genson.deserialize(type, reader.reader(), new Context(genson));
+    }
+}
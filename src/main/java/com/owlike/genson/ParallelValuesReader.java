@@ -0,0 +1,238 @@
+package com.owlike.genson;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.owlike.genson.stream.JsonStreamException;
+import com.owlike.genson.stream.Utf8JsonReader;
+
+/**
+ * Deserializes the values of a large json lines file (one UTF8 encoded value per line) on many
+ * threads. The file is split in chunks of about chunkSize bytes ending on a new line, each chunk is
+ * read into a buffer reused by its thread and parsed by its own reader on a pool of daemon threads,
+ * the values being deserialized with the converters of the Genson instance which are shared by all
+ * the threads.
+ * <p>
+ * The values are given to a {@link ValueSink}, either in the order of the file or as soon as they
+ * are deserialized, in which case the sink is called concurrently. At most two chunks per thread
+ * are read ahead of the sink, so the memory used does not depend on the size of the file.
+ * <p>
+ * As the chunks are split on new lines the values must not contain new lines, other than escaped
+ * ones in strings, which is always the case in json lines files.
+ *
+ * <pre>
+ * long count = new ParallelValuesReader(genson).setThreads(8).read(file, GenericType.of(Event.class),
+ *         new ValueSink&lt;Event&gt;() {
+ *             public void accept(Event event) {
+ *                 ...
+ *             }
+ *         }, false);
+ * </pre>
+ */
+public final class ParallelValuesReader {
+    public final static int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private final static AtomicInteger _poolCount = new AtomicInteger();
+
+    private final Genson genson;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    public ParallelValuesReader(Genson genson) {
+        this.genson = genson;
+    }
+
+    /**
+     * @param threads the number of threads reading the chunks, defaults to the number of
+     *        available processors.
+     */
+    public ParallelValuesReader setThreads(int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * @param chunkSize the approximate size in bytes of the chunks read by each thread, they are
+     *        extended to the end of their last line.
+     */
+    public ParallelValuesReader setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive");
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Reads all the values of the file and gives them to the sink.
+     *
+     * @param ordered true if the values must be given to the sink in the order of the file, from
+     *        the calling thread. Otherwise they are given concurrently from the reading threads.
+     * @return the number of values read.
+     * @throws JsonBindingException if a value could not be read, the message contains its byte
+     *         offset. The values of the chunks that were not read yet are not given to the sink.
+     */
+    public <T> long read(File file, GenericType<T> type, ValueSink<? super T> sink, boolean ordered) {
+        RandomAccessFile input;
+        try {
+            input = new RandomAccessFile(file, "r");
+        } catch (IOException e) {
+            throw new JsonStreamException(e);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ReaderThreadFactory());
+        LinkedList<Future<Chunk<T>>> pending = new LinkedList<Future<Chunk<T>>>();
+        try {
+            FileChannel channel = input.getChannel();
+            long size = channel.size();
+            ThreadLocal<byte[]> buffers = new ThreadLocal<byte[]>();
+            long count = 0;
+            for (long start = 0; start < size;) {
+                long end = lineEnd(channel, Math.min(start + chunkSize, size), size);
+                pending.add(executor.submit(new ChunkReader<T>(channel, start, end, type,
+                        ordered ? null : sink, buffers)));
+                start = end;
+                if (pending.size() >= threads * 2) count += complete(pending.removeFirst(), sink);
+            }
+            while (!pending.isEmpty())
+                count += complete(pending.removeFirst(), sink);
+            return count;
+        } catch (IOException e) {
+            throw new JsonStreamException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonBindingException("Interrupted while reading " + file, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new JsonBindingException("Could not read " + file, cause);
+        } finally {
+            for (Future<Chunk<T>> future : pending)
+                future.cancel(true);
+            executor.shutdownNow();
+            try {
+                input.close();
+            } catch (IOException e) {
+                // nothing to do, the file was only read
+            }
+        }
+    }
+
+    private <T> long complete(Future<Chunk<T>> future, ValueSink<? super T> sink)
+            throws InterruptedException, ExecutionException {
+        Chunk<T> chunk = future.get();
+        if (chunk.values != null) {
+            for (T value : chunk.values)
+                sink.accept(value);
+        }
+        return chunk.count;
+    }
+
+    /**
+     * @return the position following the first new line found from position, or size if there is
+     *         none.
+     */
+    private long lineEnd(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read < 0) break;
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private final static class Chunk<T> {
+        final long count;
+        // null when the values were given to the sink by the reading thread
+        final List<T> values;
+
+        Chunk(long count, List<T> values) {
+            this.count = count;
+            this.values = values;
+        }
+    }
+
+    private final class ChunkReader<T> implements Callable<Chunk<T>> {
+        private final FileChannel channel;
+        private final long start;
+        private final int length;
+        private final GenericType<T> type;
+        private final ValueSink<? super T> sink;
+        private final ThreadLocal<byte[]> buffers;
+
+        ChunkReader(FileChannel channel, long start, long end, GenericType<T> type,
+                ValueSink<? super T> sink, ThreadLocal<byte[]> buffers) {
+            if (end - start > Integer.MAX_VALUE)
+                throw new JsonBindingException("The line starting at byte offset " + start
+                        + " is too long to be read in a chunk");
+            this.channel = channel;
+            this.start = start;
+            this.length = (int) (end - start);
+            this.type = type;
+            this.sink = sink;
+            this.buffers = buffers;
+        }
+
+        public Chunk<T> call() throws IOException, InterruptedException {
+            byte[] buffer = buffers.get();
+            if (buffer == null || buffer.length < length) {
+                buffer = new byte[length];
+                buffers.set(buffer);
+            }
+            for (int read = 0; read < length;) {
+                int n = channel.read(ByteBuffer.wrap(buffer, read, length - read), start + read);
+                if (n < 0) throw new EOFException("Unexpected end of file at byte offset " + (start + read));
+                read += n;
+            }
+
+            List<T> values = sink == null ? new ArrayList<T>() : null;
+            long count = 0;
+            Utf8JsonReader reader = genson.createReader(buffer, 0, length);
+            long offset = start;
+            try {
+                for (boolean hasValue = reader.hasRootValue(); hasValue; hasValue = reader.nextRootValue()) {
+                    if (Thread.interrupted()) throw new InterruptedException();
+                    offset = start + reader.offset();
+                    T value = genson.deserialize(type, reader, new Context(genson));
+                    if (sink != null) sink.accept(value);
+                    else values.add(value);
+                    count++;
+                }
+            } catch (JsonBindingException e) {
+                throw new JsonBindingException("Could not read the value at byte offset " + offset, e);
+            } catch (JsonStreamException e) {
+                throw new JsonBindingException("Could not read the value at byte offset " + offset, e);
+            }
+            return new Chunk<T>(count, values);
+        }
+    }
+
+    private final static class ReaderThreadFactory implements ThreadFactory {
+        private final int pool = _poolCount.incrementAndGet();
+        private final AtomicInteger count = new AtomicInteger();
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "genson-values-reader-" + pool + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
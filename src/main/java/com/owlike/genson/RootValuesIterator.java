@@ -0,0 +1,44 @@
+package com.owlike.genson;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.owlike.genson.stream.ExtendedObjectReader;
+
+/**
+ * Lazily deserializes the root values read by an ExtendedObjectReader, see
+ * {@link Genson#deserializeValues(java.io.InputStream, GenericType)}.
+ */
+final class RootValuesIterator<T> implements Iterator<T> {
+    private final Genson genson;
+    private final GenericType<T> type;
+    private final ExtendedObjectReader reader;
+    private boolean hasValue;
+    // the current root value has been deserialized, the reader must be moved to the next one
+    private boolean consumed;
+
+    RootValuesIterator(Genson genson, GenericType<T> type, ExtendedObjectReader reader) {
+        this.genson = genson;
+        this.type = type;
+        this.reader = reader;
+        this.hasValue = reader.hasRootValue();
+    }
+
+    public boolean hasNext() {
+        if (consumed) {
+            hasValue = reader.nextRootValue();
+            consumed = false;
+        }
+        return hasValue;
+    }
+
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        consumed = true;
+        return genson.deserialize(type, reader, new Context(genson));
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,183 @@
+package com.owlike.genson;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+import com.owlike.genson.stream.JsonWriter;
+import com.owlike.genson.stream.ObjectWriter;
+import com.owlike.genson.stream.Utf8JsonWriter;
+
+/**
+ * A reusable serializer obtained with {@link Genson#newSerializer()}. It keeps its writers and
+ * output buffers from one call to the other, so serializing many small objects does not allocate a
+ * new writer, buffer and output for each of them. This is useful when serializing at high rate, for
+ * example messages sent to a queue.
+ *
+ * <pre>
+ * SerializationSession serializer = genson.newSerializer();
+ * for (Message message : messages)
+ * 	producer.send(serializer.serializeBytes(message));
+ * </pre>
+ *
+ * Sessions are not thread safe, use one session per thread. The one shot methods of Genson use
+ * sessions taken from a bounded pool.
+ *
+ * @see DeserializationSession
+ */
+public final class SerializationSession {
+    // buffers that grew bigger than that are not kept once the session is released to the pool
+    private final static int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final Genson genson;
+    private final CharSink chars = new CharSink();
+    private final ByteSink bytes = new ByteSink();
+    private JsonWriter charWriter;
+    private Utf8JsonWriter byteWriter;
+
+    SerializationSession(Genson genson) {
+        this.genson = genson;
+    }
+
+    /**
+     * @see Genson#serialize(Object)
+     */
+    public String serialize(Object object) {
+        return serialize(object, null, new Context(genson));
+    }
+
+    /**
+     * @see Genson#serialize(Object, GenericType)
+     */
+    public String serialize(Object object, GenericType<?> type) {
+        return serialize(object, type.getType(), new Context(genson));
+    }
+
+    /**
+     * @see Genson#serializeBytes(Object)
+     */
+    public byte[] serializeBytes(Object object) {
+        bytes.reset();
+        serialize(object, null, writer(bytes), new Context(genson));
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Serializes object to writer, as the session did not create it you are responsible of
+     * closing it.
+     */
+    public void serialize(Object object, Writer writer) {
+        serialize(object, null, writer(writer), new Context(genson));
+    }
+
+    /**
+     * Serializes object to output, as the session did not create it you are responsible of
+     * closing it.
+     */
+    public void serialize(Object object, OutputStream output) {
+        serialize(object, null, writer(output), new Context(genson));
+    }
+
+    String serialize(Object object, Type type, Context ctx) {
+        chars.reset();
+        serialize(object, type, writer(chars), ctx);
+        return chars.toString();
+    }
+
+    void serialize(Object object, Type type, ObjectWriter writer, Context ctx) {
+        if (object == null || type == null) genson.serialize(object, writer, ctx);
+        else genson.serialize(object, type, writer, ctx);
+    }
+
+    /**
+     * Drops the references to the last output and trims the buffers that grew too much, called
+     * before returning the session to the pool.
+     */
+    void release() {
+        if (charWriter != null) charWriter.reset((Writer) null);
+        if (byteWriter != null) byteWriter.reset((OutputStream) null);
+        chars.trim();
+        bytes.trim();
+    }
+
+    private ObjectWriter writer(Writer writer) {
+        if (charWriter == null) charWriter = (JsonWriter) genson.createWriter(writer);
+        else charWriter.reset(writer);
+        return charWriter;
+    }
+
+    private ObjectWriter writer(OutputStream output) {
+        if (byteWriter == null) byteWriter = (Utf8JsonWriter) genson.createWriter(output);
+        else byteWriter.reset(output);
+        return byteWriter;
+    }
+
+    /*
+     * Unsynchronized alternatives to StringWriter and ByteArrayOutputStream that can be reset.
+     */
+    private final static class CharSink extends Writer {
+        private char[] buffer = new char[256];
+        private int length;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            if (length + len > buffer.length)
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + len));
+            System.arraycopy(cbuf, off, buffer, length, len);
+            length += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        void reset() {
+            length = 0;
+        }
+
+        void trim() {
+            if (buffer.length > MAX_RETAINED_CAPACITY) buffer = new char[256];
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer, 0, length);
+        }
+    }
+
+    private final static class ByteSink extends OutputStream {
+        private byte[] buffer = new byte[256];
+        private int length;
+
+        @Override
+        public void write(int b) {
+            if (length == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            buffer[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (length + len > buffer.length)
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + len));
+            System.arraycopy(b, off, buffer, length, len);
+            length += len;
+        }
+
+        void reset() {
+            length = 0;
+        }
+
+        void trim() {
+            if (buffer.length > MAX_RETAINED_CAPACITY) buffer = new byte[256];
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.owlike.genson;
+
+/**
+ * Receives the values deserialized by a {@link ParallelValuesReader}. When the values are not
+ * delivered in the input order, the sink is called concurrently from the reading threads and must
+ * be thread safe.
+ */
+public interface ValueSink<T> {
+    void accept(T value);
+}
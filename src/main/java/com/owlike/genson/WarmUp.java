@@ -0,0 +1,188 @@
+package com.owlike.genson;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Implementation of {@link Genson#warmUp(Collection)}: provides the converter of each type on a
+ * pool of daemon threads. Each thread creates converters with its own thread local state (circular
+ * references, contextual converters) and the converters are shared through the Genson cache, so a
+ * warm up can run while the Genson instance is used.
+ */
+final class WarmUp {
+    private final static AtomicInteger _poolCount = new AtomicInteger();
+
+    private final Genson genson;
+
+    WarmUp(Genson genson) {
+        this.genson = genson;
+    }
+
+    WarmUpReport run(Collection<? extends Type> types) {
+        long start = System.nanoTime();
+        Set<Type> uniqueTypes = new LinkedHashSet<Type>(types);
+        Map<Type, Long> durations = new LinkedHashMap<Type, Long>();
+        Map<Type, Throwable> failures = new LinkedHashMap<Type, Throwable>();
+
+        int threads = Math.min(uniqueTypes.size(), Runtime.getRuntime().availableProcessors());
+        if (threads <= 1) {
+            for (Type type : uniqueTypes)
+                add(warmUp(type), durations, failures);
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(threads, new WarmUpThreadFactory());
+            try {
+                List<Future<Result>> futures = new ArrayList<Future<Result>>(uniqueTypes.size());
+                for (final Type type : uniqueTypes) {
+                    futures.add(executor.submit(new Callable<Result>() {
+                        public Result call() {
+                            return warmUp(type);
+                        }
+                    }));
+                }
+                for (Future<Result> future : futures)
+                    add(future.get(), durations, failures);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JsonBindingException("Interrupted while warming up the converters", e);
+            } catch (ExecutionException e) {
+                // only errors that must not be swallowed get there
+                if (e.getCause() instanceof Error) throw (Error) e.getCause();
+                throw new JsonBindingException("Could not warm up the converters", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        return new WarmUpReport(durations, failures, System.nanoTime() - start);
+    }
+
+    private Result warmUp(Type type) {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            genson.provideConverter(type);
+        } catch (RuntimeException e) {
+            failure = e;
+        } catch (LinkageError e) {
+            failure = e;
+        }
+        return new Result(type, System.nanoTime() - start, failure);
+    }
+
+    private void add(Result result, Map<Type, Long> durations, Map<Type, Throwable> failures) {
+        durations.put(result.type, result.duration);
+        if (result.failure != null) failures.put(result.type, result.failure);
+    }
+
+    /**
+     * @return the classes of the packages and their sub packages, sorted by name.
+     */
+    static List<Type> scan(ClassLoader classLoader, String... packageNames) {
+        Set<String> classNames = new TreeSet<String>();
+        for (String packageName : packageNames) {
+            String path = packageName.replace('.', '/');
+            try {
+                Enumeration<URL> urls = classLoader.getResources(path);
+                while (urls.hasMoreElements()) {
+                    URL url = urls.nextElement();
+                    if ("file".equals(url.getProtocol()))
+                        scanDirectory(new File(url.toURI()), packageName, classNames);
+                    else if ("jar".equals(url.getProtocol())) scanJar(url, path, classNames);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not scan package " + packageName, e);
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException("Could not scan package " + packageName, e);
+            }
+        }
+
+        List<Type> classes = new ArrayList<Type>(classNames.size());
+        for (String className : classNames) {
+            try {
+                Class<?> clazz = Class.forName(className, false, classLoader);
+                if (!clazz.isInterface() && !clazz.isAnnotation() && !clazz.isAnonymousClass()
+                        && !clazz.isLocalClass() && !clazz.isSynthetic())
+                    classes.add(clazz);
+            } catch (ClassNotFoundException e) {
+                // ignored, it can not be used anyway
+            } catch (LinkageError e) {
+                // ignored, it can not be used anyway
+            }
+        }
+        return classes;
+    }
+
+    private static void scanDirectory(File directory, String packageName, Set<String> classNames) {
+        File[] files = directory.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory())
+                scanDirectory(file, packageName + "." + name, classNames);
+            else
+                addClass(packageName + "." + name, classNames);
+        }
+    }
+
+    private static void scanJar(URL url, String path, Set<String> classNames) throws IOException {
+        URLConnection connection = url.openConnection();
+        if (!(connection instanceof JarURLConnection)) return;
+        JarFile jar = ((JarURLConnection) connection).getJarFile();
+        String prefix = path + "/";
+        for (Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements(); ) {
+            String name = entries.nextElement().getName();
+            if (name.startsWith(prefix)) addClass(name.replace('/', '.'), classNames);
+        }
+    }
+
+    private static void addClass(String fileName, Set<String> classNames) {
+        if (!fileName.endsWith(".class") || fileName.endsWith("package-info.class")
+                || fileName.endsWith("module-info.class")) return;
+        classNames.add(fileName.substring(0, fileName.length() - ".class".length()));
+    }
+
+    private final static class Result {
+        final Type type;
+        final long duration;
+        final Throwable failure;
+
+        Result(Type type, long duration, Throwable failure) {
+            this.type = type;
+            this.duration = duration;
+            this.failure = failure;
+        }
+    }
+
+    private final static class WarmUpThreadFactory implements ThreadFactory {
+        private final int pool = _poolCount.incrementAndGet();
+        private final AtomicInteger count = new AtomicInteger();
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "genson-warmup-" + pool + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.owlike.genson;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Result of {@link Genson#warmUp(java.util.Collection)}: the time spent to build the converter of
+ * each type and the types for which it failed.
+ */
+public final class WarmUpReport {
+    private final Map<Type, Long> durations;
+    private final Map<Type, Throwable> failures;
+    private final long totalTime;
+
+    WarmUpReport(Map<Type, Long> durations, Map<Type, Throwable> failures, long totalTime) {
+        this.durations = Collections.unmodifiableMap(durations);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.totalTime = totalTime;
+    }
+
+    /**
+     * @return the time in nanoseconds spent to provide the converter of each type, including the
+     *         types that failed.
+     */
+    public Map<Type, Long> getDurations() {
+        return durations;
+    }
+
+    /**
+     * @return the exception thrown while providing the converter of each type that failed.
+     */
+    public Map<Type, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return the time in nanoseconds between the start and the end of the warm up.
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * @return true if the converters of all the types have been created.
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpReport{types=" + durations.size() + ", failures=" + failures.size() + ", totalTimeMs="
+                + totalTime / 1000000 + "}";
+    }
+}
@@ -0,0 +1,27 @@
+package com.owlike.genson.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Classes annotated with @JsonSerializable get a converter generated at compile time by
+ * {@link com.owlike.genson.apt.ConverterProcessor ConverterProcessor}, so Genson does not need to
+ * build their BeanDescriptor with reflection at runtime. The generated converters follow the
+ * default rules: the public and package visible fields and getters/setters, {@link JsonProperty},
+ * {@link JsonIgnore}, {@link JsonCreator} and {@link JsonDateFormat}. The processor is opt-in, see
+ * ConverterProcessor. The generated converters are then registered automatically by
+ * {@link com.owlike.genson.GensonBuilder GensonBuilder} when its configuration does not change
+ * these rules.
+ *
+ * Classes that can not be handled by generated code (generic classes, private properties,
+ * classes without a no arg constructor nor a @JsonCreator...) are reported as warnings during the
+ * compilation and still work with the reflection based BeanDescriptor.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+@Documented
+public @interface JsonSerializable {
+}
@@ -0,0 +1,794 @@
+package com.owlike.genson.apt;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+import com.owlike.genson.annotation.JsonConverter;
+import com.owlike.genson.annotation.JsonCreator;
+import com.owlike.genson.annotation.JsonDateFormat;
+import com.owlike.genson.annotation.JsonIgnore;
+import com.owlike.genson.annotation.JsonProperty;
+import com.owlike.genson.annotation.JsonSerializable;
+
+/**
+ * Annotation processor generating at compile time a converter for each class annotated with
+ * {@link JsonSerializable}, so the BeanDescriptor of these classes does not have to be built
+ * with reflection at runtime. The generated converters are in the package of the annotated class,
+ * named after it with a _GensonConverter suffix, and all the converters generated by a
+ * compilation are registered in a {@link ConverterRegistry} listed in
+ * META-INF/services/com.owlike.genson.apt.ConverterRegistry.
+ *
+ * The properties are resolved with the same rules as the default GensonBuilder configuration
+ * (public and package fields, getters and setters, {@link JsonProperty}, {@link JsonIgnore},
+ * {@link JsonCreator} and {@link JsonDateFormat}). The parameters of a creator that are not
+ * annotated with JsonProperty are named as in the source. When a class can not be handled by
+ * generated code a warning is reported and the class is left to the reflection based
+ * BeanDescriptor.
+ *
+ * The processor is not registered as a service, so it does not run in the compilation of every
+ * project having Genson in its classpath. It must be enabled explicitly, for example with
+ * <code>javac -processor com.owlike.genson.apt.ConverterProcessor</code> or in the
+ * annotationProcessors of the maven compiler plugin. The generated converters are then discovered
+ * by GensonBuilder, see {@link com.owlike.genson.GensonBuilder#useGeneratedConverters(boolean)}.
+ */
+public class ConverterProcessor extends AbstractProcessor {
+    public final static String CONVERTER_SUFFIX = "_GensonConverter";
+    public final static String REGISTRY_NAME = "GensonConverterRegistry";
+
+    private final static Comparator<Property> _propertiesComparator = new Comparator<Property>() {
+        public int compare(Property o1, Property o2) {
+            return o1.name.compareToIgnoreCase(o2.name);
+        }
+    };
+
+    // generated converter names mapped to the class they handle
+    private final Map<String, TypeElement> generatedConverters = new TreeMap<String, TypeElement>();
+    private boolean registryWritten = false;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(JsonSerializable.class.getName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(JsonSerializable.class);
+        for (Element element : elements) {
+            if (element.getKind() != ElementKind.CLASS) {
+                warning("@JsonSerializable is supported only on classes", element);
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                BeanModel model = new BeanModel(type);
+                String converterName = writeConverter(model);
+                generatedConverters.put(converterName, type);
+            } catch (UnsupportedBeanException e) {
+                warning("No converter generated for " + type.getQualifiedName() + ", " + e.getMessage()
+                        + ". It will be handled using reflection.", e.element != null ? e.element : type);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Could not write the converter of " + type.getQualifiedName() + ": " + e, type);
+            }
+        }
+
+        // the registry is written once, in the round following the generation of the converters so
+        // it is compiled with them
+        if (!registryWritten && !generatedConverters.isEmpty() && (elements.isEmpty() || roundEnv.processingOver())) {
+            registryWritten = true;
+            try {
+                writeRegistry();
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Could not write the Genson converter registry: " + e);
+            }
+        }
+        return false;
+    }
+
+    private void warning(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+
+    private String writeConverter(BeanModel model) throws IOException {
+        String packageName = model.packageElement.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(model.type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                .replace('$', '_') + CONVERTER_SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, model.type).openWriter();
+        try {
+            writer.write(new ConverterWriter(model, packageName, simpleName).write());
+        } finally {
+            writer.close();
+        }
+        return qualifiedName;
+    }
+
+    private void writeRegistry() throws IOException {
+        String firstConverter = generatedConverters.keySet().iterator().next();
+        int lastDot = firstConverter.lastIndexOf('.');
+        String packageName = lastDot > -1 ? firstConverter.substring(0, lastDot) : "";
+        String qualifiedName = packageName.isEmpty() ? REGISTRY_NAME : packageName + "." + REGISTRY_NAME;
+        Element[] originatingElements = generatedConverters.values().toArray(
+                new Element[generatedConverters.size()]);
+
+        StringBuilder sb = new StringBuilder();
+        if (!packageName.isEmpty()) sb.append("package ").append(packageName).append(";\n\n");
+        sb.append("/**\n * Registers the converters generated by ").append(ConverterProcessor.class.getName())
+                .append(".\n */\n")
+                .append("public final class ").append(REGISTRY_NAME)
+                .append(" implements com.owlike.genson.apt.ConverterRegistry {\n")
+                .append("    public java.util.Map<java.lang.Class<?>, com.owlike.genson.Converter<?>> converters() {\n")
+                .append("        java.util.Map<java.lang.Class<?>, com.owlike.genson.Converter<?>> converters")
+                .append(" = new java.util.LinkedHashMap<java.lang.Class<?>, com.owlike.genson.Converter<?>>();\n");
+        for (String converter : generatedConverters.keySet())
+            sb.append("        register(converters, new ").append(converter).append("());\n");
+        sb.append("        return converters;\n    }\n\n")
+                .append("    private static void register(java.util.Map<java.lang.Class<?>, com.owlike.genson.Converter<?>>")
+                .append(" converters,\n            com.owlike.genson.apt.GeneratedConverter<?> converter) {\n")
+                .append("        converters.put(converter.getBeanClass(), converter);\n    }\n}\n");
+
+        Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, originatingElements).openWriter();
+        try {
+            writer.write(sb.toString());
+        } finally {
+            writer.close();
+        }
+
+        writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                "META-INF/services/" + ConverterRegistry.class.getName(), originatingElements).openWriter();
+        try {
+            writer.write(qualifiedName + "\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private final static class UnsupportedBeanException extends Exception {
+        private static final long serialVersionUID = 3904946624722957294L;
+        final Element element;
+
+        UnsupportedBeanException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+
+    /**
+     * A property read or written by the generated code. Its index is the position of its value in
+     * the types and property converters of the generated converter.
+     */
+    private final static class Property {
+        final String name;
+        final Element element;
+        final TypeElement declaringClass;
+        final TypeMirror type;
+        int index;
+
+        Property(String name, Element element, TypeElement declaringClass, TypeMirror type) {
+            this.name = name;
+            this.element = element;
+            this.declaringClass = declaringClass;
+            this.type = type;
+        }
+
+        boolean isMethod() {
+            return element.getKind() == ElementKind.METHOD;
+        }
+    }
+
+    /**
+     * Resolves the properties and the creator of a class like BaseBeanDescriptorProvider does with
+     * the default configuration, and checks that the generated code can use them.
+     */
+    private final class BeanModel {
+        final TypeElement type;
+        final DeclaredType beanType;
+        final PackageElement packageElement;
+        final List<Property> accessors;
+        final List<Property> mutators;
+        final List<Property> creatorParameters = new ArrayList<Property>();
+        final ExecutableElement creator;
+        final Types types = processingEnv.getTypeUtils();
+        final Elements elements = processingEnv.getElementUtils();
+
+        BeanModel(TypeElement type) throws UnsupportedBeanException {
+            this.type = type;
+            this.beanType = (DeclaredType) type.asType();
+            this.packageElement = elements.getPackageOf(type);
+
+            if (!type.getTypeParameters().isEmpty())
+                throw new UnsupportedBeanException("generic classes are not supported", type);
+            if (type.getModifiers().contains(Modifier.ABSTRACT))
+                throw new UnsupportedBeanException("abstract classes are not supported", type);
+            if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS)
+                throw new UnsupportedBeanException("local classes are not supported", type);
+            if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC))
+                throw new UnsupportedBeanException("inner classes must be static", type);
+            if (!isAccessible(type))
+                throw new UnsupportedBeanException("the class is not visible from its package", type);
+
+            Map<String, Property> accessorsMap = new LinkedHashMap<String, Property>();
+            Map<String, Property> mutatorsMap = new LinkedHashMap<String, Property>();
+            for (TypeElement clazz = type; clazz != null; clazz = superclass(clazz)) {
+                // first the fields and then the methods, so methods are preferred in the same class
+                for (VariableElement field : ElementFilter.fieldsIn(clazz.getEnclosedElements())) {
+                    TypeMirror fieldType = types.asMemberOf(beanType, field);
+                    if (isAccessor(field)) update(accessorsMap, property(field, clazz, fieldType));
+                    if (isMutator(field)) update(mutatorsMap, property(field, clazz, fieldType));
+                }
+                for (ExecutableElement method : ElementFilter.methodsIn(clazz.getEnclosedElements())) {
+                    ExecutableType methodType = (ExecutableType) types.asMemberOf(beanType, method);
+                    if (isAccessor(method))
+                        update(accessorsMap, property(method, clazz, methodType.getReturnType()));
+                    if (isMutator(method))
+                        update(mutatorsMap, property(method, clazz, methodType.getParameterTypes().get(0)));
+                }
+            }
+
+            creator = findCreator();
+            if (creator != null) {
+                List<? extends TypeMirror> parameterTypes = ((ExecutableType) creator.asType()).getParameterTypes();
+                for (int i = 0; i < creator.getParameters().size(); i++) {
+                    VariableElement parameter = creator.getParameters().get(i);
+                    Property property = new Property(parameterName(parameter), parameter, type,
+                            parameterTypes.get(i));
+                    checkProperty(property);
+                    creatorParameters.add(property);
+                    // the creator takes the values of the properties having the same name
+                    mutatorsMap.remove(property.name);
+                }
+                checkMember(creator);
+                TypeElement declaringClass = (TypeElement) creator.getEnclosingElement();
+                if (!isAccessible(declaringClass))
+                    throw new UnsupportedBeanException(declaringClass.getQualifiedName()
+                            + " is not visible from package " + packageElement.getQualifiedName(), creator);
+            }
+
+            accessors = new ArrayList<Property>(accessorsMap.values());
+            Collections.sort(accessors, _propertiesComparator);
+            mutators = new ArrayList<Property>(mutatorsMap.values());
+            for (Property accessor : accessors)
+                checkProperty(accessor);
+            for (Property mutator : mutators) {
+                checkProperty(mutator);
+                if (mutator.element.getModifiers().contains(Modifier.FINAL))
+                    throw new UnsupportedBeanException("final field " + mutator.element.getSimpleName()
+                            + " can not be set", mutator.element);
+            }
+
+            int index = 0;
+            for (Property accessor : accessors)
+                accessor.index = index++;
+            for (Property parameter : creatorParameters)
+                parameter.index = index++;
+            for (Property mutator : mutators)
+                mutator.index = index++;
+        }
+
+        private TypeElement superclass(TypeElement clazz) {
+            TypeMirror superclass = clazz.getSuperclass();
+            if (superclass.getKind() != TypeKind.DECLARED) return null;
+            TypeElement element = (TypeElement) types.asElement(superclass);
+            return Object.class.getName().equals(element.getQualifiedName().toString()) ? null : element;
+        }
+
+        // same as BaseBeanDescriptorProvider: the property of the most specific class wins and in
+        // a same class the last one
+        private void update(Map<String, Property> properties, Property property) {
+            Property existing = properties.get(property.name);
+            if (existing == null || existing.declaringClass.equals(property.declaringClass))
+                properties.put(property.name, property);
+        }
+
+        private Property property(Element element, TypeElement declaringClass, TypeMirror type)
+                throws UnsupportedBeanException {
+            String name = propertyName(element);
+            if (name == null)
+                throw new UnsupportedBeanException("the name of " + element.getSimpleName()
+                        + " could not be resolved", element);
+            return new Property(name, element, declaringClass, type);
+        }
+
+        private String propertyName(Element element) {
+            JsonProperty property = element.getAnnotation(JsonProperty.class);
+            if (property != null && !property.value().isEmpty()) return property.value();
+            String name = element.getSimpleName().toString();
+            if (element.getKind() == ElementKind.FIELD) return name;
+
+            int length = -1;
+            if (name.startsWith("get"))
+                length = 3;
+            else if (name.startsWith("is"))
+                length = 2;
+            else if (name.startsWith("set"))
+                length = 3;
+            if (length > -1 && length < name.length())
+                return Character.toLowerCase(name.charAt(length)) + name.substring(length + 1);
+            return null;
+        }
+
+        private String parameterName(VariableElement parameter) {
+            JsonProperty property = parameter.getAnnotation(JsonProperty.class);
+            if (property != null && !property.value().isEmpty()) return property.value();
+            return parameter.getSimpleName().toString();
+        }
+
+        private boolean isAccessor(VariableElement field) {
+            if (mustIgnore(field, true) || field.getSimpleName().toString().startsWith("this$")) return false;
+            return mustInclude(field, true) || isVisible(field);
+        }
+
+        private boolean isMutator(VariableElement field) {
+            if (mustIgnore(field, false) || field.getSimpleName().toString().startsWith("this$")) return false;
+            return mustInclude(field, false) || isVisible(field);
+        }
+
+        private boolean isAccessor(ExecutableElement method) {
+            if (mustIgnore(method, true)) return false;
+            if (!method.getParameters().isEmpty()) return false;
+            if (mustInclude(method, true)) return true;
+            String name = method.getSimpleName().toString();
+            int length = name.length();
+            return isVisible(method) && ((length > 3 && name.startsWith("get"))
+                    || (length > 2 && name.startsWith("is") && isBoolean(method.getReturnType())));
+        }
+
+        private boolean isMutator(ExecutableElement method) {
+            if (mustIgnore(method, false)) return false;
+            if (method.getParameters().size() != 1) return false;
+            if (mustInclude(method, false)) return true;
+            String name = method.getSimpleName().toString();
+            return isVisible(method) && name.length() > 3 && name.startsWith("set")
+                    && method.getReturnType().getKind() == TypeKind.VOID;
+        }
+
+        private boolean isBoolean(TypeMirror type) {
+            return type.getKind() == TypeKind.BOOLEAN
+                    || (type.getKind() == TypeKind.DECLARED && Boolean.class.getName().equals(
+                    ((TypeElement) types.asElement(type)).getQualifiedName().toString()));
+        }
+
+        // the VisibilityFilter.PACKAGE_PUBLIC filter
+        private boolean isVisible(Element element) {
+            Set<Modifier> modifiers = element.getModifiers();
+            return !modifiers.contains(Modifier.TRANSIENT) && !modifiers.contains(Modifier.NATIVE)
+                    && !modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.PRIVATE)
+                    && !modifiers.contains(Modifier.PROTECTED);
+        }
+
+        private boolean mustIgnore(Element element, boolean forSerialization) {
+            JsonIgnore ignore = element.getAnnotation(JsonIgnore.class);
+            return ignore != null && !(forSerialization ? ignore.serialize() : ignore.deserialize());
+        }
+
+        private boolean mustInclude(Element element, boolean forSerialization) {
+            JsonProperty property = element.getAnnotation(JsonProperty.class);
+            return property != null && (forSerialization ? property.serialize() : property.deserialize());
+        }
+
+        private ExecutableElement findCreator() throws UnsupportedBeanException {
+            List<ExecutableElement> constructors = new ArrayList<ExecutableElement>();
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+                if (!mustIgnore(constructor, false) && isVisible(constructor)) constructors.add(constructor);
+
+            List<ExecutableElement> annotated = new ArrayList<ExecutableElement>();
+            for (ExecutableElement constructor : constructors)
+                if (constructor.getAnnotation(JsonCreator.class) != null) annotated.add(constructor);
+            for (TypeElement clazz = type; clazz != null; clazz = superclass(clazz)) {
+                for (ExecutableElement method : ElementFilter.methodsIn(clazz.getEnclosedElements())) {
+                    if (method.getAnnotation(JsonCreator.class) == null) continue;
+                    if (!method.getModifiers().contains(Modifier.STATIC)
+                            || !method.getModifiers().contains(Modifier.PUBLIC))
+                        throw new UnsupportedBeanException("method " + method.getSimpleName()
+                                + " annotated with @JsonCreator must be public and static", method);
+                    annotated.add(method);
+                }
+            }
+            if (annotated.size() > 1)
+                throw new UnsupportedBeanException("only one @JsonCreator annotation per class is allowed", type);
+            if (annotated.size() == 1) return annotated.get(0);
+
+            // like favorEmptyCreators, the creator with the less arguments that can all be named
+            ExecutableElement creator = null;
+            for (ExecutableElement constructor : constructors) {
+                if (creator != null && creator.getParameters().size() <= constructor.getParameters().size())
+                    continue;
+                boolean named = true;
+                for (VariableElement parameter : constructor.getParameters()) {
+                    JsonProperty property = parameter.getAnnotation(JsonProperty.class);
+                    named &= property != null && !property.value().isEmpty();
+                }
+                if (named) creator = constructor;
+            }
+            return creator;
+        }
+
+        private void checkProperty(Property property) throws UnsupportedBeanException {
+            if (property.element.getKind() != ElementKind.PARAMETER) checkMember(property.element);
+            if (property.element.getAnnotation(JsonConverter.class) != null)
+                throw new UnsupportedBeanException("@JsonConverter is not supported", property.element);
+            if (property.isMethod() && property.type.getKind() == TypeKind.VOID)
+                throw new UnsupportedBeanException("accessor " + property.element.getSimpleName()
+                        + " returns void", property.element);
+            // fields of super classes are accessed through a cast to their class
+            if (!property.isMethod() && !property.declaringClass.equals(type) && !isAccessible(property.declaringClass))
+                throw new UnsupportedBeanException(property.declaringClass.getQualifiedName()
+                        + " is not visible from package " + packageElement.getQualifiedName(), property.element);
+            checkType(property.type, property.element);
+        }
+
+        private void checkMember(Element member) throws UnsupportedBeanException {
+            Set<Modifier> modifiers = member.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE))
+                throw new UnsupportedBeanException("private member " + member.getSimpleName()
+                        + " can not be used", member);
+            if (!modifiers.contains(Modifier.PUBLIC) && !elements.getPackageOf(member).equals(packageElement))
+                throw new UnsupportedBeanException(member.getSimpleName() + " is not visible from package "
+                        + packageElement.getQualifiedName(), member);
+        }
+
+        private void checkType(TypeMirror type, Element element) throws UnsupportedBeanException {
+            switch (type.getKind()) {
+                case ARRAY:
+                    checkType(((ArrayType) type).getComponentType(), element);
+                    break;
+                case DECLARED:
+                    DeclaredType declaredType = (DeclaredType) type;
+                    if (!isAccessible((TypeElement) declaredType.asElement()))
+                        throw new UnsupportedBeanException("type " + type + " is not visible from package "
+                                + packageElement.getQualifiedName(), element);
+                    if (declaredType.getEnclosingType().getKind() == TypeKind.DECLARED)
+                        checkType(declaredType.getEnclosingType(), element);
+                    for (TypeMirror argument : declaredType.getTypeArguments())
+                        checkType(argument, element);
+                    break;
+                case WILDCARD:
+                    WildcardType wildcardType = (WildcardType) type;
+                    if (wildcardType.getExtendsBound() != null) checkType(wildcardType.getExtendsBound(), element);
+                    if (wildcardType.getSuperBound() != null) checkType(wildcardType.getSuperBound(), element);
+                    break;
+                default:
+                    if (!type.getKind().isPrimitive())
+                        throw new UnsupportedBeanException("type " + type + " is not supported", element);
+            }
+        }
+
+        private boolean isAccessible(TypeElement clazz) {
+            for (Element element = clazz; element instanceof TypeElement; element = element.getEnclosingElement()) {
+                Set<Modifier> modifiers = element.getModifiers();
+                if (modifiers.contains(Modifier.PRIVATE)) return false;
+                if (!modifiers.contains(Modifier.PUBLIC) && !elements.getPackageOf(element).equals(packageElement))
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Writes the source of the converter of a bean.
+     */
+    private final class ConverterWriter {
+        private final BeanModel model;
+        private final String packageName;
+        private final String simpleName;
+        private final String beanName;
+        private final Types types = processingEnv.getTypeUtils();
+        private final StringBuilder sb = new StringBuilder();
+
+        ConverterWriter(BeanModel model, String packageName, String simpleName) {
+            this.model = model;
+            this.packageName = packageName;
+            this.simpleName = simpleName;
+            this.beanName = model.type.getQualifiedName().toString();
+        }
+
+        String write() {
+            List<Property> properties = new ArrayList<Property>(model.accessors);
+            properties.addAll(model.creatorParameters);
+            properties.addAll(model.mutators);
+            List<Property> readable = new ArrayList<Property>(model.creatorParameters);
+            readable.addAll(model.mutators);
+
+            if (!packageName.isEmpty()) sb.append("package ").append(packageName).append(";\n\n");
+            sb.append("/**\n * Converter of {@link ").append(beanName).append("} generated by ")
+                    .append(ConverterProcessor.class.getName()).append(".\n */\n")
+                    .append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n")
+                    .append("public final class ").append(simpleName)
+                    .append(" extends com.owlike.genson.apt.GeneratedConverter<").append(beanName).append("> {\n");
+
+            for (Property accessor : model.accessors)
+                sb.append("    private final static com.owlike.genson.stream.EncodedName NAME_")
+                        .append(accessor.index).append(" = new com.owlike.genson.stream.EncodedName(")
+                        .append(literal(accessor.name)).append(");\n");
+            sb.append("    private final static java.util.Map<String, Integer> INDEXES = indexes(");
+            for (int i = 0; i < readable.size(); i++)
+                sb.append(i > 0 ? ", " : "").append(literal(readable.get(i).name));
+            sb.append(");\n");
+            sb.append("    private final static java.lang.reflect.Type[] TYPES = { ");
+            for (int i = 0; i < properties.size(); i++)
+                sb.append(i > 0 ? ", " : "").append(typeExpression(properties.get(i).type));
+            sb.append(" };\n\n");
+
+            sb.append("    public ").append(simpleName).append("() {\n        super(").append(beanName)
+                    .append(".class, TYPES, propertyConverters());\n    }\n\n");
+
+            sb.append("    private static com.owlike.genson.Converter<?>[] propertyConverters() {\n")
+                    .append("        return new com.owlike.genson.Converter<?>[] { ");
+            for (int i = 0; i < properties.size(); i++)
+                sb.append(i > 0 ? ", " : "").append(propertyConverter(properties.get(i)));
+            sb.append(" };\n    }\n\n");
+
+            writeSerialize();
+            writeDeserialize(readable);
+            sb.append("}\n");
+            return sb.toString();
+        }
+
+        private void writeSerialize() {
+            sb.append("    public void serialize(").append(beanName).append(" bean, ")
+                    .append("com.owlike.genson.stream.ObjectWriter writer, com.owlike.genson.Context ctx)")
+                    .append(" throws Exception {\n        writer.beginObject();\n");
+            for (Property accessor : model.accessors) {
+                sb.append("        writeName(NAME_").append(accessor.index).append(", writer);\n");
+                String value = accessor.isMethod() ? "bean." + accessor.element.getSimpleName() + "()"
+                        : fieldOf(accessor);
+                String primitive = primitiveName(accessor.type);
+                if (primitive != null)
+                    sb.append("        serialize").append(primitive).append("(").append(accessor.index)
+                            .append(", ").append(value).append(", writer, ctx);\n");
+                else
+                    sb.append("        converter(").append(accessor.index).append(", ctx).serialize(")
+                            .append(value).append(", writer, ctx);\n");
+            }
+            sb.append("        writer.endObject();\n    }\n\n");
+        }
+
+        private void writeDeserialize(List<Property> readable) {
+            sb.append("    public ").append(beanName).append(" deserialize(")
+                    .append("com.owlike.genson.stream.ObjectReader reader, com.owlike.genson.Context ctx)")
+                    .append(" throws Exception {\n");
+            if (model.creator == null) {
+                sb.append("        throw new com.owlike.genson.JsonBindingException(")
+                        .append("\"No constructor has been found for type \" + ").append(beanName)
+                        .append(".class);\n    }\n");
+                return;
+            }
+
+            boolean withArguments = !model.creatorParameters.isEmpty();
+            if (withArguments) {
+                // the values are read before creating the bean
+                for (Property property : readable) {
+                    sb.append("        ").append(source(property.type)).append(" value").append(property.index)
+                            .append(" = ").append(defaultValue(property.type)).append(";\n");
+                    if (model.mutators.contains(property))
+                        sb.append("        boolean has").append(property.index).append(" = false;\n");
+                }
+            } else {
+                sb.append("        ").append(beanName).append(" bean = ").append(creation()).append(";\n");
+            }
+
+            sb.append("        reader.beginObject();\n        while (reader.hasNext()) {\n")
+                    .append("            reader.next();\n")
+                    .append("            switch (indexOf(INDEXES, reader.name())) {\n");
+            for (int i = 0; i < readable.size(); i++) {
+                Property property = readable.get(i);
+                sb.append("            case ").append(i).append(":\n");
+                String value = readExpression(property);
+                if (withArguments) {
+                    sb.append("                value").append(property.index).append(" = ").append(value)
+                            .append(";\n");
+                    if (model.mutators.contains(property))
+                        sb.append("                has").append(property.index).append(" = true;\n");
+                } else {
+                    sb.append("                ").append(assignment(property, value)).append(";\n");
+                }
+                sb.append("                break;\n");
+            }
+            sb.append("            default:\n                reader.skipValue();\n            }\n        }\n")
+                    .append("        reader.endObject();\n");
+
+            if (withArguments) {
+                sb.append("        ").append(beanName).append(" bean = ").append(creation()).append(";\n");
+                for (Property mutator : model.mutators)
+                    sb.append("        if (has").append(mutator.index).append(") ")
+                            .append(assignment(mutator, "value" + mutator.index)).append(";\n");
+            }
+            sb.append("        return bean;\n    }\n");
+        }
+
+        private String creation() {
+            StringBuilder arguments = new StringBuilder();
+            for (Property parameter : model.creatorParameters)
+                arguments.append(arguments.length() > 0 ? ", " : "").append("value").append(parameter.index);
+            if (model.creator.getKind() == ElementKind.CONSTRUCTOR)
+                return "new " + beanName + "(" + arguments + ")";
+
+            TypeElement declaringClass = (TypeElement) model.creator.getEnclosingElement();
+            String call = declaringClass.getQualifiedName() + "." + model.creator.getSimpleName() + "(" + arguments
+                    + ")";
+            if (types.isAssignable(model.creator.getReturnType(), model.beanType)) return call;
+            return "(" + beanName + ") " + call;
+        }
+
+        private String assignment(Property property, String value) {
+            if (property.isMethod()) return "bean." + property.element.getSimpleName() + "(" + value + ")";
+            return fieldOf(property) + " = " + value;
+        }
+
+        private String fieldOf(Property property) {
+            if (property.declaringClass.equals(model.type)) return "bean." + property.element.getSimpleName();
+            return "((" + property.declaringClass.getQualifiedName() + ") bean)." + property.element.getSimpleName();
+        }
+
+        private String readExpression(Property property) {
+            String primitive = primitiveName(property.type);
+            if (primitive != null)
+                return "deserialize" + primitive + "(" + property.index + ", reader, ctx)";
+            String castType = property.type.getKind().isPrimitive()
+                    ? types.boxedClass((PrimitiveType) property.type).getQualifiedName().toString()
+                    : source(property.type);
+            return "(" + castType + ") converter(" + property.index + ", ctx).deserialize(reader, ctx)";
+        }
+
+        private String propertyConverter(Property property) {
+            JsonDateFormat format = property.element.getAnnotation(JsonDateFormat.class);
+            if (format == null && property.isMethod() && !((ExecutableElement) property.element).getParameters()
+                    .isEmpty())
+                format = ((ExecutableElement) property.element).getParameters().get(0)
+                        .getAnnotation(JsonDateFormat.class);
+            if (format == null || property.type.getKind() != TypeKind.DECLARED) return "null";
+            return "dateConverter(" + literal(format.value()) + ", " + literal(format.lang()) + ", "
+                    + format.asTimeInMillis() + ", " + erasure(property.type) + ".class)";
+        }
+
+        // the primitives having an interface in PrimitiveConverters
+        private String primitiveName(TypeMirror type) {
+            switch (type.getKind()) {
+                case INT:
+                    return "Int";
+                case LONG:
+                    return "Long";
+                case DOUBLE:
+                    return "Double";
+                case BOOLEAN:
+                    return "Boolean";
+                case FLOAT:
+                    return "Float";
+                case SHORT:
+                    return "Short";
+                default:
+                    return null;
+            }
+        }
+
+        private String defaultValue(TypeMirror type) {
+            switch (type.getKind()) {
+                case BOOLEAN:
+                    return "false";
+                case CHAR:
+                    return "'\\0'";
+                case BYTE:
+                case SHORT:
+                case INT:
+                case LONG:
+                case FLOAT:
+                case DOUBLE:
+                    // used to initialize a variable, the constant is converted to its type
+                    return "0";
+                default:
+                    return "null";
+            }
+        }
+
+        private String typeExpression(TypeMirror type) {
+            if (isGeneric(type))
+                return "new com.owlike.genson.GenericType<" + source(type) + ">() {}.getType()";
+            return erasure(type) + ".class";
+        }
+
+        private boolean isGeneric(TypeMirror type) {
+            if (type.getKind() == TypeKind.ARRAY) return isGeneric(((ArrayType) type).getComponentType());
+            if (type.getKind() != TypeKind.DECLARED) return false;
+            DeclaredType declaredType = (DeclaredType) type;
+            return !declaredType.getTypeArguments().isEmpty() || isGeneric(declaredType.getEnclosingType());
+        }
+
+        private String erasure(TypeMirror type) {
+            switch (type.getKind()) {
+                case ARRAY:
+                    return erasure(((ArrayType) type).getComponentType()) + "[]";
+                case DECLARED:
+                    return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+                default:
+                    return type.getKind().name().toLowerCase();
+            }
+        }
+
+        // the source of a type, without the annotations that toString could add
+        private String source(TypeMirror type) {
+            switch (type.getKind()) {
+                case ARRAY:
+                    return source(((ArrayType) type).getComponentType()) + "[]";
+                case DECLARED:
+                    DeclaredType declaredType = (DeclaredType) type;
+                    TypeElement element = (TypeElement) declaredType.asElement();
+                    StringBuilder sb = new StringBuilder();
+                    if (isGeneric(declaredType.getEnclosingType()))
+                        sb.append(source(declaredType.getEnclosingType())).append('.').append(element.getSimpleName());
+                    else
+                        sb.append(element.getQualifiedName());
+                    List<? extends TypeMirror> arguments = declaredType.getTypeArguments();
+                    if (!arguments.isEmpty()) {
+                        sb.append('<');
+                        for (int i = 0; i < arguments.size(); i++)
+                            sb.append(i > 0 ? ", " : "").append(source(arguments.get(i)));
+                        sb.append('>');
+                    }
+                    return sb.toString();
+                case WILDCARD:
+                    WildcardType wildcardType = (WildcardType) type;
+                    if (wildcardType.getExtendsBound() != null)
+                        return "? extends " + source(wildcardType.getExtendsBound());
+                    if (wildcardType.getSuperBound() != null)
+                        return "? super " + source(wildcardType.getSuperBound());
+                    return "?";
+                default:
+                    return type.getKind().name().toLowerCase();
+            }
+        }
+
+        private String literal(String value) {
+            StringBuilder sb = new StringBuilder("\"");
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\')
+                    sb.append('\\').append(c);
+                else if (c < 0x20 || c > 0x7e)
+                    sb.append(String.format("\\u%04x", (int) c));
+                else
+                    sb.append(c);
+            }
+            return sb.append('"').toString();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.owlike.genson.apt;
+
+import java.util.Map;
+
+import com.owlike.genson.Converter;
+
+/**
+ * Provides converters created ahead of time. Implementations are listed in
+ * META-INF/services/com.owlike.genson.apt.ConverterRegistry and discovered with a
+ * {@link java.util.ServiceLoader ServiceLoader} by {@link com.owlike.genson.GensonBuilder
+ * GensonBuilder}, see {@link com.owlike.genson.GensonBuilder#useGeneratedConverters(boolean)}.
+ * {@link ConverterProcessor} generates one implementation per compilation, registering the
+ * converters of the classes annotated with {@link com.owlike.genson.annotation.JsonSerializable
+ * JsonSerializable}.
+ */
+public interface ConverterRegistry {
+    /**
+     * @return new converter instances mapped to the exact class they handle.
+     */
+    public Map<Class<?>, Converter<?>> converters();
+}
@@ -0,0 +1,223 @@
+package com.owlike.genson.apt;
+
+import java.lang.reflect.Type;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.owlike.genson.Context;
+import com.owlike.genson.Converter;
+import com.owlike.genson.Genson;
+import com.owlike.genson.Wrapper;
+import com.owlike.genson.annotation.HandleNull;
+import com.owlike.genson.convert.DefaultConverters;
+import com.owlike.genson.convert.NullConverter;
+import com.owlike.genson.convert.PrimitiveConverters;
+import com.owlike.genson.stream.EncodedName;
+import com.owlike.genson.stream.ExtendedObjectWriter;
+import com.owlike.genson.stream.ObjectReader;
+import com.owlike.genson.stream.ObjectWriter;
+
+/**
+ * Base class of the converters generated by {@link ConverterProcessor}. The generated code reads
+ * and writes the properties directly, the converters of their values are resolved from Genson the
+ * first time they are used, so custom converters registered in the GensonBuilder are still
+ * honored. The value at index i has the type types[i], or is handled by propertyConverters[i] when
+ * it is not null (for example for dates annotated with @JsonDateFormat).
+ *
+ * This class is public only because the generated converters are in the packages of the annotated
+ * classes, you should not use it directly.
+ *
+ * @param <T> the type of the bean handled by this converter.
+ */
+public abstract class GeneratedConverter<T> implements Converter<T> {
+    private final Class<T> beanClass;
+    private final Type[] types;
+    private final Converter<?>[] propertyConverters;
+    private volatile ResolvedConverters resolved;
+
+    protected GeneratedConverter(Class<T> beanClass, Type[] types, Converter<?>[] propertyConverters) {
+        this.beanClass = beanClass;
+        this.types = types;
+        this.propertyConverters = propertyConverters;
+    }
+
+    /**
+     * @return the class of the beans handled by this converter.
+     */
+    public Class<T> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * @return the converter to use for the value at index, provided by the Genson instance of ctx.
+     */
+    @SuppressWarnings("unchecked")
+    protected final Converter<Object> converter(int index, Context ctx) {
+        ResolvedConverters current = resolved;
+        if (current == null || (current.genson != ctx.genson && !current.genson.sharesConvertersWith(ctx.genson))) {
+            current = new ResolvedConverters(ctx.genson, types.length);
+            resolved = current;
+        }
+        Converter<Object> converter = current.converters.get(index);
+        if (converter == null) {
+            Converter<?> propertyConverter = propertyConverters[index];
+            if (propertyConverter == null)
+                converter = ctx.genson.provideConverter(types[index]);
+            else if (Wrapper.toAnnotatedElement(propertyConverter).isAnnotationPresent(HandleNull.class))
+                converter = (Converter<Object>) propertyConverter;
+            else
+                converter = new NullConverter.NullConverterWrapper<Object>(ctx.genson.getNullConverter(),
+                        (Converter<Object>) propertyConverter);
+            current.converters.set(index, converter);
+        }
+        return converter;
+    }
+
+    protected final void serializeInt(int index, int value, ObjectWriter writer, Context ctx) throws Exception {
+        Converter<Object> converter = converter(index, ctx);
+        if ((Object) converter instanceof PrimitiveConverters.IntConverter)
+            ((PrimitiveConverters.IntConverter) (Object) converter).serializeInt(value, writer, ctx);
+        else
+            converter.serialize(value, writer, ctx);
+    }
+
+    protected final int deserializeInt(int index, ObjectReader reader, Context ctx) throws Exception {
+        Converter<Object> converter = converter(index, ctx);
+        if ((Object) converter instanceof PrimitiveConverters.IntConverter)
+            return ((PrimitiveConverters.IntConverter) (Object) converter).deserializeInt(reader, ctx);
+        return (Integer) converter.deserialize(reader, ctx);
+    }
+
+    protected final void serializeLong(int index, long value, ObjectWriter writer, Context ctx) throws Exception {
+        Converter<Object> converter = converter(index, ctx);
+        if ((Object) converter instanceof PrimitiveConverters.LongConverter)
+            ((PrimitiveConverters.LongConverter) (Object) converter).serializeLong(value, writer, ctx);
+        else
+            converter.serialize(value, writer, ctx);
+    }
+
+    protected final long deserializeLong(int index, ObjectReader reader, Context ctx) throws Exception {
+        Converter<Object> converter = converter(index, ctx);
+        if ((Object) converter instanceof PrimitiveConverters.LongConverter)
+            return ((PrimitiveConverters.LongConverter) (Object) converter).deserializeLong(reader, ctx);
+        return (Long) converter.deserialize(reader, ctx);
+    }
+
+    protected final void serializeDouble(int index, double value, ObjectWriter writer, Context ctx) throws Exception {
+        Converter<Object> converter = converter(index, ctx);
+        if ((Object) converter instanceof PrimitiveConverters.DoubleConverter)
+            ((PrimitiveConverters.DoubleConverter) (Object) converter).serializeDouble(value, writer, ctx);
+        else
+            converter.serialize(value, writer, ctx);
+    }
+
+    protected final double deserializeDouble(int index, ObjectReader reader, Context ctx) throws Exception {
+        Converter<Object> converter = converter(index, ctx);
+        if ((Object) converter instanceof PrimitiveConverters.DoubleConverter)
+            return ((PrimitiveConverters.DoubleConverter) (Object) converter).deserializeDouble(reader, ctx);
+        return (Double) converter.deserialize(reader, ctx);
+    }
+
+    protected final void serializeBoolean(int index, boolean value, ObjectWriter writer, Context ctx)
+            throws Exception {
+        Converter<Object> converter = converter(index, ctx);
+        if ((Object) converter instanceof PrimitiveConverters.BooleanConverter)
+            ((PrimitiveConverters.BooleanConverter) (Object) converter).serializeBoolean(value, writer, ctx);
+        else
+            converter.serialize(value, writer, ctx);
+    }
+
+    protected final boolean deserializeBoolean(int index, ObjectReader reader, Context ctx) throws Exception {
+        Converter<Object> converter = converter(index, ctx);
+        if ((Object) converter instanceof PrimitiveConverters.BooleanConverter)
+            return ((PrimitiveConverters.BooleanConverter) (Object) converter).deserializeBoolean(reader, ctx);
+        return (Boolean) converter.deserialize(reader, ctx);
+    }
+
+    protected final void serializeFloat(int index, float value, ObjectWriter writer, Context ctx) throws Exception {
+        Converter<Object> converter = converter(index, ctx);
+        if ((Object) converter instanceof PrimitiveConverters.FloatConverter)
+            ((PrimitiveConverters.FloatConverter) (Object) converter).serializeFloat(value, writer, ctx);
+        else
+            converter.serialize(value, writer, ctx);
+    }
+
+    protected final float deserializeFloat(int index, ObjectReader reader, Context ctx) throws Exception {
+        Converter<Object> converter = converter(index, ctx);
+        if ((Object) converter instanceof PrimitiveConverters.FloatConverter)
+            return ((PrimitiveConverters.FloatConverter) (Object) converter).deserializeFloat(reader, ctx);
+        return (Float) converter.deserialize(reader, ctx);
+    }
+
+    protected final void serializeShort(int index, short value, ObjectWriter writer, Context ctx) throws Exception {
+        Converter<Object> converter = converter(index, ctx);
+        if ((Object) converter instanceof PrimitiveConverters.ShortConverter)
+            ((PrimitiveConverters.ShortConverter) (Object) converter).serializeShort(value, writer, ctx);
+        else
+            converter.serialize(value, writer, ctx);
+    }
+
+    protected final short deserializeShort(int index, ObjectReader reader, Context ctx) throws Exception {
+        Converter<Object> converter = converter(index, ctx);
+        if ((Object) converter instanceof PrimitiveConverters.ShortConverter)
+            return ((PrimitiveConverters.ShortConverter) (Object) converter).deserializeShort(reader, ctx);
+        return (Short) converter.deserialize(reader, ctx);
+    }
+
+    /**
+     * Writes the encoded name if the writer supports it, otherwise writes it as a String.
+     */
+    protected static void writeName(EncodedName name, ObjectWriter writer) {
+        if (writer instanceof ExtendedObjectWriter) ((ExtendedObjectWriter) writer).writeName(name);
+        else writer.writeName(name.getName());
+    }
+
+    /**
+     * @return the position of name in the properties that can be deserialized, -1 if it is unknown.
+     */
+    protected static int indexOf(Map<String, Integer> indexes, String name) {
+        Integer index = indexes.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @return a map from each name to its position, used by the generated deserialize methods.
+     */
+    protected static Map<String, Integer> indexes(String... names) {
+        Map<String, Integer> indexes = new HashMap<String, Integer>(names.length * 2);
+        for (int i = 0; i < names.length; i++)
+            indexes.put(names[i], i);
+        return indexes;
+    }
+
+    /**
+     * Creates the converter used for a property annotated with
+     * {@link com.owlike.genson.annotation.JsonDateFormat JsonDateFormat}, the same way as
+     * {@link DefaultConverters.DateContextualFactory}.
+     */
+    protected static Converter<?> dateConverter(String pattern, String lang, boolean asTimeInMillis,
+                                                Class<?> propertyClass) {
+        Locale locale = lang.isEmpty() ? Locale.getDefault() : new Locale(lang);
+        DefaultConverters.DateConverter converter = new DefaultConverters.DateConverter(
+                new SimpleDateFormat(pattern, locale), asTimeInMillis);
+        if (Date.class.isAssignableFrom(propertyClass)) return converter;
+        if (Calendar.class.isAssignableFrom(propertyClass))
+            return new DefaultConverters.CalendarConverter(converter);
+        return null;
+    }
+
+    private final static class ResolvedConverters {
+        final Genson genson;
+        final AtomicReferenceArray<Converter<Object>> converters;
+
+        ResolvedConverters(Genson genson, int size) {
+            this.genson = genson;
+            this.converters = new AtomicReferenceArray<Converter<Object>>(size);
+        }
+    }
+}
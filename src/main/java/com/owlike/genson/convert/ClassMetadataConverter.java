@@ -79,6 +79,19 @@ public void serialize(T obj, ObjectWriter writer, Context ctx) throws Exception
 	}
 
 	public T deserialize(ObjectReader reader, Context ctx) throws Exception {
+		return deserialize(tClass, wrapped, reader, ctx);
+	}
+
+	Class<T> getHandledClass() {
+		return tClass;
+	}
+
+	/**
+	 * Deserializes with the converter of the class found in the metadata of the next object if
+	 * there is one and it is not tClass, otherwise with converter.
+	 */
+	static <T> T deserialize(Class<T> tClass, Converter<T> converter, ObjectReader reader, Context ctx)
+			throws Exception {
 		if (ValueType.OBJECT.equals(reader.getValueType())) {
 			String className = reader.nextObjectMetadata().metadata("class");
 			if (className != null) {
@@ -94,7 +107,7 @@ public T deserialize(ObjectReader reader, Context ctx) throws Exception {
 				}
 			}
 		}
-		return wrapped.deserialize(reader, ctx);
+		return converter.deserialize(reader, ctx);
 	}
 
 }
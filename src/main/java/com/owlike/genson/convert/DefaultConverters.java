@@ -22,6 +22,7 @@
 import com.owlike.genson.annotation.HandleBeanView;
 import com.owlike.genson.reflect.BeanProperty;
 import com.owlike.genson.reflect.TypeUtil;
+import com.owlike.genson.stream.ExtendedObjectReader;
 import com.owlike.genson.stream.ObjectReader;
 import com.owlike.genson.stream.ObjectWriter;
 import com.owlike.genson.stream.ValueType;
@@ -41,6 +42,15 @@ public final class DefaultConverters {
 	private DefaultConverters() {
 	}
 
+	/*
+	 * The value as a view over the reader buffer when the reader supports it, otherwise as a String.
+	 */
+	private static CharSequence valueAsCharSequence(ObjectReader reader) {
+		if (reader instanceof ExtendedObjectReader)
+			return ((ExtendedObjectReader) reader).valueAsCharSequence();
+		return reader.valueAsString();
+	}
+
 	@HandleClassMetadata
 	public static class SetConverter<E> extends CollectionConverter<E> {
 
@@ -379,8 +389,8 @@ public void serialize(Boolean obj, ObjectWriter writer, Context ctx) {
 
 		public Boolean deserialize(ObjectReader reader, Context ctx) {
 			if (ValueType.STRING.equals(reader.getValueType())) {
-				String value = reader.valueAsString();
-				return "".equals(value) ? null : Boolean.valueOf(value);
+				return valueAsCharSequence(reader).length() == 0 ? null : Boolean.valueOf(reader
+						.valueAsBoolean());
 			}
 			return reader.valueAsBoolean();
 		}
@@ -545,6 +555,8 @@ public Converter<?> create(Type type, Genson genson) {
 				if (rawClass.equals(int.class)) return intConverter.instance;
 				if (rawClass.equals(double.class)) return doubleConverter.instance;
 				if (rawClass.equals(long.class)) return longConverter.instance;
+				if (rawClass.equals(float.class)) return floatConverter.instance;
+				if (rawClass.equals(short.class)) return shortConverter.instance;
 			}
 			return null;
 		}
@@ -552,7 +564,7 @@ public Converter<?> create(Type type, Genson genson) {
 		@HandleClassMetadata
 		@HandleNull
 		@HandleBeanView
-		public final static class booleanConverter implements Converter<Boolean> {
+		public final static class booleanConverter implements PrimitiveConverters.BooleanConverter {
 			public final static booleanConverter instance = new booleanConverter();
 
 			private booleanConverter() {
@@ -565,12 +577,20 @@ public void serialize(Boolean obj, ObjectWriter writer, Context ctx) {
 			public Boolean deserialize(ObjectReader reader, Context ctx) {
 				return reader.valueAsBoolean();
 			}
+
+			public void serializeBoolean(boolean value, ObjectWriter writer, Context ctx) {
+				writer.writeValue(value);
+			}
+
+			public boolean deserializeBoolean(ObjectReader reader, Context ctx) {
+				return reader.valueAsBoolean();
+			}
 		};
 
 		@HandleClassMetadata
 		@HandleNull
 		@HandleBeanView
-		public final static class intConverter implements Converter<Integer> {
+		public final static class intConverter implements PrimitiveConverters.IntConverter {
 			public final static intConverter instance = new intConverter();
 
 			private intConverter() {
@@ -580,7 +600,15 @@ public void serialize(Integer obj, ObjectWriter writer, Context ctx) {
 				writer.writeValue(obj.intValue());
 			}
 
-            public Integer deserialize(ObjectReader reader, Context ctx) {
+			public Integer deserialize(ObjectReader reader, Context ctx) {
+				return reader.valueAsInt();
+			}
+
+			public void serializeInt(int value, ObjectWriter writer, Context ctx) {
+				writer.writeValue(value);
+			}
+
+			public int deserializeInt(ObjectReader reader, Context ctx) {
 				return reader.valueAsInt();
 			}
 		};
@@ -588,7 +616,7 @@ public Integer deserialize(ObjectReader reader, Context ctx) {
 		@HandleClassMetadata
 		@HandleNull
 		@HandleBeanView
-		public final static class doubleConverter implements Converter<Double> {
+		public final static class doubleConverter implements PrimitiveConverters.DoubleConverter {
 			public final static doubleConverter instance = new doubleConverter();
 
 			private doubleConverter() {
@@ -601,12 +629,20 @@ public void serialize(Double obj, ObjectWriter writer, Context ctx) {
 			public Double deserialize(ObjectReader reader, Context ctx) {
 				return reader.valueAsDouble();
 			}
+
+			public void serializeDouble(double value, ObjectWriter writer, Context ctx) {
+				writer.writeValue(value);
+			}
+
+			public double deserializeDouble(ObjectReader reader, Context ctx) {
+				return reader.valueAsDouble();
+			}
 		};
 
 		@HandleClassMetadata
 		@HandleNull
 		@HandleBeanView
-		public final static class longConverter implements Converter<Long> {
+		public final static class longConverter implements PrimitiveConverters.LongConverter {
 			public final static longConverter instance = new longConverter();
 
 			private longConverter() {
@@ -619,6 +655,66 @@ public void serialize(Long obj, ObjectWriter writer, Context ctx) {
 			public Long deserialize(ObjectReader reader, Context ctx) {
 				return reader.valueAsLong();
 			}
+
+			public void serializeLong(long value, ObjectWriter writer, Context ctx) {
+				writer.writeValue(value);
+			}
+
+			public long deserializeLong(ObjectReader reader, Context ctx) {
+				return reader.valueAsLong();
+			}
+		};
+
+		@HandleClassMetadata
+		@HandleNull
+		@HandleBeanView
+		public final static class floatConverter implements PrimitiveConverters.FloatConverter {
+			public final static floatConverter instance = new floatConverter();
+
+			private floatConverter() {
+			}
+
+			public void serialize(Float obj, ObjectWriter writer, Context ctx) {
+				writer.writeValue(obj.floatValue());
+			}
+
+			public Float deserialize(ObjectReader reader, Context ctx) {
+				return reader.valueAsFloat();
+			}
+
+			public void serializeFloat(float value, ObjectWriter writer, Context ctx) {
+				writer.writeValue(value);
+			}
+
+			public float deserializeFloat(ObjectReader reader, Context ctx) {
+				return reader.valueAsFloat();
+			}
+		};
+
+		@HandleClassMetadata
+		@HandleNull
+		@HandleBeanView
+		public final static class shortConverter implements PrimitiveConverters.ShortConverter {
+			public final static shortConverter instance = new shortConverter();
+
+			private shortConverter() {
+			}
+
+			public void serialize(Short obj, ObjectWriter writer, Context ctx) {
+				writer.writeValue(obj.shortValue());
+			}
+
+			public Short deserialize(ObjectReader reader, Context ctx) {
+				return reader.valueAsShort();
+			}
+
+			public void serializeShort(short value, ObjectWriter writer, Context ctx) {
+				writer.writeValue(value);
+			}
+
+			public short deserializeShort(ObjectReader reader, Context ctx) {
+				return reader.valueAsShort();
+			}
 		};
 	};
 
@@ -980,27 +1076,25 @@ private UntypedConverterFactory() {
 		}
 
 		private final static class UntypedConverter implements Converter<Object> {
-			final static UntypedConverter instance = new UntypedConverter();
-
-			private UntypedConverter() {
-			}
+			private final RuntimeTypeCache runtimeTypes = new RuntimeTypeCache();
 
 			public Object deserialize(ObjectReader reader, Context ctx) {
 				return ctx.genson.deserialize(GenericType.of(reader.getValueType().toClass()),
 						reader, ctx);
 			}
 
-			public void serialize(Object obj, ObjectWriter writer, Context ctx) {
+			public void serialize(Object obj, ObjectWriter writer, Context ctx) throws Exception {
 				if (Object.class.equals(obj.getClass()))
 					throw new UnsupportedOperationException(
 							"Serialization of type Object is not supported by default serializers.");
-				ctx.genson.serialize(obj, obj.getClass(), writer, ctx);
+				runtimeTypes.serialize(obj, writer, ctx);
 			}
 		};
 
 		public Converter<Object> create(Type type, Genson genson) {
 			if (TypeUtil.match(type, Object.class, true)) {
-				return UntypedConverter.instance;
+				// each instance has its own cache of the runtime types it has seen
+				return new UntypedConverter();
 			}
 			return null;
 		}
@@ -1010,9 +1104,15 @@ public Converter<Object> create(Type type, Genson genson) {
 	@HandleBeanView
 	public static class EnumConverter<T extends Enum<T>> implements Converter<T> {
 		private final Class<T> eClass;
+		private final T[] constants;
+		private final int[] hashes;
 
 		public EnumConverter(Class<T> eClass) {
 			this.eClass = eClass;
+			this.constants = eClass.getEnumConstants();
+			this.hashes = new int[constants.length];
+			for (int i = 0; i < constants.length; i++)
+				hashes[i] = constants[i].name().hashCode();
 		}
 
 		public void serialize(T obj, ObjectWriter writer, Context ctx) {
@@ -1020,7 +1120,25 @@ public void serialize(T obj, ObjectWriter writer, Context ctx) {
 		}
 
 		public T deserialize(ObjectReader reader, Context ctx) {
-			return Enum.valueOf(eClass, reader.valueAsString());
+			// match the value against the constant names without creating a String
+			CharSequence value = valueAsCharSequence(reader);
+			int hash = 0;
+			for (int i = 0, len = value.length(); i < len; i++)
+				hash = 31 * hash + value.charAt(i);
+			for (int i = 0; i < hashes.length; i++) {
+				if (hashes[i] == hash && contentEquals(constants[i].name(), value))
+					return constants[i];
+			}
+			// will throw the usual IllegalArgumentException
+			return Enum.valueOf(eClass, value.toString());
+		}
+
+		private boolean contentEquals(String name, CharSequence value) {
+			int len = name.length();
+			if (len != value.length()) return false;
+			for (int i = 0; i < len; i++)
+				if (name.charAt(i) != value.charAt(i)) return false;
+			return true;
 		}
 	}
 
@@ -1149,7 +1267,30 @@ public void serialize(UUID object, ObjectWriter writer, Context ctx)
 
 		@Override
 		public UUID deserialize(ObjectReader reader, Context ctx) {
-			return UUID.fromString(reader.valueAsString());
+			CharSequence value = valueAsCharSequence(reader);
+			// canonical form 8-4-4-4-12 is parsed directly, others are left to UUID.fromString
+			if (value.length() == 36 && value.charAt(8) == '-' && value.charAt(13) == '-'
+					&& value.charAt(18) == '-' && value.charAt(23) == '-') {
+				long p0 = parseHex(value, 0, 8);
+				long p1 = parseHex(value, 9, 13);
+				long p2 = parseHex(value, 14, 18);
+				long p3 = parseHex(value, 19, 23);
+				long p4 = parseHex(value, 24, 36);
+				if ((p0 | p1 | p2 | p3 | p4) >= 0)
+					return new UUID(p0 << 32 | p1 << 16 | p2, p3 << 48 | p4);
+			}
+			return UUID.fromString(value.toString());
+		}
+
+		// returns -1 if a char is not an hex digit
+		private long parseHex(CharSequence value, int from, int to) {
+			long result = 0;
+			for (int i = from; i < to; i++) {
+				int digit = Character.digit(value.charAt(i), 16);
+				if (digit < 0) return -1;
+				result = (result << 4) | digit;
+			}
+			return result;
 		}
 
 	}
@@ -1173,7 +1314,7 @@ public Converter<Calendar> create(Type type, Genson genson) {
 	public static class CalendarConverter implements Converter<Calendar> {
 		private final DateConverter dateConverter;
 
-		CalendarConverter(final DateConverter dateConverter) {
+		public CalendarConverter(final DateConverter dateConverter) {
 			this.dateConverter = dateConverter;
 		}
 
@@ -0,0 +1,108 @@
+package com.owlike.genson.convert;
+
+import java.lang.reflect.Type;
+
+import com.owlike.genson.Context;
+import com.owlike.genson.Converter;
+import com.owlike.genson.Genson;
+import com.owlike.genson.Wrapper;
+import com.owlike.genson.stream.ObjectReader;
+import com.owlike.genson.stream.ObjectWriter;
+import com.owlike.genson.stream.ValueType;
+
+/**
+ * Does in a single converter the work of a {@link NullConverter.NullConverterWrapper
+ * NullConverterWrapper}, a {@link RuntimeTypeConverter} and a {@link ClassMetadataConverter}
+ * wrapping each other, in this order, so the JIT sees one call site instead of a chain of wrappers
+ * and the calls to the converter of the type are not made megamorphic by the wrappers of the other
+ * types. The wrappers not in the chain are skipped.
+ *
+ * @param <T> the type this converter is handling.
+ */
+public final class FusedConverter<T> extends Wrapper<Converter<T>> implements Converter<T> {
+	/**
+	 * Replaces the converters created by the next factories with a FusedConverter when at least
+	 * two of the wrappers it handles are chained. The wrappers are recognized only if they are
+	 * instances of the default implementations, not of subclasses.
+	 */
+	public static class FusedConverterFactory extends ChainedFactory {
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		@Override
+		protected Converter<?> create(Type type, Genson genson, Converter<?> nextConverter) {
+			Converter converter = nextConverter;
+			int fused = 0;
+
+			Converter<Object> nullConverter = null;
+			if (converter != null && converter.getClass() == NullConverter.NullConverterWrapper.class) {
+				nullConverter = ((NullConverter.NullConverterWrapper) converter).getNullConverter();
+				converter = (Converter) ((NullConverter.NullConverterWrapper) converter).unwrap();
+				fused++;
+			}
+			Class<?> runtimeTypeClass = null;
+			if (converter != null && converter.getClass() == RuntimeTypeConverter.class) {
+				runtimeTypeClass = ((RuntimeTypeConverter) converter).getHandledClass();
+				converter = (Converter) ((RuntimeTypeConverter) converter).unwrap();
+				fused++;
+			}
+			Class<?> metadataClass = null;
+			if (converter != null && converter.getClass() == ClassMetadataConverter.class) {
+				metadataClass = ((ClassMetadataConverter) converter).getHandledClass();
+				converter = (Converter) ((ClassMetadataConverter) converter).unwrap();
+				fused++;
+			}
+
+			if (fused < 2) return nextConverter;
+			return new FusedConverter(nullConverter, runtimeTypeClass, metadataClass, converter);
+		}
+	}
+
+	private final Converter<Object> nullConverter;
+	private final Class<?> runtimeTypeClass;
+	private final Class<T> metadataClass;
+	private final boolean writeMetadata;
+	private final RuntimeTypeCache runtimeTypes = new RuntimeTypeCache();
+
+	/**
+	 * @param nullConverter used for null values, or null to let converter handle them.
+	 * @param runtimeTypeClass if not null, objects of another class are serialized with the
+	 *        converter of their runtime type.
+	 * @param metadataClass if not null, the class metadata is written and used during
+	 *        deserialization.
+	 * @param converter the converter handling the objects of this type.
+	 */
+	public FusedConverter(Converter<Object> nullConverter, Class<?> runtimeTypeClass,
+			Class<T> metadataClass, Converter<T> converter) {
+		super(converter);
+		this.nullConverter = nullConverter;
+		this.runtimeTypeClass = runtimeTypeClass;
+		this.metadataClass = metadataClass;
+		this.writeMetadata = metadataClass != null && !Object.class.equals(metadataClass);
+	}
+
+	public void serialize(T obj, ObjectWriter writer, Context ctx) throws Exception {
+		if (obj == null) {
+			if (nullConverter != null) nullConverter.serialize(obj, writer, ctx);
+			else wrapped.serialize(obj, writer, ctx);
+			return;
+		}
+
+		Class<?> objClass = obj.getClass();
+		if (runtimeTypeClass != null && runtimeTypeClass != objClass) {
+			runtimeTypes.serialize(obj, writer, ctx);
+			return;
+		}
+
+		if (writeMetadata)
+			writer.beginNextObjectMetadata().writeMetadata("class", ctx.genson.aliasFor(objClass));
+		wrapped.serialize(obj, writer, ctx);
+	}
+
+	@SuppressWarnings("unchecked")
+	public T deserialize(ObjectReader reader, Context ctx) throws Exception {
+		if (nullConverter != null && ValueType.NULL == reader.getValueType())
+			return (T) nullConverter.deserialize(reader, ctx);
+		if (metadataClass != null)
+			return ClassMetadataConverter.deserialize(metadataClass, wrapped, reader, ctx);
+		return wrapped.deserialize(reader, ctx);
+	}
+}
@@ -41,6 +41,10 @@ public NullConverterWrapper(Converter<Object> nullConverter, Converter<T> conver
 			this.nullConverter = nullConverter;
 		}
 
+		Converter<Object> getNullConverter() {
+			return nullConverter;
+		}
+
 		public void serialize(T obj, ObjectWriter writer, Context ctx) throws Exception {
 			if (obj == null) {
 				nullConverter.serialize(obj, writer, ctx);
@@ -0,0 +1,56 @@
+package com.owlike.genson.convert;
+
+import com.owlike.genson.Context;
+import com.owlike.genson.Converter;
+import com.owlike.genson.stream.ObjectReader;
+import com.owlike.genson.stream.ObjectWriter;
+
+/**
+ * Converters of primitive types that can read and write the primitive values without boxing them.
+ * When the converter of a primitive bean property implements the interface corresponding to its
+ * type, the BeanDescriptor uses these methods together with the primitive accessors and mutators
+ * (for example {@link com.owlike.genson.reflect.PropertyAccessor#accessInt(Object)
+ * PropertyAccessor.accessInt}) so no wrapper is allocated. The default converters of int, long,
+ * double, boolean, float and short implement them.
+ */
+public final class PrimitiveConverters {
+	private PrimitiveConverters() {
+	}
+
+	public static interface IntConverter extends Converter<Integer> {
+		public void serializeInt(int value, ObjectWriter writer, Context ctx) throws Exception;
+
+		public int deserializeInt(ObjectReader reader, Context ctx) throws Exception;
+	}
+
+	public static interface LongConverter extends Converter<Long> {
+		public void serializeLong(long value, ObjectWriter writer, Context ctx) throws Exception;
+
+		public long deserializeLong(ObjectReader reader, Context ctx) throws Exception;
+	}
+
+	public static interface DoubleConverter extends Converter<Double> {
+		public void serializeDouble(double value, ObjectWriter writer, Context ctx) throws Exception;
+
+		public double deserializeDouble(ObjectReader reader, Context ctx) throws Exception;
+	}
+
+	public static interface BooleanConverter extends Converter<Boolean> {
+		public void serializeBoolean(boolean value, ObjectWriter writer, Context ctx)
+				throws Exception;
+
+		public boolean deserializeBoolean(ObjectReader reader, Context ctx) throws Exception;
+	}
+
+	public static interface FloatConverter extends Converter<Float> {
+		public void serializeFloat(float value, ObjectWriter writer, Context ctx) throws Exception;
+
+		public float deserializeFloat(ObjectReader reader, Context ctx) throws Exception;
+	}
+
+	public static interface ShortConverter extends Converter<Short> {
+		public void serializeShort(short value, ObjectWriter writer, Context ctx) throws Exception;
+
+		public short deserializeShort(ObjectReader reader, Context ctx) throws Exception;
+	}
+}
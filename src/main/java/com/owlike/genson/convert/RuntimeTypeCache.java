@@ -0,0 +1,60 @@
+package com.owlike.genson.convert;
+
+import com.owlike.genson.Context;
+import com.owlike.genson.Converter;
+import com.owlike.genson.Genson;
+import com.owlike.genson.stream.ObjectWriter;
+
+/**
+ * A small inline cache of the converters used to serialize objects with their runtime type. Each
+ * converter dispatching on the runtime type of the objects it serializes should use its own
+ * instance, it remembers the last few runtime classes seen there and their converters, so that
+ * dispatching is usually a few reference comparisons instead of a lookup in the converters cache of
+ * Genson.
+ *
+ * The values are serialized directly with the converter of their runtime type, the writer is not
+ * flushed as it is when using {@link Genson#serialize(Object, java.lang.reflect.Type, ObjectWriter, Context)}.
+ */
+public final class RuntimeTypeCache {
+	private final static int SIZE = 4;
+
+	/*
+	 * The entries are immutable and the array is accessed without synchronization: a thread may
+	 * not see an entry added by another one and look the converter up again, which is harmless.
+	 */
+	private final Entry[] entries = new Entry[SIZE];
+	private int next;
+
+	public void serialize(Object object, ObjectWriter writer, Context ctx) throws Exception {
+		converter(object.getClass(), ctx.genson).serialize(object, writer, ctx);
+	}
+
+	/**
+	 * @return the converter of clazz provided by genson.
+	 */
+	public Converter<Object> converter(Class<?> clazz, Genson genson) {
+		for (int i = 0; i < SIZE; i++) {
+			Entry entry = entries[i];
+			if (entry != null && entry.clazz == clazz
+					&& (entry.genson == genson || entry.genson.sharesConvertersWith(genson)))
+				return entry.converter;
+		}
+
+		Converter<Object> converter = genson.provideConverter(clazz);
+		entries[next] = new Entry(clazz, genson, converter);
+		next = (next + 1) % SIZE;
+		return converter;
+	}
+
+	private final static class Entry {
+		final Class<?> clazz;
+		final Genson genson;
+		final Converter<Object> converter;
+
+		Entry(Class<?> clazz, Genson genson, Converter<Object> converter) {
+			this.clazz = clazz;
+			this.genson = genson;
+			this.converter = converter;
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.owlike.genson.convert;
 
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 
 import com.owlike.genson.Context;
@@ -25,20 +26,29 @@ protected Converter<?> create(Type type, Genson genson, Converter<?> nextConvert
 			if (nextConverter == null)
 				throw new IllegalArgumentException(
 						"RuntimeTypeConverter can not be last Converter in the chain.");
-			return (Converter<?>) new RuntimeTypeConverter(TypeUtil.getRawClass(type),
-					nextConverter);
+			Class<?> rawClass = TypeUtil.getRawClass(type);
+			// the runtime type of primitives and instances of final classes is the declared one
+			// (arrays are final but the runtime type of their components can differ)
+			if (rawClass.isPrimitive() || (!rawClass.isArray() && Modifier.isFinal(rawClass.getModifiers())))
+				return nextConverter;
+			return (Converter<?>) new RuntimeTypeConverter(rawClass, nextConverter);
 		}
 	};
 	private final Class<T> tClass;
+	private final RuntimeTypeCache runtimeTypes = new RuntimeTypeCache();
 
 	public RuntimeTypeConverter(Class<T> tClass, Converter<T> next) {
 		super(next);
 		this.tClass = tClass;
 	}
 
+	Class<T> getHandledClass() {
+		return tClass;
+	}
+
 	public void serialize(T obj, ObjectWriter writer, Context ctx) throws Exception {
 		if (obj != null && !tClass.equals(obj.getClass()))
-			ctx.genson.serialize(obj, obj.getClass(), writer, ctx);
+			runtimeTypes.serialize(obj, writer, ctx);
 		else
 			wrapped.serialize(obj, writer, ctx);
 	}
@@ -2,9 +2,7 @@
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.Arrays;
@@ -84,7 +82,7 @@ public void writeTo(Object t, Class<?> type, Type genericType, Annotation[] anno
 			MediaType mediaType, MultivaluedMap<String, Object> httpHeaders,
 			OutputStream entityStream) throws IOException, WebApplicationException {
 		Genson genson = getInstance(type);
-		ObjectWriter writer = genson.createWriter(new OutputStreamWriter(entityStream, "UTF-8"));
+		ObjectWriter writer = genson.createWriter(entityStream);
 		try {
 			genson.serialize(t, rawIfNullGenericType(type, genericType), writer, createContext(annotations, genson));
 			writer.flush();
@@ -121,7 +119,7 @@ public Object readFrom(Class<Object> type, Type genericType, Annotation[] annota
 			InputStream entityStream) throws IOException, WebApplicationException {
 		try {
 			Genson genson = getInstance(type);
-			ObjectReader reader = genson.createReader(new InputStreamReader(entityStream, "UTF-8"));
+			ObjectReader reader = genson.createReader(entityStream);
 			return genson.deserialize(GenericType.of(rawIfNullGenericType(type, genericType)), reader, createContext(annotations, genson));
 		} catch (JsonBindingException e) {
 			throw new WebApplicationException(e);
@@ -0,0 +1,377 @@
+package com.owlike.genson.reflect;
+
+import static com.owlike.genson.reflect.ASMBeanPropertyFactory.internalName;
+import static com.owlike.genson.reflect.ASMBeanPropertyFactory.isAccessible;
+import static com.owlike.genson.reflect.TypeUtil.getRawClass;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import com.owlike.genson.Context;
+import com.owlike.genson.Serializer;
+import com.owlike.genson.convert.DefaultConverters.PrimitiveConverterFactory;
+import com.owlike.genson.convert.DefaultConverters.StringConverter;
+import com.owlike.genson.convert.NullConverter.NullConverterWrapper;
+import com.owlike.genson.convert.RuntimeTypeConverter;
+import com.owlike.genson.stream.EncodedName;
+import com.owlike.genson.stream.ExtendedObjectWriter;
+import com.owlike.genson.stream.ObjectWriter;
+
+/**
+ * A BeanDescriptorProvider that generates with ASM, for each bean class, a
+ * {@link GeneratedBeanSerializer} writing all the properties in a single method. For each
+ * property the generated code calls directly the getter or reads the field (when they are public
+ * members of a public class) and writes the name with
+ * {@link ExtendedObjectWriter#writeName(EncodedName)}.
+ * Properties of type int, long, double, boolean, float, short and String that use the default
+ * converters are written directly with the corresponding writeValue method, bypassing the
+ * converters chain. The other properties are serialized with their converter, as done by
+ * {@link BeanDescriptor}. The produced json is the same. To enable it :
+ *
+ * <pre>
+ * new GensonBuilder().useGeneratedSerializers(true).create();
+ * </pre>
+ *
+ * If the serializer can not be generated, for example when ASM is not available or some property
+ * accessor overrides {@link PropertyAccessor#serialize(Object, ObjectWriter, Context)}, a standard
+ * BeanDescriptor is used. It is also used with writers that are not ExtendedObjectWriters.
+ * Deserialization is not affected.
+ */
+public class ASMBeanDescriptorProvider extends BaseBeanDescriptorProvider implements Opcodes {
+	private final static String SUPER_NAME = internalName(GeneratedBeanSerializer.class);
+	private final static String WRITER_NAME = internalName(ObjectWriter.class);
+	private final static String SERIALIZER_NAME = internalName(Serializer.class);
+	private final static String ACCESSOR_NAME = internalName(PropertyAccessor.class);
+	private final static String WRITER_DESC = "L" + WRITER_NAME + ";";
+	private final static String EXTENDED_WRITER_NAME = internalName(ExtendedObjectWriter.class);
+	private final static String ENCODED_NAME_DESC = "L" + internalName(EncodedName.class) + ";";
+	private final static String CONTEXT_DESC = "L" + internalName(Context.class) + ";";
+
+	// locals of the generated serialize method
+	private final static int BEAN = 1, WRITER = 2, CTX = 3, NAMES = 4, SERIALIZERS = 5,
+			ACCESSORS = 6, INDEX = 7, THROWABLE = 8, VALUE = 9;
+
+	public ASMBeanDescriptorProvider(ContextualConverterFactory ctxConverterFactory,
+			BeanPropertyFactory propertyFactory, BeanMutatorAccessorResolver mutatorAccessorResolver,
+			PropertyNameResolver nameResolver, boolean useGettersAndSetters, boolean useFields,
+			boolean favorEmptyCreators) {
+		super(ctxConverterFactory, propertyFactory, mutatorAccessorResolver, nameResolver,
+				useGettersAndSetters, useFields, favorEmptyCreators);
+	}
+
+	@Override
+	protected <T> BeanDescriptor<T> create(Class<T> forClass, Type ofType, BeanCreator creator,
+			List<PropertyAccessor> accessors, Map<String, PropertyMutator> mutators) {
+		BeanDescriptor<T> descriptor = super.create(forClass, ofType, creator, accessors, mutators);
+		// the accessors are now sorted
+		List<PropertyAccessor> properties = descriptor.accessibleProperties;
+		GeneratedBeanSerializer serializer;
+		try {
+			serializer = generate(forClass, properties);
+		} catch (Throwable th) {
+			// ASM is missing, the class can not be verified etc, the loop of BeanDescriptor is used
+			serializer = null;
+		}
+		if (serializer == null) return descriptor;
+		return new GeneratedBeanDescriptor<T>(forClass, getRawClass(ofType),
+				new ArrayList<PropertyAccessor>(properties), mutators, creator, serializer);
+	}
+
+	private GeneratedBeanSerializer generate(Class<?> forClass, List<PropertyAccessor> properties)
+			throws Exception {
+		int size = properties.size();
+		PropertyAccessor[] accessors = properties.toArray(new PropertyAccessor[size]);
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Serializer<Object>[] serializers = new Serializer[size];
+		EncodedName[] names = new EncodedName[size];
+		for (int i = 0; i < size; i++) {
+			// the generated code would ignore its custom serialization
+			if (accessors[i].getClass().getMethod("serialize", Object.class, ObjectWriter.class,
+					Context.class).getDeclaringClass() != PropertyAccessor.class) return null;
+			serializers[i] = accessors[i].propertySerializer;
+			names[i] = new EncodedName(accessors[i].name);
+		}
+
+		String className = "com.owlike.genson.reflect.generated."
+				+ forClass.getName().replace('.', '_') + "Serializer";
+		byte[] bytecode = generate(className.replace('.', '/'), accessors, serializers);
+		Class<?> serializerClass = new GeneratedClassLoader(forClass.getClassLoader(),
+				GeneratedBeanSerializer.class, PropertyAccessor.class, Serializer.class,
+				EncodedName.class, ObjectWriter.class, ExtendedObjectWriter.class, Context.class).define(
+				className, bytecode);
+		return (GeneratedBeanSerializer) serializerClass.getConstructors()[0].newInstance(
+				accessors, serializers, names);
+	}
+
+	private byte[] generate(String internalName, PropertyAccessor[] accessors,
+			Serializer<Object>[] serializers) {
+		String ctrDesc = "([L" + ACCESSOR_NAME + ";[L" + SERIALIZER_NAME + ";[" + ENCODED_NAME_DESC
+				+ ")V";
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(V1_5, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, internalName, null, SUPER_NAME, null);
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", ctrDesc, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitVarInsn(ALOAD, 3);
+		mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", ctrDesc);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// public void serialize(Object bean, ExtendedObjectWriter writer, Context ctx)
+		mv = cw.visitMethod(ACC_PUBLIC, "serialize", "(Ljava/lang/Object;L" + EXTENDED_WRITER_NAME
+				+ ";" + CONTEXT_DESC + ")V", null, null);
+		mv.visitCode();
+
+		// all the try catch blocks must be declared before their labels are visited
+		Member[] members = new Member[accessors.length];
+		Label[] accessStarts = new Label[accessors.length];
+		Label[] accessEnds = new Label[accessors.length];
+		Label[] serializeStarts = new Label[accessors.length];
+		Label[] serializeEnds = new Label[accessors.length];
+		Label accessHandler = new Label();
+		Label serializeHandler = new Label();
+		for (int i = 0; i < accessors.length; i++) {
+			members[i] = directlyAccessibleMember(accessors[i]);
+			if (members[i] != null) {
+				accessStarts[i] = new Label();
+				accessEnds[i] = new Label();
+				mv.visitTryCatchBlock(accessStarts[i], accessEnds[i], accessHandler,
+						"java/lang/Throwable");
+			}
+			serializeStarts[i] = new Label();
+			serializeEnds[i] = new Label();
+			mv.visitTryCatchBlock(serializeStarts[i], serializeEnds[i], serializeHandler,
+					"java/lang/Throwable");
+		}
+
+		loadField(mv, "names", "[" + ENCODED_NAME_DESC, NAMES);
+		loadField(mv, "serializers", "[L" + SERIALIZER_NAME + ";", SERIALIZERS);
+		loadField(mv, "accessors", "[L" + ACCESSOR_NAME + ";", ACCESSORS);
+
+		mv.visitVarInsn(ALOAD, WRITER);
+		mv.visitMethodInsn(INVOKEINTERFACE, WRITER_NAME, "beginObject", "()" + WRITER_DESC);
+		mv.visitInsn(POP);
+
+		for (int i = 0; i < accessors.length; i++) {
+			Member member = members[i];
+			Class<?> type = member == null ? Object.class : memberType(member);
+			String valueDesc = valueDescriptor(type, serializers[i]);
+
+			pushInt(mv, i);
+			mv.visitVarInsn(ISTORE, INDEX);
+
+			// reads the value of the property
+			if (member != null) {
+				mv.visitLabel(accessStarts[i]);
+				mv.visitVarInsn(ALOAD, BEAN);
+				mv.visitTypeInsn(CHECKCAST, internalName(member.getDeclaringClass()));
+				if (member instanceof Method) {
+					Method getter = (Method) member;
+					mv.visitMethodInsn(getter.getDeclaringClass().isInterface() ? INVOKEINTERFACE
+							: INVOKEVIRTUAL, internalName(getter.getDeclaringClass()),
+							getter.getName(), org.objectweb.asm.Type.getMethodDescriptor(getter));
+				} else {
+					Field field = (Field) member;
+					mv.visitFieldInsn(GETFIELD, internalName(field.getDeclaringClass()),
+							field.getName(), org.objectweb.asm.Type.getDescriptor(type));
+				}
+				if (valueDesc == null) box(mv, type);
+				mv.visitLabel(accessEnds[i]);
+			} else {
+				mv.visitVarInsn(ALOAD, ACCESSORS);
+				pushInt(mv, i);
+				mv.visitInsn(AALOAD);
+				mv.visitVarInsn(ALOAD, BEAN);
+				mv.visitMethodInsn(INVOKEVIRTUAL, ACCESSOR_NAME, "access",
+						"(Ljava/lang/Object;)Ljava/lang/Object;");
+			}
+			org.objectweb.asm.Type valueType = org.objectweb.asm.Type.getType(valueDesc == null
+					? "Ljava/lang/Object;" : valueDesc);
+			mv.visitVarInsn(valueType.getOpcode(ISTORE), VALUE);
+
+			// writes the name and the value
+			mv.visitLabel(serializeStarts[i]);
+			mv.visitVarInsn(ALOAD, WRITER);
+			mv.visitVarInsn(ALOAD, NAMES);
+			pushInt(mv, i);
+			mv.visitInsn(AALOAD);
+			mv.visitMethodInsn(INVOKEINTERFACE, EXTENDED_WRITER_NAME, "writeName", "("
+					+ ENCODED_NAME_DESC + ")" + WRITER_DESC);
+			mv.visitInsn(POP);
+			if (valueDesc == null) {
+				serializeWithConverter(mv, i);
+			} else if ("Ljava/lang/String;".equals(valueDesc)) {
+				// null strings are handled by the null converter of the chain
+				Label isNull = new Label();
+				Label end = new Label();
+				mv.visitVarInsn(ALOAD, VALUE);
+				mv.visitJumpInsn(IFNULL, isNull);
+				writeValue(mv, valueType, valueDesc);
+				mv.visitJumpInsn(GOTO, end);
+				mv.visitLabel(isNull);
+				serializeWithConverter(mv, i);
+				mv.visitLabel(end);
+			} else {
+				writeValue(mv, valueType, valueDesc);
+			}
+			mv.visitLabel(serializeEnds[i]);
+		}
+
+		mv.visitVarInsn(ALOAD, WRITER);
+		mv.visitMethodInsn(INVOKEINTERFACE, WRITER_NAME, "endObject", "()" + WRITER_DESC);
+		mv.visitInsn(POP);
+		mv.visitInsn(RETURN);
+
+		handler(mv, accessHandler, "accessFailure", "Ljava/lang/RuntimeException;");
+		handler(mv, serializeHandler, "serializeFailure", "Lcom/owlike/genson/JsonBindingException;");
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	/*
+	 * Returns the descriptor of the value written directly with ObjectWriter.writeValue, or null
+	 * if the value must be serialized by the converter of the property.
+	 */
+	private String valueDescriptor(Class<?> type, Object serializer) {
+		if (type == int.class && serializer == PrimitiveConverterFactory.intConverter.instance)
+			return "I";
+		if (type == long.class && serializer == PrimitiveConverterFactory.longConverter.instance)
+			return "J";
+		if (type == double.class && serializer == PrimitiveConverterFactory.doubleConverter.instance)
+			return "D";
+		if (type == boolean.class
+				&& serializer == PrimitiveConverterFactory.booleanConverter.instance) return "Z";
+		if (type == float.class && serializer == PrimitiveConverterFactory.floatConverter.instance)
+			return "F";
+		if (type == short.class && serializer == PrimitiveConverterFactory.shortConverter.instance)
+			return "S";
+
+		if (serializer instanceof NullConverterWrapper) {
+			Object converter = ((NullConverterWrapper<?>) serializer).unwrap();
+			// String is final, its runtime type is always the declared one
+			while (converter instanceof RuntimeTypeConverter)
+				converter = ((RuntimeTypeConverter<?>) converter).unwrap();
+			if (converter == StringConverter.instance
+					&& (type == String.class || type == Object.class))
+				return "Ljava/lang/String;";
+		}
+		return null;
+	}
+
+	/*
+	 * Returns the public getter or field that the generated code can use instead of the accessor.
+	 */
+	private Member directlyAccessibleMember(PropertyAccessor accessor) {
+		Class<?> accessorClass = accessor.getClass();
+		Member member;
+		if (accessorClass == PropertyAccessor.MethodAccessor.class
+				|| accessorClass == ASMBeanPropertyFactory.GeneratedMethodAccessor.class)
+			member = ((PropertyAccessor.MethodAccessor) accessor)._getter;
+		else if (accessorClass == PropertyAccessor.FieldAccessor.class
+				|| accessorClass == ASMBeanPropertyFactory.GeneratedFieldAccessor.class)
+			member = ((PropertyAccessor.FieldAccessor) accessor)._field;
+		else
+			return null;
+
+		if (!Modifier.isPublic(member.getModifiers()) || Modifier.isStatic(member.getModifiers())
+				|| !isAccessible(member.getDeclaringClass()) || !isAccessible(memberType(member)))
+			return null;
+		if (member instanceof Method && ((Method) member).getParameterTypes().length > 0)
+			return null;
+		return member;
+	}
+
+	private Class<?> memberType(Member member) {
+		return member instanceof Method ? ((Method) member).getReturnType() : ((Field) member)
+				.getType();
+	}
+
+	private void loadField(MethodVisitor mv, String name, String desc, int local) {
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, SUPER_NAME, name, desc);
+		mv.visitVarInsn(ASTORE, local);
+	}
+
+	private void writeValue(MethodVisitor mv, org.objectweb.asm.Type valueType, String valueDesc) {
+		mv.visitVarInsn(ALOAD, WRITER);
+		mv.visitVarInsn(valueType.getOpcode(ILOAD), VALUE);
+		if (valueType.getSort() == org.objectweb.asm.Type.OBJECT)
+			mv.visitTypeInsn(CHECKCAST, valueType.getInternalName());
+		mv.visitMethodInsn(INVOKEINTERFACE, WRITER_NAME, "writeValue", "(" + valueDesc + ")"
+				+ WRITER_DESC);
+		mv.visitInsn(POP);
+	}
+
+	private void serializeWithConverter(MethodVisitor mv, int index) {
+		mv.visitVarInsn(ALOAD, SERIALIZERS);
+		pushInt(mv, index);
+		mv.visitInsn(AALOAD);
+		mv.visitVarInsn(ALOAD, VALUE);
+		mv.visitVarInsn(ALOAD, WRITER);
+		mv.visitVarInsn(ALOAD, CTX);
+		mv.visitMethodInsn(INVOKEINTERFACE, SERIALIZER_NAME, "serialize", "(Ljava/lang/Object;"
+				+ WRITER_DESC + CONTEXT_DESC + ")V");
+	}
+
+	private void handler(MethodVisitor mv, Label label, String method, String returnDesc) {
+		mv.visitLabel(label);
+		mv.visitVarInsn(ASTORE, THROWABLE);
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ILOAD, INDEX);
+		mv.visitVarInsn(ALOAD, THROWABLE);
+		mv.visitMethodInsn(INVOKEVIRTUAL, SUPER_NAME, method, "(ILjava/lang/Throwable;)"
+				+ returnDesc);
+		mv.visitInsn(ATHROW);
+	}
+
+	private void pushInt(MethodVisitor mv, int value) {
+		if (value <= 5) mv.visitInsn(ICONST_0 + value);
+		else if (value <= Byte.MAX_VALUE) mv.visitIntInsn(BIPUSH, value);
+		else if (value <= Short.MAX_VALUE) mv.visitIntInsn(SIPUSH, value);
+		else mv.visitLdcInsn(value);
+	}
+
+	private void box(MethodVisitor mv, Class<?> type) {
+		if (type.isPrimitive()) {
+			String wrapper = internalName(TypeUtil.wrap(type));
+			mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "("
+					+ org.objectweb.asm.Type.getDescriptor(type) + ")L" + wrapper + ";");
+		}
+	}
+
+	static class GeneratedBeanDescriptor<T> extends BeanDescriptor<T> {
+		private final GeneratedBeanSerializer serializer;
+
+		GeneratedBeanDescriptor(Class<T> forClass, Class<?> fromDeclaringClass,
+				List<PropertyAccessor> readableBps, Map<String, PropertyMutator> writableBps,
+				BeanCreator creator, GeneratedBeanSerializer serializer) {
+			super(forClass, fromDeclaringClass, readableBps, writableBps, creator);
+			this.serializer = serializer;
+		}
+
+		@Override
+		public void serialize(T obj, ObjectWriter writer, Context ctx) {
+			if (writer instanceof ExtendedObjectWriter)
+				serializer.serialize(obj, (ExtendedObjectWriter) writer, ctx);
+			else super.serialize(obj, writer, ctx);
+		}
+	}
+}
@@ -0,0 +1,651 @@
+package com.owlike.genson.reflect;
+
+import static com.owlike.genson.reflect.TypeUtil.expandType;
+import static com.owlike.genson.reflect.TypeUtil.getRawClass;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import com.owlike.genson.BoundedCache;
+import com.owlike.genson.Genson;
+
+/**
+ * A BeanPropertyFactory creating accessors and mutators that don't use reflection. For each class
+ * declaring properties a {@link BeanAccess} class is generated with ASM, it calls directly the
+ * getters and setters and reads/writes directly the fields. This avoids the cost of
+ * Method.invoke and Field.get/set, that is noticeable for beans with many properties. To enable
+ * it :
+ *
+ * <pre>
+ * new GensonBuilder().useGeneratedAccessors(true).create();
+ * </pre>
+ *
+ * Only public members of public classes can be called from the generated code, for the other
+ * properties (and if the class can not be generated) this factory returns null so the next
+ * factory, usually the {@link BeanPropertyFactory.StandardFactory StandardFactory} using
+ * reflection, is used. This factory does not create BeanCreators.
+ * <p>
+ * The generated classes are defined in a child of the class loader of the bean. They are kept in a
+ * bounded cache shared by all the instances, {@link Genson#releaseClassLoader(ClassLoader)} removes
+ * the ones of a class loader so it can be garbage collected.
+ */
+public final class ASMBeanPropertyFactory implements BeanPropertyFactory, Opcodes {
+	private final static String BEAN_ACCESS_INTERNAL_NAME = internalName(BeanAccess.class);
+	// the types of the get and set methods of BeanAccess
+	private final static Class<?>[] ACCESS_TYPES = { Object.class, int.class, long.class,
+			double.class, boolean.class, float.class, short.class };
+	private final static ClassAccess NO_ACCESS = new ClassAccess(null,
+			new HashMap<Member, Integer>(), new HashMap<Member, Integer>());
+
+	private final static int MAX_CACHED_CLASSES = 1024;
+	private final static BoundedCache<Class<?>, ClassAccess> _classAccesses = new BoundedCache<Class<?>, ClassAccess>(
+			MAX_CACHED_CLASSES);
+
+	/**
+	 * Removes from the cache the generated classes of the beans loaded by classLoader or one of
+	 * its children.
+	 * 
+	 * @return the number of removed classes.
+	 */
+	public static int removeClassAccesses(final ClassLoader classLoader) {
+		return _classAccesses.removeAll(new BoundedCache.KeyFilter<Class<?>>() {
+			public boolean accept(Class<?> clazz) {
+				return TypeUtil.isLoadedBy(clazz, classLoader);
+			}
+		});
+	}
+
+	public PropertyAccessor createAccessor(String name, Field field, Type ofType, Genson genson) {
+		ClassAccess classAccess = classAccessFor(field.getDeclaringClass());
+		Integer index = classAccess.getters.get(field);
+		if (index == null) return null;
+		return new GeneratedFieldAccessor(name, field, expandType(field.getGenericType(), ofType),
+				getRawClass(ofType), classAccess.access, index);
+	}
+
+	public PropertyAccessor createAccessor(String name, Method method, Type ofType, Genson genson) {
+		ClassAccess classAccess = classAccessFor(method.getDeclaringClass());
+		Integer index = classAccess.getters.get(method);
+		if (index == null) return null;
+		return new GeneratedMethodAccessor(name, method, expandType(method.getGenericReturnType(),
+				ofType), getRawClass(ofType), classAccess.access, index);
+	}
+
+	public PropertyMutator createMutator(String name, Field field, Type ofType, Genson genson) {
+		ClassAccess classAccess = classAccessFor(field.getDeclaringClass());
+		Integer index = classAccess.setters.get(field);
+		if (index == null) return null;
+		return new GeneratedFieldMutator(name, field, expandType(field.getGenericType(), ofType),
+				getRawClass(ofType), classAccess.access, index);
+	}
+
+	public PropertyMutator createMutator(String name, Method method, Type ofType, Genson genson) {
+		ClassAccess classAccess = classAccessFor(method.getDeclaringClass());
+		Integer index = classAccess.setters.get(method);
+		if (index == null) return null;
+		return new GeneratedMethodMutator(name, method, expandType(
+				method.getGenericParameterTypes()[0], ofType), getRawClass(ofType),
+				classAccess.access, index);
+	}
+
+	public BeanCreator createCreator(Type ofType, Constructor<?> ctr, String[] resolvedNames,
+			Genson genson) {
+		return null;
+	}
+
+	public BeanCreator createCreator(Type ofType, Method method, String[] resolvedNames,
+			Genson genson) {
+		return null;
+	}
+
+	private ClassAccess classAccessFor(Class<?> clazz) {
+		ClassAccess classAccess = _classAccesses.get(clazz);
+		if (classAccess == null) {
+			classAccess = NO_ACCESS;
+			if (isAccessible(clazz)) {
+				try {
+					classAccess = generate(clazz);
+				} catch (Throwable th) {
+					// ASM is missing, the class can not be verified etc, we will use reflection
+				}
+			}
+			classAccess = _classAccesses.putIfAbsent(clazz, classAccess);
+		}
+		return classAccess;
+	}
+
+	private ClassAccess generate(Class<?> clazz) throws Exception {
+		List<Member> getters = new ArrayList<Member>();
+		List<Member> setters = new ArrayList<Member>();
+		for (Method method : clazz.getDeclaredMethods()) {
+			int modifiers = method.getModifiers();
+			if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || method.isSynthetic())
+				continue;
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			if (parameterTypes.length == 0 && method.getReturnType() != void.class
+					&& isAccessible(method.getReturnType()))
+				getters.add(method);
+			else if (parameterTypes.length == 1 && isAccessible(parameterTypes[0]))
+				setters.add(method);
+		}
+		if (!clazz.isInterface()) {
+			for (Field field : clazz.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers)
+						|| field.isSynthetic() || !isAccessible(field.getType()))
+					continue;
+				getters.add(field);
+				if (!Modifier.isFinal(modifiers)) setters.add(field);
+			}
+		}
+		if (getters.isEmpty() && setters.isEmpty()) return NO_ACCESS;
+
+		String className = "com.owlike.genson.reflect.generated."
+				+ clazz.getName().replace('.', '_') + "Access";
+		byte[] bytecode = generate(className.replace('.', '/'), clazz, getters, setters);
+		Class<?> accessClass = new GeneratedClassLoader(clazz.getClassLoader(), BeanAccess.class)
+				.define(className, bytecode);
+		BeanAccess access = (BeanAccess) accessClass.newInstance();
+
+		return new ClassAccess(access, indexes(getters), indexes(setters));
+	}
+
+	private Map<Member, Integer> indexes(List<Member> members) {
+		Map<Member, Integer> indexes = new HashMap<Member, Integer>();
+		for (int i = 0; i < members.size(); i++)
+			indexes.put(members.get(i), i);
+		return indexes;
+	}
+
+	private byte[] generate(String internalName, Class<?> clazz, List<Member> getters,
+			List<Member> setters) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(V1_5, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, internalName, null,
+				BEAN_ACCESS_INTERNAL_NAME, null);
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, BEAN_ACCESS_INTERNAL_NAME, "<init>", "()V");
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// get(Object bean, int index) and set(Object bean, int index, Object value) followed by the
+		// typed versions, each one has a case only for the properties of its type
+		for (Class<?> type : ACCESS_TYPES) {
+			generateGet(cw, clazz, getters, type);
+			generateSet(cw, clazz, setters, type);
+		}
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private void generateGet(ClassWriter cw, Class<?> clazz, List<Member> getters, Class<?> type) {
+		String beanName = internalName(clazz);
+		org.objectweb.asm.Type valueType = org.objectweb.asm.Type.getType(type);
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, methodName("get", type),
+				"(Ljava/lang/Object;I)" + valueType.getDescriptor(), null, null);
+		mv.visitCode();
+		boolean[] cases = new boolean[getters.size()];
+		for (int i = 0; i < cases.length; i++)
+			cases[i] = type == Object.class || memberType(getters.get(i)) == type;
+		Label[] labels = switchOnIndex(mv, cases);
+		for (int i = 0; i < cases.length; i++) {
+			if (!cases[i]) continue;
+			mv.visitLabel(labels[i]);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitTypeInsn(CHECKCAST, beanName);
+			if (getters.get(i) instanceof Method) {
+				Method getter = (Method) getters.get(i);
+				mv.visitMethodInsn(clazz.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL, beanName,
+						getter.getName(), org.objectweb.asm.Type.getMethodDescriptor(getter));
+			} else {
+				Field field = (Field) getters.get(i);
+				mv.visitFieldInsn(GETFIELD, beanName, field.getName(),
+						org.objectweb.asm.Type.getDescriptor(field.getType()));
+			}
+			if (type == Object.class) box(mv, memberType(getters.get(i)));
+			mv.visitInsn(valueType.getOpcode(IRETURN));
+		}
+		throwIllegalIndex(mv, labels);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private void generateSet(ClassWriter cw, Class<?> clazz, List<Member> setters, Class<?> type) {
+		String beanName = internalName(clazz);
+		org.objectweb.asm.Type valueType = org.objectweb.asm.Type.getType(type);
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, methodName("set", type),
+				"(Ljava/lang/Object;I" + valueType.getDescriptor() + ")V", null, null);
+		mv.visitCode();
+		boolean[] cases = new boolean[setters.size()];
+		for (int i = 0; i < cases.length; i++)
+			cases[i] = type == Object.class || memberType(setters.get(i)) == type;
+		Label[] labels = switchOnIndex(mv, cases);
+		for (int i = 0; i < cases.length; i++) {
+			if (!cases[i]) continue;
+			Class<?> memberType = memberType(setters.get(i));
+			mv.visitLabel(labels[i]);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitTypeInsn(CHECKCAST, beanName);
+			mv.visitVarInsn(valueType.getOpcode(ILOAD), 3);
+			if (type == Object.class) unbox(mv, memberType);
+			if (setters.get(i) instanceof Method) {
+				Method setter = (Method) setters.get(i);
+				mv.visitMethodInsn(clazz.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL, beanName,
+						setter.getName(), org.objectweb.asm.Type.getMethodDescriptor(setter));
+				// setters returning a value, for example fluent setters
+				Class<?> returnType = setter.getReturnType();
+				if (returnType == long.class || returnType == double.class) mv.visitInsn(POP2);
+				else if (returnType != void.class) mv.visitInsn(POP);
+			} else {
+				Field field = (Field) setters.get(i);
+				mv.visitFieldInsn(PUTFIELD, beanName, field.getName(),
+						org.objectweb.asm.Type.getDescriptor(memberType));
+			}
+			mv.visitInsn(RETURN);
+		}
+		throwIllegalIndex(mv, labels);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	/*
+	 * The type of the value read by a getter or field, or written by a setter.
+	 */
+	private Class<?> memberType(Member member) {
+		if (member instanceof Field) return ((Field) member).getType();
+		Method method = (Method) member;
+		return method.getParameterTypes().length == 0 ? method.getReturnType() : method
+				.getParameterTypes()[0];
+	}
+
+	private String methodName(String prefix, Class<?> type) {
+		if (type == Object.class) return prefix;
+		return prefix + Character.toUpperCase(type.getName().charAt(0))
+				+ type.getName().substring(1);
+	}
+
+	private Label[] switchOnIndex(MethodVisitor mv, boolean[] cases) {
+		int size = cases.length;
+		Label[] labels = new Label[size + 1];
+		for (int i = 0; i < labels.length; i++)
+			labels[i] = new Label();
+		if (size > 0) {
+			Label[] targets = new Label[size];
+			for (int i = 0; i < size; i++)
+				targets[i] = cases[i] ? labels[i] : labels[size];
+			mv.visitVarInsn(ILOAD, 2);
+			mv.visitTableSwitchInsn(0, size - 1, labels[size], targets);
+		}
+		return labels;
+	}
+
+	private void throwIllegalIndex(MethodVisitor mv, Label[] labels) {
+		mv.visitLabel(labels[labels.length - 1]);
+		mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "()V");
+		mv.visitInsn(ATHROW);
+	}
+
+	private void box(MethodVisitor mv, Class<?> type) {
+		if (type.isPrimitive()) {
+			String wrapper = internalName(TypeUtil.wrap(type));
+			mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "("
+					+ org.objectweb.asm.Type.getDescriptor(type) + ")L" + wrapper + ";");
+		}
+	}
+
+	private void unbox(MethodVisitor mv, Class<?> type) {
+		if (type.isPrimitive()) {
+			String wrapper = internalName(TypeUtil.wrap(type));
+			mv.visitTypeInsn(CHECKCAST, wrapper);
+			mv.visitMethodInsn(INVOKEVIRTUAL, wrapper, type.getName() + "Value", "()"
+					+ org.objectweb.asm.Type.getDescriptor(type));
+		} else if (type != Object.class) mv.visitTypeInsn(CHECKCAST, internalName(type));
+	}
+
+	static String internalName(Class<?> clazz) {
+		return clazz.getName().replace('.', '/');
+	}
+
+	/*
+	 * The generated code can only use classes that are visible from any package.
+	 */
+	static boolean isAccessible(Class<?> clazz) {
+		while (clazz.isArray())
+			clazz = clazz.getComponentType();
+		if (clazz.isPrimitive()) return true;
+		for (Class<?> c = clazz; c != null; c = c.getEnclosingClass())
+			if (!Modifier.isPublic(c.getModifiers())) return false;
+		return true;
+	}
+
+	private final static class ClassAccess {
+		final BeanAccess access;
+		final Map<Member, Integer> getters;
+		final Map<Member, Integer> setters;
+
+		ClassAccess(BeanAccess access, Map<Member, Integer> getters, Map<Member, Integer> setters) {
+			this.access = access;
+			this.getters = getters;
+			this.setters = setters;
+		}
+	}
+
+	static class GeneratedMethodAccessor extends PropertyAccessor.MethodAccessor {
+		private final BeanAccess access;
+		private final int index;
+
+		GeneratedMethodAccessor(String name, Method getter, Type type, Class<?> declaringClass,
+				BeanAccess access, int index) {
+			super(name, getter, type, declaringClass);
+			this.access = access;
+			this.index = index;
+		}
+
+		@Override
+		public Object access(Object target) {
+			try {
+				return access.get(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public int accessInt(Object target) {
+			try {
+				return access.getInt(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public long accessLong(Object target) {
+			try {
+				return access.getLong(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public double accessDouble(Object target) {
+			try {
+				return access.getDouble(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public boolean accessBoolean(Object target) {
+			try {
+				return access.getBoolean(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public float accessFloat(Object target) {
+			try {
+				return access.getFloat(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public short accessShort(Object target) {
+			try {
+				return access.getShort(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+	}
+
+	static class GeneratedFieldAccessor extends PropertyAccessor.FieldAccessor {
+		private final BeanAccess access;
+		private final int index;
+
+		GeneratedFieldAccessor(String name, Field field, Type type, Class<?> declaringClass,
+				BeanAccess access, int index) {
+			super(name, field, type, declaringClass);
+			this.access = access;
+			this.index = index;
+		}
+
+		@Override
+		public Object access(Object target) {
+			try {
+				return access.get(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public int accessInt(Object target) {
+			try {
+				return access.getInt(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public long accessLong(Object target) {
+			try {
+				return access.getLong(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public double accessDouble(Object target) {
+			try {
+				return access.getDouble(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public boolean accessBoolean(Object target) {
+			try {
+				return access.getBoolean(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public float accessFloat(Object target) {
+			try {
+				return access.getFloat(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public short accessShort(Object target) {
+			try {
+				return access.getShort(target, index);
+			} catch (Exception e) {
+				throw couldNotAccess(e);
+			}
+		}
+	}
+
+	static class GeneratedMethodMutator extends PropertyMutator.MethodMutator {
+		private final BeanAccess access;
+		private final int index;
+
+		GeneratedMethodMutator(String name, Method setter, Type type, Class<?> declaringClass,
+				BeanAccess access, int index) {
+			super(name, setter, type, declaringClass);
+			this.access = access;
+			this.index = index;
+		}
+
+		@Override
+		public void mutate(Object target, Object value) {
+			try {
+				access.set(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateInt(Object target, int value) {
+			try {
+				access.setInt(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateLong(Object target, long value) {
+			try {
+				access.setLong(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateDouble(Object target, double value) {
+			try {
+				access.setDouble(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateBoolean(Object target, boolean value) {
+			try {
+				access.setBoolean(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateFloat(Object target, float value) {
+			try {
+				access.setFloat(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateShort(Object target, short value) {
+			try {
+				access.setShort(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+	}
+
+	static class GeneratedFieldMutator extends PropertyMutator.FieldMutator {
+		private final BeanAccess access;
+		private final int index;
+
+		GeneratedFieldMutator(String name, Field field, Type type, Class<?> declaringClass,
+				BeanAccess access, int index) {
+			super(name, field, type, declaringClass);
+			this.access = access;
+			this.index = index;
+		}
+
+		@Override
+		public void mutate(Object target, Object value) {
+			try {
+				access.set(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateInt(Object target, int value) {
+			try {
+				access.setInt(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateLong(Object target, long value) {
+			try {
+				access.setLong(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateDouble(Object target, double value) {
+			try {
+				access.setDouble(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateBoolean(Object target, boolean value) {
+			try {
+				access.setBoolean(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateFloat(Object target, float value) {
+			try {
+				access.setFloat(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateShort(Object target, short value) {
+			try {
+				access.setShort(target, index, value);
+			} catch (Exception e) {
+				throw couldNotMutate(e);
+			}
+		}
+	}
+}
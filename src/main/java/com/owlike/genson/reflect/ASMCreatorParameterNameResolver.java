@@ -2,14 +2,15 @@
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.WeakHashMap;
 
 import com.owlike.genson.JsonBindingException;
 import org.objectweb.asm.ClassReader;
@@ -43,19 +44,25 @@
  * 
  */
 public final class ASMCreatorParameterNameResolver implements PropertyNameResolver {
+	private final static String CONSTRUCTOR_METHOD_NAME = "<init>";
+
 	/**
 	 * Whether we must throw an exception when we encounter a class compiled with no debug
 	 * information.
 	 */
 	private final boolean doThrowException;
-	private final Map<Constructor<?>, String[]> constructorParameterNames = new ConcurrentHashMap<Constructor<?>, String[]>();
-	private final Map<Method, String[]> methodParameterNames = new ConcurrentHashMap<Method, String[]>();
+	/*
+	 * The parameter names of the constructors and methods of each class, by name and descriptor.
+	 * The names do not reference the classes so they can still be unloaded with their class loader.
+	 */
+	private final Map<Class<?>, Map<String, String[]>> parameterNames = Collections
+			.synchronizedMap(new WeakHashMap<Class<?>, Map<String, String[]>>());
 
 	public ASMCreatorParameterNameResolver(boolean doThrowException) {
 		this.doThrowException = doThrowException;
 	}
 
-	protected void read(Class<?> ofClass) {
+	protected Map<String, String[]> read(Class<?> ofClass) {
 		String ofClassName = ofClass.getName();
 		ofClassName = ofClassName.replace('.', '/') + ".class";
 
@@ -63,10 +70,10 @@ protected void read(Class<?> ofClass) {
     if (ofClass.getClassLoader() == null) is = ClassLoader.getSystemClassLoader().getResourceAsStream(ofClassName);
     else is = ofClass.getClassLoader().getResourceAsStream(ofClassName);
 
-		ClassReader cr;
-		ClassConstructorsVisitor visitor = new ClassConstructorsVisitor(ofClass, constructorParameterNames, methodParameterNames);
+		Map<String, String[]> names = new HashMap<String, String[]>();
+		ClassConstructorsVisitor visitor = new ClassConstructorsVisitor(ofClass, names);
 		try {
-			cr = new ClassReader(is);
+			ClassReader cr = new ClassReader(is);
 			cr.accept(visitor, 0);
 		} catch (IOException e) {
 			// C'est ok pas grave, cette technique n'est pas cense marcher dans tous les cas
@@ -76,14 +83,12 @@ protected void read(Class<?> ofClass) {
 			} catch (IOException e) {
 			}
 		}
+		return names;
 	}
 
 	public String resolve(int parameterIdx, Constructor<?> fromConstructor) {
-		String[] names = constructorParameterNames.get(fromConstructor);
-		if (names == null) {
-			read(fromConstructor.getDeclaringClass());
-			names = constructorParameterNames.get(fromConstructor);
-		}
+		String[] names = namesOf(fromConstructor.getDeclaringClass()).get(
+				CONSTRUCTOR_METHOD_NAME + Type.getConstructorDescriptor(fromConstructor));
 
 		if (names == null || names.length <= parameterIdx) {
 			if (doThrowException)
@@ -103,11 +108,8 @@ public String resolve(Method fromMethod) {
 	}
 
 	public String resolve(int parameterIdx, Method fromMethod) {
-		String[] names = methodParameterNames.get(fromMethod);
-		if (names == null) {
-			read(fromMethod.getDeclaringClass());
-			names = methodParameterNames.get(fromMethod);
-		}
+		String[] names = namesOf(fromMethod.getDeclaringClass()).get(
+				fromMethod.getName() + Type.getMethodDescriptor(fromMethod));
 
 		if (names == null || names.length <= parameterIdx) {
 			if (doThrowException)
@@ -118,6 +120,16 @@ public String resolve(int parameterIdx, Method fromMethod) {
 		return names[parameterIdx];
 	}
 
+	private Map<String, String[]> namesOf(Class<?> ofClass) {
+		Map<String, String[]> names = parameterNames.get(ofClass);
+		if (names == null) {
+			// classes without debug information are remembered too, they are read only once
+			names = read(ofClass);
+			parameterNames.put(ofClass, names);
+		}
+		return names;
+	}
+
 	private void _throwNoDebugInfo(String className) {
 		throw new JsonBindingException(
 				"Class "
@@ -126,45 +138,38 @@ private void _throwNoDebugInfo(String className) {
 	}
 
 	private class ClassConstructorsVisitor extends EmptyVisitor {
-		private final static String CONSTRUCTOR_METHOD_NAME = "<init>";
-
 		private final Class<?> forClass;
-		final Map<Constructor<?>, String[]> ctrParameterNames;
-		final Map<Method, String[]> methodParameterNames;
+		final Map<String, String[]> parameterNames;
 
-		public ClassConstructorsVisitor(Class<?> forClass,
-				Map<Constructor<?>, String[]> ctrParameterNames,
-				Map<Method, String[]> methodParameterNames) {
+		public ClassConstructorsVisitor(Class<?> forClass, Map<String, String[]> parameterNames) {
 			this.forClass = forClass;
-			this.ctrParameterNames = ctrParameterNames;
-			this.methodParameterNames = methodParameterNames;
+			this.parameterNames = parameterNames;
 		}
 
 		public MethodVisitor visitMethod(int access, String name, String desc, String signature,
 				String[] exceptions) {
 			boolean ztatic = (access & Opcodes.ACC_STATIC) > 0;
-			if ((access & Opcodes.ACC_ABSTRACT) == 0) {
-				if (CONSTRUCTOR_METHOD_NAME.equals(name))
-					return new ConstructorVisitor(forClass, ztatic, desc, ctrParameterNames);
-
-				if (!"<clinit>".equals(name))
-					return new NameMethodVisitor(name, forClass, ztatic, desc, methodParameterNames);
-			}
+			if ((access & Opcodes.ACC_ABSTRACT) == 0 && !"<clinit>".equals(name))
+				return new ParameterNamesVisitor(forClass, ztatic, name, desc, parameterNames);
 			return null;
 		}
 
 	}
 
-	private abstract class BaseMethodVisitor extends EmptyVisitor {
-		protected Type[] paramTypes;
-		protected ArrayList<String> paramNames;
-		protected final Class<?> forClass;
-		protected boolean ztatic;
+	private class ParameterNamesVisitor extends EmptyVisitor {
+		private final Type[] paramTypes;
+		private final ArrayList<String> paramNames;
+		private final Class<?> forClass;
+		private final boolean ztatic;
+		private final String key;
+		private final Map<String, String[]> parameterNamesMap;
 
-		public BaseMethodVisitor(Class<?> forClass, boolean ztatic, String desc,
-				Map<Method, String[]> parameterNamesMap) {
+		public ParameterNamesVisitor(Class<?> forClass, boolean ztatic, String name, String desc,
+				Map<String, String[]> parameterNamesMap) {
 			this.forClass = forClass;
 			this.ztatic = ztatic;
+			this.key = name + desc;
+			this.parameterNamesMap = parameterNamesMap;
 			paramTypes = Type.getArgumentTypes(desc);
 			paramNames = new ArrayList<String>(paramTypes.length);
 		}
@@ -182,139 +187,9 @@ public void visitLocalVariable(String variableName, String desc, String sig, Lab
 			}
 		}
 
-		protected Class<?> resolveClass(Type type) {
-			switch (type.getSort()) {
-			case Type.ARRAY:
-				Class<?> componentClass = resolveClass(type.getElementType());
-				return Array.newInstance(componentClass, 0).getClass();
-			case Type.BOOLEAN:
-				return boolean.class;
-			case Type.BYTE:
-				return byte.class;
-			case Type.CHAR:
-				return char.class;
-			case Type.DOUBLE:
-				return double.class;
-			case Type.FLOAT:
-				return float.class;
-			case Type.INT:
-				return int.class;
-			case Type.LONG:
-				return long.class;
-			case Type.OBJECT: {
-				try {
-					return Class.forName(type.getClassName(), true, forClass.getClassLoader());
-				} catch (ClassNotFoundException e) {
-					throw new JsonBindingException("Could not find class "
-							+ type.getClassName() + " while searching for constructor "
-							+ signature() + " parameter names.", e);
-				}
-			}
-			case Type.SHORT:
-				return short.class;
-			case Type.VOID:
-				return void.class;
-
-			default:
-				throw new JsonBindingException(
-						"Could not find corresponding java type to asm type " + type);
-			}
-
-		}
-
-		public abstract String signature();
-	}
-
-	private class NameMethodVisitor extends BaseMethodVisitor {
-		private final Map<Method, String[]> parameterNamesMap;
-		private String name;
-
-		public NameMethodVisitor(String name, Class<?> forClass, boolean ztatic, String desc,
-				Map<Method, String[]> parameterNamesMap) {
-			super(forClass, ztatic, desc, parameterNamesMap);
-			this.parameterNamesMap = parameterNamesMap;
-			this.name = name;
-		}
-
-		public void visitEnd() {
-			if (paramNames.size() == paramTypes.length) {
-				Method method = null;
-				Class<?>[] javaTypes = new Class<?>[paramTypes.length];
-
-				for (int i = 0; i < paramTypes.length; i++)
-					javaTypes[i] = resolveClass(paramTypes[i]);
-
-				try {
-					method = forClass.getMethod(name, javaTypes);
-					parameterNamesMap
-							.put(method, paramNames.toArray(new String[paramNames.size()]));
-				} catch (SecurityException e) {
-					throw new JsonBindingException(
-							"Unable to locate method with signature " + signature(), e);
-				} catch (NoSuchMethodException e) {
-					// hum don't do anything... as we accept that it may fail...
-				}
-			}
-		}
-
-		@Override
-		public String signature() {
-			StringBuilder sb = new StringBuilder(name).append("(");
-			for (int i = 0; i < paramTypes.length; i++) {
-				String paramName = paramNames.isEmpty() ? "?" : (String) paramNames.get(i);
-				sb.append(paramTypes[i].getClassName()).append(" " + paramName);
-				if (i < paramTypes.length - 1) {
-					sb.append(", ");
-				}
-			}
-			sb.append(")");
-
-			return sb.toString();
-		}
-	}
-
-	private class ConstructorVisitor extends BaseMethodVisitor {
-		private final Map<Constructor<?>, String[]> parameterNamesMap;
-
-		public ConstructorVisitor(Class<?> forClass, boolean ztatic, String desc,
-				Map<Constructor<?>, String[]> parameterNamesMap) {
-			super(forClass, ztatic, desc, methodParameterNames);
-			this.parameterNamesMap = parameterNamesMap;
-		}
-
 		public void visitEnd() {
-			if (paramNames.size() == paramTypes.length) {
-				Constructor<?> constructor = null;
-				Class<?>[] javaTypes = new Class<?>[paramTypes.length];
-
-				for (int i = 0; i < paramTypes.length; i++)
-					javaTypes[i] = resolveClass(paramTypes[i]);
-
-				try {
-					constructor = forClass.getDeclaredConstructor(javaTypes);
-					parameterNamesMap.put(constructor,
-							paramNames.toArray(new String[paramNames.size()]));
-				} catch (SecurityException e) {
-					throw new JsonBindingException(
-							"Unable to locate constructor with signature " + signature(), e);
-				} catch (NoSuchMethodException e) {
-					// hum don't do anything... as we accept that it may fail...
-				}
-			}
-		}
-
-		public String signature() {
-			StringBuilder sb = new StringBuilder(forClass.getSimpleName()).append("(");
-			for (int i = 0; i < paramTypes.length; i++) {
-				String paramName = paramNames.isEmpty() ? "?" : (String) paramNames.get(i);
-				sb.append(paramTypes[i].getClassName()).append(" " + paramName);
-				if (i < paramTypes.length - 1) {
-					sb.append(", ");
-				}
-			}
-			sb.append(")");
-
-			return sb.toString();
+			if (paramNames.size() == paramTypes.length)
+				parameterNamesMap.put(key, paramNames.toArray(new String[paramNames.size()]));
 		}
 	}
 }
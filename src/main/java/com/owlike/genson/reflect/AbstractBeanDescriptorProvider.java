@@ -30,7 +30,6 @@
  */
 public abstract class AbstractBeanDescriptorProvider implements BeanDescriptorProvider {
 	final static String CONTEXT_KEY = "__GENSON$CREATION_CONTEXT";
-	final static String DO_NOT_CACHE_CONVERTER_KEY = "__GENOSN$DO_NOT_CACHE_CONVERTER";
 
 	public final static class ContextualConverterFactory {
 		private final List<? extends ContextualFactory<?>> contextualFactories;
@@ -122,21 +121,28 @@ public <T> BeanDescriptor<T> provide(Class<T> ofClass, Type ofType, Genson genso
 
 		// 1 - prepare the converters for the accessors
 		for (PropertyAccessor accessor : accessors) {
-			accessor.propertySerializer = provide(accessor, genson);
+			accessor.setPropertySerializer(provide(accessor, genson));
 		}
 
 		// 2 - prepare the mutators
 		for (PropertyMutator mutator : mutators.values()) {
-			mutator.propertyDeserializer = provide(mutator, genson);
+			mutator.setPropertyDeserializer(provide(mutator, genson));
 		}
 
 		// 3 - prepare the converters for creator parameters
 		if (ctr != null) {
 			for (PropertyMutator mutator : ctr.parameters.values()) {
-				mutator.propertyDeserializer = provide(mutator, genson);
+				mutator.setPropertyDeserializer(provide(mutator, genson));
 			}
 		}
 
+		// 4 - use the canonical names, names read by genson readers will then match by identity
+		Map<String, PropertyMutator> canonicalMutators = new HashMap<String, PropertyMutator>(mutators.size());
+		for (Map.Entry<String, PropertyMutator> entry : mutators.entrySet()) {
+			canonicalMutators.put(genson.getSymbolTable().canonicalize(entry.getKey()), entry.getValue());
+		}
+		mutators = canonicalMutators;
+
 		// lets fail fast if the BeanDescriptor has been built for the wrong type.
 		// another option could be to pass in all the methods an additional parameter Class<T> that
 		// would not necessarily correspond to the rawClass of ofType. In fact we authorize that
@@ -152,25 +158,23 @@ public <T> BeanDescriptor<T> provide(Class<T> ofClass, Type ofType, Genson genso
 
 	private Converter<Object> provide(BeanProperty property, Genson genson) {
 		// contextual converters must not be retrieved from cache nor stored in cache, by first
-		// trying to create it and reusing it during the
-		// call to genson.provideConverter we avoid retrieving it from cache, and by setting
-		// DO_NOT_CACHE_CONVERTER to true we tell genson not to store
-		// this converter in cache
+		// trying to create it and reusing it during the call to genson.createConverter the chain
+		// of converters is built around it. The previous value is restored so this works also if
+		// the creation of a converter is nested in the creation of another one.
 
 		@SuppressWarnings("unchecked")
 		Converter<Object> converter = (Converter<Object>) contextualConverterFactory.provide(
 				property, genson);
-		if (converter != null) {
-			ThreadLocalHolder.store(DO_NOT_CACHE_CONVERTER_KEY, true);
-			ThreadLocalHolder.store(CONTEXT_KEY, converter);
-		}
+		if (converter == null) return genson.provideConverter(property.type);
+
+		Object previous = ThreadLocalHolder.store(CONTEXT_KEY, converter);
 		try {
-			return genson.provideConverter(property.type);
+			return genson.createConverter(property.type);
 		} finally {
-			if (converter != null) {
-				ThreadLocalHolder.remove(DO_NOT_CACHE_CONVERTER_KEY, Boolean.class);
+			if (previous != null)
+				ThreadLocalHolder.store(CONTEXT_KEY, previous);
+			else
 				ThreadLocalHolder.remove(CONTEXT_KEY, Converter.class);
-			}
 		}
 	}
 
@@ -0,0 +1,50 @@
+package com.owlike.genson.reflect;
+
+/**
+ * Base class of the classes generated by {@link ASMBeanPropertyFactory}. A generated BeanAccess
+ * reads and writes the public properties of a single class with direct method calls and field
+ * accesses, each property is identified by its index. This class is public only because the
+ * generated classes are defined in their own class loader, you should not use it directly.
+ */
+public abstract class BeanAccess {
+	protected BeanAccess() {
+	}
+
+	/**
+	 * @return the value of the property at index, primitives are boxed.
+	 */
+	public abstract Object get(Object bean, int index);
+
+	/**
+	 * Sets the property at index to value, primitives are unboxed.
+	 */
+	public abstract void set(Object bean, int index, Object value);
+
+	/**
+	 * Typed versions of get and set, they can only be used for properties of the corresponding
+	 * primitive type and don't box the value.
+	 */
+	public abstract int getInt(Object bean, int index);
+
+	public abstract void setInt(Object bean, int index, int value);
+
+	public abstract long getLong(Object bean, int index);
+
+	public abstract void setLong(Object bean, int index, long value);
+
+	public abstract double getDouble(Object bean, int index);
+
+	public abstract void setDouble(Object bean, int index, double value);
+
+	public abstract boolean getBoolean(Object bean, int index);
+
+	public abstract void setBoolean(Object bean, int index, boolean value);
+
+	public abstract float getFloat(Object bean, int index);
+
+	public abstract void setFloat(Object bean, int index, float value);
+
+	public abstract short getShort(Object bean, int index);
+
+	public abstract void setShort(Object bean, int index, short value);
+}
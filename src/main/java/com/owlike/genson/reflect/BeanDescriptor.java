@@ -4,8 +4,10 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.owlike.genson.*;
 import com.owlike.genson.reflect.BeanCreator.BeanCreatorProperty;
@@ -30,6 +32,14 @@
  * 		new Context(genson));
  * </pre>
  * 
+ * During deserialization the order of the properties of the read objects is remembered, the next
+ * object is expected to have its properties in the same order. The expected property is compared to
+ * the read name before looking up the mutator by name. The expected order is replaced only when
+ * several objects in a row did not match it, so objects with optional properties or coming from
+ * different producers do not replace it each time. The number of hits and misses of this guess are
+ * available through {@link #getPropertyOrderHits()} and {@link #getPropertyOrderMisses()} once
+ * enabled with {@link #setPropertyOrderStatistics(boolean)}.
+ * 
  * @see BeanDescriptorProvider
  * 
  * @author eugen
@@ -46,6 +56,26 @@
 	private final BeanCreator _creator;
 	private final boolean _noArgCtr;
 
+	// number of objects in a row not matching the expected order after which it is replaced
+	private final static int PROPERTY_ORDER_MAX_MISSED_OBJECTS = 4;
+
+	// the expected order of the properties, it is immutable so it can be replaced without
+	// synchronization
+	private PropertyOrder _propertyOrder = PropertyOrder.EMPTY;
+	// the number of objects in a row that did not match _propertyOrder, updated without
+	// synchronization as an approximate value is enough
+	private int _propertyOrderMissedObjects;
+	private final int _maxPropertyOrderSize;
+	// the counters are shared by all the threads, they are updated only when enabled
+	private volatile boolean _propertyOrderStatistics;
+	private final AtomicLong _propertyOrderHits = new AtomicLong();
+	private final AtomicLong _propertyOrderMisses = new AtomicLong();
+
+	// when the creator has arguments, each property is read into a slot: the index of the creator
+	// argument or the index in _setters of the mutator to call once the bean is created
+	private final Map<String, PropertySlot> _slots;
+	private final PropertyMutator[] _setters;
+
 	private final static Comparator<BeanProperty> _readablePropsComparator = new Comparator<BeanProperty>() {
 		public int compare(BeanProperty o1, BeanProperty o2) {
 			return o1.name.compareToIgnoreCase(o2.name);
@@ -67,6 +97,25 @@ public BeanDescriptor(Class<T> forClass, Class<?> fromDeclaringClass,
 			_noArgCtr = _creator.parameters.size() == 0;
 		else
 			_noArgCtr = false;
+
+		_slots = new HashMap<String, PropertySlot>(mutableProperties.size());
+		List<PropertyMutator> setters = new ArrayList<PropertyMutator>();
+		if (_creator != null && !_noArgCtr) {
+			for (Map.Entry<String, PropertyMutator> entry : mutableProperties.entrySet()) {
+				BeanCreatorProperty parameter = _creator.parameters.get(entry.getKey());
+				if (parameter != null) {
+					_slots.put(entry.getKey(), new PropertySlot(entry.getValue(), parameter.index,
+							true));
+				} else {
+					_slots.put(entry.getKey(), new PropertySlot(entry.getValue(), setters.size(),
+							false));
+					setters.add(entry.getValue());
+				}
+			}
+		}
+		_setters = setters.toArray(new PropertyMutator[setters.size()]);
+		// objects with much more properties than known are probably not produced by a bean
+		_maxPropertyOrderSize = 2 * mutableProperties.size() + 16;
 	}
 
 	public boolean isReadable() {
@@ -101,11 +150,31 @@ public T deserialize(ObjectReader reader, Context ctx) {
 	}
 
 	public void deserialize(T into, ObjectReader reader, Context ctx) {
+		PropertyOrder order = _propertyOrder;
+		boolean learn = learnPropertyOrder(order);
+		int position = 0;
+		int hits = 0;
+		int read = 0;
+		boolean missed = false;
+		List<String> readNames = null;
+
 		reader.beginObject();
-		for (; reader.hasNext();) {
+		for (; reader.hasNext(); read++) {
 			reader.next();
 			String propName = reader.name();
-			PropertyMutator mutator = mutableProperties.get(propName);
+			PropertyMutator mutator;
+			if (order.matches(position, propName)) {
+				mutator = order.mutators[position++];
+				hits++;
+			} else {
+				mutator = mutableProperties.get(propName);
+				if (!missed) {
+					missed = true;
+					if (learn) readNames = order.namesBefore(position);
+				}
+			}
+			if (readNames != null) readNames.add(propName);
+
 			if (mutator != null) {
 				mutator.deserialize(into, reader, ctx);
 			} else {
@@ -114,59 +183,179 @@ public void deserialize(T into, ObjectReader reader, Context ctx) {
 			}
 		}
 		reader.endObject();
+		updatePropertyOrder(read, hits, missed, readNames);
 	}
 
 	protected T _deserWithCtrArgs(ObjectReader reader, Context ctx) {
-		List<String> names = new ArrayList<String>();
-		List<Object> values = new ArrayList<Object>();
+		// TODO if field for ctr is missing what to do? make it also configurable...?
+		Object[] creatorArgs = new Object[_creator.parameters.size()];
+		// values of the properties set after the creation, in the order they have been read
+		Object[] setterValues = null;
+		int[] setterOrder = null;
+		int setterCount = 0;
+		PropertyOrder order = _propertyOrder;
+		boolean learn = learnPropertyOrder(order);
+		int position = 0;
+		int hits = 0;
+		int read = 0;
+		boolean missed = false;
+		List<String> readNames = null;
 
 		reader.beginObject();
-		for (; reader.hasNext();) {
+		for (; reader.hasNext(); read++) {
 			reader.next();
 			String propName = reader.name();
-			PropertyMutator muta = mutableProperties.get(propName);
-
-			if (muta != null) {
-				Object param = muta.deserialize(reader, ctx);
-				names.add(propName);
-				values.add(param);
+			PropertySlot slot;
+			if (order.matches(position, propName)) {
+				slot = order.slots[position++];
+				hits++;
 			} else {
-				// TODO make it configurable
-				reader.skipValue();
+				slot = _slots.get(propName);
+				if (!missed) {
+					missed = true;
+					if (learn) readNames = order.namesBefore(position);
+				}
 			}
-		}
+			if (readNames != null) readNames.add(propName);
 
-		int size = names.size();
-		int settersToCallCnt = size - _creator.parameters.size();
-		if (settersToCallCnt < 0) settersToCallCnt = 0;
-		Object[] creatorArgs = new Object[_creator.parameters.size()];
-		String[] newNames = new String[size];
-		Object[] newValues = new Object[size];
-		// TODO if field for ctr is missing what to do? make it also configurable...?
-		for (int i = 0, j = 0; i < size; i++) {
-		    // FIXME fails if we have multiple times the same name, possible only in @JsonProperty
-			BeanCreatorProperty mp = _creator.parameters.get(names.get(i));
-			if (mp != null) {
-				creatorArgs[mp.index] = values.get(i);
+			if (slot == null) {
+				// TODO make it configurable
+				reader.skipValue();
+			} else if (slot.creatorArgument) {
+				creatorArgs[slot.index] = slot.mutator.deserialize(reader, ctx);
 			} else {
-				newNames[j] = names.get(i);
-				newValues[j] = values.get(i);
-				j++;
+				if (setterValues == null) {
+					setterValues = new Object[_setters.length];
+					setterOrder = new int[_setters.length];
+				}
+				// a property present multiple times is set once, with the last value
+				if (!contains(setterOrder, setterCount, slot.index))
+					setterOrder[setterCount++] = slot.index;
+				setterValues[slot.index] = slot.mutator.deserialize(reader, ctx);
 			}
 		}
 
 		T bean = ofClass.cast(_creator.create(creatorArgs));
-		for (int i = 0; i < size; i++) {
-			PropertyMutator property = mutableProperties
-					.get(newNames[i]);
-			if (property != null) property.mutate(bean, newValues[i]);
+		for (int i = 0; i < setterCount; i++) {
+			int index = setterOrder[i];
+			_setters[index].mutate(bean, setterValues[index]);
 		}
 		reader.endObject();
+		updatePropertyOrder(read, hits, missed, readNames);
 		return bean;
 	}
 
+	private boolean contains(int[] values, int length, int value) {
+		for (int i = 0; i < length; i++)
+			if (values[i] == value) return true;
+		return false;
+	}
+
+	/**
+	 * Enables or disables the hit and miss counters of the expected property order, they are
+	 * disabled by default as updating them for each object is contended when many threads use this
+	 * descriptor.
+	 */
+	public void setPropertyOrderStatistics(boolean enabled) {
+		_propertyOrderStatistics = enabled;
+	}
+
+	/**
+	 * @return the number of properties that have been read in the expected order, while the
+	 *         statistics were enabled.
+	 */
+	public long getPropertyOrderHits() {
+		return _propertyOrderHits.get();
+	}
+
+	/**
+	 * @return the number of properties that have not been read in the expected order and have been
+	 *         looked up by name, while the statistics were enabled.
+	 */
+	public long getPropertyOrderMisses() {
+		return _propertyOrderMisses.get();
+	}
+
+	/*
+	 * The names read are collected only when the order will be replaced if they do not match it:
+	 * when nothing is expected yet or after too many objects in a row did not match.
+	 */
+	private boolean learnPropertyOrder(PropertyOrder order) {
+		return order == PropertyOrder.EMPTY
+				|| _propertyOrderMissedObjects >= PROPERTY_ORDER_MAX_MISSED_OBJECTS - 1;
+	}
+
+	/*
+	 * readNames is not null if the expected order was wrong and must be replaced, it contains the
+	 * names in the order they have been read and becomes the new expected order.
+	 */
+	private void updatePropertyOrder(int read, int hits, boolean missed, List<String> readNames) {
+		if (_propertyOrderStatistics) {
+			if (hits > 0) _propertyOrderHits.addAndGet(hits);
+			if (read > hits) _propertyOrderMisses.addAndGet(read - hits);
+		}
+		if (!missed) {
+			// only read when there is nothing to reset, matching objects do not write the descriptor
+			if (_propertyOrderMissedObjects != 0) _propertyOrderMissedObjects = 0;
+		} else if (readNames == null) {
+			_propertyOrderMissedObjects++;
+		} else {
+			_propertyOrderMissedObjects = 0;
+			if (readNames.size() <= _maxPropertyOrderSize) {
+				PropertyMutator[] mutators = new PropertyMutator[readNames.size()];
+				PropertySlot[] slots = new PropertySlot[readNames.size()];
+				for (int i = 0; i < mutators.length; i++) {
+					mutators[i] = mutableProperties.get(readNames.get(i));
+					slots[i] = _slots.get(readNames.get(i));
+				}
+				_propertyOrder = new PropertyOrder(readNames.toArray(new String[mutators.length]),
+						mutators, slots);
+			}
+		}
+	}
+
+	private final static class PropertyOrder {
+		final static PropertyOrder EMPTY = new PropertyOrder(new String[0],
+				new PropertyMutator[0], new PropertySlot[0]);
+
+		final String[] names;
+		final PropertyMutator[] mutators;
+		final PropertySlot[] slots;
+
+		PropertyOrder(String[] names, PropertyMutator[] mutators, PropertySlot[] slots) {
+			this.names = names;
+			this.mutators = mutators;
+			this.slots = slots;
+		}
+
+		boolean matches(int position, String name) {
+			if (position >= names.length) return false;
+			String expected = names[position];
+			// the names read by genson readers are canonical, usually they are the same instance
+			return expected == name || expected.equals(name);
+		}
+
+		List<String> namesBefore(int position) {
+			List<String> list = new ArrayList<String>(names.length + 4);
+			for (int i = 0; i < position; i++)
+				list.add(names[i]);
+			return list;
+		}
+	}
+
 	public Class<T> getOfClass() {
 		return ofClass;
 	}
 
-}
\ No newline at end of file
+	private final static class PropertySlot {
+		final PropertyMutator mutator;
+		final int index;
+		final boolean creatorArgument;
+
+		PropertySlot(PropertyMutator mutator, int index, boolean creatorArgument) {
+			this.mutator = mutator;
+			this.index = index;
+			this.creatorArgument = creatorArgument;
+		}
+	}
+}
@@ -3,6 +3,8 @@
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 
+import com.owlike.genson.convert.PrimitiveConverters;
+
 /**
  * Represents a bean property, in practice it can be an object field, method (getter/setter) or
  * constructor parameter.
@@ -10,6 +12,10 @@
  * @author eugen
  */
 public abstract class BeanProperty {
+	// kinds of primitive properties that are handled by a PrimitiveConverters converter
+	final static int NOT_PRIMITIVE = 0, INT = 1, LONG = 2, DOUBLE = 3, BOOLEAN = 4, FLOAT = 5,
+			SHORT = 6;
+
 	protected final String name;
 	protected final Type type;
 	protected final Class<?> declaringClass;
@@ -71,4 +77,26 @@ public <T extends Annotation> T getAnnotation(Class<T> annotationClass) {
 	abstract int priority();
 
 	abstract String signature();
+
+	/**
+	 * @return the kind of primitive this property is, if converter can read and write it without
+	 *         boxing, NOT_PRIMITIVE otherwise.
+	 */
+	int primitiveKind(Object converter) {
+		Class<?> rawClass = getRawClass();
+		if (!rawClass.isPrimitive()) return NOT_PRIMITIVE;
+		if (rawClass == int.class && converter instanceof PrimitiveConverters.IntConverter)
+			return INT;
+		if (rawClass == long.class && converter instanceof PrimitiveConverters.LongConverter)
+			return LONG;
+		if (rawClass == double.class && converter instanceof PrimitiveConverters.DoubleConverter)
+			return DOUBLE;
+		if (rawClass == boolean.class && converter instanceof PrimitiveConverters.BooleanConverter)
+			return BOOLEAN;
+		if (rawClass == float.class && converter instanceof PrimitiveConverters.FloatConverter)
+			return FLOAT;
+		if (rawClass == short.class && converter instanceof PrimitiveConverters.ShortConverter)
+			return SHORT;
+		return NOT_PRIMITIVE;
+	}
 }
@@ -9,7 +9,6 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static com.owlike.genson.Trilean.FALSE;
 import static com.owlike.genson.Trilean.TRUE;
@@ -31,9 +30,11 @@
  */
 public class BeanViewDescriptorProvider extends BaseBeanDescriptorProvider {
 
+    private final static int MAX_CACHED_DESCRIPTORS = 1024;
+
     private Map<Class<?>, BeanView<?>> views;
-    private Map<Class<?>, BeanDescriptor<?>> descriptors =
-            new ConcurrentHashMap<Class<?>, BeanDescriptor<?>>();
+    private final BoundedCache<Class<?>, BeanDescriptor<?>> descriptors =
+            new BoundedCache<Class<?>, BeanDescriptor<?>>(MAX_CACHED_DESCRIPTORS);
 
     public BeanViewDescriptorProvider(ContextualConverterFactory ctxConverterFactory,
             Map<Class<?>, BeanView<?>> views, BeanPropertyFactory propertyFactory,
@@ -65,8 +66,8 @@ public BeanViewDescriptorProvider(ContextualConverterFactory ctxConverterFactory
                     if (!ctr.isAccessible()) ctr.setAccessible(true);
                     views.put(rawClass, ctr.newInstance());
                 }
-                descriptor = super.provide(ofClass, ofType, genson);
-                descriptors.put(rawClass, descriptor);
+                descriptor = (BeanDescriptor<T>) descriptors.putIfAbsent(rawClass,
+                        super.provide(ofClass, ofType, genson));
             }
             catch (SecurityException e) {
                 throw couldNotInstantiateBeanView(ofClass, e);
@@ -90,6 +91,14 @@ public BeanViewDescriptorProvider(ContextualConverterFactory ctxConverterFactory
         return descriptor;
     }
 
+    /**
+     * @return the cache of the descriptors provided for each BeanView class, it can be used to
+     *         change its maximum size and to get its statistics.
+     */
+    public BoundedCache<Class<?>, BeanDescriptor<?>> descriptorsCache() {
+        return descriptors;
+    }
+
     private JsonBindingException couldNotInstantiateBeanView(Class<?> beanViewClass,
             Exception e) {
         return new JsonBindingException("Could not instantiate BeanView "
@@ -0,0 +1,47 @@
+package com.owlike.genson.reflect;
+
+import com.owlike.genson.Context;
+import com.owlike.genson.JsonBindingException;
+import com.owlike.genson.Serializer;
+import com.owlike.genson.stream.EncodedName;
+import com.owlike.genson.stream.ExtendedObjectWriter;
+import com.owlike.genson.stream.ObjectWriter;
+
+/**
+ * Base class of the serializers generated by {@link ASMBeanDescriptorProvider}. A generated
+ * serializer writes all the properties of a bean in a single method, the property at index i is
+ * described by accessors[i], serializers[i] and names[i]. This class is public only because the
+ * generated classes are defined in their own class loader, you should not use it directly.
+ */
+public abstract class GeneratedBeanSerializer {
+	protected final PropertyAccessor[] accessors;
+	protected final Serializer<Object>[] serializers;
+	protected final EncodedName[] names;
+
+	protected GeneratedBeanSerializer(PropertyAccessor[] accessors,
+			Serializer<Object>[] serializers, EncodedName[] names) {
+		this.accessors = accessors;
+		this.serializers = serializers;
+		this.names = names;
+	}
+
+	/**
+	 * Writes bean as a json object, same as {@link BeanDescriptor#serialize(Object, ObjectWriter, Context)}.
+	 */
+	public abstract void serialize(Object bean, ExtendedObjectWriter writer, Context ctx);
+
+	/**
+	 * @return the exception to throw when the property at index could not be read.
+	 */
+	protected final RuntimeException accessFailure(int index, Throwable th) {
+		if (th instanceof Error) throw (Error) th;
+		return accessors[index].couldNotAccess((Exception) th);
+	}
+
+	/**
+	 * @return the exception to throw when the property at index could not be written.
+	 */
+	protected final JsonBindingException serializeFailure(int index, Throwable th) {
+		return accessors[index].couldNotSerialize(th);
+	}
+}
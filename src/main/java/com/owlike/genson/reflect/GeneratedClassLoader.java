@@ -0,0 +1,30 @@
+package com.owlike.genson.reflect;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Loader of the classes generated with ASM. Each generated class has its own loader, so it can be
+ * unloaded with the bean class. The parent is the loader of the bean, the Genson classes used by
+ * the generated code are resolved from the loader of Genson as the bean loader may not see them.
+ */
+final class GeneratedClassLoader extends ClassLoader {
+	private final Map<String, Class<?>> gensonClasses = new HashMap<String, Class<?>>();
+
+	GeneratedClassLoader(ClassLoader parent, Class<?>... gensonClasses) {
+		super(parent);
+		for (Class<?> clazz : gensonClasses)
+			this.gensonClasses.put(clazz.getName(), clazz);
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		Class<?> clazz = gensonClasses.get(name);
+		if (clazz != null) return clazz;
+		return super.loadClass(name, resolve);
+	}
+
+	Class<?> define(String name, byte[] bytecode) {
+		return defineClass(name, bytecode, 0, bytecode.length);
+	}
+}
@@ -7,17 +7,31 @@
 import java.lang.reflect.Type;
 
 import com.owlike.genson.*;
+import com.owlike.genson.convert.PrimitiveConverters;
 import com.owlike.genson.stream.ObjectWriter;
 
 public abstract class PropertyAccessor extends BeanProperty implements Comparable<PropertyAccessor> {
 	Serializer<Object> propertySerializer;
+	// if not NOT_PRIMITIVE the value is read and written without boxing it
+	private int primitive = NOT_PRIMITIVE;
+	private Object primitiveConverter;
 
 	protected PropertyAccessor(String name, Type type, Class<?> declaringClass,
 			Annotation[] annotations, int modifiers) {
 		super(name, type, declaringClass, annotations, modifiers);
 	}
 
+	void setPropertySerializer(Serializer<Object> serializer) {
+		propertySerializer = serializer;
+		primitive = primitiveKind(serializer);
+		primitiveConverter = serializer;
+	}
+
 	public void serialize(Object propertySource, ObjectWriter writer, Context ctx) {
+		if (primitive != NOT_PRIMITIVE) {
+			serializePrimitive(propertySource, writer, ctx);
+			return;
+		}
 		Object propertyValue = access(propertySource);
 		writer.writeName(name);
 		try {
@@ -27,8 +41,104 @@ public void serialize(Object propertySource, ObjectWriter writer, Context ctx) {
 		}
 	}
 
+	private void serializePrimitive(Object propertySource, ObjectWriter writer, Context ctx) {
+		switch (primitive) {
+		case INT: {
+			int value = accessInt(propertySource);
+			writer.writeName(name);
+			try {
+				((PrimitiveConverters.IntConverter) primitiveConverter).serializeInt(value, writer, ctx);
+			} catch (Throwable th) {
+				throw couldNotSerialize(th);
+			}
+			break;
+		}
+		case LONG: {
+			long value = accessLong(propertySource);
+			writer.writeName(name);
+			try {
+				((PrimitiveConverters.LongConverter) primitiveConverter).serializeLong(value, writer, ctx);
+			} catch (Throwable th) {
+				throw couldNotSerialize(th);
+			}
+			break;
+		}
+		case DOUBLE: {
+			double value = accessDouble(propertySource);
+			writer.writeName(name);
+			try {
+				((PrimitiveConverters.DoubleConverter) primitiveConverter).serializeDouble(value, writer,
+						ctx);
+			} catch (Throwable th) {
+				throw couldNotSerialize(th);
+			}
+			break;
+		}
+		case BOOLEAN: {
+			boolean value = accessBoolean(propertySource);
+			writer.writeName(name);
+			try {
+				((PrimitiveConverters.BooleanConverter) primitiveConverter).serializeBoolean(value,
+						writer, ctx);
+			} catch (Throwable th) {
+				throw couldNotSerialize(th);
+			}
+			break;
+		}
+		case FLOAT: {
+			float value = accessFloat(propertySource);
+			writer.writeName(name);
+			try {
+				((PrimitiveConverters.FloatConverter) primitiveConverter).serializeFloat(value, writer, ctx);
+			} catch (Throwable th) {
+				throw couldNotSerialize(th);
+			}
+			break;
+		}
+		case SHORT: {
+			short value = accessShort(propertySource);
+			writer.writeName(name);
+			try {
+				((PrimitiveConverters.ShortConverter) primitiveConverter).serializeShort(value, writer, ctx);
+			} catch (Throwable th) {
+				throw couldNotSerialize(th);
+			}
+			break;
+		}
+		}
+	}
+
 	public abstract Object access(final Object target);
 
+	/**
+	 * Same as {@link #access(Object)} for properties of type int, implementations that can read
+	 * the value without boxing it should override this method. The same applies to the other
+	 * accessXXX methods.
+	 */
+	public int accessInt(final Object target) {
+		return (Integer) access(target);
+	}
+
+	public long accessLong(final Object target) {
+		return (Long) access(target);
+	}
+
+	public double accessDouble(final Object target) {
+		return (Double) access(target);
+	}
+
+	public boolean accessBoolean(final Object target) {
+		return (Boolean) access(target);
+	}
+
+	public float accessFloat(final Object target) {
+		return (Float) access(target);
+	}
+
+	public short accessShort(final Object target) {
+		return (Short) access(target);
+	}
+
 	public int compareTo(PropertyAccessor o) {
 		return o.priority() - priority();
 	}
@@ -101,6 +211,72 @@ public Object access(final Object target) {
 			}
 		}
 
+		@Override
+		public int accessInt(final Object target) {
+			try {
+				return _field.getInt(target);
+			} catch (IllegalArgumentException e) {
+				throw couldNotAccess(e);
+			} catch (IllegalAccessException e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public long accessLong(final Object target) {
+			try {
+				return _field.getLong(target);
+			} catch (IllegalArgumentException e) {
+				throw couldNotAccess(e);
+			} catch (IllegalAccessException e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public double accessDouble(final Object target) {
+			try {
+				return _field.getDouble(target);
+			} catch (IllegalArgumentException e) {
+				throw couldNotAccess(e);
+			} catch (IllegalAccessException e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public boolean accessBoolean(final Object target) {
+			try {
+				return _field.getBoolean(target);
+			} catch (IllegalArgumentException e) {
+				throw couldNotAccess(e);
+			} catch (IllegalAccessException e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public float accessFloat(final Object target) {
+			try {
+				return _field.getFloat(target);
+			} catch (IllegalArgumentException e) {
+				throw couldNotAccess(e);
+			} catch (IllegalAccessException e) {
+				throw couldNotAccess(e);
+			}
+		}
+
+		@Override
+		public short accessShort(final Object target) {
+			try {
+				return _field.getShort(target);
+			} catch (IllegalArgumentException e) {
+				throw couldNotAccess(e);
+			} catch (IllegalAccessException e) {
+				throw couldNotAccess(e);
+			}
+		}
+
 		@Override
 		public String signature() {
 			return _field.toGenericString();
@@ -7,15 +7,25 @@
 import java.lang.reflect.Type;
 
 import com.owlike.genson.*;
+import com.owlike.genson.convert.PrimitiveConverters;
 import com.owlike.genson.stream.ObjectReader;
 
 public abstract class PropertyMutator extends BeanProperty implements Comparable<PropertyMutator> {
 	Deserializer<Object> propertyDeserializer;
+	// if not NOT_PRIMITIVE the value is read and set without boxing it
+	private int primitive = NOT_PRIMITIVE;
+	private Object primitiveConverter;
 
 	protected PropertyMutator(String name, Type type, Class<?> declaringClass, Annotation[] annotations, int modifiers) {
 		super(name, type, declaringClass, annotations, modifiers);
 	}
 
+	void setPropertyDeserializer(Deserializer<Object> deserializer) {
+		propertyDeserializer = deserializer;
+		primitive = primitiveKind(deserializer);
+		primitiveConverter = deserializer;
+	}
+
 	public Object deserialize(ObjectReader reader, Context ctx) {
 		try {
 			return propertyDeserializer.deserialize(reader, ctx);
@@ -25,6 +35,10 @@ public Object deserialize(ObjectReader reader, Context ctx) {
 	}
 
 	public void deserialize(Object into, ObjectReader reader, Context ctx) {
+		if (primitive != NOT_PRIMITIVE) {
+			deserializePrimitive(into, reader, ctx);
+			return;
+		}
 		Object propValue = null;
 		try {
 			propValue = propertyDeserializer.deserialize(reader, ctx);
@@ -34,8 +48,107 @@ public void deserialize(Object into, ObjectReader reader, Context ctx) {
 		mutate(into, propValue);
 	 }
 
+	private void deserializePrimitive(Object into, ObjectReader reader, Context ctx) {
+		switch (primitive) {
+		case INT: {
+			int value;
+			try {
+				value = ((PrimitiveConverters.IntConverter) primitiveConverter).deserializeInt(reader, ctx);
+			} catch (Throwable th) {
+				throw couldNotDeserialize(th);
+			}
+			mutateInt(into, value);
+			break;
+		}
+		case LONG: {
+			long value;
+			try {
+				value = ((PrimitiveConverters.LongConverter) primitiveConverter).deserializeLong(reader,
+						ctx);
+			} catch (Throwable th) {
+				throw couldNotDeserialize(th);
+			}
+			mutateLong(into, value);
+			break;
+		}
+		case DOUBLE: {
+			double value;
+			try {
+				value = ((PrimitiveConverters.DoubleConverter) primitiveConverter).deserializeDouble(
+						reader, ctx);
+			} catch (Throwable th) {
+				throw couldNotDeserialize(th);
+			}
+			mutateDouble(into, value);
+			break;
+		}
+		case BOOLEAN: {
+			boolean value;
+			try {
+				value = ((PrimitiveConverters.BooleanConverter) primitiveConverter).deserializeBoolean(
+						reader, ctx);
+			} catch (Throwable th) {
+				throw couldNotDeserialize(th);
+			}
+			mutateBoolean(into, value);
+			break;
+		}
+		case FLOAT: {
+			float value;
+			try {
+				value = ((PrimitiveConverters.FloatConverter) primitiveConverter).deserializeFloat(
+						reader, ctx);
+			} catch (Throwable th) {
+				throw couldNotDeserialize(th);
+			}
+			mutateFloat(into, value);
+			break;
+		}
+		case SHORT: {
+			short value;
+			try {
+				value = ((PrimitiveConverters.ShortConverter) primitiveConverter).deserializeShort(
+						reader, ctx);
+			} catch (Throwable th) {
+				throw couldNotDeserialize(th);
+			}
+			mutateShort(into, value);
+			break;
+		}
+		}
+	}
+
 	public abstract void mutate(Object target, Object value);
 
+	/**
+	 * Same as {@link #mutate(Object, Object)} for properties of type int, implementations that can
+	 * set the value without boxing it should override this method. The same applies to the other
+	 * mutateXXX methods.
+	 */
+	public void mutateInt(Object target, int value) {
+		mutate(target, value);
+	}
+
+	public void mutateLong(Object target, long value) {
+		mutate(target, value);
+	}
+
+	public void mutateDouble(Object target, double value) {
+		mutate(target, value);
+	}
+
+	public void mutateBoolean(Object target, boolean value) {
+		mutate(target, value);
+	}
+
+	public void mutateFloat(Object target, float value) {
+		mutate(target, value);
+	}
+
+	public void mutateShort(Object target, short value) {
+		mutate(target, value);
+	}
+
 	public int compareTo(PropertyMutator o) {
 		return o.priority() - priority();
 	}
@@ -106,6 +219,72 @@ public void mutate(Object target, Object value) {
 			}
 		}
 
+		@Override
+		public void mutateInt(Object target, int value) {
+			try {
+				_field.setInt(target, value);
+			} catch (IllegalArgumentException e) {
+				throw couldNotMutate(e);
+			} catch (IllegalAccessException e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateLong(Object target, long value) {
+			try {
+				_field.setLong(target, value);
+			} catch (IllegalArgumentException e) {
+				throw couldNotMutate(e);
+			} catch (IllegalAccessException e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateDouble(Object target, double value) {
+			try {
+				_field.setDouble(target, value);
+			} catch (IllegalArgumentException e) {
+				throw couldNotMutate(e);
+			} catch (IllegalAccessException e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateBoolean(Object target, boolean value) {
+			try {
+				_field.setBoolean(target, value);
+			} catch (IllegalArgumentException e) {
+				throw couldNotMutate(e);
+			} catch (IllegalAccessException e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateFloat(Object target, float value) {
+			try {
+				_field.setFloat(target, value);
+			} catch (IllegalArgumentException e) {
+				throw couldNotMutate(e);
+			} catch (IllegalAccessException e) {
+				throw couldNotMutate(e);
+			}
+		}
+
+		@Override
+		public void mutateShort(Object target, short value) {
+			try {
+				_field.setShort(target, value);
+			} catch (IllegalArgumentException e) {
+				throw couldNotMutate(e);
+			} catch (IllegalAccessException e) {
+				throw couldNotMutate(e);
+			}
+		}
+
 		@Override
 		public String signature() {
 			return _field.toGenericString();
@@ -13,8 +13,8 @@
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
+import com.owlike.genson.BoundedCache;
 import com.owlike.genson.Operations;
 
 /**
@@ -40,8 +40,9 @@ public final class TypeUtil {
         _wrappedPrimitives.put(byte.class, Byte.class);
         _wrappedPrimitives.put(void.class, Void.class);
     }
-    private final static Map<TypeAndRootClassKey, Type> _cache = new ConcurrentHashMap<TypeUtil.TypeAndRootClassKey, Type>(
-            32);
+    private final static int MAX_CACHED_TYPES = 4096;
+    private final static BoundedCache<TypeAndRootClassKey, Type> _cache = new BoundedCache<TypeAndRootClassKey, Type>(
+            MAX_CACHED_TYPES);
 
     public final static Class<?> wrap(Class<?> clazz) {
         Class<?> wrappedClass = _wrappedPrimitives.get(clazz);
@@ -128,7 +129,7 @@ public final static Type expandType(final Type type, final Type rootType) {
                     if (expandedType == null)
                         throw new IllegalArgumentException("Type " + type + " not supported for expansion!");
 
-                    _cache.put(key, expandedType);
+                    expandedType = _cache.putIfAbsent(key, expandedType);
                 }
 
                 return expandedType;
@@ -138,6 +139,65 @@ public final static Type expandType(final Type type, final Type rootType) {
         }
     }
 
+    /**
+     * @return the cache of the types expanded by {@link #expandType(Type, Type)}, shared by all
+     *         Genson instances. It can be used to change its maximum size and to get its
+     *         statistics.
+     */
+    public final static BoundedCache<?, Type> expandedTypesCache() {
+        return _cache;
+    }
+
+    /**
+     * Removes the types expanded in or to types using classes loaded by classLoader or one of its
+     * children from the cache.
+     * 
+     * @return the number of removed types.
+     */
+    public final static int removeExpandedTypes(final ClassLoader classLoader) {
+        return _cache.removeAll(new BoundedCache.KeyFilter<TypeAndRootClassKey>() {
+            public boolean accept(TypeAndRootClassKey key) {
+                return isLoadedBy(key.type, classLoader) || isLoadedBy(key.rootType, classLoader);
+            }
+        });
+    }
+
+    /**
+     * @return true if type is or uses (as type argument, array component, bound or owner) a class
+     *         loaded by classLoader or one of its children.
+     */
+    public final static boolean isLoadedBy(Type type, ClassLoader classLoader) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            while (clazz.isArray())
+                clazz = clazz.getComponentType();
+            for (ClassLoader cl = clazz.getClassLoader(); cl != null; cl = cl.getParent())
+                if (cl == classLoader) return true;
+            return false;
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType pType = (ParameterizedType) type;
+            if (isLoadedBy(pType.getRawType(), classLoader)) return true;
+            if (pType.getOwnerType() != null && isLoadedBy(pType.getOwnerType(), classLoader)) return true;
+            for (Type arg : pType.getActualTypeArguments())
+                if (isLoadedBy(arg, classLoader)) return true;
+            return false;
+        } else if (type instanceof GenericArrayType) {
+            return isLoadedBy(((GenericArrayType) type).getGenericComponentType(), classLoader);
+        } else if (type instanceof WildcardType) {
+            WildcardType wType = (WildcardType) type;
+            for (Type bound : wType.getUpperBounds())
+                if (isLoadedBy(bound, classLoader)) return true;
+            for (Type bound : wType.getLowerBounds())
+                if (isLoadedBy(bound, classLoader)) return true;
+            return false;
+        } else if (type instanceof TypeVariable) {
+            // the bounds of a variable can reference the variable itself, its declaration is enough
+            GenericDeclaration declaration = ((TypeVariable<?>) type).getGenericDeclaration();
+            return isLoadedBy(genericDeclarationToClass(declaration), classLoader);
+        }
+        return false;
+    }
+
     /**
      * Searches for ofClass in the inherited classes and interfaces of inClass. If ofClass has been found in the super
      * classes/interfaces of inClass, then the generic type corresponding to inClass and its TypeVariables is returned,
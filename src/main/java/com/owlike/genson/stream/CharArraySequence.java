@@ -0,0 +1,51 @@
+package com.owlike.genson.stream;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A reusable CharSequence over the first chars of an array, used by the readers to expose string
+ * values without copying them. The content is not copied, so it changes as soon as the reader
+ * reuses its buffer.
+ */
+final class CharArraySequence implements CharSequence {
+    private char[] _chars;
+    private int _length;
+
+    CharArraySequence wrap(char[] chars, int length) {
+        _chars = chars;
+        _length = length;
+        return this;
+    }
+
+    public int length() {
+        return _length;
+    }
+
+    public char charAt(int index) {
+        if (index < 0 || index >= _length) throw new IndexOutOfBoundsException("Index: " + index
+                + ", length: " + _length);
+        return _chars[index];
+    }
+
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || start > end || end > _length)
+            throw new IndexOutOfBoundsException("Start: " + start + ", end: " + end + ", length: "
+                    + _length);
+        return new String(_chars, start, end - start);
+    }
+
+    /**
+     * Copies the chars to out, writers and string builders receive the array directly.
+     */
+    void appendTo(Appendable out) throws IOException {
+        if (out instanceof StringBuilder) ((StringBuilder) out).append(_chars, 0, _length);
+        else if (out instanceof Writer) ((Writer) out).write(_chars, 0, _length);
+        else out.append(this);
+    }
+
+    @Override
+    public String toString() {
+        return new String(_chars, 0, _length);
+    }
+}
@@ -0,0 +1,465 @@
+package com.owlike.genson.stream;
+
+import java.math.BigInteger;
+
+/**
+ * Writes doubles and floats as ASCII bytes using the shortest decimal that rounds back to the same
+ * value, without allocating. The output has the same format as Double.toString and Float.toString
+ * (plain notation for magnitudes in [10^-3, 10^7), computerized scientific notation otherwise), and
+ * the same digits as the JDK 19+ implementation, older JDKs sometimes producing more digits than
+ * needed.
+ *
+ * This is an implementation of Raffaello Giulietti's Schubfach algorithm. Instances are not thread
+ * safe, each writer owns one.
+ *
+ * @see <a href="https://drive.google.com/file/d/1gp5xv4CAa78SVgCeWfGqqI4FfYYYuNFb">The Schubfach
+ *      way to render doubles</a>
+ */
+final class DoubleFormatter {
+    /**
+     * The max number of bytes written for a double (or a float).
+     */
+    final static int MAX_LENGTH = 24;
+
+    private final static int K_MIN = -324;
+    private final static int K_MAX = 292;
+    private final static long MASK_63 = 0x7FFFFFFFFFFFFFFFL;
+    private final static long MASK_32 = 0xFFFFFFFFL;
+    private final static int MASK_28 = (1 << 28) - 1;
+
+    // double constants
+    private final static int D_P = 53;
+    private final static int D_Q_MIN = -1074;
+    private final static long D_C_MIN = 1L << (D_P - 1);
+    private final static long D_C_TINY = 3;
+    private final static int D_H = 17;
+    private final static long D_T_MASK = (1L << (D_P - 1)) - 1;
+    private final static int D_BQ_MASK = 0x7FF;
+
+    // float constants
+    private final static int F_P = 24;
+    private final static int F_Q_MIN = -149;
+    private final static int F_C_MIN = 1 << (F_P - 1);
+    private final static int F_C_TINY = 8;
+    private final static int F_H = 9;
+    private final static int F_T_MASK = (1 << (F_P - 1)) - 1;
+    private final static int F_BQ_MASK = 0xFF;
+
+    private final static long[] POW10 = new long[18];
+    /*
+     * Let 10^-k = b 2^r, for the unique pair of integer r and real b meeting 2^125 <= b < 2^126.
+     * Further, let g = floor(b) + 1. g is split into its higher 63 bits g1 and lower 63 bits g0, for
+     * k from K_MIN to K_MAX.
+     */
+    private final static long[] G = computeG();
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++)
+            POW10[i] = POW10[i - 1] * 10;
+    }
+
+    private byte[] bytes;
+    // index of the last written byte
+    private int index;
+
+    /**
+     * Writes value to out at offset, there must be at least {@link #MAX_LENGTH} bytes available.
+     * NaN and infinite values are not supported (they are invalid json).
+     *
+     * @return the number of written bytes.
+     */
+    int format(double value, byte[] out, int offset) {
+        bytes = out;
+        index = offset - 1;
+        long bits = Double.doubleToRawLongBits(value);
+        long t = bits & D_T_MASK;
+        int bq = (int) (bits >>> (D_P - 1)) & D_BQ_MASK;
+        if (bits < 0) append('-');
+        if (bq != 0) {
+            // normal value, mq = -q
+            int mq = -D_Q_MIN + 1 - bq;
+            long c = D_C_MIN | t;
+            // integer values are written directly
+            if (0 < mq & mq < D_P) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    toChars(f, 0);
+                    return end(offset);
+                }
+            }
+            toDecimal(-mq, c, 0);
+        } else if (t != 0) {
+            // subnormal value
+            if (t < D_C_TINY) toDecimal(D_Q_MIN, 10 * t, -1);
+            else toDecimal(D_Q_MIN, t, 0);
+        } else {
+            append('0');
+            append('.');
+            append('0');
+        }
+        return end(offset);
+    }
+
+    /**
+     * @see #format(double, byte[], int)
+     */
+    int format(float value, byte[] out, int offset) {
+        bytes = out;
+        index = offset - 1;
+        int bits = Float.floatToRawIntBits(value);
+        int t = bits & F_T_MASK;
+        int bq = (bits >>> (F_P - 1)) & F_BQ_MASK;
+        if (bits < 0) append('-');
+        if (bq != 0) {
+            int mq = -F_Q_MIN + 1 - bq;
+            int c = F_C_MIN | t;
+            if (0 < mq & mq < F_P) {
+                int f = c >> mq;
+                if (f << mq == c) {
+                    toChars(f, 0);
+                    return end(offset);
+                }
+            }
+            toDecimal(-mq, c, 0);
+        } else if (t != 0) {
+            if (t < F_C_TINY) toDecimal(F_Q_MIN, 10 * t, -1);
+            else toDecimal(F_Q_MIN, t, 0);
+        } else {
+            append('0');
+            append('.');
+            append('0');
+        }
+        return end(offset);
+    }
+
+    private int end(int offset) {
+        bytes = null;
+        return index + 1 - offset;
+    }
+
+    private void toDecimal(int q, long c, int dk) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != D_C_MIN | q == D_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+
+        long g1 = g1(k);
+        long g0 = g0(k);
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // try the shorter decimal with one digit less
+            long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                toChars(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            toChars(uin ? s : t, k + dk);
+            return;
+        }
+        // both are in the rounding interval, take the closest one (even in case of a tie)
+        long cmp = vb - (s + t << 1);
+        toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    private void toDecimal(int q, int c, int dk) {
+        int out = c & 0x1;
+        long cb = (long) c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != F_C_MIN | q == F_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 33;
+
+        long g = g1(k) + 1;
+
+        int vb = rop(g, cb << h);
+        int vbl = rop(g, cbl << h);
+        int vbr = rop(g, cbr << h);
+
+        int s = vb >> 2;
+        if (s >= 100) {
+            int sp10 = 10 * (int) (s * 1717986919L >>> 34);
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                toChars(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            toChars(uin ? s : t, k + dk);
+            return;
+        }
+        int cmp = vb - (s + t << 1);
+        toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private static int rop(long g, long cp) {
+        long x1 = multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    /*
+     * Formats the decimal f 10^e, 17 digits at most for doubles.
+     */
+    private void toChars(long f, int e) {
+        // len is such that 10^(len-1) <= f < 10^len
+        int len = flog10pow2(Long.SIZE - Long.numberOfLeadingZeros(f));
+        if (f >= POW10[len]) len += 1;
+
+        // now 10^(H-1) <= f < 10^H and f 10^(e-H) = 0.f 10^e
+        f *= POW10[D_H - len];
+        e += len;
+
+        // h is the most significant digit, m the next 8 and l the last 8
+        long hm = multiplyHigh(f, 193428131138340668L) >>> 20;
+        int l = (int) (f - 100000000 * hm);
+        int h = (int) (hm * 1441151881 >>> 57);
+        int m = (int) (hm - 100000000 * h);
+
+        if (0 < e && e <= 7) {
+            // plain format without leading zeroes
+            appendDigit(h);
+            int y = y(m);
+            int t;
+            int i = 1;
+            for (; i < e; ++i) {
+                t = 10 * y;
+                appendDigit(t >>> 28);
+                y = t & MASK_28;
+            }
+            append('.');
+            for (; i <= 8; ++i) {
+                t = 10 * y;
+                appendDigit(t >>> 28);
+                y = t & MASK_28;
+            }
+            lowDigits(l);
+        } else if (-3 < e && e <= 0) {
+            // plain format with leading zeroes
+            appendDigit(0);
+            append('.');
+            for (; e < 0; ++e)
+                appendDigit(0);
+            appendDigit(h);
+            append8Digits(m);
+            lowDigits(l);
+        } else {
+            // computerized scientific notation
+            appendDigit(h);
+            append('.');
+            append8Digits(m);
+            lowDigits(l);
+            exponent(e - 1);
+        }
+    }
+
+    /*
+     * Formats the decimal f 10^e, 9 digits at most for floats.
+     */
+    private void toChars(int f, int e) {
+        int len = flog10pow2(Integer.SIZE - Integer.numberOfLeadingZeros(f));
+        if (f >= POW10[len]) len += 1;
+
+        f *= (int) POW10[F_H - len];
+        e += len;
+
+        // h is the most significant digit and l the last 8
+        int h = (int) (f * 1441151881L >>> 57);
+        int l = f - 100000000 * h;
+
+        if (0 < e && e <= 7) {
+            appendDigit(h);
+            int y = y(l);
+            int t;
+            int i = 1;
+            for (; i < e; ++i) {
+                t = 10 * y;
+                appendDigit(t >>> 28);
+                y = t & MASK_28;
+            }
+            append('.');
+            for (; i <= 8; ++i) {
+                t = 10 * y;
+                appendDigit(t >>> 28);
+                y = t & MASK_28;
+            }
+            removeTrailingZeroes();
+        } else if (-3 < e && e <= 0) {
+            appendDigit(0);
+            append('.');
+            for (; e < 0; ++e)
+                appendDigit(0);
+            appendDigit(h);
+            append8Digits(l);
+            removeTrailingZeroes();
+        } else {
+            appendDigit(h);
+            append('.');
+            append8Digits(l);
+            removeTrailingZeroes();
+            exponent(e - 1);
+        }
+    }
+
+    private void lowDigits(int l) {
+        if (l != 0) append8Digits(l);
+        removeTrailingZeroes();
+    }
+
+    private void append8Digits(int m) {
+        // left to right digits extraction
+        int y = y(m);
+        for (int i = 0; i < 8; ++i) {
+            int t = 10 * y;
+            appendDigit(t >>> 28);
+            y = t & MASK_28;
+        }
+    }
+
+    private void removeTrailingZeroes() {
+        while (bytes[index] == '0')
+            --index;
+        // but keep the one directly after the '.'
+        if (bytes[index] == '.') ++index;
+    }
+
+    private int y(int a) {
+        // floor((a + 1) 2^28 / 10^8) - 1
+        return (int) (multiplyHigh((long) (a + 1) << 28, 193428131138340668L) >>> 20) - 1;
+    }
+
+    private void exponent(int e) {
+        append('E');
+        if (e < 0) {
+            append('-');
+            e = -e;
+        }
+        if (e < 10) {
+            appendDigit(e);
+            return;
+        }
+        int d;
+        if (e >= 100) {
+            // floor(e / 100)
+            d = e * 1311 >>> 17;
+            appendDigit(d);
+            e -= 100 * d;
+        }
+        // floor(e / 10)
+        d = e * 103 >>> 10;
+        appendDigit(d);
+        appendDigit(e - 10 * d);
+    }
+
+    private void append(int c) {
+        bytes[++index] = (byte) c;
+    }
+
+    private void appendDigit(int d) {
+        bytes[++index] = (byte) ('0' + d);
+    }
+
+    // floor(q log10(2))
+    private static int flog10pow2(int q) {
+        return (int) (q * 661971961083L >> 41);
+    }
+
+    // floor(q log10(3/4 2^q))
+    private static int flog10threeQuartersPow2(int q) {
+        return (int) (q * 661971961083L + -274743187321L >> 41);
+    }
+
+    // floor(e log2(10))
+    private static int flog2pow10(int e) {
+        return (int) (e * 913124641741L >> 38);
+    }
+
+    private static long g1(int k) {
+        return G[(k - K_MIN) << 1];
+    }
+
+    private static long g0(int k) {
+        return G[(k - K_MIN) << 1 | 1];
+    }
+
+    // same as Math.multiplyHigh that is not available before java 9
+    private static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    private static long[] computeG() {
+        long[] g = new long[2 * (K_MAX - K_MIN + 1)];
+        BigInteger mask63 = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            BigInteger beta;
+            if (k <= 0) {
+                BigInteger pow10 = BigInteger.TEN.pow(-k);
+                int bits = pow10.bitLength();
+                beta = bits >= 126 ? pow10.shiftRight(bits - 126) : pow10.shiftLeft(126 - bits);
+            } else {
+                BigInteger pow10 = BigInteger.TEN.pow(k);
+                beta = BigInteger.ONE.shiftLeft(125 + pow10.bitLength()).divide(pow10);
+            }
+            BigInteger value = beta.add(BigInteger.ONE);
+            int index = (k - K_MIN) << 1;
+            g[index] = value.shiftRight(63).longValue();
+            g[index + 1] = value.and(mask63).longValue();
+        }
+        return g;
+    }
+}
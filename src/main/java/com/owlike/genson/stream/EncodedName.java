@@ -0,0 +1,37 @@
+package com.owlike.genson.stream;
+
+import java.io.UnsupportedEncodingException;
+
+/**
+ * A property name prepared once for the writers: it holds the name already surrounded by quotes
+ * and followed by the colon, as chars and as UTF-8 bytes, so writing it is a single copy into the
+ * writer buffer. Like {@link ObjectWriter#writeName(String)} the name is written as is, it is not
+ * escaped. Instances are immutable and can be shared by many writers, they are intended to be
+ * created once per property, for example by generated serializers.
+ */
+public final class EncodedName {
+    final String name;
+    final char[] chars;
+    final byte[] utf8;
+
+    public EncodedName(String name) {
+        if (name == null) throw new IllegalArgumentException("Null name not allowed!");
+        this.name = name;
+        String quoted = '"' + name + "\":";
+        this.chars = quoted.toCharArray();
+        try {
+            this.utf8 = quoted.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
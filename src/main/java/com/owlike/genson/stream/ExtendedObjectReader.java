@@ -0,0 +1,49 @@
+package com.owlike.genson.stream;
+
+/**
+ * Operations added to {@link ObjectReader} that are implemented by the readers of this library,
+ * {@link JsonReader} and {@link Utf8JsonReader}. They are not part of ObjectReader so that its
+ * other implementations still compile, code using them must check that the reader is an
+ * ExtendedObjectReader and otherwise fall back to the ObjectReader methods.
+ */
+public interface ExtendedObjectReader extends ObjectReader {
+	/**
+	 * Same as {@link ObjectReader#valueAsString()} but string values are not copied, the returned
+	 * sequence is a view over the reader internal buffer. It is valid only until the reader is
+	 * moved (next, beginXXX, endXXX, skipValue...), so don't keep a reference to it, use toString
+	 * if you need to. This is useful when you only need to inspect the value (parse, compare,
+	 * hash it).
+	 *
+	 * @return the current value as a CharSequence.
+	 * @throws JsonStreamException
+	 */
+	public CharSequence valueAsCharSequence();
+
+	/**
+	 * Appends the current value to out without creating an intermediate String. Writers and
+	 * StringBuilders will receive directly the chars from the reader internal buffer. Nothing is
+	 * appended for null values.
+	 *
+	 * @param out where to append the value.
+	 * @return out
+	 * @throws JsonStreamException
+	 */
+	public <A extends Appendable> A copyValueTo(A out);
+
+	/**
+	 * Moves to the next root value, for inputs containing a sequence of values separated by
+	 * whitespaces such as json lines (one value per line) or concatenated json documents. The
+	 * reader starts positioned on the first root value, call this method once the current root
+	 * value has been fully read.
+	 * 
+	 * @return false if there are no more root values.
+	 * @throws JsonStreamException if the current root value has not been fully read.
+	 */
+	public boolean nextRootValue();
+
+	/**
+	 * @return true if the reader is positioned on a root value, false if the input is empty or all
+	 *         its root values have been read.
+	 */
+	public boolean hasRootValue();
+}
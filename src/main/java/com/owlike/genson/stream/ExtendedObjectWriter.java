@@ -0,0 +1,29 @@
+package com.owlike.genson.stream;
+
+/**
+ * Operations added to {@link ObjectWriter} that are implemented by the writers of this library,
+ * {@link JsonWriter} and {@link Utf8JsonWriter}. They are not part of ObjectWriter so that its
+ * other implementations still compile, code using them must check that the writer is an
+ * ExtendedObjectWriter and otherwise fall back to the ObjectWriter methods.
+ */
+public interface ExtendedObjectWriter extends ObjectWriter {
+	/**
+	 * Same as {@link ObjectWriter#writeName(String)} but the name has been encoded once, it is
+	 * faster for names written many times.
+	 * 
+	 * @param name
+	 *            a non null EncodedName
+	 * @return a reference to this, allowing to chain method calls.
+	 * @throws JsonStreamException if trying to produce invalid json
+	 */
+	public ObjectWriter writeName(EncodedName name);
+
+	/**
+	 * Separates the root value that has just been written from the next one with a new line, so
+	 * many root values can be written one per line as in json lines documents.
+	 *
+	 * @return a reference to this, allowing to chain method calls.
+	 * @throws JsonStreamException if the current root value has not been fully written.
+	 */
+	public ObjectWriter nextRootValue();
+}
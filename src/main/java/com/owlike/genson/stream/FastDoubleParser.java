@@ -0,0 +1,281 @@
+package com.owlike.genson.stream;
+
+import java.math.BigInteger;
+
+import static com.owlike.genson.stream.JsonReader._POWS;
+
+/**
+ * Correctly rounded conversion of json numbers to doubles, used by the readers when strict double
+ * parsing is enabled. It gives exactly the same results as Double.parseDouble but works directly on
+ * the reader buffer.
+ *
+ * Numbers with at most 19 significant digits are converted with Clinger's fast path when the
+ * mantissa and the power of ten are exactly representable as doubles, and with the Eisel-Lemire
+ * algorithm otherwise. Numbers with more digits are computed for the truncated mantissa and the
+ * truncated mantissa + 1, if both round to the same double it is the result. The rare cases that
+ * can not be decided this way are delegated to Double.parseDouble.
+ *
+ * @see <a href="https://arxiv.org/abs/2101.11408">Number Parsing at a Gigabyte per Second</a>
+ */
+final class FastDoubleParser {
+    private final static int SMALLEST_POWER_OF_TEN = -342;
+    private final static int LARGEST_POWER_OF_TEN = 308;
+    private final static int MAX_MANTISSA_DIGITS = 19;
+    // 128 bits approximations of the powers of five from 5^-342 to 5^308, normalized so that the
+    // most significant bit is set. Stored as pairs of high and low 64 bits.
+    private final static long[] POWERS_OF_FIVE = computePowersOfFive();
+
+    private FastDoubleParser() {
+    }
+
+    static double parse(char[] buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && buffer[i] == '-') {
+            negative = true;
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exp10 = 0;
+        boolean truncated = false;
+        boolean hasDigits = false;
+        for (; i < end; i++) {
+            int d = buffer[i] - 48;
+            if (d < 0 || d > 9) break;
+            hasDigits = true;
+            if (digits < MAX_MANTISSA_DIGITS) {
+                if (mantissa != 0 || d != 0) {
+                    mantissa = 10 * mantissa + d;
+                    digits++;
+                }
+            } else {
+                exp10++;
+                if (d != 0) truncated = true;
+            }
+        }
+
+        if (i < end && buffer[i] == '.') {
+            for (i++; i < end; i++) {
+                int d = buffer[i] - 48;
+                if (d < 0 || d > 9) break;
+                hasDigits = true;
+                if (digits < MAX_MANTISSA_DIGITS) {
+                    if (mantissa != 0 || d != 0) {
+                        mantissa = 10 * mantissa + d;
+                        digits++;
+                    }
+                    exp10--;
+                } else if (d != 0) truncated = true;
+            }
+        }
+
+        if (hasDigits && i < end && (buffer[i] == 'e' || buffer[i] == 'E')) {
+            i++;
+            boolean negativeExp = false;
+            if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+                negativeExp = buffer[i] == '-';
+                i++;
+            }
+            int expStart = i;
+            int exp = 0;
+            for (; i < end; i++) {
+                int d = buffer[i] - 48;
+                if (d < 0 || d > 9) break;
+                // no need to go further, it is already out of the range of doubles
+                if (exp < 100000) exp = 10 * exp + d;
+            }
+            if (i == expStart) i = -1;
+            exp10 += negativeExp ? -exp : exp;
+        }
+
+        double value = Double.NaN;
+        // let Double.parseDouble handle (and reject) anything that is not a plain number
+        if (hasDigits && i == end) value = toDouble(mantissa, exp10, negative, truncated);
+        if (Double.isNaN(value)) value = Double.parseDouble(new String(buffer, start, end - start));
+        return value;
+    }
+
+    /**
+     * Same as {@link #parse(char[], int, int)} but for ASCII bytes.
+     */
+    static double parse(byte[] buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && buffer[i] == '-') {
+            negative = true;
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exp10 = 0;
+        boolean truncated = false;
+        boolean hasDigits = false;
+        for (; i < end; i++) {
+            int d = buffer[i] - 48;
+            if (d < 0 || d > 9) break;
+            hasDigits = true;
+            if (digits < MAX_MANTISSA_DIGITS) {
+                if (mantissa != 0 || d != 0) {
+                    mantissa = 10 * mantissa + d;
+                    digits++;
+                }
+            } else {
+                exp10++;
+                if (d != 0) truncated = true;
+            }
+        }
+
+        if (i < end && buffer[i] == '.') {
+            for (i++; i < end; i++) {
+                int d = buffer[i] - 48;
+                if (d < 0 || d > 9) break;
+                hasDigits = true;
+                if (digits < MAX_MANTISSA_DIGITS) {
+                    if (mantissa != 0 || d != 0) {
+                        mantissa = 10 * mantissa + d;
+                        digits++;
+                    }
+                    exp10--;
+                } else if (d != 0) truncated = true;
+            }
+        }
+
+        if (hasDigits && i < end && (buffer[i] == 'e' || buffer[i] == 'E')) {
+            i++;
+            boolean negativeExp = false;
+            if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+                negativeExp = buffer[i] == '-';
+                i++;
+            }
+            int expStart = i;
+            int exp = 0;
+            for (; i < end; i++) {
+                int d = buffer[i] - 48;
+                if (d < 0 || d > 9) break;
+                if (exp < 100000) exp = 10 * exp + d;
+            }
+            if (i == expStart) i = -1;
+            exp10 += negativeExp ? -exp : exp;
+        }
+
+        double value = Double.NaN;
+        if (hasDigits && i == end) value = toDouble(mantissa, exp10, negative, truncated);
+        if (Double.isNaN(value)) {
+            char[] chars = new char[end - start];
+            for (int k = 0; k < chars.length; k++)
+                chars[k] = (char) buffer[start + k];
+            value = Double.parseDouble(new String(chars));
+        }
+        return value;
+    }
+
+    /**
+     * Returns mantissa * 10^exp10 correctly rounded or NaN if it could not be decided. The mantissa
+     * is an unsigned long.
+     */
+    static double toDouble(long mantissa, int exp10, boolean negative, boolean truncated) {
+        double value;
+        if (mantissa == 0) value = 0;
+        else if (!truncated && mantissa > 0 && mantissa <= (1L << 53) && exp10 >= -22
+                && exp10 <= 22) {
+            // both are exact doubles so the result is correctly rounded
+            value = exp10 < 0 ? mantissa / _POWS[-exp10] : mantissa * _POWS[exp10];
+        } else {
+            value = eiselLemire(mantissa, exp10);
+            // the real value is between mantissa and mantissa+1
+            if (truncated && value != eiselLemire(mantissa + 1, exp10)) value = Double.NaN;
+        }
+        return negative ? -value : value;
+    }
+
+    private static double eiselLemire(long w, int q) {
+        if (q < SMALLEST_POWER_OF_TEN) return 0;
+        if (q > LARGEST_POWER_OF_TEN) return Double.POSITIVE_INFINITY;
+
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+
+        // 128 bits product of w by the power of five, the low part of the power is used only if
+        // the 55 most significant bits might be wrong
+        int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+        long high = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+        long low = w * POWERS_OF_FIVE[index];
+        if ((high & 0x1FF) == 0x1FF) {
+            long secondHigh = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+            low += secondHigh;
+            if (unsignedLess(low, secondHigh)) high++;
+        }
+        if (low == -1 && (q < -27 || q > 55)) return Double.NaN;
+
+        int upperBit = (int) (high >>> 63);
+        long mantissa = high >>> (upperBit + 9);
+        int power2 = ((217706 * q) >> 16) + 63 + upperBit - lz + 1023;
+
+        if (power2 <= 0) {
+            // subnormal
+            if (-power2 + 1 >= 64) return 0;
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            power2 = mantissa < (1L << 52) ? 0 : 1;
+            return Double.longBitsToDouble(mantissa | ((long) power2 << 52));
+        }
+
+        // exactly halfway between two doubles, round to even
+        if ((low == 0 || low == 1) && q >= -4 && q <= 23 && (mantissa & 3) == 1
+                && (mantissa << (upperBit + 9)) == high) {
+            mantissa &= ~1L;
+        }
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << 52)) {
+            mantissa = 1L << 52;
+            power2++;
+        }
+        mantissa &= ~(1L << 52);
+        if (power2 >= 0x7FF) return Double.POSITIVE_INFINITY;
+        return Double.longBitsToDouble(mantissa | ((long) power2 << 52));
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+        long p01 = x0 * y1;
+        long middle = x1 * y0 + ((x0 * y0) >>> 32) + (p01 & 0xFFFFFFFFL);
+        return x1 * y1 + (middle >>> 32) + (p01 >>> 32);
+    }
+
+    private static boolean unsignedLess(long a, long b) {
+        return (a ^ Long.MIN_VALUE) < (b ^ Long.MIN_VALUE);
+    }
+
+    private static long[] computePowersOfFive() {
+        long[] table = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+        BigInteger five = BigInteger.valueOf(5);
+        for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+            BigInteger c;
+            if (q >= 0) {
+                BigInteger power5 = five.pow(q);
+                int bits = power5.bitLength();
+                c = bits <= 128 ? power5.shiftLeft(128 - bits) : power5.shiftRight(bits - 128);
+            } else {
+                // truncated reciprocal, rounded up
+                BigInteger power5 = five.pow(-q);
+                int z = power5.bitLength();
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+                if (c.bitLength() > 128) c = c.shiftRight(c.bitLength() - 128);
+            }
+            int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+            table[index] = c.shiftRight(64).longValue();
+            table[index + 1] = c.longValue();
+        }
+        return table;
+    }
+}
@@ -11,7 +11,7 @@
 
 import static com.owlike.genson.stream.ValueType.*;
 
-public class JsonReader implements ObjectReader {
+public class JsonReader implements ExtendedObjectReader {
 
     protected final static int[] SKIPPED_TOKENS;
     static {
@@ -24,7 +24,7 @@ public class JsonReader implements ObjectReader {
         SKIPPED_TOKENS[' '] = 1;
     }
 
-    private final static boolean[] _NEXT_TOKEN = new boolean[128];
+    final static boolean[] _NEXT_TOKEN = new boolean[128];
     static {
         _NEXT_TOKEN[','] = true;
         _NEXT_TOKEN['"'] = true;
@@ -42,13 +42,13 @@ public class JsonReader implements ObjectReader {
             _NEXT_TOKEN[i] = true;
     }
 
-    private final static char[] _END_OF_LINE = new char[]{'\n'};
-    private final static char[] _END_OF_BLOCK_COMMENT = new char[]{'*', '/'};
+    final static char[] _END_OF_LINE = new char[]{'\n'};
+    final static char[] _END_OF_BLOCK_COMMENT = new char[]{'*', '/'};
 
     /*
      * Recupere dans Jackson
      */
-    private final static int[] sHexValues = new int[128];
+    final static int[] sHexValues = new int[128];
     static {
         Arrays.fill(sHexValues, -1);
         for (int i = 0; i < 10; ++i) {
@@ -60,15 +60,16 @@ public class JsonReader implements ObjectReader {
         }
     }
 
-    private final static double[] _POWS = new double[309];
+    final static double[] _POWS = new double[309];
     static {
         for (int i = 0; i < _POWS.length; i++)
             _POWS[i] = Math.pow(10, i);
     }
 
-    private final Reader reader;
+    private Reader reader;
     private final boolean strictDoubleParse;
     private final boolean readMetadata;
+    private final SymbolTable symbols;
     private final char[] _buffer = new char[2048];
     private int _col;
     private int _row;
@@ -80,7 +81,10 @@ public class JsonReader implements ObjectReader {
     private int _stringBufferLength = _stringBuffer.length;
 
     private String currentName;
+    // string values are left decoded in _stringBuffer, the String is created only if requested
     private String _stringValue;
+    private int _stringValueLength;
+    private final CharArraySequence _stringValueView = new CharArraySequence();
     protected long _intValue;
     protected double _doubleValue;
     private int _numberLen = 0;
@@ -88,8 +92,13 @@ public class JsonReader implements ObjectReader {
     private ValueType valueType;
     private boolean _first = true;
     private boolean _metadata_readen = false;
+    // no more root values
+    private boolean _endOfInput;
     private Map<String, String> _metadata = new HashMap<String, String>(5);
 
+    // the type of the arrays and objects being skipped, true for an array
+    private boolean[] _skipStack = new boolean[16];
+
     private final Deque<JsonType> _ctx = new ArrayDeque<JsonType>(10);
     {
         _ctx.push(JsonType.EMPTY);
@@ -100,10 +109,53 @@ public JsonReader(String source) {
     }
 
     public JsonReader(Reader reader, boolean strictDoubleParse, boolean readMetadata) {
+        this(reader, strictDoubleParse, readMetadata, null);
+    }
+
+    /**
+     * @param symbols if not null, the names present in this table are returned as its symbols, see
+     *                {@link SymbolTable}.
+     */
+    public JsonReader(Reader reader, boolean strictDoubleParse, boolean readMetadata,
+                      SymbolTable symbols) {
         this.reader = reader;
         this.strictDoubleParse = strictDoubleParse;
         this.readMetadata = readMetadata;
+        this.symbols = symbols;
+        init();
+    }
 
+    /**
+     * Resets this reader so it can be reused to read a new json document from reader, the internal
+     * buffers are kept. The previous reader is not closed.
+     *
+     * @return a reference to this reader.
+     */
+    public JsonReader reset(Reader reader) {
+        this.reader = reader;
+        _col = 0;
+        _row = 0;
+        _cursor = 0;
+        _buflen = 0;
+        _stringBufferTail = 0;
+        currentName = null;
+        _stringValue = null;
+        _stringValueLength = 0;
+        _intValue = 0;
+        _doubleValue = 0;
+        _numberLen = 0;
+        _booleanValue = null;
+        _first = true;
+        _metadata_readen = false;
+        _metadata.clear();
+        _ctx.clear();
+        _ctx.push(JsonType.EMPTY);
+        _endOfInput = false;
+        init();
+        return this;
+    }
+
+    private void init() {
         char token = (char) readNextToken(false);
         if ('[' == token) valueType = ARRAY;
         else if ('{' == token) valueType = OBJECT;
@@ -119,7 +171,7 @@ public JsonReader(Reader reader, boolean strictDoubleParse, boolean readMetadata
                         // and will increment the cursor
                         _cursor = -1;
                         _col = -1;
-                        _stringValue = consumeString('"');
+                        consumeStringValue('"');
                         valueType = STRING;
                     }
                     catch (RuntimeException re) {
@@ -130,7 +182,10 @@ public JsonReader(Reader reader, boolean strictDoubleParse, boolean readMetadata
                     throw new JsonStreamException(
                             "Failed to instanciate reader, first character was " + (char) token
                                     + " when possible characters are [ and {");
-            } else valueType = NULL;
+            } else {
+                valueType = NULL;
+                _endOfInput = true;
+            }
         }
     }
 
@@ -185,7 +240,7 @@ public String name() {
     }
 
     public String valueAsString() {
-        if (STRING == valueType) return _stringValue;
+        if (STRING == valueType) return stringValue();
         if (INTEGER == valueType) return "" + _intValue;
         if (DOUBLE == valueType) return "" + _doubleValue;
         if (NULL == valueType) return null;
@@ -193,6 +248,38 @@ public String valueAsString() {
         throw new JsonStreamException("Readen value can not be converted to String");
     }
 
+    public CharSequence valueAsCharSequence() {
+        if (STRING == valueType) {
+            if (_stringValue != null) return _stringValue;
+            return _stringValueView.wrap(_stringBuffer, _stringValueLength);
+        }
+        return valueAsString();
+    }
+
+    public <A extends Appendable> A copyValueTo(A out) {
+        try {
+            if (STRING == valueType)
+                _stringValueView.wrap(_stringBuffer, _stringValueLength).appendTo(out);
+            else if (NULL != valueType) out.append(valueAsString());
+        } catch (IOException ioe) {
+            throw new JsonStreamException(ioe);
+        }
+        return out;
+    }
+
+    private String stringValue() {
+        if (_stringValue == null) _stringValue = new String(_stringBuffer, 0, _stringValueLength);
+        return _stringValue;
+    }
+
+    // same as Boolean.parseBoolean(stringValue()) without creating the String
+    private boolean stringValueIsTrue() {
+        if (_stringValueLength != 4) return false;
+        final char[] chars = _stringBuffer;
+        return Character.toLowerCase(chars[0]) == 't' && Character.toLowerCase(chars[1]) == 'r'
+                && Character.toLowerCase(chars[2]) == 'u' && Character.toLowerCase(chars[3]) == 'e';
+    }
+
     public int valueAsInt() {
         if (INTEGER == valueType) {
             int value = (int) _intValue;
@@ -207,8 +294,8 @@ public int valueAsInt() {
                 throwNumberFormatException("an int", "overflowing double value " + _doubleValue);
             }
             return value;
-        } else if (STRING == valueType) return "".equals(_stringValue) ? 0 : Integer
-                .parseInt(_stringValue);
+        } else if (STRING == valueType) return _stringValueLength == 0 ? 0 : Integer
+                .parseInt(stringValue());
         else if (NULL == valueType) return 0;
 
         throw new JsonStreamException("Expected a int but value is of type " + valueType);
@@ -222,8 +309,8 @@ public long valueAsLong() {
                 throwNumberFormatException("a long", "overflowing double value " + _doubleValue);
             }
             return (long) _doubleValue;
-        } else if (STRING == valueType) return "".equals(_stringValue) ? 0 : Long
-                .parseLong(_stringValue);
+        } else if (STRING == valueType) return _stringValueLength == 0 ? 0 : Long
+                .parseLong(stringValue());
         else if (NULL == valueType) return 0l;
         throw new JsonStreamException("Expected a long but value is of type " + valueType);
     }
@@ -234,8 +321,8 @@ public double valueAsDouble() {
         } else if (INTEGER == valueType) {
             // for the moment lets do that even if there is some precision loss...
             return Long.valueOf(_intValue).doubleValue();
-        } else if (STRING == valueType) return "".equals(_stringValue) ? 0 : Double
-                .parseDouble(_stringValue);
+        } else if (STRING == valueType) return _stringValueLength == 0 ? 0 : Double
+                .parseDouble(stringValue());
         else if (NULL == valueType) return 0d;
         throw new JsonStreamException("Expected a double but value is of type " + valueType);
     }
@@ -254,8 +341,8 @@ public short valueAsShort() {
                 throwNumberFormatException("a short", "overflowing double value " + _doubleValue);
             }
             return value;
-        } else if (STRING == valueType) return "".equals(_stringValue) ? 0 : Short
-                .parseShort(_stringValue);
+        } else if (STRING == valueType) return _stringValueLength == 0 ? 0 : Short
+                .parseShort(stringValue());
         else if (NULL == valueType) return 0;
 
         throw new JsonStreamException("Expected a short but value is of type " + valueType);
@@ -270,21 +357,21 @@ public float valueAsFloat() {
             // same as for doubles, for the moment lets do that even if there is some precision
             // loss...
             return Long.valueOf(_intValue).floatValue();
-        } else if (STRING == valueType) return "".equals(_stringValue) ? 0 : Float
-                .parseFloat(_stringValue);
+        } else if (STRING == valueType) return _stringValueLength == 0 ? 0 : Float
+                .parseFloat(stringValue());
         else if (NULL == valueType) return 0f;
         throw new JsonStreamException("Expected a float but value is of type " + valueType);
     }
 
     public boolean valueAsBoolean() {
         if (BOOLEAN == valueType) { return _booleanValue; }
-        if (STRING == valueType) return Boolean.parseBoolean(_stringValue);
+        if (STRING == valueType) return stringValueIsTrue();
         if (NULL == valueType) return false;
         throw new JsonStreamException("Readen value is not of type boolean");
     }
 
     public byte[] valueAsByteArray() {
-        if (STRING == valueType) return Base64.decodeFast(_stringValue);
+        if (STRING == valueType) return Base64.decodeFast(stringValue());
         if (NULL == valueType) return null;
         throw new JsonStreamException("Expected a String to convert to byte array found "
                 + valueType);
@@ -299,36 +386,50 @@ public ValueType getValueType() {
         return valueType;
     }
 
+    /**
+     * Skips objects and arrays without reading their content: only the brackets, braces and string
+     * boundaries are looked at until the matching end is found, so the skipped strings are not
+     * decoded and the numbers are not parsed. As a consequence only the nesting of the skipped
+     * value is validated.
+     */
     public ObjectReader skipValue() {
-
         if (ARRAY == valueType || OBJECT == valueType) {
-            int balance = 0;
-            do {
-                if (ARRAY == valueType) {
-                    beginArray();
-                    balance++;
-                } else if (OBJECT == valueType) {
-                    beginObject();
-                    balance++;
-                }
+            if (_metadata_readen) {
+                // the object has already been started to read its metadata
+                _ctx.pop();
+                _skipStack[0] = false;
+                skipStructure(1);
+            } else {
+                readNextToken(false);
+                skipStructure(0);
+            }
+            _metadata.clear();
+            _metadata_readen = false;
+            _first = false;
+        }
 
-                while (hasNext()) {
-                    next();
-                    skipValue();
-                }
+        return this;
+    }
 
-                JsonType type = _ctx.peek();
-                if (JsonType.ARRAY == type) {
-                    endArray();
-                    balance--;
-                } else if (JsonType.OBJECT == type) {
-                    endObject();
-                    balance--;
-                }
-            } while (balance > 0);
+    public boolean nextRootValue() {
+        if (_ctx.peek() != JsonType.EMPTY)
+            throw new JsonStreamException("The current root value has not been fully read.");
+        if (_endOfInput) return false;
+
+        readNextToken(false);
+        if (_cursor >= _buflen) {
+            _endOfInput = true;
+            return false;
         }
+        _first = true;
+        _metadata_readen = false;
+        _metadata.clear();
+        valueType = consumeValue();
+        return true;
+    }
 
-        return this;
+    public boolean hasRootValue() {
+        return !_endOfInput;
     }
 
     public boolean hasNext() {
@@ -363,7 +464,7 @@ public ValueType next() {
         }
 
         if (JsonType.OBJECT == _ctx.peek()) {
-            currentName = consumeString(ctoken);
+            currentName = consumeName(ctoken);
             if (readNextToken(true) != ':') newWrongTokenException(":", _cursor - 1);
         }
 
@@ -378,7 +479,7 @@ public ValueType next() {
     protected final ValueType consumeValue() {
         char ctoken = (char) readNextToken(false);
         if (ctoken == '"') {
-            _stringValue = consumeString(ctoken);
+            consumeStringValue(ctoken);
             return STRING;
         } else if (ctoken == '[') return ARRAY;
         else if (ctoken == '{') return OBJECT;
@@ -428,6 +529,63 @@ protected final void end(int character, JsonType type) {
         _first = false;
     }
 
+    /**
+     * Reads a property name, when a symbol table is used the name is hashed while scanning and the
+     * canonical instance is returned without allocating a new String.
+     */
+    protected final String consumeName(int token) {
+        if (symbols == null) return consumeString(token);
+        if (token != '"') newMisplacedTokenException(_cursor);
+        final int start = _cursor + 1;
+        int hash = 0;
+        for (int i = start; i < _buflen; i++) {
+            char c = _buffer[i];
+            if (c == '"') {
+                _cursor = i + 1;
+                return symbols.lookup(_buffer, start, i - start, hash);
+            }
+            if (c == '\\') break;
+            hash = 31 * hash + c;
+        }
+        // escaped names or names spanning over the end of the buffer
+        return symbols.lookup(consumeString(token));
+    }
+
+    /**
+     * Same as consumeString but the value is left decoded in _stringBuffer, the String will be
+     * created only if requested.
+     */
+    protected final void consumeStringValue(int token) {
+        if (token != '"') newMisplacedTokenException(_cursor);
+        _cursor++;
+        _stringValue = null;
+        while (true) {
+            if (fillBuffer(true) < 0) break;
+
+            int i = _cursor;
+            for (; i < _buflen;) {
+                if (_buffer[i] == '"') {
+                    writeToStringBuffer(_buffer, _cursor, i - _cursor);
+                    _cursor = i + 1;
+                    _stringValueLength = _stringBufferTail;
+                    _stringBufferTail = 0;
+                    return;
+                } else if (_buffer[i] == '\\') {
+                    writeToStringBuffer(_buffer, _cursor, i - _cursor);
+                    _cursor = i + 1;
+                    if (_stringBufferLength <= (_stringBufferTail + 1)) expandStringBuffer(16);
+                    _stringBuffer[_stringBufferTail++] = readEscaped();
+                    i = _cursor;
+                } else i++;
+            }
+
+            writeToStringBuffer(_buffer, _cursor, i - _cursor);
+            _cursor = i + 1;
+        }
+        _stringValueLength = _stringBufferTail;
+        _stringBufferTail = 0;
+    }
+
     protected final String consumeString(int token) {
         if (token != '"') newMisplacedTokenException(_cursor);
         _cursor++;
@@ -738,12 +896,61 @@ private final ValueType consumeStrictNumber(int localCursor) {
         }
 
         _numberLen = localCursor - _cursor;
-        _stringValue = new String(_buffer, _cursor, _numberLen);
-        _doubleValue = Double.parseDouble(_stringValue);
+        _doubleValue = FastDoubleParser.parse(_buffer, _cursor, localCursor);
         _cursor = localCursor;
         return DOUBLE;
     }
 
+    /**
+     * Advances the cursor after the end of the array or object of the given depth, the values
+     * starting before depth are expected to be already consumed. Comments are skipped as in
+     * {@link #readNextToken(boolean)}.
+     */
+    private void skipStructure(int depth) {
+        boolean inString = false;
+        boolean escaped = false;
+        while (true) {
+            if (_cursor >= _buflen && fillBuffer(true) < 0)
+                newWrongTokenException(depth > 0 && _skipStack[depth - 1] ? "]" : "}");
+
+            final char[] buffer = _buffer;
+            final int buflen = _buflen;
+            int i = _cursor;
+            for (; i < buflen; i++) {
+                final char c = buffer[i];
+                if (inString) {
+                    if (escaped) escaped = false;
+                    else if (c == '\\') escaped = true;
+                    else if (c == '"') inString = false;
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '[' || c == '{') {
+                    if (depth == _skipStack.length) {
+                        boolean[] stack = new boolean[depth * 2];
+                        System.arraycopy(_skipStack, 0, stack, 0, depth);
+                        _skipStack = stack;
+                    }
+                    _skipStack[depth++] = c == '[';
+                } else if (c == ']' || c == '}') {
+                    if (depth == 0 || _skipStack[depth - 1] != (c == ']'))
+                        newWrongTokenException(depth > 0 && _skipStack[depth - 1] ? "]" : "}", i);
+                    if (--depth == 0) {
+                        _cursor = i + 1;
+                        return;
+                    }
+                } else if (c == '\n') {
+                    _row++;
+                    _col = i;
+                } else if (c == '/') {
+                    break;
+                }
+            }
+            _cursor = i;
+            // positions the cursor after the comment
+            if (i < buflen) readNextToken(false);
+        }
+    }
+
     private int advanceWhileNumeric(int cursor) {
         for (; cursor < _buflen; cursor++) {
             if ((_buffer[cursor] < 48 || _buffer[cursor] > 57)) { return cursor; }
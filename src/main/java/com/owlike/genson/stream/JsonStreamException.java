@@ -13,9 +13,10 @@ public final class JsonStreamException extends RuntimeException {
 
 	private final int column;
 	private final int row;
+	private final long offset;
 
 	public JsonStreamException(String message, Throwable cause) {
-		this(message, cause, -1, -1);
+		this(message, cause, -1, -1, -1);
 	}
 
 	public JsonStreamException(String message) {
@@ -27,10 +28,11 @@ public JsonStreamException(Throwable cause) {
 	}
 
 	// package visibility, api users are not supposed to use it
-	JsonStreamException(String message, Throwable cause, int row, int col) {
+	JsonStreamException(String message, Throwable cause, int row, int col, long offset) {
 		super(message, cause);
 		this.column = col;
 		this.row = row;
+		this.offset = offset;
 	}
 
 	public int getColumn() {
@@ -40,6 +42,14 @@ public int getColumn() {
 	public int getRow() {
 		return row;
 	}
+
+	/**
+	 * @return the offset in bytes from the start of the document where the error occurred, or -1
+	 *         if unknown. Only readers working on bytes, such as {@link Utf8JsonReader}, know it.
+	 */
+	public long getOffset() {
+		return offset;
+	}
 	
 	public static <T extends Exception> T niceTrace(T exception) {
 	    final StackTraceElement[] stackTrace = exception.getStackTrace();
@@ -57,11 +67,12 @@ public JsonStreamException niceTrace() {
 	static class Builder {
 		private int col;
 		private int row;
+		private long offset = -1;
 		private String message;
 		private Throwable cause;
 
 		public JsonStreamException create() {
-			return new JsonStreamException(message, cause, row, col);
+			return new JsonStreamException(message, cause, row, col, offset);
 		}
 
 		Builder locate(int row, int col) {
@@ -70,6 +81,11 @@ Builder locate(int row, int col) {
 			return this;
 		}
 
+		Builder offset(long offset) {
+			this.offset = offset;
+			return this;
+		}
+
 		public Builder message(String message) {
 			this.message = message;
 			return this;
@@ -2,12 +2,13 @@
 
 import java.io.IOException;
 import java.io.Writer;
+import java.math.BigDecimal;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
 
-public class JsonWriter implements ObjectWriter {
+public class JsonWriter implements ExtendedObjectWriter {
     /*
      * TODO try to do something different and faster, optimize writeValue(String)
      */
@@ -48,14 +49,19 @@ public class JsonWriter implements ObjectWriter {
     private final boolean htmlSafe;
     private final boolean skipNull;
 
-    private final Writer writer;
+    private Writer writer;
     final Deque<JsonType> _ctx = new ArrayDeque<JsonType>(10);
     private boolean _hasPrevious;
     private String _name;
+    // set with _name when the name has been written with writeName(EncodedName)
+    private EncodedName _encodedName;
     private final boolean indentation;
     private final static char[] _indentation = new char[] { ' ', ' ' };
 
     private final char[] _buffer = new char[1024];
+    // doubles and floats are formatted as ascii bytes and then copied to _buffer
+    private final DoubleFormatter _doubleFormatter = new DoubleFormatter();
+    private final byte[] _numberBuffer = new byte[DoubleFormatter.MAX_LENGTH];
     private final int _bufferSize = _buffer.length;
     private int _len = 0;
 
@@ -85,6 +91,25 @@ public JsonWriter(Writer writer, final boolean skipNull, final boolean htmlSafe,
         _ctx.push(JsonType.EMPTY);
     }
 
+    /**
+     * Resets this writer so it can be reused to write a new json document to writer, the internal
+     * buffers are kept. Content that has not been flushed is discarded and the previous writer is
+     * not closed.
+     *
+     * @return a reference to this writer.
+     */
+    public JsonWriter reset(Writer writer) {
+        this.writer = writer;
+        _ctx.clear();
+        _ctx.push(JsonType.EMPTY);
+        _hasPrevious = false;
+        _name = null;
+        _encodedName = null;
+        _len = 0;
+        _metadata.clear();
+        return this;
+    }
+
     public void close() {
         flush();
         try {
@@ -103,6 +128,15 @@ public void flush() {
         }
     }
 
+    public JsonWriter nextRootValue() {
+        if (_ctx.peek() != JsonType.EMPTY)
+            throw new JsonStreamException("The current root value has not been fully written.");
+        if ((_len + 1) >= _bufferSize) flushBuffer();
+        _buffer[_len++] = '\n';
+        _hasPrevious = false;
+        return this;
+    }
+
     public JsonWriter beginArray() {
         clearMetadata();
         if (_ctx.peek() == JsonType.OBJECT && _name == null)
@@ -176,6 +210,13 @@ private final JsonWriter beforeValue() {
                 _buffer[_len++] = ',';
             }
             indent();
+        } else if (_encodedName != null) {
+            if ((_len + 1) >= _bufferSize) flushBuffer();
+            if (_hasPrevious) _buffer[_len++] = ',';
+            indent();
+            writeToBuffer(_encodedName.chars, 0, _encodedName.chars.length);
+            _encodedName = null;
+            _name = null;
         } else if (_name != null) {
             final int l = _name.length();
             // hum I dont think there may be names with a length near to 1024... we flush only once
@@ -226,6 +267,13 @@ protected void indent() {
 
     public JsonWriter writeName(final String name) {
         _name = name;
+        _encodedName = null;
+        return this;
+    }
+
+    public JsonWriter writeName(final EncodedName name) {
+        _name = name.name;
+        _encodedName = name;
         return this;
     }
 
@@ -246,7 +294,8 @@ public JsonWriter writeValue(final double value) {
         checkValidJsonDouble(value);
         clearMetadata();
         beforeValue();
-        writeToBuffer(Double.toString(value), 0);
+        if ((_len + DoubleFormatter.MAX_LENGTH) >= _bufferSize) flushBuffer();
+        writeNumberBuffer(_doubleFormatter.format(value, _numberBuffer, 0));
         _hasPrevious = true;
         return this;
     }
@@ -287,7 +336,8 @@ public ObjectWriter writeValue(float value) {
         checkValidJsonFloat(value);
         clearMetadata();
         beforeValue();
-        writeToBuffer(Float.toString(value), 0);
+        if ((_len + DoubleFormatter.MAX_LENGTH) >= _bufferSize) flushBuffer();
+        writeNumberBuffer(_doubleFormatter.format(value, _numberBuffer, 0));
         _hasPrevious = true;
         return this;
     }
@@ -301,12 +351,20 @@ public JsonWriter writeValue(final boolean value) {
         return this;
     }
 
+    private void writeNumberBuffer(int length) {
+        for (int i = 0; i < length; i++)
+            _buffer[_len++] = (char) _numberBuffer[i];
+    }
+
     protected final int writeInt(long value) {
-        final int len = (int) Math.log10(value) + 1;
         if (value == 0) {
             _buffer[_len++] = '0';
             return 1;
         }
+        // Math.log10 is rounded up for values like 999999999999999999
+        int len = 1;
+        for (long v = value; v >= 10; v /= 10)
+            len++;
 
         int pos = _len + len - 1;
         long intPart;
@@ -321,15 +379,63 @@ protected final int writeInt(long value) {
     }
 
     public JsonWriter writeValue(final Number value) {
+        // the most common types are written without creating a String
+        if (value instanceof Double) return writeValue(value.doubleValue());
+        if (value instanceof Float) {
+            writeValue(value.floatValue());
+            return this;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte) return writeValue(value.longValue());
         checkValidJsonDouble(value);
         checkValidJsonFloat(value);
         clearMetadata();
         beforeValue();
-        writeToBuffer(value.toString(), 0);
+        if (!(value instanceof BigDecimal) || !writeBigDecimal((BigDecimal) value))
+            writeToBuffer(value.toString(), 0);
         _hasPrevious = true;
         return this;
     }
 
+    /**
+     * Writes value in the plain notation the same way as BigDecimal.toString but without creating
+     * the String, if it is used by toString and the unscaled value fits in a long.
+     *
+     * @return false if nothing has been written.
+     */
+    private boolean writeBigDecimal(BigDecimal value) {
+        final int scale = value.scale();
+        final int precision = value.precision();
+        // toString uses the scientific notation for negative scales and adjusted exponents
+        // (precision - scale - 1) lower than -6
+        if (scale < 0 || precision > 18 || precision - scale < -5) return false;
+        long unscaled = value.unscaledValue().longValue();
+        // sign, "0.", at most 5 leading zeros, 18 digits and the point
+        if ((_len + 28) >= _bufferSize) flushBuffer();
+
+        if (unscaled < 0) {
+            _buffer[_len++] = '-';
+            unscaled = -unscaled;
+        }
+        if (precision <= scale) {
+            _buffer[_len++] = '0';
+            _buffer[_len++] = '.';
+            for (int i = precision; i < scale; i++)
+                _buffer[_len++] = '0';
+            writeInt(unscaled);
+        } else {
+            writeInt(unscaled);
+            if (scale > 0) {
+                // moves the fraction digits to insert the point
+                int point = _len - scale;
+                System.arraycopy(_buffer, point, _buffer, point + 1, scale);
+                _buffer[point] = '.';
+                _len++;
+            }
+        }
+        return true;
+    }
+
     public ObjectWriter writeBoolean(final Boolean value) {
         if (value == null) return writeNull();
         else return writeValue(value);
@@ -350,6 +456,20 @@ public ObjectWriter writeBytes(byte[] value) {
         else return writeValue(value);
     }
 
+    private void checkValidJsonDouble(double value) {
+        if (Double.isNaN(value))
+            throw new NumberFormatException("NaN is not a valid json number.");
+        if (Double.isInfinite(value))
+            throw new NumberFormatException("Infinity is not a valid json number.");
+    }
+
+    private void checkValidJsonFloat(float value) {
+        if (Float.isNaN(value))
+            throw new NumberFormatException("NaN is not a valid json number.");
+        if (Float.isInfinite(value))
+            throw new NumberFormatException("Infinity is not a valid json number.");
+    }
+
     private void checkValidJsonDouble(Number num) {
         if (num.equals(Double.NaN))
             throw new NumberFormatException("NaN is not a valid json number.");
@@ -443,6 +563,7 @@ private final void writeInternalString(final String value) {
     public ObjectWriter writeNull() {
         if (skipNull) {
             _name = null;
+            _encodedName = null;
         } else {
             beforeValue();
             writeToBuffer(NULL_VALUE, 0, 4);
@@ -0,0 +1,95 @@
+package com.owlike.genson.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An InputStream over a memory mapped file, intended to be read by a {@link Utf8JsonReader}. The
+ * file is mapped in windows of at most windowSize bytes, one at a time, so files larger than 2GB
+ * can be read. Reading is a copy from the mapped memory to the reader buffer, there is no system
+ * call per read and no intermediate buffer.
+ * <p>
+ * The mapped windows are released by the garbage collector once unreachable, as there is no way
+ * to unmap them explicitly.
+ */
+public final class MappedFileInputStream extends InputStream {
+    public final static int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    // the offset in the file of the end of the current window
+    private long windowEnd;
+    private MappedByteBuffer window;
+
+    public MappedFileInputStream(File file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedFileInputStream(File file, int windowSize) throws IOException {
+        if (windowSize <= 0) throw new IllegalArgumentException("windowSize must be positive");
+        this.file = new RandomAccessFile(file, "r");
+        this.channel = this.file.getChannel();
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!hasRemaining()) return -1;
+        return window.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (!hasRemaining()) return -1;
+        int n = Math.min(len, window.remaining());
+        window.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && hasRemaining()) {
+            int step = (int) Math.min(n - skipped, window.remaining());
+            window.position(window.position() + step);
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return window != null ? window.remaining() : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        file.close();
+    }
+
+    /**
+     * @return the size of the file in bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    private boolean hasRemaining() throws IOException {
+        if (window != null && window.hasRemaining()) return true;
+        if (windowEnd >= size) return false;
+
+        long length = Math.min(windowSize, size - windowEnd);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, windowEnd, length);
+        windowEnd += length;
+        return true;
+    }
+}
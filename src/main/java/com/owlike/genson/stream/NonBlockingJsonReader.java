@@ -0,0 +1,281 @@
+package com.owlike.genson.stream;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A push style reader for UTF8 encoded json that never blocks: the input is given chunk by chunk
+ * with {@link #feed(ByteBuffer)} as it arrives (for example from a non blocking channel) and
+ * {@link #endOfInput()} once there is no more. The input may contain many root values separated by
+ * whitespaces, {@link #next()} tells if a complete one is available or if more input is needed.
+ * <p>
+ * The input is scanned incrementally, only the nesting, the string boundaries and the comments
+ * are tracked, so the scan can stop and resume at any byte. Once a root value is complete its bytes
+ * are read in place by an {@link ObjectReader} from {@link #reader()}, the converters can then
+ * read it as usual without ever waiting for input. As a consequence the bytes of a root value are
+ * buffered until it is complete. See also
+ * {@link com.owlike.genson.Genson#newNonBlockingDeserializer(com.owlike.genson.GenericType)
+ * Genson.newNonBlockingDeserializer}.
+ * <p>
+ * This class is not thread safe.
+ */
+public final class NonBlockingJsonReader {
+    public enum Status {
+        /**
+         * A complete root value is available through {@link NonBlockingJsonReader#reader()}.
+         */
+        VALUE,
+        /**
+         * The next root value is not complete yet, more input must be fed.
+         */
+        NEED_MORE_INPUT,
+        /**
+         * All the values have been read and the end of input has been reached.
+         */
+        END_OF_INPUT
+    }
+
+    private final static int NO_COMMENT = 0;
+    // a slash has been read, the next byte tells if it is a line or block comment
+    private final static int COMMENT_START = 1;
+    private final static int LINE_COMMENT = 2;
+    private final static int BLOCK_COMMENT = 3;
+    // a star has been read in a block comment
+    private final static int BLOCK_COMMENT_END = 4;
+
+    private final boolean strictDoubleParse;
+    private final boolean readMetadata;
+    private final SymbolTable symbols;
+    private Utf8JsonReader reader;
+
+    private byte[] _buffer = new byte[4096];
+    private int _buflen;
+    // the offset in the input of _buffer[0]
+    private long _bufferOffset;
+    // the next byte to scan
+    private int _cursor;
+    // start of the root value being scanned or -1
+    private int _valueStart = -1;
+    private int _valueEnd;
+    private boolean _valueReady;
+    private boolean _ended;
+
+    private int _depth;
+    // the type of the opened arrays and objects, true for an array
+    private boolean[] _stack = new boolean[16];
+    private boolean _inString;
+    private boolean _escaped;
+    // a root literal (number, boolean or null) ends only with a delimiter or the end of input
+    private boolean _inLiteral;
+    private int _comment = NO_COMMENT;
+
+    public NonBlockingJsonReader() {
+        this(false, false, null);
+    }
+
+    /**
+     * @param symbols if not null, the names present in this table are returned as its symbols, see
+     *                {@link SymbolTable}.
+     */
+    public NonBlockingJsonReader(boolean strictDoubleParse, boolean readMetadata,
+            SymbolTable symbols) {
+        this.strictDoubleParse = strictDoubleParse;
+        this.readMetadata = readMetadata;
+        this.symbols = symbols;
+    }
+
+    /**
+     * Appends the remaining bytes of chunk to the input, the chunk is consumed but not kept.
+     */
+    public NonBlockingJsonReader feed(ByteBuffer chunk) {
+        if (_ended) throw new IllegalStateException("The end of input has already been reached.");
+
+        int length = chunk.remaining();
+        if (_buflen + length > _buffer.length) {
+            // only the bytes of the current value are still needed
+            int keepFrom = _valueStart >= 0 ? _valueStart : _cursor;
+            int kept = _buflen - keepFrom;
+            byte[] buffer = _buffer;
+            if (kept + length > buffer.length)
+                buffer = new byte[Math.max(buffer.length * 2, kept + length)];
+            System.arraycopy(_buffer, keepFrom, buffer, 0, kept);
+            _buffer = buffer;
+            _buflen = kept;
+            _bufferOffset += keepFrom;
+            _cursor -= keepFrom;
+            if (_valueStart >= 0) _valueStart -= keepFrom;
+            _valueEnd -= keepFrom;
+        }
+        chunk.get(_buffer, _buflen, length);
+        _buflen += length;
+        return this;
+    }
+
+    /**
+     * Tells that all the input has been fed.
+     */
+    public NonBlockingJsonReader endOfInput() {
+        _ended = true;
+        return this;
+    }
+
+    /**
+     * Moves to the next root value, the previous one is discarded.
+     *
+     * @return {@link Status#VALUE} if the next value is complete, {@link Status#NEED_MORE_INPUT} if
+     *         it is not or {@link Status#END_OF_INPUT} if there are no more values.
+     * @throws JsonStreamException if the input is malformed or ends in the middle of a value.
+     */
+    public Status next() {
+        if (_valueReady) {
+            _valueReady = false;
+            _valueStart = -1;
+        }
+
+        if (scan()) return Status.VALUE;
+        if (!_ended) return Status.NEED_MORE_INPUT;
+
+        if (_inLiteral) {
+            _inLiteral = false;
+            return ready(_buflen);
+        }
+        if (_valueStart >= 0 || _comment == COMMENT_START || _comment == BLOCK_COMMENT
+                || _comment == BLOCK_COMMENT_END)
+            throw new JsonStreamException.Builder()
+                    .message("Incomplete data or malformed json : encountered end of input at byte offset "
+                            + (_bufferOffset + _buflen)).offset(_bufferOffset + _buflen).create();
+        return Status.END_OF_INPUT;
+    }
+
+    /**
+     * @return a reader over the current root value, it is valid until the next call to
+     *         {@link #next()} or {@link #feed(ByteBuffer)}. The reader does not know about the
+     *         previous values, the offsets it reports are relative to {@link #valueOffset()}.
+     */
+    public ObjectReader reader() {
+        if (!_valueReady) throw new IllegalStateException("No complete value is available.");
+        if (reader == null)
+            reader = new Utf8JsonReader(_buffer, _valueStart, _valueEnd - _valueStart,
+                    strictDoubleParse, readMetadata, symbols);
+        else reader.reset(_buffer, _valueStart, _valueEnd - _valueStart);
+        return reader;
+    }
+
+    /**
+     * @return the offset in bytes from the start of the input of the current root value.
+     */
+    public long valueOffset() {
+        if (!_valueReady) throw new IllegalStateException("No complete value is available.");
+        return _bufferOffset + _valueStart;
+    }
+
+    private Status ready(int valueEnd) {
+        _valueEnd = valueEnd;
+        _valueReady = true;
+        return Status.VALUE;
+    }
+
+    /**
+     * Scans the input from the cursor until the end of the current root value.
+     *
+     * @return true if a value is complete.
+     */
+    private boolean scan() {
+        final byte[] buffer = _buffer;
+        final int buflen = _buflen;
+        for (int i = _cursor; i < buflen; i++) {
+            final int c = buffer[i];
+
+            if (_comment != NO_COMMENT) {
+                if (_comment == COMMENT_START) {
+                    if (c == '/') _comment = LINE_COMMENT;
+                    else if (c == '*') _comment = BLOCK_COMMENT;
+                    else newWrongTokenException("start comment // or /*", i);
+                } else if (_comment == LINE_COMMENT) {
+                    if (c == '\n') _comment = NO_COMMENT;
+                } else if (c == '*') {
+                    _comment = BLOCK_COMMENT_END;
+                } else if (_comment == BLOCK_COMMENT_END) {
+                    _comment = c == '/' ? NO_COMMENT : BLOCK_COMMENT;
+                }
+                continue;
+            }
+
+            if (_inString) {
+                if (_escaped) _escaped = false;
+                else if (c == '\\') _escaped = true;
+                else if (c == '"') {
+                    _inString = false;
+                    if (_depth == 0) return found(i + 1);
+                }
+                continue;
+            }
+
+            if (_inLiteral) {
+                if (c < 0 || (c != '/' && c != '"' && c != '[' && c != '{' && c != ']' && c != '}'
+                        && c != ',' && c != ':' && JsonReader.SKIPPED_TOKENS[c] == 0))
+                    continue;
+                // the delimiter is not part of the value and will be scanned with the next one
+                _inLiteral = false;
+                return found(i);
+            }
+
+            switch (c) {
+            case '/':
+                _comment = COMMENT_START;
+                break;
+            case '"':
+                if (_depth == 0) _valueStart = i;
+                _inString = true;
+                break;
+            case '[':
+            case '{':
+                if (_depth == 0) _valueStart = i;
+                if (_depth == _stack.length) {
+                    boolean[] stack = new boolean[_depth * 2];
+                    System.arraycopy(_stack, 0, stack, 0, _depth);
+                    _stack = stack;
+                }
+                _stack[_depth++] = c == '[';
+                break;
+            case ']':
+            case '}':
+                if (_depth == 0) newMisplacedTokenException(i);
+                if (_stack[_depth - 1] != (c == ']'))
+                    newWrongTokenException(_stack[_depth - 1] ? "]" : "}", i);
+                if (--_depth == 0) return found(i + 1);
+                break;
+            case ',':
+            case ':':
+                if (_depth == 0) newMisplacedTokenException(i);
+                break;
+            default:
+                if (_depth == 0 && (c < 0 || JsonReader.SKIPPED_TOKENS[c] == 0)) {
+                    _valueStart = i;
+                    _inLiteral = true;
+                }
+            }
+        }
+        _cursor = buflen;
+        return false;
+    }
+
+    private boolean found(int valueEnd) {
+        _cursor = valueEnd;
+        ready(valueEnd);
+        return true;
+    }
+
+    private void newWrongTokenException(String awaited, int cursor) {
+        long offset = _bufferOffset + cursor;
+        throw new JsonStreamException.Builder()
+                .message("Illegal character at byte offset " + offset + " expected " + awaited
+                        + " but read '" + (char) _buffer[cursor] + "' !").offset(offset).create();
+    }
+
+    private void newMisplacedTokenException(int cursor) {
+        long offset = _bufferOffset + cursor;
+        throw new JsonStreamException.Builder()
+                .message("Encountred misplaced character '" + (char) _buffer[cursor]
+                        + "' at byte offset " + offset).offset(offset).create();
+    }
+}
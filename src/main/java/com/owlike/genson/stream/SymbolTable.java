@@ -0,0 +1,142 @@
+package com.owlike.genson.stream;
+
+/**
+ * A bounded table of canonical property names shared by the readers of a
+ * {@link com.owlike.genson.Genson Genson} instance. Readers hash the names while scanning them and
+ * look them up directly from their buffer, so known names are returned without allocating a new
+ * String. The names returned by readers for the symbols obtained through
+ * {@link #canonicalize(String)} are the same instances and can be compared by identity, this is
+ * what {@link com.owlike.genson.reflect.BeanDescriptor BeanDescriptor} relies on.
+ *
+ * Only {@link #canonicalize(String)} adds symbols, readers never do. So the names of documents with
+ * an unbounded set of keys (for example maps) can not fill the table and leave no room for the
+ * property names of the beans, and reading never takes a lock. The table never grows past its
+ * maximum number of symbols and never evicts a symbol, once it is full canonicalize returns the
+ * names as is. Names longer than {@link #MAX_SYMBOL_LENGTH} are never added.
+ *
+ * Lookups are lock free and additions are synchronized, instances can be shared between threads.
+ */
+public final class SymbolTable {
+    public final static int DEFAULT_MAX_SYMBOLS = 4096;
+    public final static int MAX_SYMBOL_LENGTH = 64;
+
+    // open addressing with linear probing, the capacity is at least twice the max number of
+    // symbols so a free slot can always be found and the table never needs to be resized. Strings
+    // are immutable so publishing them through this array without synchronization is safe.
+    private final String[] _symbols;
+    private final int _mask;
+    private final int _maxSymbols;
+    private int _size;
+    // avoids taking the lock for each unknown name once no more symbols can be added
+    private volatile boolean _full;
+
+    public SymbolTable() {
+        this(DEFAULT_MAX_SYMBOLS);
+    }
+
+    public SymbolTable(int maxSymbols) {
+        if (maxSymbols < 1)
+            throw new IllegalArgumentException("The max number of symbols must be positive.");
+        int capacity = Integer.highestOneBit(maxSymbols) << 2;
+        _symbols = new String[capacity];
+        _mask = capacity - 1;
+        _maxSymbols = maxSymbols;
+    }
+
+    /**
+     * Returns the canonical instance of name. If name is not yet present it will be added (if there
+     * is enough room), so the returned instance is the one that readers will return for this name.
+     */
+    public String canonicalize(String name) {
+        if (name.length() > MAX_SYMBOL_LENGTH) return name;
+        int hash = name.hashCode();
+        for (int idx = hash & _mask;; idx = (idx + 1) & _mask) {
+            String symbol = _symbols[idx];
+            if (symbol == null) return _full ? name : add(name, hash);
+            if (symbol.hashCode() == hash && symbol.equals(name)) return symbol;
+        }
+    }
+
+    /**
+     * Returns the canonical instance of name if it is present, name otherwise. Contrary to
+     * {@link #canonicalize(String)} the name is never added.
+     */
+    public String lookup(String name) {
+        if (name.length() > MAX_SYMBOL_LENGTH) return name;
+        int hash = name.hashCode();
+        for (int idx = hash & _mask;; idx = (idx + 1) & _mask) {
+            String symbol = _symbols[idx];
+            if (symbol == null) return name;
+            if (symbol.hashCode() == hash && symbol.equals(name)) return symbol;
+        }
+    }
+
+    /**
+     * Returns the symbol made of the len chars starting at offset in buffer, or a new String if
+     * there is none. hash must be equal to the one computed by String.hashCode.
+     */
+    public String lookup(char[] buffer, int offset, int len, int hash) {
+        if (len > MAX_SYMBOL_LENGTH) return new String(buffer, offset, len);
+        for (int idx = hash & _mask;; idx = (idx + 1) & _mask) {
+            String symbol = _symbols[idx];
+            if (symbol == null) return new String(buffer, offset, len);
+            if (symbol.hashCode() == hash && matches(symbol, buffer, offset, len)) return symbol;
+        }
+    }
+
+    /**
+     * Same as {@link #lookup(char[], int, int, int)} but for a name made only of ASCII bytes.
+     */
+    public String lookup(byte[] buffer, int offset, int len, int hash) {
+        if (len > MAX_SYMBOL_LENGTH) return asciiString(buffer, offset, len);
+        for (int idx = hash & _mask;; idx = (idx + 1) & _mask) {
+            String symbol = _symbols[idx];
+            if (symbol == null) return asciiString(buffer, offset, len);
+            if (symbol.hashCode() == hash && matches(symbol, buffer, offset, len)) return symbol;
+        }
+    }
+
+    public int size() {
+        synchronized (this) {
+            return _size;
+        }
+    }
+
+    public int maxSymbols() {
+        return _maxSymbols;
+    }
+
+    private synchronized String add(String name, int hash) {
+        // probe again as another thread might have added it since our lookup
+        int idx = hash & _mask;
+        for (String symbol = _symbols[idx]; symbol != null; symbol = _symbols[idx]) {
+            if (symbol.hashCode() == hash && symbol.equals(name)) return symbol;
+            idx = (idx + 1) & _mask;
+        }
+        if (_size >= _maxSymbols) return name;
+        _symbols[idx] = name;
+        if (++_size == _maxSymbols) _full = true;
+        return name;
+    }
+
+    private static boolean matches(String symbol, char[] buffer, int offset, int len) {
+        if (symbol.length() != len) return false;
+        for (int i = 0; i < len; i++)
+            if (symbol.charAt(i) != buffer[offset + i]) return false;
+        return true;
+    }
+
+    private static boolean matches(String symbol, byte[] buffer, int offset, int len) {
+        if (symbol.length() != len) return false;
+        for (int i = 0; i < len; i++)
+            if (symbol.charAt(i) != buffer[offset + i]) return false;
+        return true;
+    }
+
+    private static String asciiString(byte[] buffer, int offset, int len) {
+        char[] chars = new char[len];
+        for (int i = 0; i < len; i++)
+            chars[i] = (char) buffer[offset + i];
+        return new String(chars);
+    }
+}
@@ -0,0 +1,1196 @@
+package com.owlike.genson.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.owlike.genson.stream.JsonReader.*;
+import static com.owlike.genson.stream.ValueType.*;
+
+/**
+ * An ObjectReader implementation working directly on UTF-8 encoded bytes. It is the byte
+ * counterpart of {@link JsonReader}: structure tokens, literals and numbers are read straight from
+ * the byte buffer and only the content of strings (values and names) is decoded to chars. This
+ * avoids the extra decoding pass done by an InputStreamReader, which is what
+ * {@link com.owlike.genson.Genson Genson} uses by default for InputStreams and byte arrays.
+ *
+ * Behaviour is the same as JsonReader, except that column positions are expressed in bytes instead
+ * of chars. Malformed UTF-8 sequences, including overlong forms, encoded surrogates and values above
+ * 0x10FFFF, are replaced by U+FFFD, as done by the JDK decoder.
+ *
+ * @see JsonReader
+ */
+public class Utf8JsonReader implements ExtendedObjectReader {
+    private final static char REPLACEMENT_CHAR = '\uFFFD';
+
+    private InputStream input;
+    private final boolean strictDoubleParse;
+    private final boolean readMetadata;
+    private final SymbolTable symbols;
+    private byte[] _buffer;
+    // position of the first byte in _buffer, will be different from zero only for byte arrays
+    private int _bufferStart;
+    // the buffer used when reading from an InputStream, kept when the reader is reset
+    private byte[] _streamBuffer;
+    private int _col;
+    private int _row;
+    private int _cursor;
+    private int _buflen;
+    // the offset in the document of _buffer[0]
+    private long _bufferOffset;
+
+    private char[] _stringBuffer = new char[16];
+    private int _stringBufferTail = 0;
+    private int _stringBufferLength = _stringBuffer.length;
+
+    private String currentName;
+    // string values are left decoded in _stringBuffer, the String is created only if requested
+    private String _stringValue;
+    private int _stringValueLength;
+    private final CharArraySequence _stringValueView = new CharArraySequence();
+    protected long _intValue;
+    protected double _doubleValue;
+    private int _numberLen = 0;
+    private Boolean _booleanValue;
+    private ValueType valueType;
+    private boolean _first = true;
+    private boolean _metadata_readen = false;
+    // no more root values
+    private boolean _endOfInput;
+    private Map<String, String> _metadata = new HashMap<String, String>(5);
+
+    // the type of the arrays and objects being skipped, true for an array
+    private boolean[] _skipStack = new boolean[16];
+
+    private final Deque<JsonType> _ctx = new ArrayDeque<JsonType>(10);
+    {
+        _ctx.push(JsonType.EMPTY);
+    }
+
+    public Utf8JsonReader(byte[] source) {
+        this(source, 0, source.length, false, false);
+    }
+
+    public Utf8JsonReader(InputStream input, boolean strictDoubleParse, boolean readMetadata) {
+        this(input, strictDoubleParse, readMetadata, null);
+    }
+
+    /**
+     * @param symbols if not null, the names present in this table are returned as its symbols, see
+     *                {@link SymbolTable}.
+     */
+    public Utf8JsonReader(InputStream input, boolean strictDoubleParse, boolean readMetadata,
+            SymbolTable symbols) {
+        this(input, new byte[4096], 0, 0, strictDoubleParse, readMetadata, symbols);
+    }
+
+    /**
+     * Reads the json document contained in source from offset to offset+length. The array is used
+     * as is as the internal buffer, it is not copied nor modified, so you must not change its
+     * content while reading.
+     */
+    public Utf8JsonReader(byte[] source, int offset, int length, boolean strictDoubleParse,
+            boolean readMetadata) {
+        this(source, offset, length, strictDoubleParse, readMetadata, null);
+    }
+
+    public Utf8JsonReader(byte[] source, int offset, int length, boolean strictDoubleParse,
+            boolean readMetadata, SymbolTable symbols) {
+        this(null, source, offset, offset + length, strictDoubleParse, readMetadata, symbols);
+    }
+
+    private Utf8JsonReader(InputStream input, byte[] buffer, int start, int end,
+            boolean strictDoubleParse, boolean readMetadata, SymbolTable symbols) {
+        this.input = input;
+        this.symbols = symbols;
+        this._buffer = buffer;
+        this._bufferStart = start;
+        this._cursor = start;
+        this._col = start;
+        this._buflen = end;
+        this._bufferOffset = -start;
+        this.strictDoubleParse = strictDoubleParse;
+        this.readMetadata = readMetadata;
+        if (input != null) _streamBuffer = buffer;
+        init();
+    }
+
+    /**
+     * Resets this reader so it can be reused to read the json document contained in source from
+     * offset to offset+length. As with the constructor the array is not copied.
+     *
+     * @return a reference to this reader.
+     */
+    public Utf8JsonReader reset(byte[] source, int offset, int length) {
+        return reset(null, source, offset, offset + length);
+    }
+
+    /**
+     * Resets this reader so it can be reused to read a new json document from input, the internal
+     * buffers are kept. The previous input is not closed.
+     *
+     * @return a reference to this reader.
+     */
+    public Utf8JsonReader reset(InputStream input) {
+        if (_streamBuffer == null) _streamBuffer = new byte[4096];
+        return reset(input, _streamBuffer, 0, 0);
+    }
+
+    private Utf8JsonReader reset(InputStream input, byte[] buffer, int start, int end) {
+        this.input = input;
+        _buffer = buffer;
+        _bufferStart = start;
+        _cursor = start;
+        _col = start;
+        _buflen = end;
+        _bufferOffset = -start;
+        _row = 0;
+        _stringBufferTail = 0;
+        currentName = null;
+        _stringValue = null;
+        _stringValueLength = 0;
+        _intValue = 0;
+        _doubleValue = 0;
+        _numberLen = 0;
+        _booleanValue = null;
+        _first = true;
+        _metadata_readen = false;
+        _metadata.clear();
+        _ctx.clear();
+        _ctx.push(JsonType.EMPTY);
+        _endOfInput = false;
+        init();
+        return this;
+    }
+
+    private void init() {
+        char token = (char) readNextToken(false);
+        if ('[' == token) valueType = ARRAY;
+        else if ('{' == token) valueType = OBJECT;
+        else {
+            // ok lets try to read next
+            if (_buflen > 0) {
+                try {
+                    valueType = consumeValue();
+                } catch (JsonStreamException jse) {
+                    // same cheat as in JsonReader, consumeString attends the current token to be "
+                    _cursor = _bufferStart - 1;
+                    _col = _bufferStart - 1;
+                    consumeStringValue('"');
+                    valueType = STRING;
+                }
+                if (valueOf(valueType.name()) == null)
+                    throw new JsonStreamException(
+                            "Failed to instanciate reader, first character was " + token
+                                    + " when possible characters are [ and {");
+            } else {
+                valueType = NULL;
+                _endOfInput = true;
+            }
+        }
+    }
+
+    public void close() {
+        if (input != null) {
+            try {
+                input.close();
+            } catch (IOException e) {
+                throw new JsonStreamException(e);
+            }
+        }
+    }
+
+    public ObjectReader beginArray() {
+        begin('[', JsonType.ARRAY);
+        valueType = ARRAY;
+        if (_metadata_readen) _metadata.clear();
+        return this;
+    }
+
+    public ObjectReader beginObject() {
+        if (!_metadata_readen) {
+            begin('{', JsonType.OBJECT);
+            valueType = OBJECT;
+            if (readMetadata) {
+                _metadata.clear();
+                readMetadata();
+            }
+        }
+        return this;
+    }
+
+    public ObjectReader nextObjectMetadata() {
+        return beginObject();
+    }
+
+    public ObjectReader endArray() {
+        end(']', JsonType.ARRAY);
+        return this;
+    }
+
+    public ObjectReader endObject() {
+        end('}', JsonType.OBJECT);
+        _metadata.clear();
+        _metadata_readen = false;
+        return this;
+    }
+
+    public String name() {
+        if (enclosingType() != JsonType.OBJECT)
+            throw new JsonStreamException("Only json objects have names, actual type is "
+                    + valueType);
+        return currentName;
+    }
+
+    public String valueAsString() {
+        if (STRING == valueType) return stringValue();
+        if (INTEGER == valueType) return "" + _intValue;
+        if (DOUBLE == valueType) return "" + _doubleValue;
+        if (NULL == valueType) return null;
+        if (BOOLEAN == valueType) { return _booleanValue.toString(); }
+        throw new JsonStreamException("Readen value can not be converted to String");
+    }
+
+    public CharSequence valueAsCharSequence() {
+        if (STRING == valueType) {
+            if (_stringValue != null) return _stringValue;
+            return _stringValueView.wrap(_stringBuffer, _stringValueLength);
+        }
+        return valueAsString();
+    }
+
+    public <A extends Appendable> A copyValueTo(A out) {
+        try {
+            if (STRING == valueType)
+                _stringValueView.wrap(_stringBuffer, _stringValueLength).appendTo(out);
+            else if (NULL != valueType) out.append(valueAsString());
+        } catch (IOException ioe) {
+            throw new JsonStreamException(ioe);
+        }
+        return out;
+    }
+
+    private String stringValue() {
+        if (_stringValue == null) _stringValue = new String(_stringBuffer, 0, _stringValueLength);
+        return _stringValue;
+    }
+
+    // same as Boolean.parseBoolean(stringValue()) without creating the String
+    private boolean stringValueIsTrue() {
+        if (_stringValueLength != 4) return false;
+        final char[] chars = _stringBuffer;
+        return Character.toLowerCase(chars[0]) == 't' && Character.toLowerCase(chars[1]) == 'r'
+                && Character.toLowerCase(chars[2]) == 'u' && Character.toLowerCase(chars[3]) == 'e';
+    }
+
+    public int valueAsInt() {
+        if (INTEGER == valueType) {
+            int value = (int) _intValue;
+            if (value != _intValue)
+                throwNumberFormatException("an int", "overflowing long value " + _intValue);
+            return value;
+        } else if (DOUBLE == valueType) {
+            int value = (int) _doubleValue;
+            long longValue = (long) _doubleValue;
+            // lets accept only if the integer part is the same and ignore the decimals
+            if (value != longValue) {
+                throwNumberFormatException("an int", "overflowing double value " + _doubleValue);
+            }
+            return value;
+        } else if (STRING == valueType) return _stringValueLength == 0 ? 0 : Integer
+                .parseInt(stringValue());
+        else if (NULL == valueType) return 0;
+
+        throw new JsonStreamException("Expected a int but value is of type " + valueType);
+    }
+
+    public long valueAsLong() {
+        if (INTEGER == valueType) {
+            return _intValue;
+        } else if (DOUBLE == valueType) {
+            if (Long.MIN_VALUE > _doubleValue || _doubleValue > Long.MAX_VALUE) {
+                throwNumberFormatException("a long", "overflowing double value " + _doubleValue);
+            }
+            return (long) _doubleValue;
+        } else if (STRING == valueType) return _stringValueLength == 0 ? 0 : Long
+                .parseLong(stringValue());
+        else if (NULL == valueType) return 0l;
+        throw new JsonStreamException("Expected a long but value is of type " + valueType);
+    }
+
+    public double valueAsDouble() {
+        if (DOUBLE == valueType) {
+            return _doubleValue;
+        } else if (INTEGER == valueType) {
+            return Long.valueOf(_intValue).doubleValue();
+        } else if (STRING == valueType) return _stringValueLength == 0 ? 0 : Double
+                .parseDouble(stringValue());
+        else if (NULL == valueType) return 0d;
+        throw new JsonStreamException("Expected a double but value is of type " + valueType);
+    }
+
+    public short valueAsShort() {
+        if (INTEGER == valueType) {
+            short value = (short) _intValue;
+            if (value != _intValue)
+                throwNumberFormatException("a short", "overflowing long value " + _intValue);
+            return value;
+        } else if (DOUBLE == valueType) {
+            short value = (short) _doubleValue;
+            long longValue = (long) _doubleValue;
+            // lets accept only if the integer part is the same and ignore the decimals
+            if (value != longValue) {
+                throwNumberFormatException("a short", "overflowing double value " + _doubleValue);
+            }
+            return value;
+        } else if (STRING == valueType) return _stringValueLength == 0 ? 0 : Short
+                .parseShort(stringValue());
+        else if (NULL == valueType) return 0;
+
+        throw new JsonStreamException("Expected a short but value is of type " + valueType);
+    }
+
+    public float valueAsFloat() {
+        if (DOUBLE == valueType) {
+            if (Float.MIN_VALUE > _doubleValue || _doubleValue > Float.MAX_VALUE)
+                throwNumberFormatException("a float", "overflowing double value " + _doubleValue);
+            return (float) _doubleValue;
+        } else if (INTEGER == valueType) {
+            return Long.valueOf(_intValue).floatValue();
+        } else if (STRING == valueType) return _stringValueLength == 0 ? 0 : Float
+                .parseFloat(stringValue());
+        else if (NULL == valueType) return 0f;
+        throw new JsonStreamException("Expected a float but value is of type " + valueType);
+    }
+
+    public boolean valueAsBoolean() {
+        if (BOOLEAN == valueType) { return _booleanValue; }
+        if (STRING == valueType) return stringValueIsTrue();
+        if (NULL == valueType) return false;
+        throw new JsonStreamException("Readen value is not of type boolean");
+    }
+
+    public byte[] valueAsByteArray() {
+        if (STRING == valueType) return Base64.decodeFast(stringValue());
+        if (NULL == valueType) return null;
+        throw new JsonStreamException("Expected a String to convert to byte array found "
+                + valueType);
+    }
+
+    public String metadata(String name) {
+        if (!_metadata_readen) nextObjectMetadata();
+        return _metadata.get(name);
+    }
+
+    public ValueType getValueType() {
+        return valueType;
+    }
+
+    /**
+     * @see JsonReader#skipValue()
+     */
+    public ObjectReader skipValue() {
+        if (ARRAY == valueType || OBJECT == valueType) {
+            if (_metadata_readen) {
+                // the object has already been started to read its metadata
+                _ctx.pop();
+                _skipStack[0] = false;
+                skipStructure(1);
+            } else {
+                readNextToken(false);
+                skipStructure(0);
+            }
+            _metadata.clear();
+            _metadata_readen = false;
+            _first = false;
+        }
+
+        return this;
+    }
+
+    public boolean nextRootValue() {
+        if (_ctx.peek() != JsonType.EMPTY)
+            throw new JsonStreamException("The current root value has not been fully read.");
+        if (_endOfInput) return false;
+
+        readNextToken(false);
+        if (_cursor >= _buflen) {
+            _endOfInput = true;
+            return false;
+        }
+        _first = true;
+        _metadata_readen = false;
+        _metadata.clear();
+        valueType = consumeValue();
+        return true;
+    }
+
+    public boolean hasRootValue() {
+        return !_endOfInput;
+    }
+
+    public boolean hasNext() {
+        int token = readNextToken(false);
+        if (token == -1) return false;
+        if (token < 128) {
+            if (_first) return _NEXT_TOKEN[token];
+            else if (token == ',') return true;
+        }
+
+        return false;
+    }
+
+    public ValueType next() {
+        _metadata_readen = false;
+        _first = false;
+
+        char ctoken = (char) readNextToken(false);
+
+        if (ctoken == ',') {
+            _cursor++;
+            ctoken = (char) readNextToken(false);
+        } else if (JsonType.ARRAY == _ctx.peek()) {
+            if (ctoken == '[') {
+                valueType = ARRAY;
+                return valueType;
+            }
+            if (ctoken == '{') {
+                valueType = OBJECT;
+                return valueType;
+            }
+        }
+
+        if (JsonType.OBJECT == _ctx.peek()) {
+            currentName = consumeName(ctoken);
+            if (readNextToken(true) != ':') newWrongTokenException(":", _cursor - 1);
+        }
+
+        valueType = consumeValue();
+        return valueType;
+    }
+
+    public JsonType enclosingType() {
+        return _ctx.peek();
+    }
+
+    protected final ValueType consumeValue() {
+        char ctoken = (char) readNextToken(false);
+        if (ctoken == '"') {
+            consumeStringValue(ctoken);
+            return STRING;
+        } else if (ctoken == '[') return ARRAY;
+        else if (ctoken == '{') return OBJECT;
+        else return consumeLiteral();
+    }
+
+    protected final void readMetadata() {
+        _metadata_readen = true;
+        while (true) {
+            char ctoken = (char) readNextToken(false);
+            if ('"' != ctoken) return;
+            ensureBufferHas(2, true);
+
+            if ('@' == _buffer[_cursor + 1]) {
+                _cursor++;
+                // we cheat here...
+                String key = consumeString(ctoken);
+
+                if (readNextToken(true) != ':') newWrongTokenException(":", _cursor - 1);
+
+                String value = consumeString((char) readNextToken(false));
+                _metadata.put(key, value);
+                if (readNextToken(false) == ',') {
+                    _cursor++;
+                }
+            } else return;
+        }
+    }
+
+    protected final void begin(int character, JsonType type) {
+        int token = readNextToken(true);
+        if (character == token) {
+            _ctx.push(type);
+        } else newWrongTokenException("" + (char) character, _cursor - 1);
+        _first = true;
+    }
+
+    protected final void end(int character, JsonType type) {
+        int token = readNextToken(true);
+        if (character == token && type == _ctx.peek()) {
+            _ctx.pop();
+        } else newWrongTokenException("" + (char) character, _cursor - 1);
+        _first = false;
+    }
+
+    /**
+     * Reads a property name, when a symbol table is used ASCII names are hashed while scanning and
+     * the canonical instance is returned without decoding nor allocating a new String.
+     */
+    protected final String consumeName(int token) {
+        if (symbols == null) return consumeString(token);
+        if (token != '"') newMisplacedTokenException(_cursor);
+        final int start = _cursor + 1;
+        int hash = 0;
+        for (int i = start; i < _buflen; i++) {
+            int b = _buffer[i];
+            if (b == '"') {
+                _cursor = i + 1;
+                return symbols.lookup(_buffer, start, i - start, hash);
+            }
+            if (b < 0 || b == '\\') break;
+            hash = 31 * hash + b;
+        }
+        // escaped or non ASCII names and names spanning over the end of the buffer
+        return symbols.lookup(consumeString(token));
+    }
+
+    protected final String consumeString(int token) {
+        // _stringBuffer might be expanded while reading
+        int length = readString(token);
+        return new String(_stringBuffer, 0, length);
+    }
+
+    /**
+     * Same as consumeString but the value is left decoded in _stringBuffer, the String will be
+     * created only if requested.
+     */
+    protected final void consumeStringValue(int token) {
+        _stringValueLength = readString(token);
+        _stringValue = null;
+    }
+
+    /**
+     * Decodes the string starting at _cursor into _stringBuffer and returns its length. ASCII bytes
+     * are copied as is, the slow path is taken only for escape sequences and multi-byte characters.
+     */
+    private final int readString(int token) {
+        if (token != '"') newMisplacedTokenException(_cursor);
+        _cursor++;
+        _stringBufferTail = 0;
+        while (true) {
+            if (fillBuffer(true) < 0) {
+                return _stringBufferTail;
+            }
+
+            final int len = _buflen;
+            // each byte produces at most one char
+            if (_stringBufferLength < (_stringBufferTail + len - _cursor))
+                expandStringBuffer(len - _cursor);
+            final char[] stringBuffer = _stringBuffer;
+            int tail = _stringBufferTail;
+            int i = _cursor;
+            for (; i < len; i++) {
+                int b = _buffer[i];
+                if (b < 0 || b == '\\') break;
+                if (b == '"') {
+                    _cursor = i + 1;
+                    _stringBufferTail = 0;
+                    return tail;
+                }
+                stringBuffer[tail++] = (char) b;
+            }
+            _stringBufferTail = tail;
+            _cursor = i;
+
+            if (i < len) {
+                if (_stringBufferLength <= (_stringBufferTail + 2)) expandStringBuffer(16);
+                if (_buffer[i] == '\\') {
+                    _cursor++;
+                    _stringBuffer[_stringBufferTail++] = readEscaped();
+                } else readMultiByteChar();
+            }
+        }
+    }
+
+    /**
+     * Decodes the UTF-8 multi-byte sequence starting at _cursor and appends the resulting char(s)
+     * to _stringBuffer. Caller must ensure that _stringBuffer can hold two more chars.
+     * <p>
+     * Malformed sequences are replaced by U+FFFD the same way the JDK decoder does: overlong forms,
+     * values above 0x10FFFF and truncated sequences are replaced up to the first byte that can not
+     * continue them, while an encoded surrogate is replaced as a whole.
+     */
+    private final void readMultiByteChar() {
+        final int b1 = _buffer[_cursor] & 0xFF;
+        // C0 and C1 would only start overlong forms of ASCII chars, F5 to FF values above 0x10FFFF
+        final int needed = b1 < 0xC2 ? 0 : b1 < 0xE0 ? 1 : b1 < 0xF0 ? 2 : b1 < 0xF5 ? 3 : 0;
+        if (needed == 0) {
+            replaceMalformed(1);
+            return;
+        }
+        // at the end of the input the missing bytes are handled as bytes that are not continuations
+        final int available = ensureBufferHas(needed + 1, false) < 0 ? _buflen - _cursor - 1 : needed;
+
+        // the range of the second byte rejects the forms shorter than 0x800 and 0x10000 and the
+        // values above 0x10FFFF
+        int c = available > 0 ? _buffer[_cursor + 1] & 0xFF : 0;
+        if (c < (b1 == 0xE0 ? 0xA0 : b1 == 0xF0 ? 0x90 : 0x80) || c > (b1 == 0xF4 ? 0x8F : 0xBF)) {
+            replaceMalformed(1);
+            return;
+        }
+        int codePoint = ((b1 & (0x3F >> needed)) << 6) | (c & 0x3F);
+        for (int i = 2; i <= needed; i++) {
+            c = i <= available ? _buffer[_cursor + i] : 0;
+            if ((c & 0xC0) != 0x80) {
+                replaceMalformed(i);
+                return;
+            }
+            codePoint = (codePoint << 6) | (c & 0x3F);
+        }
+        _cursor += needed + 1;
+
+        if (codePoint < 0x10000) {
+            boolean surrogate = codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE;
+            _stringBuffer[_stringBufferTail++] = surrogate ? REPLACEMENT_CHAR : (char) codePoint;
+        } else {
+            codePoint -= 0x10000;
+            _stringBuffer[_stringBufferTail++] = (char) (0xD800 + (codePoint >> 10));
+            _stringBuffer[_stringBufferTail++] = (char) (0xDC00 + (codePoint & 0x3FF));
+        }
+    }
+
+    private final void replaceMalformed(int length) {
+        _cursor += length;
+        _stringBuffer[_stringBufferTail++] = REPLACEMENT_CHAR;
+    }
+
+    /**
+     * @see JsonReader#consumeLiteral()
+     */
+    protected final ValueType consumeLiteral() {
+        int token = _buffer[_cursor];
+
+        if ((token > 47 && token < 58) || token == 45) {
+            return consumeNumber();
+        } else {
+            ensureBufferHas(4, true);
+
+            if ((_buffer[_cursor] == 'N' || _buffer[_cursor] == 'n')
+                    && (_buffer[_cursor + 1] == 'U' || _buffer[_cursor + 1] == 'u')
+                    && (_buffer[_cursor + 2] == 'L' || _buffer[_cursor + 2] == 'l')
+                    && (_buffer[_cursor + 3] == 'L' || _buffer[_cursor + 3] == 'l')) {
+                _cursor += 4;
+                return NULL;
+            }
+
+            if ((_buffer[_cursor] == 'T' || _buffer[_cursor] == 't')
+                    && (_buffer[_cursor + 1] == 'R' || _buffer[_cursor + 1] == 'r')
+                    && (_buffer[_cursor + 2] == 'U' || _buffer[_cursor + 2] == 'u')
+                    && (_buffer[_cursor + 3] == 'E' || _buffer[_cursor + 3] == 'e')) {
+                _booleanValue = true;
+                _cursor += 4;
+                return BOOLEAN;
+            }
+            ensureBufferHas(5, true);
+
+            if ((_buffer[_cursor] == 'F' || _buffer[_cursor] == 'f')
+                    && (_buffer[_cursor + 1] == 'A' || _buffer[_cursor + 1] == 'a')
+                    && (_buffer[_cursor + 2] == 'L' || _buffer[_cursor + 2] == 'l')
+                    && (_buffer[_cursor + 3] == 'S' || _buffer[_cursor + 3] == 's')
+                    && (_buffer[_cursor + 4] == 'E' || _buffer[_cursor + 4] == 'e')) {
+                _booleanValue = false;
+                _cursor += 5;
+                return BOOLEAN;
+            } else {
+                throw new JsonStreamException.Builder().message(
+                        "Illegal character around row " + _row + " and column " + (_cursor - _col)
+                                + " (byte offset " + offset()
+                                + ") awaited for literal (number, boolean or null) but read '"
+                                + (char) _buffer[_cursor] + "'!").offset(offset()).create();
+            }
+        }
+    }
+
+    private ValueType consumeNumber() {
+        // lets fill the buffer and handle differently overflowing values, input streams may return
+        // less bytes than asked so we ask explicitly for the max length we handle
+        if ((_buflen - _cursor) < 378) ensureBufferHas(378, false);
+
+        int begin = _cursor;
+        int cur;
+        boolean negative;
+        // check the sign
+        if (_buffer[_cursor] == 45) {
+            negative = true;
+            _cursor++;
+            cur = _cursor;
+        } else {
+            negative = false;
+            cur = _cursor;
+        }
+        // just to handle invalid leading 0000
+        for (; cur < _buflen && _buffer[cur] == 48; cur++);
+        // Careful we consume the '-' here, but also all the leading 0, even if it is of form 0.xxx
+        _cursor = cur;
+
+        int len = Math.min(_buflen, cur + 18);
+        int token;
+
+        long longValue = 0;
+        for (; cur < len; cur++) {
+            token = _buffer[cur];
+            if (token < 48 || token > 57) {
+                break;
+            }
+            longValue = 10L * longValue + (token - 48);
+        }
+
+        if (cur < _buflen) {
+            // read the maximum we can to fill the long capacity, at max we can read 1 additional
+            // digit
+            token = _buffer[cur];
+            if (token > 47 && token < 58) {
+                long newLongValue = 10L * longValue + (token - 48);
+                if (newLongValue > longValue) {
+                    longValue = newLongValue;
+                    cur++;
+                }
+                // else we exceed long capacity, just continue and parse it as a double
+            }
+
+            if (cur < _buflen
+                    && ((token = _buffer[cur]) == 46 || token == 101 || token == 69 || (token > 47 && token < 58))) {
+                if (strictDoubleParse) {
+                    _cursor = begin;
+                    return consumeStrictNumber(cur);
+                } else return consumeDouble(cur, longValue, negative);
+            }
+        }
+
+        _intValue = negative ? -longValue : longValue;
+        _numberLen = cur - _cursor;
+        _cursor = cur;
+        return INTEGER;
+    }
+
+    // same algorithm as JsonReader, see its comments
+    private ValueType consumeDouble(int cur, long longValue, boolean negative) {
+        int token;
+
+        int intDigits = cur - _cursor;
+        int valueDigits = longValue > 0 ? cur - _cursor : 0;
+
+        // ok we have readen as many characters as a long can contain
+        // the next readen characters will serve for the digit count for large integer numbers
+        if (intDigits > 17) {
+            for (; cur < _buflen; cur++) {
+                if (_buffer[cur] < 48 || _buffer[cur] > 57) {
+                    break;
+                }
+            }
+            // only if we advanced
+            if (intDigits != (cur - _cursor)) intDigits = (cur - _cursor) - intDigits;
+        } else intDigits = 0;
+
+        int decimalDigits = 0;
+
+        // next possible case is a dot
+        if (cur < _buflen && _buffer[cur] == 46) {
+            cur++;
+            int start = cur;
+            // if integer part value is zero we could use scientific notation and win in precision
+            if (longValue == 0) {
+                // reset the counter as we don't care of the leading zeros
+                intDigits = 0;
+                // now lets try to read as many consecutive zeros as available
+                for (; cur < _buflen && _buffer[cur] == 48; cur++);
+            }
+            // ok now we must read again into the longValue
+            int len = Math.min(_buflen, cur + (18 - valueDigits));
+
+            for (; cur < len; cur++) {
+                token = _buffer[cur];
+                if (token < 48 || token > 57) {
+                    break;
+                }
+                longValue = 10L * longValue + (token - 48);
+            }
+            decimalDigits = cur - start;
+
+            // no need to count digits after the precision we support for decimals
+            // continue reading digits and just ignore the values, we will truncate
+            for (; cur < _buflen; cur++) {
+                if (_buffer[cur] < 48 || _buffer[cur] > 57) {
+                    break;
+                }
+            }
+        }
+
+        // now try to read exponent E/e
+        if ((cur + 1) < _buflen && (_buffer[cur] == 101 || _buffer[cur] == 69)) {
+            token = _buffer[++cur];
+            boolean negativeExp;
+            // check the sign
+            if (token == 45) {
+                negativeExp = true;
+                cur++;
+            } else {
+                if (token == 43) cur++;
+                negativeExp = false;
+            }
+            // read the power of ten
+            int powValue = 0;
+            for (; cur < _buflen; cur++) {
+                token = _buffer[cur];
+                if (token < 48 || token > 57) {
+                    break;
+                }
+                powValue = 10 * powValue + (token - 48);
+            }
+
+            // depending on the sign put it in the decimal digit counter or integer digit counter
+            if (negativeExp) decimalDigits += powValue;
+            else intDigits += powValue;
+        }
+
+        // and now make the difference so it balances well
+        decimalDigits = intDigits - decimalDigits;
+
+        if (decimalDigits < 0) {
+            if (decimalDigits < -308) {
+                if (decimalDigits < -325) {
+                    _doubleValue = 0;
+                } else {
+                    _doubleValue = longValue / _POWS[-decimalDigits - 308];
+                    _doubleValue = _doubleValue / _POWS[308];
+                }
+            } else {
+                // better precision than multiplication
+                _doubleValue = longValue / _POWS[-decimalDigits];
+            }
+        } else {
+            if (decimalDigits > 308) {
+                _doubleValue = Double.POSITIVE_INFINITY;
+            } else {
+                _doubleValue = longValue * _POWS[decimalDigits];
+            }
+        }
+
+        _doubleValue = negative ? -_doubleValue : _doubleValue;
+        _numberLen = cur - _cursor;
+        _cursor = cur;
+        return DOUBLE;
+    }
+
+    private final ValueType consumeStrictNumber(int localCursor) {
+        if (localCursor < _buflen) {
+            // consider all the remaining integer values as part of the double
+            for (; localCursor < _buflen; localCursor++) {
+                if (_buffer[localCursor] < 48 || _buffer[localCursor] > 57) {
+                    break;
+                }
+            }
+        }
+
+        if (localCursor < _buflen) {
+            if (_buffer[localCursor] == '.') {
+                localCursor = advanceWhileNumeric(++localCursor);
+            }
+        }
+
+        if (localCursor + 1 < _buflen) {
+            int ctoken = _buffer[localCursor];
+            if (ctoken == 'e' || ctoken == 'E') {
+                ctoken = _buffer[++localCursor];
+                if (ctoken == '-' || ctoken == '+' || (ctoken > 47 && ctoken < 58)) {
+                    localCursor = advanceWhileNumeric(++localCursor);
+                } else newWrongTokenException("'-' or '+' or '' (same as +)");
+            }
+        }
+
+        _numberLen = localCursor - _cursor;
+        _doubleValue = FastDoubleParser.parse(_buffer, _cursor, localCursor);
+        _cursor = localCursor;
+        return DOUBLE;
+    }
+
+    /**
+     * @see JsonReader#skipStructure(int)
+     */
+    private void skipStructure(int depth) {
+        boolean inString = false;
+        boolean escaped = false;
+        while (true) {
+            if (_cursor >= _buflen && fillBuffer(true) < 0)
+                newWrongTokenException(depth > 0 && _skipStack[depth - 1] ? "]" : "}");
+
+            final byte[] buffer = _buffer;
+            final int buflen = _buflen;
+            int i = _cursor;
+            for (; i < buflen; i++) {
+                final byte c = buffer[i];
+                if (inString) {
+                    if (escaped) escaped = false;
+                    else if (c == '\\') escaped = true;
+                    else if (c == '"') inString = false;
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '[' || c == '{') {
+                    if (depth == _skipStack.length) {
+                        boolean[] stack = new boolean[depth * 2];
+                        System.arraycopy(_skipStack, 0, stack, 0, depth);
+                        _skipStack = stack;
+                    }
+                    _skipStack[depth++] = c == '[';
+                } else if (c == ']' || c == '}') {
+                    if (depth == 0 || _skipStack[depth - 1] != (c == ']'))
+                        newWrongTokenException(depth > 0 && _skipStack[depth - 1] ? "]" : "}", i);
+                    if (--depth == 0) {
+                        _cursor = i + 1;
+                        return;
+                    }
+                } else if (c == '\n') {
+                    _row++;
+                    _col = i;
+                } else if (c == '/') {
+                    break;
+                }
+            }
+            _cursor = i;
+            // positions the cursor after the comment
+            if (i < buflen) readNextToken(false);
+        }
+    }
+
+    private int advanceWhileNumeric(int cursor) {
+        for (; cursor < _buflen; cursor++) {
+            if ((_buffer[cursor] < 48 || _buffer[cursor] > 57)) { return cursor; }
+        }
+        return cursor;
+    }
+
+    /**
+     * @see JsonReader#readNextToken(boolean)
+     */
+    protected final int readNextToken(boolean consume) {
+        while (true) {
+            if (_cursor >= _buflen) fillBuffer(true);
+
+            for (; _cursor < _buflen; _cursor++) {
+                int token = _buffer[_cursor];
+                // non ascii bytes are skipped as JsonReader does with non ascii chars
+                if (token >= 0 && SKIPPED_TOKENS[token] == 0) {
+                    if (token == '/') {
+                        ensureBufferHas(2, true);
+                        if (_buffer[_cursor + 1] == '*') {
+                            _cursor += 2;
+                            advanceAfter(_END_OF_BLOCK_COMMENT);
+                        } else if (_buffer[_cursor + 1] == '/') {
+                            _cursor += 2;
+                            advanceAfter(_END_OF_LINE);
+                            _row++;
+                            _col = _cursor;
+                        } else newWrongTokenException("start comment // or /*", _cursor);
+                        // don't consume the token
+                        _cursor--;
+                    } else if (consume) {
+                        return _buffer[_cursor++];
+                    } else return token;
+                } else if (token == '\n') {
+                    _row++;
+                    _col = _cursor;
+                }
+            }
+
+            if (_buflen == -1) break;
+        }
+
+        return _cursor < _buflen ? _buffer[_cursor] : -1;
+    }
+
+    private final void advanceAfter(char[] str) {
+        int strPos = 0;
+        while (true) {
+            if (_cursor >= _buflen) fillBuffer(true);
+
+            for (; _cursor < _buflen && strPos < str.length; _cursor++) {
+                if (_buffer[_cursor] == str[strPos]) {
+                    strPos++;
+                } else strPos = 0;
+            }
+
+            if (strPos == str.length) {
+                return;
+            }
+            if (_buflen == -1) break;
+        }
+    }
+
+    protected final char readEscaped() {
+        fillBuffer(true);
+
+        int token = _buffer[_cursor++];
+        switch (token) {
+        case 'b':
+            return '\b';
+        case 't':
+            return '\t';
+        case 'n':
+            return '\n';
+        case 'f':
+            return '\f';
+        case 'r':
+            return '\r';
+        case '"':
+        case '/':
+        case '\\':
+            return (char) token;
+
+        case 'u':
+            break;
+
+        default:
+            newMisplacedTokenException(_cursor - 1);
+        }
+
+        int value = 0;
+        if (ensureBufferHas(4, false) < 0) {
+            throw new JsonStreamException("Expected 4 hex-digit for character escape sequence!");
+        }
+        for (int i = 0; i < 4; ++i) {
+            int ch = _buffer[_cursor++];
+            int digit = (ch < 0) ? -1 : sHexValues[ch];
+            if (digit < 0) {
+                throw new JsonStreamException("Wrong character '" + ch
+                    + "' expected a hex-digit for character escape sequence!"); }
+            value = (value << 4) | digit;
+        }
+
+        return (char) value;
+    }
+
+    private final void expandStringBuffer(int length) {
+        char[] extendedStringBuffer = new char[_stringBufferLength * 2 + length];
+        System.arraycopy(_stringBuffer, 0, extendedStringBuffer, 0, _stringBufferTail);
+        _stringBuffer = extendedStringBuffer;
+        _stringBufferLength = extendedStringBuffer.length;
+    }
+
+    private final int fillBuffer(boolean doThrow) {
+        if (_cursor < _buflen) return _buflen;
+        if (input == null) {
+            // everything was already in the buffer
+            _buflen = -1;
+        } else {
+            if (_buflen > 0) _bufferOffset += _buflen;
+            try {
+                _buflen = input.read(_buffer);
+            } catch (IOException ioe) {
+                throw new JsonStreamException(ioe);
+            }
+        }
+        checkIllegalEnd(_buflen);
+        _cursor = 0;
+        _col = 0;
+        return _buflen;
+    }
+
+    private final int ensureBufferHas(int minLength, boolean doThrow) {
+        int actualLen = _buflen - _cursor;
+        if (actualLen >= minLength) { return actualLen; }
+
+        if (input == null) {
+            // we can not read more, and must not modify the source array
+            if (doThrow) throw new JsonStreamException(
+                    "Encountered end of stream, incomplete json!");
+            return -1;
+        }
+
+        try {
+            System.arraycopy(_buffer, _cursor, _buffer, 0, actualLen);
+            _bufferOffset += _cursor;
+            for (; actualLen < minLength;) {
+                int len = input.read(_buffer, actualLen, _buffer.length - actualLen);
+                if (len < 0) {
+                    if (doThrow) throw new JsonStreamException(
+                            "Encountered end of stream, incomplete json!");
+                    else {
+                        _buflen = actualLen;
+                        _col = 0;
+                        _cursor = 0;
+                        return len;
+                    }
+                }
+                actualLen += len;
+            }
+            _buflen = actualLen;
+            _col = 0;
+            _cursor = 0;
+            return actualLen;
+        } catch (IOException ioe) {
+            throw new JsonStreamException(ioe);
+        }
+    }
+
+    protected final boolean isEOF() {
+        return _buflen < 0 || fillBuffer(false) < 0;
+    }
+
+    private final void newWrongTokenException(String awaited) {
+        newWrongTokenException(awaited, _cursor);
+    }
+
+    public int column() {
+        int col = _cursor - _col;
+        return col < 0 ? 0 : col;
+    }
+
+    public int row() {
+        return _row;
+    }
+
+    /**
+     * @return the offset in bytes from the start of the document of the next byte to read.
+     */
+    public long offset() {
+        return _bufferOffset + _cursor;
+    }
+
+    private final void newWrongTokenException(String awaited, int cursor) {
+        // otherwise it fails when an error occurs on first character
+        if (cursor < 0) cursor = 0;
+        int pos = cursor - _col;
+        if (pos < 0) pos = 0;
+
+        if (_buflen < 0) throw new JsonStreamException(
+                "Incomplete data or malformed json : encoutered end of stream but expected "
+                        + awaited).niceTrace();
+        else throw new JsonStreamException.Builder()
+                .message(
+                        "Illegal character at row " + _row + " and column " + pos + " (byte offset "
+                                + (_bufferOffset + cursor) + ") expected " + awaited + " but read '"
+                                + (char) _buffer[cursor] + "' !")
+                .locate(_row, pos).offset(_bufferOffset + cursor).create().niceTrace();
+    }
+
+    private final void newMisplacedTokenException(int cursor) {
+        if (_buflen < 0)
+            throw JsonStreamException.niceTrace(new JsonStreamException(
+                    "Incomplete data or malformed json : encoutered end of stream."));
+
+        if (cursor < 0) cursor = 0;
+        int pos = cursor - _col;
+        if (pos < 0) pos = 0;
+
+        throw new JsonStreamException.Builder()
+                .message(
+                        "Encountred misplaced character '" + (char) _buffer[cursor] + "' around row "
+                                + _row + " and column " + pos + " (byte offset " + (_bufferOffset + cursor)
+                                + ")").locate(_row, pos).offset(_bufferOffset + cursor).create().niceTrace();
+    }
+
+    private final void checkIllegalEnd(int token) {
+        if (token == -1 && JsonType.EMPTY != _ctx.peek())
+            throw new JsonStreamException(
+                    "Incomplete data or malformed json : encoutered end of stream!").niceTrace();
+    }
+
+    private void throwNumberFormatException(String expected, String encoutered) {
+        int pos = _cursor - _col - _numberLen;
+        throw JsonStreamException.niceTrace(new NumberFormatException("Wrong numeric type at row " + _row + " and column " + pos
+                + " (byte offset " + (offset() - _numberLen) + "), expected " + expected + " but encoutered " + encoutered));
+    }
+}
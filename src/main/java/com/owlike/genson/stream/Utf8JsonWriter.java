@@ -0,0 +1,701 @@
+package com.owlike.genson.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * An ObjectWriter implementation encoding directly to UTF-8 bytes. It is the byte counterpart of
+ * {@link JsonWriter}, it writes to its own byte buffer (escaping is done in the byte domain) and
+ * flushes it to the OutputStream, so there is no intermediate char buffer and no encoding pass done
+ * by an OutputStreamWriter. {@link com.owlike.genson.Genson Genson} uses it by default when
+ * serializing to an OutputStream or to a byte array.
+ *
+ * @see JsonWriter
+ */
+public class Utf8JsonWriter implements ExtendedObjectWriter {
+    private final static byte[][] REPLACEMENT_BYTES;
+    private final static byte[][] HTML_SAFE_REPLACEMENT_BYTES;
+    static {
+        REPLACEMENT_BYTES = new byte[128][];
+        for (int i = 0; i <= 0x1f; i++) {
+            REPLACEMENT_BYTES[i] = asciiBytes(String.format("\\u%04x", i));
+        }
+        REPLACEMENT_BYTES['"'] = asciiBytes("\\\"");
+        REPLACEMENT_BYTES['\\'] = asciiBytes("\\\\");
+        REPLACEMENT_BYTES['\t'] = asciiBytes("\\t");
+        REPLACEMENT_BYTES['\b'] = asciiBytes("\\b");
+        REPLACEMENT_BYTES['\n'] = asciiBytes("\\n");
+        REPLACEMENT_BYTES['\r'] = asciiBytes("\\r");
+        REPLACEMENT_BYTES['\f'] = asciiBytes("\\f");
+        HTML_SAFE_REPLACEMENT_BYTES = REPLACEMENT_BYTES.clone();
+        HTML_SAFE_REPLACEMENT_BYTES['\''] = asciiBytes("\\u0027");
+        HTML_SAFE_REPLACEMENT_BYTES['<'] = asciiBytes("\\u003c");
+        HTML_SAFE_REPLACEMENT_BYTES['>'] = asciiBytes("\\u003e");
+        HTML_SAFE_REPLACEMENT_BYTES['&'] = asciiBytes("\\u0026");
+        HTML_SAFE_REPLACEMENT_BYTES['='] = asciiBytes("\\u003d");
+    }
+    private final static byte[] LINE_SEPARATOR = asciiBytes("\\u2028");
+    private final static byte[] PARAGRAPH_SEPARATOR = asciiBytes("\\u2029");
+
+    private final static byte[] NULL_VALUE = { 'n', 'u', 'l', 'l' };
+    private final static byte[] TRUE_VALUE = { 't', 'r', 'u', 'e' };
+    private final static byte[] FALSE_VALUE = { 'f', 'a', 'l', 's', 'e' };
+    private final static byte[] _indentation = new byte[] { ' ', ' ' };
+
+    private final boolean htmlSafe;
+    private final boolean skipNull;
+
+    private OutputStream output;
+    final Deque<JsonType> _ctx = new ArrayDeque<JsonType>(10);
+    private boolean _hasPrevious;
+    private String _name;
+    // set with _name when the name has been written with writeName(EncodedName)
+    private EncodedName _encodedName;
+    private final boolean indentation;
+
+    private final DoubleFormatter _doubleFormatter = new DoubleFormatter();
+    private final byte[] _buffer = new byte[4096];
+    // we keep room for the biggest element written at once (the 4 bytes of a surrogate pair)
+    private final int _bufferSize = _buffer.length - 4;
+    private int _len = 0;
+
+    List<MetadataPair> _metadata = new ArrayList<MetadataPair>();
+
+    private class MetadataPair {
+        final String name;
+        final String value;
+
+        public MetadataPair(String name, String value) {
+            super();
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    public Utf8JsonWriter(OutputStream output) {
+        this(output, false, false, false);
+    }
+
+    public Utf8JsonWriter(OutputStream output, final boolean skipNull, final boolean htmlSafe,
+            boolean indentation) {
+        this.output = output;
+        this.skipNull = skipNull;
+        this.htmlSafe = htmlSafe;
+        this.indentation = indentation;
+        _ctx.push(JsonType.EMPTY);
+    }
+
+    /**
+     * Resets this writer so it can be reused to write a new json document to output, the internal
+     * buffers are kept. Content that has not been flushed is discarded and the previous output is
+     * not closed.
+     *
+     * @return a reference to this writer.
+     */
+    public Utf8JsonWriter reset(OutputStream output) {
+        this.output = output;
+        _ctx.clear();
+        _ctx.push(JsonType.EMPTY);
+        _hasPrevious = false;
+        _name = null;
+        _encodedName = null;
+        _len = 0;
+        _metadata.clear();
+        return this;
+    }
+
+    public void close() {
+        flush();
+        try {
+            output.close();
+        } catch (IOException e) {
+            throw new JsonStreamException(e);
+        }
+    }
+
+    public void flush() {
+        flushBuffer();
+        try {
+            output.flush();
+        } catch (IOException e) {
+            throw new JsonStreamException(e);
+        }
+    }
+
+    public Utf8JsonWriter nextRootValue() {
+        if (_ctx.peek() != JsonType.EMPTY)
+            throw new JsonStreamException("The current root value has not been fully written.");
+        if ((_len + 1) >= _bufferSize) flushBuffer();
+        _buffer[_len++] = '\n';
+        _hasPrevious = false;
+        return this;
+    }
+
+    public Utf8JsonWriter beginArray() {
+        clearMetadata();
+        if (_ctx.peek() == JsonType.OBJECT && _name == null)
+            throw new JsonStreamException(
+                    "Englobing scope is OBJECT before begining a new value call writeName.");
+        return begin(JsonType.ARRAY, '[');
+    }
+
+    public Utf8JsonWriter beginObject() {
+        if (_ctx.peek() == JsonType.METADATA) {
+            _ctx.pop();
+            begin(JsonType.OBJECT, '{');
+            for (MetadataPair pair : _metadata) {
+                writeName('@' + pair.name).writeInternalString(pair.value);
+            }
+        } else begin(JsonType.OBJECT, '{');
+        return this;
+    }
+
+    protected final Utf8JsonWriter begin(final JsonType jsonType, final char token) {
+        beforeValue();
+        _ctx.push(jsonType);
+        if ((_len + 1) >= _bufferSize) flushBuffer();
+        _buffer[_len++] = (byte) token;
+        _hasPrevious = false;
+        return this;
+    }
+
+    public Utf8JsonWriter endArray() {
+        return end(JsonType.ARRAY, ']');
+    }
+
+    public Utf8JsonWriter endObject() {
+        return end(JsonType.OBJECT, '}');
+    }
+
+    private final Utf8JsonWriter end(final JsonType jsonType, final char token) {
+        JsonType jt = _ctx.pop();
+        if (jt != jsonType)
+            throw new JsonStreamException("Expect type " + jsonType.name() + " but was written "
+                    + jt.name() + ", you must call the adequate beginXXX method before endXXX.");
+
+        if (indentation) {
+            if ((_len + 1) >= _bufferSize) flushBuffer();
+            _buffer[_len++] = '\n';
+            for (int i = 0; i < _ctx.size() - 1; i++)
+                writeToBuffer(_indentation, 0, 2);
+        }
+
+        if ((_len + 1) >= _bufferSize) flushBuffer();
+
+        _buffer[_len++] = (byte) token;
+        _hasPrevious = true;
+        return this;
+    }
+
+    private final Utf8JsonWriter beforeValue() {
+        final JsonType enclosingType = _ctx.peek();
+        if (enclosingType == JsonType.ARRAY) {
+            if (_name != null) throw newIllegalKeyValuePairInJsonArray(_name);
+            if (_hasPrevious) {
+                if ((_len + 1) >= _bufferSize) flushBuffer();
+                _buffer[_len++] = ',';
+            }
+            indent();
+        } else if (_encodedName != null) {
+            if ((_len + 1) >= _bufferSize) flushBuffer();
+            if (_hasPrevious) _buffer[_len++] = ',';
+            indent();
+            writeToBuffer(_encodedName.utf8, 0, _encodedName.utf8.length);
+            _encodedName = null;
+            _name = null;
+        } else if (_name != null) {
+            if ((_len + 1) >= _bufferSize) flushBuffer();
+            if (_hasPrevious) _buffer[_len++] = ',';
+            indent();
+            if ((_len + 1) >= _bufferSize) flushBuffer();
+            _buffer[_len++] = '"';
+            writeUtf8(_name);
+            if ((_len + 2) >= _bufferSize) flushBuffer();
+            _buffer[_len++] = '"';
+            _buffer[_len++] = ':';
+            _name = null;
+        } else if (enclosingType == JsonType.OBJECT) throw newIllegalSingleValueInJsonObject();
+
+        return this;
+    }
+
+    private JsonStreamException newIllegalKeyValuePairInJsonArray(String name) {
+        return JsonStreamException
+                .niceTrace(new JsonStreamException(
+                        "Tried to write key/value pair with key="
+                                + name
+                                + ", Json format does not allow key/value pairs inside arrays, only allowed for Json Objects."));
+    }
+
+    private JsonStreamException newIllegalSingleValueInJsonObject() {
+        return JsonStreamException.niceTrace(new JsonStreamException(
+                "Tried to write value with no key in a JsonObject, Json format does not allow "
+                        + "values without keys in JsonObjects, authorized only for arrays."));
+    }
+
+    private final void clearMetadata() {
+        if (_ctx.peek() == JsonType.METADATA) {
+            _metadata.clear();
+            _ctx.pop();
+        }
+    }
+
+    protected void indent() {
+        if (indentation) {
+            if ((_len + 1) >= _bufferSize) flushBuffer();
+            if (_ctx.peek() != JsonType.EMPTY) _buffer[_len++] = '\n';
+            int len = _ctx.peek() == JsonType.METADATA ? _ctx.size() - 2 : _ctx.size() - 1;
+            for (int i = 0; i < len; i++)
+                writeToBuffer(_indentation, 0, 2);
+        }
+    }
+
+    public Utf8JsonWriter writeName(final String name) {
+        _name = name;
+        _encodedName = null;
+        return this;
+    }
+
+    public Utf8JsonWriter writeName(final EncodedName name) {
+        _name = name.name;
+        _encodedName = name;
+        return this;
+    }
+
+    public Utf8JsonWriter writeValue(int value) {
+        clearMetadata();
+        beforeValue();
+        // ok so the buffer must always be bigger than the max length of a long
+        if ((_len + 11) >= _bufferSize) flushBuffer();
+        if (value < 0) {
+            _buffer[_len++] = '-';
+            writeInt(-((long) value));
+        } else writeInt(value);
+        _hasPrevious = true;
+        return this;
+    }
+
+    public Utf8JsonWriter writeValue(final double value) {
+        checkValidJsonDouble(value);
+        clearMetadata();
+        beforeValue();
+        if ((_len + DoubleFormatter.MAX_LENGTH) >= _bufferSize) flushBuffer();
+        _len += _doubleFormatter.format(value, _buffer, _len);
+        _hasPrevious = true;
+        return this;
+    }
+
+    public Utf8JsonWriter writeValue(long value) {
+        clearMetadata();
+        beforeValue();
+        // ok so the buffer must always be bigger than the max length of a long
+        if ((_len + 21) >= _bufferSize) flushBuffer();
+
+        if (value < 0) {
+            if (value != Long.MIN_VALUE) {
+                _buffer[_len++] = '-';
+                writeInt(-1 * value);
+            } else writeAscii(Long.toString(value));
+        } else writeInt(value);
+
+        _hasPrevious = true;
+        return this;
+    }
+
+    public ObjectWriter writeValue(short value) {
+        clearMetadata();
+        beforeValue();
+        // ok so the buffer must always be bigger than the max length of a short
+        if ((_len + 6) >= _bufferSize) flushBuffer();
+        if (value < 0) {
+            _buffer[_len++] = '-';
+            writeInt(-((long) value));
+        } else writeInt(value);
+        _hasPrevious = true;
+        return this;
+    }
+
+    public ObjectWriter writeValue(float value) {
+        checkValidJsonFloat(value);
+        clearMetadata();
+        beforeValue();
+        if ((_len + DoubleFormatter.MAX_LENGTH) >= _bufferSize) flushBuffer();
+        _len += _doubleFormatter.format(value, _buffer, _len);
+        _hasPrevious = true;
+        return this;
+    }
+
+    public Utf8JsonWriter writeValue(final boolean value) {
+        clearMetadata();
+        beforeValue();
+        if (value) writeToBuffer(TRUE_VALUE, 0, 4);
+        else writeToBuffer(FALSE_VALUE, 0, 5);
+        _hasPrevious = true;
+        return this;
+    }
+
+    /**
+     * Writes the digits of a positive value, the caller must ensure that the buffer has enough
+     * room.
+     */
+    protected final int writeInt(long value) {
+        if (value == 0) {
+            _buffer[_len++] = '0';
+            return 1;
+        }
+
+        int len = 1;
+        for (long v = value; v >= 10; v /= 10)
+            len++;
+
+        int pos = _len + len - 1;
+        long intPart;
+        for (; value > 0;) {
+            intPart = value / 10;
+            _buffer[pos--] = (byte) (48 + (value - (intPart * 10)));
+            value = intPart;
+        }
+
+        _len += len;
+        return len;
+    }
+
+    public Utf8JsonWriter writeValue(final Number value) {
+        // the most common types are written without creating a String
+        if (value instanceof Double) return writeValue(value.doubleValue());
+        if (value instanceof Float) {
+            writeValue(value.floatValue());
+            return this;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte) return writeValue(value.longValue());
+        checkValidJsonDouble(value);
+        checkValidJsonFloat(value);
+        clearMetadata();
+        beforeValue();
+        if (!(value instanceof BigDecimal) || !writeBigDecimal((BigDecimal) value))
+            writeAscii(value.toString());
+        _hasPrevious = true;
+        return this;
+    }
+
+    /**
+     * Writes value in the plain notation the same way as BigDecimal.toString but without creating
+     * the String, if it is used by toString and the unscaled value fits in a long.
+     *
+     * @return false if nothing has been written.
+     */
+    private boolean writeBigDecimal(BigDecimal value) {
+        final int scale = value.scale();
+        final int precision = value.precision();
+        // toString uses the scientific notation for negative scales and adjusted exponents
+        // (precision - scale - 1) lower than -6
+        if (scale < 0 || precision > 18 || precision - scale < -5) return false;
+        long unscaled = value.unscaledValue().longValue();
+        // sign, "0.", at most 5 leading zeros, 18 digits and the point
+        if ((_len + 28) >= _bufferSize) flushBuffer();
+
+        if (unscaled < 0) {
+            _buffer[_len++] = '-';
+            unscaled = -unscaled;
+        }
+        if (precision <= scale) {
+            _buffer[_len++] = '0';
+            _buffer[_len++] = '.';
+            for (int i = precision; i < scale; i++)
+                _buffer[_len++] = '0';
+            writeInt(unscaled);
+        } else {
+            writeInt(unscaled);
+            if (scale > 0) {
+                // moves the fraction digits to insert the point
+                int point = _len - scale;
+                System.arraycopy(_buffer, point, _buffer, point + 1, scale);
+                _buffer[point] = '.';
+                _len++;
+            }
+        }
+        return true;
+    }
+
+    public ObjectWriter writeBoolean(final Boolean value) {
+        if (value == null) return writeNull();
+        else return writeValue(value);
+    }
+
+    public ObjectWriter writeNumber(final Number value) {
+        if (value == null) return writeNull();
+        else return writeValue(value);
+    }
+
+    public ObjectWriter writeString(String value) {
+        if (value == null) return writeNull();
+        else return writeValue(value);
+    }
+
+    public ObjectWriter writeBytes(byte[] value) {
+        if (value == null) return writeNull();
+        else return writeValue(value);
+    }
+
+    private void checkValidJsonDouble(double value) {
+        if (Double.isNaN(value))
+            throw new NumberFormatException("NaN is not a valid json number.");
+        if (Double.isInfinite(value))
+            throw new NumberFormatException("Infinity is not a valid json number.");
+    }
+
+    private void checkValidJsonFloat(float value) {
+        if (Float.isNaN(value))
+            throw new NumberFormatException("NaN is not a valid json number.");
+        if (Float.isInfinite(value))
+            throw new NumberFormatException("Infinity is not a valid json number.");
+    }
+
+    private void checkValidJsonDouble(Number num) {
+        if (num.equals(Double.NaN))
+            throw new NumberFormatException("NaN is not a valid json number.");
+        if (num.equals(Double.NEGATIVE_INFINITY) || num.equals(Double.POSITIVE_INFINITY))
+            throw new NumberFormatException("Infinity is not a valid json number.");
+    }
+
+    private void checkValidJsonFloat(Number num) {
+        if (num.equals(Float.NaN))
+            throw new NumberFormatException("NaN is not a valid json number.");
+        if (num.equals(Float.NEGATIVE_INFINITY) || num.equals(Float.POSITIVE_INFINITY))
+            throw new NumberFormatException("Infinity is not a valid json number.");
+    }
+
+    public ObjectWriter writeValue(byte[] value) {
+        clearMetadata();
+        beforeValue();
+
+        if ((_len + 1) >= _bufferSize) flushBuffer();
+        _buffer[_len++] = '"';
+        final byte[] byteArray = Base64.encodeToByte(value, false);
+
+        writeToBuffer(byteArray, 0, byteArray.length);
+
+        if ((_len + 1) >= _bufferSize) flushBuffer();
+        _buffer[_len++] = '"';
+        _hasPrevious = true;
+
+        flush();
+        return this;
+    }
+
+    public Utf8JsonWriter writeUnsafeValue(final String value) {
+        clearMetadata();
+        beforeValue();
+        if ((_len + 1) >= _bufferSize) flushBuffer();
+        _buffer[_len++] = '"';
+        writeUtf8(value);
+        if ((_len + 1) >= _bufferSize) flushBuffer();
+        _buffer[_len++] = '"';
+        _hasPrevious = true;
+        return this;
+    }
+
+    public Utf8JsonWriter writeValue(final String value) {
+        clearMetadata();
+        writeInternalString(value);
+        return this;
+    }
+
+    private final void writeInternalString(final String value) {
+        beforeValue();
+        final byte[][] replacements = htmlSafe ? HTML_SAFE_REPLACEMENT_BYTES : REPLACEMENT_BYTES;
+        if ((_len + 1) >= _bufferSize) flushBuffer();
+        _buffer[_len++] = '"';
+
+        final int length = value.length();
+        for (int i = 0; i < length;) {
+            // ascii fast path, we copy as long as there is nothing to escape
+            int len = _len;
+            final int limit = Math.min(length, i + (_bufferSize - len));
+            for (; i < limit; i++) {
+                char c = value.charAt(i);
+                if (c >= 128 || replacements[c] != null) break;
+                _buffer[len++] = (byte) c;
+            }
+            _len = len;
+
+            if (i == length) break;
+            if (_len >= _bufferSize) {
+                flushBuffer();
+                continue;
+            }
+
+            char c = value.charAt(i);
+            if (c < 128) {
+                byte[] replacement = replacements[c];
+                writeToBuffer(replacement, 0, replacement.length);
+            } else if (c == '\u2028') {
+                writeToBuffer(LINE_SEPARATOR, 0, LINE_SEPARATOR.length);
+            } else if (c == '\u2029') {
+                writeToBuffer(PARAGRAPH_SEPARATOR, 0, PARAGRAPH_SEPARATOR.length);
+            } else {
+                i = writeUtf8Char(value, i, length);
+                continue;
+            }
+            i++;
+        }
+
+        if ((_len + 1) >= _bufferSize) flushBuffer();
+        _buffer[_len++] = '"';
+
+        _hasPrevious = true;
+    }
+
+    /**
+     * Encodes value to UTF-8 without any escaping.
+     */
+    private final void writeUtf8(final String value) {
+        final int length = value.length();
+        for (int i = 0; i < length;) {
+            if (_len >= _bufferSize) flushBuffer();
+            int len = _len;
+            final int limit = Math.min(length, i + (_bufferSize - len));
+            for (; i < limit; i++) {
+                char c = value.charAt(i);
+                if (c >= 128) break;
+                _buffer[len++] = (byte) c;
+            }
+            _len = len;
+            if (i < length && i < limit) i = writeUtf8Char(value, i, length);
+        }
+    }
+
+    /**
+     * Encodes the non ascii char at position i (and its low surrogate if it is a surrogate pair),
+     * returns the position of the next char to encode. Unpaired surrogates are replaced by '?' as
+     * done by the JDK encoder.
+     */
+    private final int writeUtf8Char(final String value, int i, final int length) {
+        if ((_len + 4) >= _bufferSize) flushBuffer();
+        final char c = value.charAt(i++);
+        if (c < 0x800) {
+            _buffer[_len++] = (byte) (0xC0 | (c >> 6));
+            _buffer[_len++] = (byte) (0x80 | (c & 0x3F));
+        } else if (c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE) {
+            _buffer[_len++] = (byte) (0xE0 | (c >> 12));
+            _buffer[_len++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            _buffer[_len++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i < length
+                && Character.isLowSurrogate(value.charAt(i))) {
+            final int codePoint = Character.toCodePoint(c, value.charAt(i++));
+            _buffer[_len++] = (byte) (0xF0 | (codePoint >> 18));
+            _buffer[_len++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            _buffer[_len++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            _buffer[_len++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            _buffer[_len++] = '?';
+        }
+        return i;
+    }
+
+    public ObjectWriter writeNull() {
+        if (skipNull) {
+            _name = null;
+            _encodedName = null;
+        } else {
+            beforeValue();
+            writeToBuffer(NULL_VALUE, 0, 4);
+            _hasPrevious = true;
+        }
+        return this;
+    }
+
+    public ObjectWriter beginNextObjectMetadata() {
+        // this way we can use this method multiple times in different converters before calling beginObject
+        if (_ctx.peek() != JsonType.METADATA) {
+            _ctx.push(JsonType.METADATA);
+            _metadata.clear();
+        }
+        return this;
+    }
+
+    public ObjectWriter writeMetadata(String name, String value) {
+        if (_ctx.peek() == JsonType.METADATA) _metadata.add(new MetadataPair(name, value));
+        else if (_ctx.peek() == JsonType.OBJECT) {
+            writeName('@' + name);
+            writeValue(value);
+        }
+        // else do nothing so we silently don't write metadata for literals and arrays
+        return this;
+    }
+
+    public ObjectWriter writeBoolean(String name, Boolean value) {
+        writeName(name);
+        return writeBoolean(value);
+    }
+
+    public ObjectWriter writeNumber(String name, Number value) {
+        writeName(name);
+        return writeNumber(value);
+    }
+
+    public ObjectWriter writeString(String name, String value) {
+        writeName(name);
+        return writeString(value);
+    }
+
+    public ObjectWriter writeBytes(String name, byte[] value) {
+        writeName(name);
+        return writeBytes(value);
+    }
+
+    private final void writeToBuffer(final byte[] data, final int offset, final int length) {
+        if (length < (_bufferSize - _len)) {
+            System.arraycopy(data, offset, _buffer, _len, length);
+            _len += length;
+        } else {
+            flushBuffer();
+            try {
+                output.write(data, offset, length);
+            } catch (IOException e) {
+                throw new JsonStreamException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes data that we know contains only ascii characters, used for numbers.
+     */
+    private final void writeAscii(final String data) {
+        final int length = data.length();
+        for (int i = 0; i < length;) {
+            if (_len >= _bufferSize) flushBuffer();
+            final int limit = Math.min(length, i + (_bufferSize - _len));
+            for (; i < limit; i++)
+                _buffer[_len++] = (byte) data.charAt(i);
+        }
+    }
+
+    private final void flushBuffer() {
+        try {
+            if (_len > 0) {
+                output.write(_buffer, 0, _len);
+                _len = 0;
+            }
+        } catch (IOException ioe) {
+            throw new JsonStreamException(ioe);
+        }
+    }
+
+    public OutputStream unwrap() {
+        return output;
+    }
+
+    private static byte[] asciiBytes(String value) {
+        byte[] bytes = new byte[value.length()];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) value.charAt(i);
+        return bytes;
+    }
+}
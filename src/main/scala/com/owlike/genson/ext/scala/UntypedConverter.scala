@@ -4,10 +4,12 @@ import com.owlike.genson._
 import com.owlike.genson.stream.{ValueType, ObjectWriter, ObjectReader}
 import java.lang.reflect.Type
 import com.owlike.genson.reflect.TypeUtil
+import com.owlike.genson.convert.RuntimeTypeCache
 
 object ScalaUntypedConverterFactory extends Factory[Converter[Any]] {
 
-  object ScalaUntypedConverter extends Converter[Any] {
+  private class ScalaUntypedConverter extends Converter[Any] {
+    private val runtimeTypes = new RuntimeTypeCache
 
     def deserialize(reader: ObjectReader, ctx: Context): Any = {
       reader.getValueType match {
@@ -20,13 +22,14 @@ object ScalaUntypedConverterFactory extends Factory[Converter[Any]] {
 
     def serialize(obj: Any, writer: ObjectWriter, ctx: Context) {
       if (classOf[AnyRef] == obj.getClass) throw new UnsupportedOperationException("Serialization of type Object is not supported by default serializers.")
-      ctx.genson.serialize(obj, obj.getClass, writer, ctx)
+      runtimeTypes.serialize(obj.asInstanceOf[AnyRef], writer, ctx)
     }
   }
 
   def create(genType: Type, genson: Genson): Converter[Any] = {
     if (classOf[Object].equals(TypeUtil.getRawClass(genType))) {
-      ScalaUntypedConverter
+      // each instance has its own cache of the runtime types it has seen
+      new ScalaUntypedConverter
     } else null
   }
 }
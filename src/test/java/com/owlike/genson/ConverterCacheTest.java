@@ -0,0 +1,152 @@
+package com.owlike.genson;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.owlike.genson.reflect.TypeUtil;
+import com.owlike.genson.stream.ObjectReader;
+import com.owlike.genson.stream.ObjectWriter;
+
+import static org.junit.Assert.*;
+
+public class ConverterCacheTest {
+	private final ConverterCache cache = new ConverterCache(0);
+
+	@Test
+	public void testClassesAndEqualTypes() {
+		Type listOfString = new GenericType<List<String>>() {}.getType();
+		Type sameListOfString = new GenericType<List<String>>() {}.getType();
+		assertNotSame(listOfString, sameListOfString);
+		assertEquals(listOfString, sameListOfString);
+
+		DummyConverter stringConverter = new DummyConverter();
+		DummyConverter listConverter = new DummyConverter();
+		assertSame(stringConverter, cache.putIfAbsent(String.class, stringConverter));
+		assertSame(listConverter, cache.putIfAbsent(listOfString, listConverter));
+		assertSame(listConverter, cache.putIfAbsent(sameListOfString, new DummyConverter()));
+
+		assertSame(stringConverter, cache.get(String.class));
+		assertSame(listConverter, cache.get(listOfString));
+		assertSame(listConverter, cache.get(sameListOfString));
+		assertNull(cache.get(Integer.class));
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testGrowth() {
+		Class<?>[] classes = { String.class, Integer.class, Long.class, Double.class, Float.class,
+				Short.class, Byte.class, Boolean.class, Character.class, Object.class, Number.class,
+				List.class, ArrayList.class, Map.class };
+		List<Type> types = new ArrayList<Type>();
+		for (Class<?> clazz : classes) {
+			types.add(clazz);
+			for (int dimensions = 1; dimensions <= 20; dimensions++)
+				types.add(Array.newInstance(clazz, new int[dimensions]).getClass());
+		}
+
+		List<DummyConverter> converters = new ArrayList<DummyConverter>();
+		for (Type type : types) {
+			DummyConverter converter = new DummyConverter();
+			converters.add(converter);
+			cache.putIfAbsent(type, converter);
+		}
+
+		assertEquals(types.size(), cache.size());
+		for (int i = 0; i < types.size(); i++)
+			assertSame(converters.get(i), cache.get(types.get(i)));
+	}
+
+	@Test
+	public void testEviction() {
+		ConverterCache bounded = new ConverterCache(8);
+		DummyConverter used = new DummyConverter();
+		bounded.putIfAbsent(Object.class, used);
+		for (int dimensions = 1; dimensions <= 20; dimensions++) {
+			bounded.putIfAbsent(Array.newInstance(String.class, new int[dimensions]).getClass(),
+					new DummyConverter());
+			assertSame(used, bounded.get(Object.class));
+		}
+
+		assertTrue(bounded.size() <= 8);
+		assertEquals(21 - bounded.size(), bounded.getEvictions());
+		// the converter used between each insertion is never evicted
+		assertSame(used, bounded.get(Object.class));
+	}
+
+	@Test
+	public void testNewEntriesAreEvictedAfterUnusedOnes() {
+		ConverterCache bounded = new ConverterCache(8);
+		for (int dimensions = 1; dimensions <= 9; dimensions++)
+			bounded.putIfAbsent(Array.newInstance(String.class, new int[dimensions]).getClass(),
+					new DummyConverter());
+		assertEquals(2, bounded.getEvictions());
+
+		// the 7 remaining entries have not been used since this eviction, they go first
+		DummyConverter first = new DummyConverter();
+		DummyConverter second = new DummyConverter();
+		bounded.putIfAbsent(Integer.class, first);
+		bounded.putIfAbsent(Long.class, second);
+		assertEquals(4, bounded.getEvictions());
+		assertSame(first, bounded.get(Integer.class));
+		assertSame(second, bounded.get(Long.class));
+	}
+
+	@Test
+	public void testRemoveAll() {
+		cache.putIfAbsent(String.class, new DummyConverter());
+		cache.putIfAbsent(Integer.class, new DummyConverter());
+		assertEquals(1, cache.removeAll(new BoundedCache.KeyFilter<Type>() {
+			public boolean accept(Type key) {
+				return key == String.class;
+			}
+		}));
+		assertNull(cache.get(String.class));
+		assertNotNull(cache.get(Integer.class));
+	}
+
+	@Test
+	public void testGensonStatistics() {
+		Genson genson = new GensonBuilder().setMaxCachedConverters(2).create();
+		genson.serialize(1);
+		genson.serialize("a");
+		genson.serialize(true);
+		genson.serialize(2L);
+		assertTrue(genson.getCachedConverterCount() <= 2);
+		assertTrue(genson.getConverterCacheEvictions() > 0);
+		assertEquals("2", genson.serialize(2L));
+	}
+
+	@Test
+	public void testReleaseClassLoader() {
+		ClassLoader classLoader = ConverterCacheTest.class.getClassLoader();
+		assertTrue(TypeUtil.isLoadedBy(new GenericType<List<Node[]>>() {}.getType(), classLoader));
+		assertFalse(TypeUtil.isLoadedBy(new GenericType<List<String[]>>() {}.getType(), classLoader));
+
+		Genson genson = new GensonBuilder().create();
+		genson.serialize(new Node());
+		genson.serialize("a");
+		int cached = genson.getCachedConverterCount();
+		int removed = genson.releaseClassLoader(classLoader);
+		assertTrue(removed > 0);
+		assertEquals(cached - removed, genson.getCachedConverterCount());
+		assertEquals("{\"value\":0}", genson.serialize(new Node()));
+	}
+
+	public static class Node {
+		public int value;
+	}
+
+	static class DummyConverter implements Converter<Object> {
+		public void serialize(Object object, ObjectWriter writer, Context ctx) {
+		}
+
+		public Object deserialize(ObjectReader reader, Context ctx) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package com.owlike.genson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.owlike.genson.bean.ComplexObject;
+import com.owlike.genson.bean.Primitives;
+import com.owlike.genson.convert.BasicConvertersFactory;
+import com.owlike.genson.convert.ChainedFactory;
+import com.owlike.genson.convert.CircularClassReferenceConverterFactory;
+import com.owlike.genson.convert.ClassMetadataConverter;
+import com.owlike.genson.convert.NullConverter;
+import com.owlike.genson.convert.RuntimeTypeConverter;
+import com.owlike.genson.reflect.AbstractBeanDescriptorProvider.ContextualFactoryDecorator;
+
+/**
+ * Compares the default converter chain, where the null, runtime type and class metadata wrappers
+ * are fused, with the chain of wrappers. Uses the same data as GensonBenchmark, with runtime type
+ * and class metadata enabled so that all the wrappers are used.
+ */
+public class ConverterChainBenchmark {
+	final int ITERATION_CNT = 50000;
+	private final Genson fused = new GensonBuilder().useRuntimeType(true).useClassMetadata(true)
+			.create();
+	private final Genson chained = new GensonBuilder() {
+		@Override
+		protected Factory<Converter<?>> createConverterFactory() {
+			ChainedFactory chainHead = new CircularClassReferenceConverterFactory();
+			chainHead.withNext(new NullConverter.NullConverterFactory())
+					.withNext(new RuntimeTypeConverter.RuntimeTypeConverterFactory())
+					.withNext(new ClassMetadataConverter.ClassMetadataConverterFactory())
+					.withNext(new ContextualFactoryDecorator(new BasicConvertersFactory(
+							getSerializersMap(), getDeserializersMap(), getFactories(),
+							getBeanDescriptorProvider())));
+			return chainHead;
+		}
+	}.useRuntimeType(true).useClassMetadata(true).create();
+	private Map<String, Object> map;
+	private String json;
+
+	public static void main(String[] args) {
+		ConverterChainBenchmark bench = new ConverterChainBenchmark();
+		bench.setUp();
+		for (int i = 0; i < 3; i++) {
+			bench.benchSerialization();
+			bench.benchDeserialization();
+		}
+	}
+
+	public void setUp() {
+		map = new HashMap<String, Object>();
+		Primitives p1 = new Primitives(923456789, new Integer(56884646),
+				16737897023.96909986098180546, new Double(54657750.9988904315),
+				"TEXT ...  HEY\\\"\\\"\\\"\\\"ads dd qdqsdq!", true, new Boolean(false));
+		Primitives p2 = new Primitives(923456789, new Integer(861289603), 54566544.0998891, null,
+				null, false, true);
+
+		List<Primitives> longList = new ArrayList<Primitives>(100);
+		for (int i = 0; i < 100; i++)
+			longList.add(p1);
+		for (int i = 100; i < 200; i++)
+			longList.add(p2);
+		List<Primitives> shortList = Arrays.asList(p1, p1, p2, p2);
+		Primitives[] mediumArray = new Primitives[] { p1, p2, p1, p2, p2, p2, p1, p1, p2 };
+
+		ComplexObject coBig = new ComplexObject(p1, longList, mediumArray);
+		ComplexObject coSmall = new ComplexObject(p1, shortList, mediumArray);
+		ComplexObject coEmpty = new ComplexObject(null, new ArrayList<Primitives>(),
+				new Primitives[] {});
+
+		map.put("textValue", "some text ...");
+		map.put("intValue", 44542365);
+		map.put("doubleValue", 7.5);
+		map.put("falseValue", false);
+		map.put("trueValueObj", Boolean.TRUE);
+		map.put("nullValue", null);
+		map.put("mediumArray", mediumArray);
+		map.put("complexBigObject", coBig);
+		map.put("complexSmallObject", coSmall);
+		map.put("complexEmptyObject", coEmpty);
+
+		json = fused.serialize(new ComplexObject[] { coBig, coSmall, coEmpty });
+		if (!json.equals(chained.serialize(new ComplexObject[] { coBig, coSmall, coEmpty })))
+			throw new IllegalStateException("The fused and chained converters produce different json");
+	}
+
+	public void benchSerialization() {
+		for (int i = 0; i < 1000; i++) {
+			fused.serialize(map);
+			chained.serialize(map);
+		}
+		System.out.println("======= Serialization Bench ======");
+		Timer timer = new Timer();
+
+		timer.start();
+		for (int i = 0; i < ITERATION_CNT; i++)
+			fused.serialize(map);
+		System.out.println("Fused chain serialization time=" + timer.stop().printS());
+
+		timer.start();
+		for (int i = 0; i < ITERATION_CNT; i++)
+			chained.serialize(map);
+		System.out.println("Wrappers chain serialization time=" + timer.stop().printS());
+	}
+
+	public void benchDeserialization() {
+		for (int i = 0; i < 1000; i++) {
+			fused.deserialize(json, ComplexObject[].class);
+			chained.deserialize(json, ComplexObject[].class);
+		}
+		System.out.println("======= Deserialization Bench ======");
+		Timer timer = new Timer();
+
+		timer.start();
+		for (int i = 0; i < ITERATION_CNT; i++)
+			fused.deserialize(json, ComplexObject[].class);
+		System.out.println("Fused chain deserialization time=" + timer.stop().printS());
+
+		timer.start();
+		for (int i = 0; i < ITERATION_CNT; i++)
+			chained.deserialize(json, ComplexObject[].class);
+		System.out.println("Wrappers chain deserialization time=" + timer.stop().printS());
+	}
+}
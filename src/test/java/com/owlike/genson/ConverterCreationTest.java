@@ -0,0 +1,122 @@
+package com.owlike.genson;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.owlike.genson.stream.ObjectReader;
+import com.owlike.genson.stream.ObjectWriter;
+
+import static org.junit.Assert.*;
+
+public class ConverterCreationTest {
+	private final static int THREADS = 8;
+
+	@Test
+	public void testConverterIsCreatedOnce() throws Exception {
+		// the factory is used once for the serializer and once for the deserializer
+		SlowFactory singleThreadFactory = new SlowFactory();
+		new GensonBuilder().withConverterFactory(singleThreadFactory).create().provideConverter(Slow.class);
+
+		SlowFactory factory = new SlowFactory();
+		final Genson genson = new GensonBuilder().withConverterFactory(factory).create();
+
+		List<Converter<Slow>> converters = concurrently(new Callable<Converter<Slow>>() {
+			public Converter<Slow> call() {
+				return genson.provideConverter(Slow.class);
+			}
+		});
+
+		assertEquals(singleThreadFactory.creations.get(), factory.creations.get());
+		for (Converter<Slow> converter : converters)
+			assertSame(converters.get(0), converter);
+		assertTrue(genson.getAvoidedConverterCreations() > 0);
+		assertTrue(genson.getAvoidedConverterCreations() < THREADS);
+	}
+
+	@Test
+	public void testCircularTypesAreCreatedConcurrently() throws Exception {
+		final Genson genson = new GensonBuilder().create();
+		List<String> results = concurrently(new Callable<String>() {
+			public String call() {
+				Node node = genson.deserialize("{\"next\":{\"next\":{\"value\":3},\"value\":2},\"value\":1}",
+						Node.class);
+				return genson.serialize(node);
+			}
+		});
+
+		for (String json : results)
+			assertEquals("{\"next\":{\"next\":{\"next\":null,\"value\":3},\"value\":2},\"value\":1}", json);
+	}
+
+	@Test
+	public void testCreationsOfOtherInstancesAreIndependent() {
+		final Genson other = new GensonBuilder().withConverterFactory(new SlowFactory()).create();
+		final List<Converter<Slow>> fromOther = new ArrayList<Converter<Slow>>();
+		Genson genson = new GensonBuilder().withConverterFactory(new SlowFactory() {
+			@Override
+			public Converter<Slow> create(Type type, Genson genson) {
+				// the other instance is not creating Slow, its converter must be cached
+				fromOther.add(other.<Slow> provideConverter(Slow.class));
+				return super.create(type, genson);
+			}
+		}).create();
+
+		genson.provideConverter(Slow.class);
+		assertFalse(fromOther.isEmpty());
+		for (Converter<Slow> converter : fromOther)
+			assertSame(other.provideConverter(Slow.class), converter);
+	}
+
+	private <T> List<T> concurrently(Callable<T> task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<T>> futures = new ArrayList<Future<T>>();
+			for (int i = 0; i < THREADS; i++)
+				futures.add(executor.submit(task));
+			List<T> results = new ArrayList<T>();
+			for (Future<T> future : futures)
+				results.add(future.get());
+			return results;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	public static class Node {
+		public Node next;
+		public int value;
+	}
+
+	public static class Slow {
+	}
+
+	static class SlowFactory implements Factory<Converter<Slow>> {
+		final AtomicInteger creations = new AtomicInteger();
+
+		public Converter<Slow> create(Type type, Genson genson) {
+			creations.incrementAndGet();
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return new Converter<Slow>() {
+				public void serialize(Slow object, ObjectWriter writer, Context ctx) {
+					writer.writeNull();
+				}
+
+				public Slow deserialize(ObjectReader reader, Context ctx) {
+					return new Slow();
+				}
+			};
+		}
+	}
+}
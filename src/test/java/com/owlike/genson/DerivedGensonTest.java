@@ -0,0 +1,52 @@
+package com.owlike.genson;
+
+import org.junit.Test;
+
+import com.owlike.genson.bean.Primitives;
+
+import static org.junit.Assert.*;
+
+public class DerivedGensonTest {
+	private final Genson genson = new GensonBuilder().create();
+
+	@Test
+	public void testDerivedInstanceSharesConverters() {
+		genson.serialize(new Primitives(1, 2, 3.3, null, "t", true, false));
+		int cached = genson.getCachedConverterCount();
+
+		Genson derived = genson.derive().setSkipNull(true).create();
+		assertTrue(derived.sharesConvertersWith(genson));
+		assertTrue(genson.sharesConvertersWith(derived.derive().create()));
+		assertFalse(genson.sharesConvertersWith(new GensonBuilder().create()));
+		assertSame(genson.provideConverter(Primitives.class), derived.provideConverter(Primitives.class));
+		assertEquals(cached, derived.getCachedConverterCount());
+
+		// converters created through the derived instance are shared too
+		derived.provideConverter(Bean.class);
+		assertEquals(cached + 1, genson.getCachedConverterCount());
+	}
+
+	@Test
+	public void testDerivedSettings() {
+		Bean bean = new Bean();
+		bean.name = "<a>";
+		assertEquals("{\"name\":\"<a>\",\"value\":null}", genson.serialize(bean));
+
+		Genson derived = genson.derive().setSkipNull(true).setHtmlSafe(true).create();
+		assertTrue(derived.isSkipNull());
+		assertTrue(derived.isHtmlSafe());
+		assertEquals("{\"name\":\"\\u003ca\\u003e\"}", derived.serialize(bean));
+		assertEquals("{\n  \"name\":\"\\u003ca\\u003e\"\n}",
+				derived.derive().useIndentation(true).create().serialize(bean));
+
+		// the base instance is left unchanged
+		assertFalse(genson.isSkipNull());
+		assertEquals("{\"name\":\"<a>\",\"value\":null}", genson.serialize(bean));
+		assertEquals("<a>", derived.deserialize("{\"name\":\"<a>\"}", Bean.class).name);
+	}
+
+	public static class Bean {
+		public String name;
+		public Integer value;
+	}
+}
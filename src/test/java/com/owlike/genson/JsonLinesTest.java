@@ -0,0 +1,134 @@
+package com.owlike.genson;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import com.owlike.genson.stream.ObjectReader;
+import com.owlike.genson.stream.ObjectWriter;
+
+import static org.junit.Assert.*;
+
+public class JsonLinesTest {
+	private final Genson genson = new Genson();
+
+	@Test
+	public void testSerializeValuesOnePerLine() throws Exception {
+		final int[] flushes = new int[1];
+		ByteArrayOutputStream output = new ByteArrayOutputStream() {
+			@Override
+			public void flush() {
+				flushes[0]++;
+			}
+		};
+		List<Object> values = Arrays.<Object> asList(new Event("a", 1), null, "x", 2.5, new Event("b\nc", 2));
+		genson.serializeValues(values.iterator(), output);
+
+		assertEquals("{\"name\":\"a\",\"value\":1}\nnull\n\"x\"\n2.5\n{\"name\":\"b\\nc\",\"value\":2}\n",
+				output.toString("UTF-8"));
+		assertEquals(1, flushes[0]);
+
+		StringWriter writer = new StringWriter();
+		genson.serializeValues(values.iterator(), writer);
+		assertEquals(output.toString("UTF-8"), writer.toString());
+	}
+
+	@Test
+	public void testSerializeNullValuesWithContext() throws Exception {
+		Genson custom = new GensonBuilder().setNullConverter(new Converter<Object>() {
+			public void serialize(Object object, ObjectWriter writer, Context ctx) {
+				writer.writeValue(ctx.genson.isSkipNull() ? "skipped" : "none");
+			}
+
+			public Object deserialize(ObjectReader reader, Context ctx) {
+				return null;
+			}
+		}).create();
+		StringWriter writer = new StringWriter();
+		custom.serializeValues(Arrays.asList(null, 1).iterator(), writer);
+		assertEquals("\"none\"\n1\n", writer.toString());
+	}
+
+	@Test
+	public void testDeserializeValues() throws Exception {
+		String json = "{\"name\":\"a\",\"value\":1}\n{\"name\":\"b\",\"value\":2}\r\n\n  {\"name\":\"c\"}{\"value\":4}";
+		List<Event> fromStream = toList(genson.deserializeValues(
+				new ByteArrayInputStream(json.getBytes("UTF-8")), Event.class));
+		List<Event> fromReader = toList(genson.deserializeValues(new StringReader(json), Event.class));
+
+		for (List<Event> events : Arrays.asList(fromStream, fromReader)) {
+			assertEquals(4, events.size());
+			assertEquals("a", events.get(0).name);
+			assertEquals(2, events.get(1).value);
+			assertEquals("c", events.get(2).name);
+			assertEquals(4, events.get(3).value);
+		}
+	}
+
+	@Test
+	public void testDeserializeUntypedValues() throws Exception {
+		Iterator<Object> values = genson.deserializeValues(new StringReader("[1, 2] \"x\" 3 null {\"a\": true}"),
+				Object.class);
+		assertArrayEquals(new Object[] { 1L, 2L }, (Object[]) values.next());
+		assertEquals("x", values.next());
+		assertEquals(3L, values.next());
+		assertNull(values.next());
+		assertEquals(Boolean.TRUE, ((Map<?, ?>) values.next()).get("a"));
+		assertFalse(values.hasNext());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testDeserializeEmptyInput() throws Exception {
+		Iterator<Event> values = genson.deserializeValues(new ByteArrayInputStream(" \n".getBytes("UTF-8")),
+				Event.class);
+		assertFalse(values.hasNext());
+		values.next();
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		List<Event> events = new ArrayList<Event>();
+		for (int i = 0; i < 10000; i++)
+			events.add(new Event("event " + i, i));
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		genson.serializeValues(events.iterator(), output);
+
+		int i = 0;
+		for (Iterator<Event> it = genson.deserializeValues(new ByteArrayInputStream(output.toByteArray()),
+				Event.class); it.hasNext(); i++) {
+			Event event = it.next();
+			assertEquals("event " + i, event.name);
+			assertEquals(i, event.value);
+		}
+		assertEquals(events.size(), i);
+	}
+
+	private <T> List<T> toList(Iterator<T> it) {
+		List<T> list = new ArrayList<T>();
+		while (it.hasNext())
+			list.add(it.next());
+		return list;
+	}
+
+	public static class Event {
+		public String name;
+		public int value;
+
+		public Event() {
+		}
+
+		public Event(String name, int value) {
+			this.name = name;
+			this.value = value;
+		}
+	}
+}
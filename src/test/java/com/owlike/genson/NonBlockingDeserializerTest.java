@@ -0,0 +1,58 @@
+package com.owlike.genson;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import com.owlike.genson.bean.Primitives;
+
+import static org.junit.Assert.*;
+
+public class NonBlockingDeserializerTest {
+	private final Genson genson = new Genson();
+
+	@Test
+	public void testDeserializeValuesAsTheyArrive() throws Exception {
+		Primitives p1 = new Primitives(1, 2, 3.3, null, "a \"b\" [c]", true, false);
+		Primitives p2 = new Primitives(4, null, 5.5, 6.6, "日本", false, true);
+		byte[] bytes = (genson.serialize(p1) + "\n" + genson.serialize(p2) + "\n").getBytes("UTF-8");
+
+		NonBlockingDeserializer<Primitives> deserializer = genson.newNonBlockingDeserializer(Primitives.class);
+		List<Primitives> values = new ArrayList<Primitives>();
+		for (int i = 0; i < bytes.length; i += 5) {
+			deserializer.feed(ByteBuffer.wrap(bytes, i, Math.min(5, bytes.length - i)));
+			while (deserializer.hasNext())
+				values.add(deserializer.next());
+			if (values.size() < 2) assertFalse(deserializer.isFinished());
+		}
+		deserializer.endOfInput();
+		assertFalse(deserializer.hasNext());
+		assertTrue(deserializer.isFinished());
+
+		assertEquals(2, values.size());
+		assertEquals(genson.serialize(p1), genson.serialize(values.get(0)));
+		assertEquals(genson.serialize(p2), genson.serialize(values.get(1)));
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testNextFailsWhenValueIsIncomplete() throws Exception {
+		NonBlockingDeserializer<Primitives> deserializer = genson.newNonBlockingDeserializer(Primitives.class);
+		deserializer.feed(ByteBuffer.wrap("{\"intPrimitive\":".getBytes("UTF-8")));
+		assertFalse(deserializer.hasNext());
+		deserializer.next();
+	}
+
+	@Test
+	public void testDeserializeRootLiteralsAtEndOfInput() throws Exception {
+		NonBlockingDeserializer<Integer> deserializer = genson.newNonBlockingDeserializer(GenericType.of(Integer.class));
+		deserializer.feed(ByteBuffer.wrap("1 2".getBytes("UTF-8")));
+		assertEquals(Integer.valueOf(1), deserializer.next());
+		assertFalse(deserializer.hasNext());
+		deserializer.endOfInput();
+		assertEquals(Integer.valueOf(2), deserializer.next());
+		assertTrue(deserializer.isFinished());
+	}
+}
@@ -0,0 +1,152 @@
+package com.owlike.genson;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParallelValuesReaderTest {
+	private final Genson genson = new Genson();
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("genson", ".jsonl");
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void testReadInOrder() throws IOException {
+		List<Event> events = writeEvents(20000);
+		final List<Event> read = new ArrayList<Event>();
+		long count = new ParallelValuesReader(genson).setThreads(4).setChunkSize(1000)
+				.read(file, GenericType.of(Event.class), new ValueSink<Event>() {
+					public void accept(Event value) {
+						read.add(value);
+					}
+				}, true);
+
+		assertEquals(events.size(), count);
+		assertEquals(events.size(), read.size());
+		for (int i = 0; i < events.size(); i++) {
+			assertEquals(events.get(i).name, read.get(i).name);
+			assertEquals(events.get(i).value, read.get(i).value);
+		}
+	}
+
+	@Test
+	public void testReadConcurrently() throws IOException {
+		List<Event> events = writeEvents(20000);
+		final List<Event> read = Collections.synchronizedList(new ArrayList<Event>());
+		long count = genson.deserializeValues(file, Event.class, new ValueSink<Event>() {
+			public void accept(Event value) {
+				read.add(value);
+			}
+		}, false);
+
+		assertEquals(events.size(), count);
+		Collections.sort(read, new Comparator<Event>() {
+			public int compare(Event e1, Event e2) {
+				return e1.value < e2.value ? -1 : e1.value == e2.value ? 0 : 1;
+			}
+		});
+		for (int i = 0; i < events.size(); i++)
+			assertEquals(events.get(i).name, read.get(i).name);
+	}
+
+	@Test
+	public void testLinesLongerThanChunks() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 50; i++) {
+			sb.append("{\"name\":\"");
+			for (int j = 0; j < 20000; j++)
+				sb.append((char) ('a' + j % 26));
+			sb.append("\",\"value\":").append(i).append("}\n");
+		}
+		write(sb.toString());
+
+		final List<Event> read = new ArrayList<Event>();
+		long count = new ParallelValuesReader(genson).setThreads(3).setChunkSize(100)
+				.read(file, GenericType.of(Event.class), new ValueSink<Event>() {
+					public void accept(Event value) {
+						read.add(value);
+					}
+				}, true);
+		assertEquals(50, count);
+		assertEquals(49, read.get(49).value);
+		assertEquals(20000, read.get(49).name.length());
+	}
+
+	@Test
+	public void testErrorsReportByteOffset() throws IOException {
+		String valid = "{\"name\":\"a\",\"value\":1}\n";
+		write(valid + valid + "{\"name\":\"b\",\"value\":tru}\n" + valid);
+		try {
+			new ParallelValuesReader(genson).setThreads(2).setChunkSize(10)
+					.read(file, GenericType.of(Event.class), new ValueSink<Event>() {
+						public void accept(Event value) {
+						}
+					}, true);
+			fail();
+		} catch (JsonBindingException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("byte offset " + valid.length() * 2));
+		}
+	}
+
+	@Test
+	public void testReadEmptyFile() {
+		assertEquals(0, genson.deserializeValues(file, Event.class, new ValueSink<Event>() {
+			public void accept(Event value) {
+				fail();
+			}
+		}, true));
+	}
+
+	private List<Event> writeEvents(int count) throws IOException {
+		List<Event> events = new ArrayList<Event>();
+		for (int i = 0; i < count; i++)
+			events.add(new Event("event \"" + i + "\" é", i));
+		FileOutputStream output = new FileOutputStream(file);
+		try {
+			genson.serializeValues(events.iterator(), output);
+		} finally {
+			output.close();
+		}
+		return events;
+	}
+
+	private void write(String json) throws IOException {
+		FileOutputStream output = new FileOutputStream(file);
+		try {
+			output.write(json.getBytes("UTF-8"));
+		} finally {
+			output.close();
+		}
+	}
+
+	public static class Event {
+		public String name;
+		public int value;
+
+		public Event() {
+		}
+
+		public Event(String name, int value) {
+			this.name = name;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.owlike.genson;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.owlike.genson.bean.Primitives;
+import com.owlike.genson.stream.JsonStreamException;
+import com.owlike.genson.stream.ObjectWriter;
+
+import static org.junit.Assert.*;
+
+public class SessionTest {
+	private final Genson genson = new Genson();
+
+	@Test
+	public void testSerializerIsReusable() throws Exception {
+		SerializationSession serializer = genson.newSerializer();
+		for (int i = 0; i < 3; i++) {
+			Primitives p = new Primitives(i, i, i + 0.5, null, "text " + i, true, false);
+			assertEquals(genson.serialize(p), serializer.serialize(p));
+			assertEquals(p.jsonString(), new String(serializer.serializeBytes(p), "UTF-8"));
+		}
+		assertEquals("null", serializer.serialize(null));
+		assertEquals("[1,2]", serializer.serialize(Arrays.asList(1, 2),
+				new GenericType<List<Integer>>() {}));
+
+		StringWriter sw = new StringWriter();
+		serializer.serialize(1, sw);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		serializer.serialize("a", baos);
+		assertEquals("1", sw.toString());
+		assertEquals("\"a\"", baos.toString("UTF-8"));
+	}
+
+	@Test
+	public void testSerializerOutputLargerThanBuffers() {
+		char[] chars = new char[100000];
+		Arrays.fill(chars, 'x');
+		String text = new String(chars);
+		SerializationSession serializer = genson.newSerializer();
+		assertEquals(text.length() + 2, serializer.serialize(text).length());
+		assertEquals(text.length() + 2, serializer.serializeBytes(text).length);
+		assertEquals("\"y\"", serializer.serialize("y"));
+	}
+
+	@Test
+	public void testDeserializerIsReusable() throws Exception {
+		DeserializationSession deserializer = genson.newDeserializer();
+		for (int i = 0; i < 3; i++) {
+			Primitives expected = new Primitives(i, i, i + 0.5, null, "text " + i, true, false);
+			String json = expected.jsonString();
+			Primitives.assertComparePrimitives(expected, deserializer.deserialize(json, Primitives.class));
+			Primitives.assertComparePrimitives(expected,
+					deserializer.deserialize(json.getBytes("UTF-8"), Primitives.class));
+		}
+
+		assertEquals(Integer.valueOf(2), deserializer.deserialize("[1,2,3]".getBytes("UTF-8"), 3, 1,
+				GenericType.of(Integer.class)));
+		assertEquals("a", deserializer.deserialize(new StringReader("\"a\""), GenericType.of(String.class)));
+		Map<?, ?> map = deserializer.deserialize(new ByteArrayInputStream("{\"k\":1}".getBytes("UTF-8")),
+				GenericType.of(Map.class));
+		assertEquals(1L, map.get("k"));
+		assertNull(deserializer.deserialize("", Object.class));
+		assertEquals("b", deserializer.deserialize("\"b\"", String.class));
+	}
+
+	@Test
+	public void testDeserializerIsReusableAfterFailure() {
+		DeserializationSession deserializer = genson.newDeserializer();
+		try {
+			deserializer.deserialize("{\"k\":[1,", Map.class);
+			fail();
+		} catch (JsonBindingException e) {
+		} catch (JsonStreamException e) {
+		}
+		assertEquals(Arrays.asList(1L, 2L), deserializer.deserialize("[1,2]", List.class));
+	}
+
+	@Test
+	public void testPooledOneShotMethodsAreReentrant() {
+		Genson genson = new GensonBuilder().withSerializers(new Serializer<Primitives>() {
+			public void serialize(Primitives object, ObjectWriter writer, Context ctx)
+					throws Exception {
+				// uses another pooled session while the outer one is in use
+				writer.writeValue(ctx.genson.serialize(object.getText()));
+			}
+		}).create();
+		Primitives p = new Primitives(1, 1, 1, 1d, "x", true, true);
+		for (int i = 0; i < 3; i++)
+			assertEquals("[\"\\\"x\\\"\"]", genson.serialize(new Primitives[] { p }));
+	}
+}
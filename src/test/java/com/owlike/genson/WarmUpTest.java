@@ -0,0 +1,100 @@
+package com.owlike.genson;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import com.owlike.genson.annotation.JsonCreator;
+import com.owlike.genson.annotation.JsonDateFormat;
+import com.owlike.genson.bean.ComplexObject;
+import com.owlike.genson.bean.MediaContent;
+import com.owlike.genson.bean.Primitives;
+
+import static org.junit.Assert.*;
+
+public class WarmUpTest {
+	@Test
+	public void testConvertersAreCached() {
+		Genson genson = new GensonBuilder().create();
+		List<Type> types = new ArrayList<Type>(Arrays.<Type> asList(Primitives.class, ComplexObject.class,
+				MediaContent.class, new GenericType<List<Primitives>>() {}.getType()));
+		int cached = genson.getCachedConverterCount();
+		WarmUpReport report = genson.warmUp(types);
+
+		assertTrue(report.isSuccessful());
+		assertEquals(4, report.getDurations().size());
+		cached += types.size();
+		assertTrue(genson.getCachedConverterCount() >= cached);
+
+		// no converter is created once the types are warmed up
+		cached = genson.getCachedConverterCount();
+		for (Type type : types)
+			genson.provideConverter(type);
+		assertEquals(cached, genson.getCachedConverterCount());
+	}
+
+	@Test
+	public void testFailuresAreReported() {
+		Genson genson = new GensonBuilder().create();
+		WarmUpReport report = genson.warmUp(Arrays.<Type> asList(Primitives.class,
+				TwoCreators.class));
+
+		assertFalse(report.isSuccessful());
+		assertEquals(2, report.getDurations().size());
+		assertEquals(1, report.getFailures().size());
+		assertTrue(report.getFailures().containsKey(TwoCreators.class));
+	}
+
+	@Test
+	public void testPackageScan() {
+		Genson genson = new GensonBuilder().create();
+		WarmUpReport report = genson.warmUp("com.owlike.genson.bean");
+
+		assertTrue(report.getDurations().containsKey(Primitives.class));
+		assertTrue(report.getDurations().containsKey(MediaContent.class));
+		assertFalse(report.getDurations().containsKey(WarmUpTest.class));
+	}
+
+	@Test
+	public void testContextualConvertersAreNotShared() {
+		// the converter of Date is created and cached concurrently with the bean
+		Genson genson = new GensonBuilder().create();
+		List<Type> types = new ArrayList<Type>();
+		for (int i = 0; i < 20; i++) {
+			types.add(Date.class);
+			types.add(Calendar.class);
+		}
+		types.add(DateBean.class);
+		genson.warmUp(types);
+
+		DateBean bean = new DateBean();
+		bean.date = new Date(0);
+		bean.calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+		bean.calendar.setTimeInMillis(1000);
+		assertEquals("{\"calendar\":1000,\"date\":0}", genson.serialize(bean));
+	}
+
+	public static class DateBean {
+		@JsonDateFormat(asTimeInMillis = true)
+		public Date date;
+		@JsonDateFormat(asTimeInMillis = true)
+		public Calendar calendar;
+	}
+
+	public static class TwoCreators {
+		@JsonCreator
+		public TwoCreators() {
+		}
+
+		@JsonCreator
+		public static TwoCreators create() {
+			return new TwoCreators();
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package com.owlike.genson.apt;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.owlike.genson.Context;
+import com.owlike.genson.Converter;
+import com.owlike.genson.Genson;
+import com.owlike.genson.GensonBuilder;
+import com.owlike.genson.Wrapper;
+import com.owlike.genson.annotation.JsonCreator;
+import com.owlike.genson.annotation.JsonDateFormat;
+import com.owlike.genson.annotation.JsonIgnore;
+import com.owlike.genson.annotation.JsonProperty;
+import com.owlike.genson.annotation.JsonSerializable;
+import com.owlike.genson.bean.Primitives;
+import com.owlike.genson.reflect.BeanDescriptor;
+import com.owlike.genson.stream.ObjectReader;
+import com.owlike.genson.stream.ObjectWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * The classes annotated with @JsonSerializable in this test are processed by ConverterProcessor
+ * when the tests are compiled.
+ */
+public class ConverterProcessorTest {
+	private final Genson genson = new Genson();
+	private final Genson reflectGenson = new GensonBuilder().useGeneratedConverters(false).create();
+
+	@Test
+	public void testGeneratedConvertersAreRegistered() {
+		assertTrue(usedConverter(genson, Bean.class) instanceof GeneratedConverter);
+		assertTrue(usedConverter(genson, CreatorBean.class) instanceof GeneratedConverter);
+		assertTrue(usedConverter(genson, FactoryBean.class) instanceof GeneratedConverter);
+		assertTrue(usedConverter(reflectGenson, Bean.class) instanceof BeanDescriptor);
+		// private properties are not accessible from the generated code
+		assertTrue(usedConverter(genson, PrivateBean.class) instanceof BeanDescriptor);
+	}
+
+	@Test
+	public void testSameJsonAsBeanDescriptor() {
+		Bean bean = new Bean();
+		bean.count = -3;
+		bean.size = Long.MAX_VALUE;
+		bean.ratio = 0.25;
+		bean.ok = true;
+		bean.text = "a\"b";
+		bean.tags = Arrays.asList("x", null);
+		bean.other = new Primitives(1, 2, 3.3, null, "t", true, false);
+		bean.renamed = 7;
+		bean.ignored = "ignored";
+		bean.date = new Date(0);
+		bean.setValue(12);
+
+		String json = reflectGenson.serialize(bean);
+		assertEquals(json, genson.serialize(bean));
+		assertEquals(reflectGenson.serialize(new Bean()), genson.serialize(new Bean()));
+		assertTrue(json.contains("\"name\":7"));
+		assertFalse(json.contains("ignored"));
+
+		Bean copy = genson.deserialize(json, Bean.class);
+		assertEquals(json, reflectGenson.serialize(copy));
+		assertNull(copy.ignored);
+
+		assertEquals(new GensonBuilder().setSkipNull(true).useGeneratedConverters(false).create()
+				.serialize(new Bean()), new GensonBuilder().setSkipNull(true).create().serialize(new Bean()));
+	}
+
+	@Test
+	public void testCreators() {
+		CreatorBean bean = genson.deserialize("{\"unknown\":[1,{}],\"y\":\"b\",\"x\":2,\"z\":true}",
+				CreatorBean.class);
+		assertEquals(2, bean.x);
+		assertEquals("b", bean.y);
+		assertTrue(bean.z);
+		assertEquals(reflectGenson.serialize(bean), genson.serialize(bean));
+
+		FactoryBean factoryBean = genson.deserialize("{\"value\":\"v\"}", FactoryBean.class);
+		assertEquals("v", factoryBean.value);
+		assertTrue(factoryBean.fromFactory);
+	}
+
+	@Test
+	public void testCustomConvertersArePreferred() {
+		Genson custom = new GensonBuilder().withConverter(new BeanConverter(), Bean.class).create();
+		assertEquals("\"bean\"", custom.serialize(new Bean()));
+
+		// the generated converters follow the default rules, they are not used with other rules
+		Genson methods = new GensonBuilder().useMethods(false).create();
+		assertTrue(usedConverter(methods, Bean.class) instanceof BeanDescriptor);
+	}
+
+	private Object usedConverter(Genson genson, Class<?> clazz) {
+		Object converter = genson.provideConverter(clazz);
+		while (converter instanceof Wrapper)
+			converter = ((Wrapper<?>) converter).unwrap();
+		return converter;
+	}
+
+	@JsonSerializable
+	public static class Bean {
+		public int count;
+		public long size;
+		public double ratio;
+		public boolean ok;
+		public String text;
+		public List<String> tags;
+		public Primitives other;
+		@JsonProperty("name")
+		public int renamed;
+		@JsonIgnore
+		public String ignored;
+		@JsonDateFormat("yyyy-MM-dd")
+		public Date date;
+		public transient int notSerialized;
+		private int value;
+
+		public int getValue() {
+			return value;
+		}
+
+		public void setValue(int value) {
+			this.value = value;
+		}
+
+		public boolean isEven() {
+			return value % 2 == 0;
+		}
+	}
+
+	@JsonSerializable
+	public static class CreatorBean {
+		final int x;
+		final String y;
+		public boolean z;
+
+		@JsonCreator
+		public CreatorBean(int x, String y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		public int getX() {
+			return x;
+		}
+
+		public String getY() {
+			return y;
+		}
+	}
+
+	@JsonSerializable
+	public static class FactoryBean {
+		public String value;
+		transient boolean fromFactory;
+
+		@JsonCreator
+		public static FactoryBean create() {
+			FactoryBean bean = new FactoryBean();
+			bean.fromFactory = true;
+			return bean;
+		}
+	}
+
+	@JsonSerializable
+	public static class PrivateBean {
+		@JsonProperty
+		private int value = 1;
+	}
+
+	static class BeanConverter implements Converter<Bean> {
+		public void serialize(Bean object, ObjectWriter writer, Context ctx) {
+			writer.writeValue("bean");
+		}
+
+		public Bean deserialize(ObjectReader reader, Context ctx) {
+			return new Bean();
+		}
+	}
+}
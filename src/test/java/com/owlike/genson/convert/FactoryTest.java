@@ -90,6 +90,25 @@ public void testUnwrapAnnotations() throws Exception {
 		assertTrue(ClassMetadataConverter.used);
 	}
 
+	@Test
+	public void testWrappersAreFused() {
+		Genson fused = new GensonBuilder().useRuntimeType(true).useClassMetadata(true).create();
+		Converter<B> converter = fused.provideConverter(B.class);
+		assertEquals(FusedConverter.class, converter.getClass());
+		// the runtime type of a final class is always the declared one
+		assertFalse(fused.provideConverter(Integer.class) instanceof FusedConverter);
+		assertFalse(new GensonBuilder().useRuntimeType(true).create().provideConverter(String.class) instanceof RuntimeTypeConverter);
+
+		B b = new SubB();
+		b.a = new A();
+		String json = fused.serialize(b, GenericType.of(B.class));
+		assertEquals("{\"@class\":\"" + SubB.class.getName() + "\",\"a\":{\"@class\":\""
+				+ A.class.getName() + "\",\"a\":null,\"b\":null,\"c\":null},\"b\":null,\"name\":\"sub\"}", json);
+		assertEquals(SubB.class, fused.deserialize(json, B.class).getClass());
+		assertNull(fused.deserialize("null", B.class));
+		assertEquals("null", fused.serialize(null, GenericType.of(B.class)));
+	}
+
 	@HandleClassMetadata
 	static class ClassMetadataConverter implements Converter<A> {
 		static boolean used = false;
@@ -117,4 +136,8 @@ static class B {
 	static class C {
 		B b;
 	}
+
+	static class SubB extends B {
+		String name = "sub";
+	}
 }
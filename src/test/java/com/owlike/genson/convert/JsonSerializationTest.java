@@ -1,5 +1,6 @@
 package com.owlike.genson.convert;
 
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.List;
 
@@ -84,6 +85,36 @@ public void testSerializeWithAlias() {
         assertEquals("2.0", genson.serialize(new Float(2)));
     }
 
+	@Test
+	public void testNestedRuntimeTypesAreNotFlushed() {
+		final int[] flushes = new int[1];
+		StringWriter writer = new StringWriter() {
+			@Override
+			public void flush() {
+				flushes[0]++;
+				super.flush();
+			}
+		};
+		Primitives p = createPrimitives();
+		Object[] array = new Object[] { "a", p, 1, p, Arrays.asList(p, 2) };
+		genson.serialize(array, writer);
+		assertEquals(genson.serialize(array), writer.toString());
+		assertEquals(1, flushes[0]);
+	}
+
+	@Test
+	public void testRuntimeTypeCache() {
+		RuntimeTypeCache cache = new RuntimeTypeCache();
+		assertSame(genson.provideConverter(Primitives.class), cache.converter(Primitives.class, genson));
+		assertSame(cache.converter(Primitives.class, genson), cache.converter(Primitives.class, genson));
+		for (Class<?> clazz : new Class<?>[] { String.class, Integer.class, Double.class, Long.class })
+			cache.converter(clazz, genson);
+		assertSame(genson.provideConverter(Primitives.class), cache.converter(Primitives.class, genson));
+
+		Genson other = new GensonBuilder().setSkipNull(true).create();
+		assertSame(other.provideConverter(Primitives.class), cache.converter(Primitives.class, other));
+	}
+
 	private Primitives createPrimitives() {
 		return new Primitives(1, new Integer(10), 1.00001, new Double(0.00001), "TEXT ...  HEY!",
 				true, new Boolean(false));
@@ -143,6 +143,34 @@ public void testUUIDConverter() {
         assertEquals(uuid, genson.deserialize(json, UUID.class));
     }
 
+    @Test
+    public void testUUIDConverterWithNonCanonicalForms() {
+        UUID uuid = UUID.fromString("0123abcd-ef01-4567-89ab-cdef01234567");
+        assertEquals(uuid, genson.deserialize("\"0123ABCD-EF01-4567-89AB-CDEF01234567\"", UUID.class));
+        assertEquals(UUID.fromString("1-2-3-4-5"), genson.deserialize("\"1-2-3-4-5\"", UUID.class));
+        try {
+            genson.deserialize("\"0123abcd-ef01-4567-89ab-cdef0123456z\"", UUID.class);
+            fail();
+        } catch (JsonBindingException e) {
+        }
+    }
+
+    @Test
+    public void testEnumAndBooleanFromStrings() {
+        assertEquals(Color.red, genson.deserialize("\"red\"", Color.class));
+        assertEquals(Arrays.asList(Color.blue, Color.red),
+                genson.deserialize("[\"blu\\u0065\", \"red\"]", new GenericType<List<Color>>() {}));
+        try {
+            genson.deserialize("\"green\"", Color.class);
+            fail();
+        } catch (JsonBindingException e) {
+        }
+
+        assertEquals(Boolean.TRUE, genson.deserialize("\"TRUE\"", Boolean.class));
+        assertEquals(Boolean.FALSE, genson.deserialize("\"yes\"", Boolean.class));
+        assertNull(genson.deserialize("\"\"", Boolean.class));
+    }
+
     @Test
     public void testDateConverter() {
         Genson genson = new GensonBuilder().useDateFormat(
@@ -0,0 +1,121 @@
+package com.owlike.genson.reflect;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.owlike.genson.Genson;
+import com.owlike.genson.GensonBuilder;
+import com.owlike.genson.JsonBindingException;
+import com.owlike.genson.bean.ComplexObject;
+import com.owlike.genson.bean.Primitives;
+
+import static org.junit.Assert.*;
+
+public class ASMBeanDescriptorProviderTest {
+	private final Genson genson = new Genson();
+	private final Genson generatedGenson = new GensonBuilder().useGeneratedSerializers(true).create();
+
+	@Test
+	public void testSerializerIsGenerated() {
+		assertTrue(generatedGenson.getBeanDescriptorFactory().provide(Bean.class, generatedGenson)
+				instanceof ASMBeanDescriptorProvider.GeneratedBeanDescriptor);
+		// non public classes can not be used by the generated code, their accessors are used
+		assertTrue(generatedGenson.getBeanDescriptorFactory().provide(HiddenBean.class,
+				generatedGenson) instanceof ASMBeanDescriptorProvider.GeneratedBeanDescriptor);
+	}
+
+	@Test
+	public void testSameJsonAsBeanDescriptor() throws Exception {
+		Bean bean = new Bean();
+		bean.setCount(Long.MIN_VALUE);
+		bean.setText("a\"bé");
+		bean.values = new int[] { 1, 2 };
+		bean.tags = Arrays.asList("x", null);
+		bean.ratio = 0.1;
+		bean.small = 3;
+		bean.ok = true;
+		bean.other = new Primitives(1, 2, 3.3, null, null, true, false);
+		assertSameJson(genson, generatedGenson, bean);
+		assertSameJson(genson, generatedGenson, new Bean());
+		assertSameJson(genson, generatedGenson, new HiddenBean());
+
+		ComplexObject complex = new ComplexObject(new Primitives(1, 2, 3.3, 4.4, "t", true, false),
+				Arrays.asList(new Primitives(5, 6, 7.7, null, null, false, true)),
+				new Primitives[] { new Primitives(8, 9, 1.1, 2.2, "u", false, false) });
+		assertSameJson(genson, generatedGenson, complex);
+
+		assertSameJson(new GensonBuilder().setSkipNull(true).useIndentation(true).create(),
+				new GensonBuilder().setSkipNull(true).useIndentation(true)
+						.useGeneratedSerializers(true).create(), bean);
+		assertSameJson(new GensonBuilder().useRuntimeType(true).useClassMetadata(true).create(),
+				new GensonBuilder().useRuntimeType(true).useClassMetadata(true)
+						.useGeneratedSerializers(true).useGeneratedAccessors(true).create(), bean);
+
+		assertEquals(genson.serialize(bean), new String(generatedGenson.serializeBytes(bean), "UTF-8"));
+		Bean copy = generatedGenson.deserialize(generatedGenson.serialize(bean), Bean.class);
+		assertEquals(bean.getText(), copy.getText());
+		assertEquals(bean.getCount(), copy.getCount());
+	}
+
+	@Test
+	public void testExceptionsAreWrappedLikeBeanDescriptor() {
+		Throwable expected = failure(genson, new FailingBean()).getCause();
+		Throwable actual = failure(generatedGenson, new FailingBean()).getCause();
+		assertEquals(expected.getMessage(), actual.getMessage());
+		assertTrue(actual.getCause() instanceof IllegalStateException);
+	}
+
+	private JsonBindingException failure(Genson genson, Object bean) {
+		try {
+			genson.serialize(bean);
+			fail();
+			return null;
+		} catch (JsonBindingException e) {
+			return e;
+		}
+	}
+
+	private void assertSameJson(Genson expected, Genson actual, Object bean) {
+		assertEquals(expected.serialize(bean), actual.serialize(bean));
+	}
+
+	public static class Bean {
+		public int[] values;
+		public List<String> tags;
+		public double ratio;
+		public int small;
+		public boolean ok;
+		public Primitives other;
+		private long count;
+		private String text;
+
+		public long getCount() {
+			return count;
+		}
+
+		public void setCount(long count) {
+			this.count = count;
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		public void setText(String text) {
+			this.text = text;
+		}
+	}
+
+	static class HiddenBean {
+		public String value = "hidden";
+		public int number = 1;
+	}
+
+	public static class FailingBean {
+		public String getValue() {
+			throw new IllegalStateException();
+		}
+	}
+}
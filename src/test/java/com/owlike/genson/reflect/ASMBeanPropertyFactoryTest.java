@@ -0,0 +1,129 @@
+package com.owlike.genson.reflect;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.owlike.genson.Genson;
+import com.owlike.genson.GensonBuilder;
+import com.owlike.genson.JsonBindingException;
+import com.owlike.genson.bean.Primitives;
+
+import static org.junit.Assert.*;
+
+public class ASMBeanPropertyFactoryTest {
+	private final Genson genson = new Genson();
+	private final Genson generatedGenson = new GensonBuilder().useGeneratedAccessors(true).create();
+	private final ASMBeanPropertyFactory factory = new ASMBeanPropertyFactory();
+
+	@Test
+	public void testGeneratedAccessorsAndMutators() throws Exception {
+		PropertyAccessor getter = factory.createAccessor("count",
+				PublicBean.class.getMethod("getCount"), PublicBean.class, genson);
+		PropertyAccessor field = factory.createAccessor("values",
+				PublicBean.class.getField("values"), PublicBean.class, genson);
+		PropertyMutator setter = factory.createMutator("count",
+				PublicBean.class.getMethod("setCount", long.class), PublicBean.class, genson);
+		PropertyMutator fluentSetter = factory.createMutator("name",
+				PublicBean.class.getMethod("setName", String.class), PublicBean.class, genson);
+		assertTrue(getter instanceof ASMBeanPropertyFactory.GeneratedMethodAccessor);
+		assertTrue(field instanceof ASMBeanPropertyFactory.GeneratedFieldAccessor);
+
+		PublicBean bean = new PublicBean();
+		setter.mutate(bean, 5L);
+		fluentSetter.mutate(bean, "foo");
+		bean.values = new int[] { 1 };
+		assertEquals(5L, getter.access(bean));
+		assertEquals("foo", bean.name);
+		assertSame(bean.values, field.access(bean));
+	}
+
+	@Test
+	public void testFallbackToReflection() throws Exception {
+		assertNull(factory.createAccessor("secret", PublicBean.class.getDeclaredField("secret"),
+				PublicBean.class, genson));
+		assertNull(factory.createMutator("constant", PublicBean.class.getField("constant"),
+				PublicBean.class, genson));
+		assertNull(factory.createAccessor("value", HiddenBean.class.getMethod("getValue"),
+				HiddenBean.class, genson));
+	}
+
+	@Test(expected = JsonBindingException.class)
+	public void testNullForPrimitiveIsRejected() throws Exception {
+		factory.createMutator("count", PublicBean.class.getMethod("setCount", long.class),
+				PublicBean.class, genson).mutate(new PublicBean(), null);
+	}
+
+	@Test
+	public void testSameJsonAsWithReflection() {
+		PublicBean bean = new PublicBean();
+		bean.setCount(Long.MAX_VALUE);
+		bean.setName("bar");
+		bean.values = new int[] { 1, 2 };
+		bean.tags = Arrays.asList("a", "b");
+		bean.ratio = 0.5;
+		String json = genson.serialize(bean);
+		assertEquals(json, generatedGenson.serialize(bean));
+
+		// fluent setters are not used for deserialization
+		assertEquals(genson.serialize(genson.deserialize(json, PublicBean.class)),
+				genson.serialize(generatedGenson.deserialize(json, PublicBean.class)));
+		assertEquals(Long.MAX_VALUE, generatedGenson.deserialize(json, PublicBean.class).getCount());
+		assertEquals(genson.serialize(new HiddenBean()), generatedGenson.serialize(new HiddenBean()));
+
+		Primitives p = new Primitives(1, 2, 3.3, null, "text", true, false);
+		Primitives.assertComparePrimitives(p,
+				generatedGenson.deserialize(generatedGenson.serialize(p), Primitives.class));
+	}
+
+	@Test
+	public void testReleaseClassLoader() throws Exception {
+		PropertyAccessor getter = factory.createAccessor("count",
+				PublicBean.class.getMethod("getCount"), PublicBean.class, genson);
+		generatedGenson.releaseClassLoader(PublicBean.class.getClassLoader());
+		assertEquals(0, ASMBeanPropertyFactory.removeClassAccesses(PublicBean.class.getClassLoader()));
+
+		// the accessors created before keep working, new ones use a new generated class
+		PublicBean bean = new PublicBean();
+		bean.setCount(3);
+		assertEquals(3L, getter.access(bean));
+		assertEquals(3L, factory.createAccessor("count", PublicBean.class.getMethod("getCount"),
+				PublicBean.class, genson).access(bean));
+		assertTrue(ASMBeanPropertyFactory.removeClassAccesses(PublicBean.class.getClassLoader()) > 0);
+	}
+
+	public static class PublicBean {
+		public final int constant = 1;
+		public int[] values;
+		public List<String> tags;
+		public double ratio;
+		private long count;
+		private String name;
+		@SuppressWarnings("unused")
+		private String secret;
+
+		public long getCount() {
+			return count;
+		}
+
+		public void setCount(long count) {
+			this.count = count;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public PublicBean setName(String name) {
+			this.name = name;
+			return this;
+		}
+	}
+
+	static class HiddenBean {
+		public String getValue() {
+			return "hidden";
+		}
+	}
+}
@@ -12,6 +12,7 @@
 import com.owlike.genson.Converter;
 import com.owlike.genson.Factory;
 import com.owlike.genson.Genson;
+import com.owlike.genson.Wrapper;
 import com.owlike.genson.annotation.JsonCreator;
 import com.owlike.genson.annotation.JsonIgnore;
 import com.owlike.genson.annotation.JsonProperty;
@@ -189,6 +190,103 @@ public void testUseExplicitConstructorCtr() {
 		assertTrue(ForceConstructorCreator.usedCtr);
 	}
 
+	@Test
+	public void testPropertyOrderIsRemembered() {
+		BeanDescriptor<?> descriptor = usedDescriptor(ClassWithGenerics.class);
+		descriptor.setPropertyOrderStatistics(true);
+		String json = "{\"value\":1,\"unknown\":true,\"t\":\"a\"}";
+
+		ClassWithGenerics<?, ?> bean = genson.deserialize(json, ClassWithGenerics.class);
+		assertEquals(0, descriptor.getPropertyOrderHits());
+		assertEquals(3, descriptor.getPropertyOrderMisses());
+		bean = genson.deserialize(json, ClassWithGenerics.class);
+		assertEquals(3, descriptor.getPropertyOrderHits());
+		assertEquals(3, descriptor.getPropertyOrderMisses());
+		assertEquals("a", bean.t);
+		assertEquals(1, bean.value.intValue());
+
+		// t is not where it was expected but value is, the order is learned again only after a few
+		// objects in a row did not match it
+		for (int i = 0; i < 4; i++) {
+			bean = genson.deserialize("{\"t\":\"b\",\"value\":2}", ClassWithGenerics.class);
+			assertEquals("b", bean.t);
+			assertEquals(2, bean.value.intValue());
+		}
+		assertEquals(7, descriptor.getPropertyOrderHits());
+		assertEquals(7, descriptor.getPropertyOrderMisses());
+		genson.deserialize("{\"t\":\"c\",\"value\":3}", ClassWithGenerics.class);
+		assertEquals(9, descriptor.getPropertyOrderHits());
+		assertEquals(7, descriptor.getPropertyOrderMisses());
+	}
+
+	@Test
+	public void testPropertyOrderIsKeptWithMixedObjects() {
+		BeanDescriptor<?> descriptor = usedDescriptor(ClassWithGenerics.class);
+		descriptor.setPropertyOrderStatistics(true);
+		genson.deserialize("{\"t\":\"a\",\"value\":1}", ClassWithGenerics.class);
+
+		// the objects in another order are interleaved with the expected ones, they do not replace it
+		for (int i = 0; i < 10; i++) {
+			genson.deserialize("{\"value\":1,\"t\":\"b\"}", ClassWithGenerics.class);
+			genson.deserialize("{\"t\":\"a\",\"value\":1}", ClassWithGenerics.class);
+		}
+		assertEquals(10 * 3, descriptor.getPropertyOrderHits());
+		assertEquals(2 + 10, descriptor.getPropertyOrderMisses());
+	}
+
+	@Test
+	public void testPropertyOrderStatisticsAreOptIn() {
+		BeanDescriptor<?> descriptor = usedDescriptor(ClassWithGenerics.class);
+		genson.deserialize("{\"t\":\"a\",\"value\":1}", ClassWithGenerics.class);
+		genson.deserialize("{\"t\":\"a\",\"value\":1}", ClassWithGenerics.class);
+		assertEquals(0, descriptor.getPropertyOrderHits());
+		assertEquals(0, descriptor.getPropertyOrderMisses());
+	}
+
+	@Test
+	public void testPropertyOrderWithCreatorArguments() {
+		BeanDescriptor<?> descriptor = usedDescriptor(CreatorWithArguments.class);
+		descriptor.setPropertyOrderStatistics(true);
+		for (int i = 0; i < 3; i++) {
+			CreatorWithArguments bean = genson.deserialize("{\"x\":" + i + ",\"y\":\"y\"}",
+					CreatorWithArguments.class);
+			assertEquals(i, bean.x);
+			assertEquals("y", bean.y);
+		}
+		assertEquals(4, descriptor.getPropertyOrderHits());
+		assertEquals(2, descriptor.getPropertyOrderMisses());
+	}
+
+	@Test
+	public void testCreatorArgumentsAndSettersWithRepeatedNames() {
+		CreatorWithArguments bean = genson.deserialize(
+				"{\"y\":\"a\",\"x\":1,\"unknown\":[1],\"x\":2,\"y\":\"b\"}",
+				CreatorWithArguments.class);
+		assertEquals(2, bean.x);
+		assertEquals("b", bean.y);
+
+		bean = genson.deserialize("{\"unknown\":{},\"x\":3}", CreatorWithArguments.class);
+		assertEquals(3, bean.x);
+		assertNull(bean.y);
+	}
+
+	// the descriptor at the end of the converters chain used by genson
+	private BeanDescriptor<?> usedDescriptor(Class<?> clazz) {
+		Object converter = genson.provideConverter(clazz);
+		while (converter instanceof Wrapper)
+			converter = ((Wrapper<?>) converter).unwrap();
+		return (BeanDescriptor<?>) converter;
+	}
+
+	public static class CreatorWithArguments {
+		final int x;
+		public String y;
+
+		public CreatorWithArguments(@JsonProperty("x") int x) {
+			this.x = x;
+		}
+	}
+
 	static class ForceMethodCreator {
 		public static transient boolean usedMethod = false;
 
@@ -0,0 +1,172 @@
+package com.owlike.genson.reflect;
+
+import org.junit.Test;
+
+import com.owlike.genson.Context;
+import com.owlike.genson.Genson;
+import com.owlike.genson.GensonBuilder;
+import com.owlike.genson.annotation.HandleNull;
+import com.owlike.genson.convert.PrimitiveConverters;
+import com.owlike.genson.stream.ObjectReader;
+import com.owlike.genson.stream.ObjectWriter;
+
+import static org.junit.Assert.*;
+
+public class PrimitivePropertiesTest {
+	private final static String JSON = "{\"b\":true,\"d\":0.25,\"f\":1.5,\"i\":-3,\"l\":9223372036854775807,"
+			+ "\"s\":7,\"wrapper\":5}";
+
+	@Test
+	public void testPrimitivePropertiesRoundTrip() {
+		for (Genson genson : new Genson[] { new Genson(),
+				new GensonBuilder().useGeneratedAccessors(true).create(),
+				new GensonBuilder().useGeneratedSerializers(true).create() }) {
+			assertRoundTrip(genson);
+			assertFieldsRoundTrip(genson);
+		}
+	}
+
+	@Test
+	public void testPrimitiveConverterIsUsedWithoutBoxing() {
+		Genson genson = new GensonBuilder().withConverter(new TwiceIntConverter(), int.class).create();
+		assertEquals("{\"value\":4}", genson.serialize(new IntBean(2)));
+		assertEquals(3, genson.deserialize("{\"value\":6}", IntBean.class).value);
+	}
+
+	private void assertRoundTrip(Genson genson) {
+		PrimitivesBean bean = new PrimitivesBean();
+		bean.setB(true);
+		bean.setD(0.25);
+		bean.setF(1.5f);
+		bean.setI(-3);
+		bean.setL(Long.MAX_VALUE);
+		bean.setS((short) 7);
+		bean.setWrapper(5);
+		assertEquals(JSON, genson.serialize(bean));
+
+		PrimitivesBean copy = genson.deserialize(JSON, PrimitivesBean.class);
+		assertEquals(JSON, genson.serialize(copy));
+	}
+
+	private void assertFieldsRoundTrip(Genson genson) {
+		FieldsBean bean = new FieldsBean();
+		bean.b = true;
+		bean.d = 0.25;
+		bean.f = 1.5f;
+		bean.i = -3;
+		bean.l = Long.MAX_VALUE;
+		bean.s = 7;
+		bean.wrapper = 5;
+		assertEquals(JSON, genson.serialize(bean));
+
+		FieldsBean copy = genson.deserialize(JSON, FieldsBean.class);
+		assertEquals(JSON, genson.serialize(copy));
+	}
+
+	public static class FieldsBean {
+		public boolean b;
+		public double d;
+		public float f;
+		public int i;
+		public long l;
+		public short s;
+		public Integer wrapper;
+	}
+
+	public static class PrimitivesBean {
+		private boolean b;
+		private double d;
+		private float f;
+		private int i;
+		private long l;
+		private short s;
+		private Integer wrapper;
+
+		public boolean isB() {
+			return b;
+		}
+
+		public void setB(boolean b) {
+			this.b = b;
+		}
+
+		public double getD() {
+			return d;
+		}
+
+		public void setD(double d) {
+			this.d = d;
+		}
+
+		public float getF() {
+			return f;
+		}
+
+		public void setF(float f) {
+			this.f = f;
+		}
+
+		public int getI() {
+			return i;
+		}
+
+		public void setI(int i) {
+			this.i = i;
+		}
+
+		public long getL() {
+			return l;
+		}
+
+		public void setL(long l) {
+			this.l = l;
+		}
+
+		public short getS() {
+			return s;
+		}
+
+		public void setS(short s) {
+			this.s = s;
+		}
+
+		public Integer getWrapper() {
+			return wrapper;
+		}
+
+		public void setWrapper(Integer wrapper) {
+			this.wrapper = wrapper;
+		}
+	}
+
+	public static class IntBean {
+		public int value;
+
+		public IntBean() {
+		}
+
+		IntBean(int value) {
+			this.value = value;
+		}
+	}
+
+	// the boxed methods are not used for bean properties
+	@HandleNull
+	static class TwiceIntConverter implements PrimitiveConverters.IntConverter {
+		public void serialize(Integer object, ObjectWriter writer, Context ctx) {
+			throw new UnsupportedOperationException();
+		}
+
+		public Integer deserialize(ObjectReader reader, Context ctx) {
+			throw new UnsupportedOperationException();
+		}
+
+		public void serializeInt(int value, ObjectWriter writer, Context ctx) {
+			writer.writeValue(value * 2);
+		}
+
+		public int deserializeInt(ObjectReader reader, Context ctx) {
+			return reader.valueAsInt() / 2;
+		}
+	}
+}
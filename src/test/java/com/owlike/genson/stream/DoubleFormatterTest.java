@@ -0,0 +1,79 @@
+package com.owlike.genson.stream;
+
+import java.io.StringWriter;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DoubleFormatterTest {
+	private final DoubleFormatter formatter = new DoubleFormatter();
+	private final byte[] buffer = new byte[DoubleFormatter.MAX_LENGTH + 2];
+
+	@Test
+	public void testSameFormatAsToString() {
+		double[] doubles = { 0.0, -0.0, 1.0, -1.0, 0.1, 10.012, 2.29, 777.777, 100.0, 9999999.0,
+				1e7, 1e-3, 9.99e-4, 123456789012345678.0, Double.MIN_VALUE, Double.MAX_VALUE,
+				Double.MIN_NORMAL, 1.5e-300 };
+		for (double d : doubles)
+			assertEquals(Double.toString(d), format(d));
+
+		float[] floats = { 0f, -0f, 1f, 0.1f, -0.09f, 1e7f, 1e-3f, Float.MIN_VALUE,
+				Float.MAX_VALUE };
+		for (float f : floats)
+			assertEquals(Float.toString(f), format(f));
+	}
+
+	@Test
+	public void testShortestRepresentation() {
+		// some JDK versions write more digits than needed for those
+		assertEquals("1.0E23", format(1e23));
+		assertEquals("0.002", format(2.0e-3f));
+		assertEquals("1.1754944E-38", format(Float.MIN_NORMAL));
+	}
+
+	@Test
+	public void testRandomValuesRoundTrip() {
+		Random random = new Random(42);
+		for (int i = 0; i < 100000; i++) {
+			double d = Double.longBitsToDouble(random.nextLong());
+			if (!Double.isNaN(d) && !Double.isInfinite(d)) {
+				String s = format(d);
+				assertEquals(s, d, Double.parseDouble(s), 0);
+				assertTrue(s, s.length() <= Double.toString(d).length());
+			}
+
+			float f = Float.intBitsToFloat(random.nextInt());
+			if (!Float.isNaN(f) && !Float.isInfinite(f)) {
+				String s = format(f);
+				assertEquals(s, f, Float.parseFloat(s), 0);
+				assertTrue(s, s.length() <= Float.toString(f).length());
+			}
+		}
+	}
+
+	@Test
+	public void testWriters() {
+		StringWriter sw = new StringWriter();
+		new JsonWriter(sw).beginArray().writeValue(1e23).writeValue(-0.09f)
+				.writeValue((Number) 0.5).writeValue((Number) 1.5f).writeValue((Number) 12L)
+				.endArray().flush();
+		assertEquals("[1.0E23,-0.09,0.5,1.5,12]", sw.toString());
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testNaNIsRejected() {
+		new JsonWriter(new StringWriter()).writeValue(Double.NaN);
+	}
+
+	private String format(double value) {
+		int len = formatter.format(value, buffer, 2);
+		return new String(buffer, 2, len);
+	}
+
+	private String format(float value) {
+		int len = formatter.format(value, buffer, 2);
+		return new String(buffer, 2, len);
+	}
+}
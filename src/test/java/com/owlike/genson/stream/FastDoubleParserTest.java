@@ -0,0 +1,72 @@
+package com.owlike.genson.stream;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FastDoubleParserTest {
+	@Test
+	public void testEdgeCases() {
+		String[] values = { "0", "-0", "0.0", "-0.0", "1", "-1", "0.1", "0.30000000000000004",
+				"1.", "00012.5", "1e+5", "1E-5", "1e-400", "1e400", "4.9e-324",
+				"2.4703282292062327e-324", "2.4703282292062328e-324", "2.2250738585072011e-308",
+				"2.2250738585072012e-308", "1.7976931348623157e308", "1.7976931348623158e308",
+				"1.7976931348623159e308", "9007199254740993", "9007199254740992.5",
+				"123456789012345678901234567890", "9999999999999999999",
+				"99999999999999999999e-20", "7.3177701707893310e+15", "4.35679e-310" };
+		for (String value : values)
+			assertSameAsParseDouble(value);
+	}
+
+	@Test
+	public void testRandomValues() {
+		Random random = new Random(42);
+		for (int i = 0; i < 20000; i++) {
+			double d = Double.longBitsToDouble(random.nextLong());
+			if (Double.isNaN(d) || Double.isInfinite(d)) continue;
+			assertSameAsParseDouble(Double.toString(d));
+			assertSameAsParseDouble(new BigDecimal(d).toString());
+			// halfway between two consecutive doubles, the hardest case for rounding
+			BigDecimal halfway = new BigDecimal(Math.abs(d)).add(
+					new BigDecimal(Math.nextUp(Math.abs(d)))).divide(BigDecimal.valueOf(2));
+			assertSameAsParseDouble(halfway.toString());
+		}
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testInvalidNumberIsRejected() {
+		FastDoubleParser.parse("-.e5".toCharArray(), 0, 4);
+	}
+
+	@Test
+	public void testStrictParsingInReaders() throws Exception {
+		String json = "[0.1, 2.2250738585072011e-308, 1.7976931348623157e308, -123456789012345678901234567890]";
+		ObjectReader[] readers = { new JsonReader(new StringReader(json), true, false),
+				new Utf8JsonReader(json.getBytes("UTF-8"), 0, json.length(), true, false) };
+		for (ObjectReader reader : readers) {
+			reader.beginArray();
+			reader.next();
+			assertEquals(0.1, reader.valueAsDouble(), 0);
+			reader.next();
+			assertEquals(Double.parseDouble("2.2250738585072011e-308"), reader.valueAsDouble(), 0);
+			reader.next();
+			assertEquals(Double.MAX_VALUE, reader.valueAsDouble(), 0);
+			reader.next();
+			assertEquals(-123456789012345678901234567890d, reader.valueAsDouble(), 0);
+			reader.endArray();
+			reader.close();
+		}
+	}
+
+	private void assertSameAsParseDouble(String value) {
+		long expected = Double.doubleToRawLongBits(Double.parseDouble(value));
+		assertEquals(value, expected, Double.doubleToRawLongBits(FastDoubleParser.parse(
+				value.toCharArray(), 0, value.length())));
+		assertEquals(value, expected, Double.doubleToRawLongBits(FastDoubleParser.parse(
+				value.getBytes(), 0, value.length())));
+	}
+}
@@ -2,7 +2,9 @@
 
 import java.io.CharArrayReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.Collection;
 
@@ -612,4 +614,127 @@ public void testReadOverflowingExtremlyLongNumber() throws IOException {
 	    reader.skipValue();
 	    reader.close();
 	}
+
+	@Test
+	public void testSkipValueOnlyLooksAtStructure() throws IOException {
+		String src = "{\"@class\":\"x\", \"a\": [\"]}\\\"[{\", {\"b\": 1e400, \"c\": [[], {}]}, /* ] */ truE],\n"
+				+ "\"d\": // }\n {\"e\": \"\\\\\"}, \"f\": 2}";
+		// a reader returning one char at a time, so the skipped values span over many buffers
+		Reader slowReader = new StringReader(src) {
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				return super.read(cbuf, off, len > 0 ? 1 : 0);
+			}
+		};
+		for (Reader source : new Reader[] { new StringReader(src), slowReader }) {
+			JsonReader reader = new JsonReader(source, strictDoubleParse, readMetadata);
+			reader.beginObject();
+			reader.next();
+			if (readMetadata) assertEquals("a", reader.name());
+			else reader.next();
+			reader.skipValue();
+			reader.next();
+			assertEquals("d", reader.name());
+			reader.skipValue();
+			assertEquals(2, reader.row());
+			reader.next();
+			assertEquals("f", reader.name());
+			assertEquals(2, reader.valueAsInt());
+			assertFalse(reader.hasNext());
+			reader.endObject();
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testSkipValueAfterMetadata() throws IOException {
+		JsonReader reader = new JsonReader(new StringReader("[{\"@class\":\"x\", \"a\": {}}, 1]"),
+				strictDoubleParse, true);
+		reader.beginArray();
+		reader.next();
+		assertEquals("x", reader.metadata("class"));
+		reader.skipValue();
+		reader.next();
+		assertEquals(1, reader.valueAsInt());
+		reader.endArray();
+		reader.close();
+	}
+
+	@Test
+	public void testSkipValueMismatchedEnd() throws IOException {
+		for (String src : new String[] { "[{\"a\": [1}]", "[{\"a\": [1]" }) {
+			JsonReader reader = new JsonReader(new StringReader(src), strictDoubleParse, readMetadata);
+			try {
+				reader.skipValue();
+				fail();
+			} catch (JsonStreamException e) {
+			}
+		}
+	}
+
+	@Test
+	public void testReadRootValues() throws IOException {
+		JsonReader reader = new JsonReader(new StringReader("{\"a\": 1}\n[2] // c\n 3 \"4\"{}"),
+				strictDoubleParse, readMetadata);
+		assertTrue(reader.hasRootValue());
+		reader.beginObject();
+		try {
+			reader.nextRootValue();
+			fail();
+		} catch (JsonStreamException e) {
+		}
+		reader.next();
+		assertEquals(1, reader.valueAsInt());
+		reader.endObject();
+
+		assertTrue(reader.nextRootValue());
+		assertEquals(ValueType.ARRAY, reader.getValueType());
+		reader.skipValue();
+		assertTrue(reader.nextRootValue());
+		assertEquals(3, reader.valueAsInt());
+		assertTrue(reader.nextRootValue());
+		assertEquals("4", reader.valueAsString());
+		assertTrue(reader.nextRootValue());
+		reader.beginObject().endObject();
+		assertFalse(reader.nextRootValue());
+		assertFalse(reader.hasRootValue());
+		reader.close();
+
+		assertFalse(new JsonReader(new StringReader(" "), strictDoubleParse, readMetadata).hasRootValue());
+	}
+
+	@Test
+	public void testValueAsCharSequence() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 5000; i++)
+			sb.append((char) ('a' + i % 26));
+		String longValue = sb.toString();
+		String src = "[\"abc\", \"a\\nb\\u00e9\", \"\", \"" + longValue + "\", 12, true, null]";
+		ExtendedObjectReader reader = new JsonReader(new StringReader(src), strictDoubleParse, readMetadata);
+		reader.beginArray();
+		reader.next();
+		CharSequence value = reader.valueAsCharSequence();
+		assertEquals(3, value.length());
+		assertEquals('b', value.charAt(1));
+		assertEquals("bc", value.subSequence(1, 3).toString());
+		assertEquals("abc", value.toString());
+		reader.next();
+		assertEquals("a\nb\u00e9", reader.valueAsCharSequence().toString());
+		assertEquals("a\nb\u00e9", reader.copyValueTo(new StringBuilder()).toString());
+		assertEquals("a\nb\u00e9", reader.copyValueTo(new StringWriter()).toString());
+		reader.next();
+		assertEquals(0, reader.valueAsCharSequence().length());
+		reader.next();
+		assertEquals(longValue, reader.valueAsCharSequence().toString());
+		assertEquals(longValue, reader.valueAsString());
+		assertSame(reader.valueAsString(), reader.valueAsCharSequence());
+		reader.next();
+		assertEquals("12", reader.valueAsCharSequence().toString());
+		reader.next();
+		assertEquals("true", reader.copyValueTo(new StringBuilder()).toString());
+		reader.next();
+		assertNull(reader.valueAsCharSequence());
+		reader.endArray();
+		reader.close();
+	}
 }
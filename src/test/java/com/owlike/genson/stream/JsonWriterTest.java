@@ -2,6 +2,7 @@
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.math.BigDecimal;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -40,6 +41,22 @@ public class JsonWriterTest {
         assertEquals(sw.toString(), "[11,0.09,9.0E-4,-51.07]");
     }
 
+    @Test public void testBigDecimalsAreWrittenAsByToString() throws IOException {
+        String[] values = { "0", "-0", "0.000", "0E-10", "1E+3", "123.456e-2", "-123.456",
+                "0.0001234", "0.0000001234", "-0.000001", "1e-7", "100", "-9.99",
+                "999999999999999999", "-99999999999999999.9", "1234567890123456789",
+                "0.123456789012345678", "12345678901234567890.5" };
+        StringBuilder expected = new StringBuilder("[");
+        w.beginArray();
+        for (String value : values) {
+            BigDecimal decimal = new BigDecimal(value);
+            w.writeValue(decimal);
+            expected.append(expected.length() > 1 ? "," : "").append(decimal.toString());
+        }
+        w.endArray().flush();
+        assertEquals(expected.append(']').toString(), sw.toString());
+    }
+
     @Test public void testRootArrayStrings() throws IOException {
         w.beginArray().writeValue("a").writeValue("b . d").writeValue("\"\\ u").endArray().flush();
         String s = "[\"a\",\"b . d\",\"\\\"\\\\ u\"]";
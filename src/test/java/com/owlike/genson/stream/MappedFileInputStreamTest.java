@@ -0,0 +1,100 @@
+package com.owlike.genson.stream;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.owlike.genson.Genson;
+import com.owlike.genson.GenericType;
+
+import static org.junit.Assert.*;
+
+public class MappedFileInputStreamTest {
+	private File file;
+
+	@After
+	public void tearDown() {
+		if (file != null) file.delete();
+	}
+
+	@Test
+	public void testReadAcrossWindows() throws IOException {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 1000; i++) {
+			if (i > 0) sb.append(',');
+			sb.append("{\"name\":\"é").append(i).append("\",\"value\":").append(i).append('}');
+		}
+		sb.append(']');
+		write(sb.toString());
+
+		for (int windowSize : new int[] { 1, 7, 4096, MappedFileInputStream.DEFAULT_WINDOW_SIZE }) {
+			MappedFileInputStream input = new MappedFileInputStream(file, windowSize);
+			assertEquals(file.length(), input.size());
+			ObjectReader reader = new Utf8JsonReader(input, false, false);
+			reader.beginArray();
+			for (int i = 0; i < 1000; i++) {
+				assertTrue(reader.hasNext());
+				reader.next();
+				reader.beginObject();
+				reader.next();
+				assertEquals("é" + i, reader.valueAsString());
+				reader.next();
+				assertEquals(i, reader.valueAsInt());
+				reader.endObject();
+			}
+			assertFalse(reader.hasNext());
+			reader.endArray();
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testErrorsReportByteOffset() throws IOException {
+		String json = "{\"é\": [1, 2,\n 3}";
+		write(json);
+		Utf8JsonReader reader = new Utf8JsonReader(new MappedFileInputStream(file, 5), false, false);
+		reader.beginObject();
+		reader.next();
+		reader.beginArray();
+		for (int i = 0; i < 3; i++) {
+			reader.next();
+			assertEquals(i + 1, reader.valueAsInt());
+		}
+		try {
+			reader.endArray();
+			fail();
+		} catch (JsonStreamException e) {
+			assertEquals(json.getBytes("UTF-8").length - 1, e.getOffset());
+			assertTrue(e.getMessage().contains("byte offset " + e.getOffset()));
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testGensonDeserializeFile() throws IOException {
+		write("{\"a\": [1, 2], \"b\": \"€\"}");
+		Genson genson = new Genson();
+		Map<String, Object> map = genson.deserialize(file, new GenericType<Map<String, Object>>() {});
+		assertEquals(2, ((Object[]) map.get("a")).length);
+		assertEquals("€", map.get("b"));
+
+		ObjectReader reader = genson.createReader(file);
+		assertEquals(ValueType.OBJECT, reader.getValueType());
+		reader.close();
+	}
+
+	private void write(String json) throws IOException {
+		file = File.createTempFile("genson", ".json");
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(json.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.owlike.genson.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.owlike.genson.stream.NonBlockingJsonReader.Status;
+
+import static org.junit.Assert.*;
+
+public class NonBlockingJsonReaderTest {
+	private final String json = " {\"a\": \"]}\\\"é日本\", \"b\": [1, {\"c\": null}]} /* { */ [\"😀\"] // ]\n"
+			+ "\"\\\\\" 12.5 true{\"d\":[]}-3";
+
+	@Test
+	public void testResumeAtAnyByte() throws IOException {
+		byte[] bytes = json.getBytes("UTF-8");
+		for (int chunkSize : new int[] { 1, 2, 3, 7, bytes.length }) {
+			NonBlockingJsonReader reader = new NonBlockingJsonReader();
+			List<Object> values = new ArrayList<Object>();
+			for (int i = 0; i < bytes.length; i += chunkSize) {
+				reader.feed(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i)));
+				while (reader.next() == Status.VALUE)
+					values.add(read(reader.reader()));
+			}
+			// the last literal may continue
+			assertEquals(6, values.size());
+			reader.endOfInput();
+			assertEquals(Status.VALUE, reader.next());
+			assertEquals(bytes.length - 2, reader.valueOffset());
+			values.add(read(reader.reader()));
+			assertEquals(Status.END_OF_INPUT, reader.next());
+
+			Map<String, Object> first = new LinkedHashMap<String, Object>();
+			first.put("a", "]}\"é日本");
+			first.put("b", Arrays.asList(1L, Collections.singletonMap("c", null)));
+			assertEquals(Arrays.asList(first, Arrays.asList("😀"), "\\", 12.5, true,
+					Collections.singletonMap("d", Collections.emptyList()), -3L), values);
+		}
+	}
+
+	@Test
+	public void testLargeValueSpanningManyChunks() throws IOException {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 5000; i++)
+			sb.append(i).append(',');
+		sb.append("\"end\"]");
+		byte[] bytes = sb.toString().getBytes("UTF-8");
+
+		NonBlockingJsonReader reader = new NonBlockingJsonReader();
+		for (int i = 0; i < bytes.length; i += 1000) {
+			assertEquals(Status.NEED_MORE_INPUT, reader.next());
+			reader.feed(ByteBuffer.wrap(bytes, i, Math.min(1000, bytes.length - i)));
+		}
+		assertEquals(Status.VALUE, reader.next());
+		ObjectReader objectReader = reader.reader();
+		objectReader.beginArray();
+		for (int i = 0; i < 5000; i++) {
+			objectReader.next();
+			assertEquals(i, objectReader.valueAsInt());
+		}
+		objectReader.next();
+		assertEquals("end", objectReader.valueAsString());
+		objectReader.endArray();
+		assertEquals(Status.NEED_MORE_INPUT, reader.next());
+	}
+
+	@Test
+	public void testMalformedInput() throws IOException {
+		assertMalformed("[1, 2}", 5);
+		assertMalformed("{} , {}", 3);
+		assertMalformed("[1 / 2]", 4);
+		assertMalformed("{\"a\": [1, 2]", 12);
+		assertMalformed("\"abc", 4);
+		assertMalformed("[] /* ", 6);
+	}
+
+	private void assertMalformed(String json, long offset) throws IOException {
+		NonBlockingJsonReader reader = new NonBlockingJsonReader();
+		reader.feed(ByteBuffer.wrap(json.getBytes("UTF-8"))).endOfInput();
+		try {
+			while (reader.next() != Status.END_OF_INPUT);
+			fail();
+		} catch (JsonStreamException e) {
+			assertEquals(offset, e.getOffset());
+		}
+	}
+
+	private Object read(ObjectReader reader) {
+		switch (reader.getValueType()) {
+		case OBJECT:
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			reader.beginObject();
+			while (reader.hasNext()) {
+				reader.next();
+				map.put(reader.name(), read(reader));
+			}
+			reader.endObject();
+			return map;
+		case ARRAY:
+			List<Object> list = new ArrayList<Object>();
+			reader.beginArray();
+			while (reader.hasNext()) {
+				reader.next();
+				list.add(read(reader));
+			}
+			reader.endArray();
+			return list;
+		case INTEGER:
+			return reader.valueAsLong();
+		case DOUBLE:
+			return reader.valueAsDouble();
+		case BOOLEAN:
+			return reader.valueAsBoolean();
+		case NULL:
+			return null;
+		default:
+			return reader.valueAsString();
+		}
+	}
+}
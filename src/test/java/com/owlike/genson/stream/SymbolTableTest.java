@@ -0,0 +1,91 @@
+package com.owlike.genson.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SymbolTableTest {
+	@Test
+	public void testCanonicalizeReturnsSameInstance() {
+		SymbolTable table = new SymbolTable();
+		String name = table.canonicalize(new String("name"));
+		assertSame(name, table.canonicalize(new String("name")));
+		assertSame(name, table.lookup("xnamex".toCharArray(), 1, 4, "name".hashCode()));
+		assertSame(name, table.lookup("xnamex".getBytes(), 1, 4, "name".hashCode()));
+		assertSame(name, table.lookup(new String("name")));
+		assertEquals(1, table.size());
+	}
+
+	@Test
+	public void testLookupsDoNotAdd() {
+		SymbolTable table = new SymbolTable();
+		String name = new String("name");
+		assertSame(name, table.lookup(name));
+		assertNotSame(table.lookup("xnamex".toCharArray(), 1, 4, "name".hashCode()),
+				table.lookup("xnamex".getBytes(), 1, 4, "name".hashCode()));
+		assertEquals(0, table.size());
+	}
+
+	@Test
+	public void testTableIsBounded() {
+		SymbolTable table = new SymbolTable(2);
+		String a = table.canonicalize("a");
+		String b = table.canonicalize("b");
+		String c = new String("c");
+		assertSame(c, table.canonicalize(c));
+		assertNotSame(c, table.canonicalize(new String("c")));
+		assertEquals("c", table.lookup(new char[] { 'c' }, 0, 1, "c".hashCode()));
+		assertSame(c, table.lookup(c));
+		assertSame(a, table.canonicalize(new String("a")));
+		assertSame(b, table.lookup(new byte[] { 'b' }, 0, 1, "b".hashCode()));
+		assertEquals(2, table.size());
+	}
+
+	@Test
+	public void testLongNamesAreNotAdded() {
+		SymbolTable table = new SymbolTable();
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i <= SymbolTable.MAX_SYMBOL_LENGTH; i++)
+			sb.append('a');
+		String name = sb.toString();
+		char[] chars = name.toCharArray();
+		assertEquals(name, table.lookup(chars, 0, chars.length, name.hashCode()));
+		assertEquals(0, table.size());
+	}
+
+	@Test
+	public void testReadersReturnCanonicalNames() throws Exception {
+		SymbolTable table = new SymbolTable();
+		String name = table.canonicalize("name");
+		String escaped = table.canonicalize("é\"");
+		String json = "[{\"name\":1,\"\\u00e9\\\"\":2,\"other\":3},{\"name\":4,\"é\\\"\":5,\"other\":6}]";
+
+		ObjectReader[] readers = {
+				new JsonReader(new StringReader(json), false, false, table),
+				new Utf8JsonReader(new ByteArrayInputStream(json.getBytes("UTF-8")), false, false,
+						table),
+				new Utf8JsonReader(json.getBytes("UTF-8"), 0, json.getBytes("UTF-8").length, false,
+						false, table) };
+		for (ObjectReader reader : readers) {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				reader.next();
+				reader.beginObject();
+				reader.next();
+				assertSame(name, reader.name());
+				reader.next();
+				assertSame(escaped, reader.name());
+				reader.next();
+				assertEquals("other", reader.name());
+				reader.endObject();
+			}
+			reader.endArray();
+			reader.close();
+		}
+		// the names that were not canonicalized are not added by the readers
+		assertEquals(2, table.size());
+	}
+}
@@ -0,0 +1,331 @@
+package com.owlike.genson.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized.Parameters;
+
+import static org.junit.Assert.*;
+
+@RunWith(value = org.junit.runners.Parameterized.class)
+public class Utf8JsonReaderTest {
+	private boolean strictDoubleParse;
+	private boolean readMetadata;
+
+	public Utf8JsonReaderTest(boolean strictDoubleParse, boolean readMetadata) {
+		this.strictDoubleParse = strictDoubleParse;
+		this.readMetadata = readMetadata;
+	}
+
+	@Parameters
+	public static Collection<Boolean[]> data() {
+		return Arrays.asList(new Boolean[] { true, true }, new Boolean[] { true, false },
+				new Boolean[] { false, true }, new Boolean[] { false, false });
+	}
+
+	@Test
+	public void testReadMultiByteCharacters() throws IOException {
+		String[] values = { "é", "aéb", "€ and ¢", "日本語", "𝄞 clef", "mixed ascii, éà, 中文 and 😀" };
+		StringBuilder sb = new StringBuilder("{");
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) sb.append(',');
+			sb.append("\"").append(values[i]).append("\":\"").append(values[i]).append("\"");
+		}
+		sb.append("}");
+
+		ObjectReader reader = new Utf8JsonReader(sb.toString().getBytes("UTF-8"), 0,
+				sb.toString().getBytes("UTF-8").length, strictDoubleParse, readMetadata);
+		reader.beginObject();
+		for (String value : values) {
+			assertTrue(reader.hasNext());
+			assertEquals(ValueType.STRING, reader.next());
+			assertEquals(value, reader.name());
+			assertEquals(value, reader.valueAsString());
+		}
+		assertFalse(reader.hasNext());
+		reader.endObject();
+		reader.close();
+	}
+
+	@Test
+	public void testReadEscapedCharacters() throws IOException {
+		String src = "[\"\\u0019\\n\\t\\\"é\\\\\", \"\\u00e9t\\u00E9\"]";
+		ObjectReader reader = new Utf8JsonReader(new ByteArrayInputStream(src.getBytes("UTF-8")),
+				strictDoubleParse, readMetadata);
+		reader.beginArray();
+		reader.next();
+		assertEquals("\u0019\n\t\"é\\", reader.valueAsString());
+		reader.next();
+		assertEquals("été", reader.valueAsString());
+		reader.endArray();
+		reader.close();
+	}
+
+	@Test
+	public void testMultiByteCharactersAcrossBufferBoundaries() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 3000; i++)
+			sb.append(i % 3 == 0 ? "é" : i % 3 == 1 ? "€" : "𝄞");
+		String value = sb.toString();
+		String src = "{\"key\":\"" + value + "\",\"number\":12.5}";
+
+		// returns at most 7 bytes per read, so multi byte sequences are split between reads
+		InputStream in = new ByteArrayInputStream(src.getBytes("UTF-8")) {
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				return super.read(b, off, Math.min(len, 7));
+			}
+		};
+		ObjectReader reader = new Utf8JsonReader(in, strictDoubleParse, readMetadata);
+		reader.beginObject();
+		reader.next();
+		assertEquals(value, reader.valueAsString());
+		reader.next();
+		assertEquals(12.5, reader.valueAsDouble(), 0);
+		reader.endObject();
+		reader.close();
+	}
+
+	@Test
+	public void testMalformedSequencesAreReplaced() throws IOException {
+		byte[] src = new byte[] { '"', 'a', (byte) 0xC3, 'b', (byte) 0xFF, 'c', '"' };
+		ObjectReader reader = new Utf8JsonReader(src);
+		assertEquals("a�b�c", reader.valueAsString());
+		reader.close();
+	}
+
+	@Test
+	public void testInvalidSequencesAreReplacedAsByTheJdk() throws IOException {
+		// overlong "/", overlong forms of 3 and 4 bytes, surrogates and values above 0x10FFFF
+		assertDecoded("\uFFFD\uFFFD", 0xC0, 0xAF);
+		assertDecoded("\uFFFD\uFFFD\uFFFD", 0xE0, 0x80, 0xAF);
+		assertDecoded("\uFFFD\uFFFD\uFFFD\uFFFD", 0xF0, 0x80, 0x80, 0xAF);
+		assertDecoded("\uFFFD", 0xED, 0xA0, 0x80);
+		assertDecoded("\uFFFD", 0xED, 0xBF, 0xBF);
+		assertDecoded("\uFFFD\uFFFD\uFFFD\uFFFD", 0xF4, 0x90, 0x80, 0x80);
+		assertDecoded("\uFFFD\uFFFD\uFFFD\uFFFD", 0xF5, 0x80, 0x80, 0x80);
+		// truncated sequences
+		assertDecoded("\uFFFDa", 0xE2, 0x82, 'a');
+		assertDecoded("\uFFFDa", 0xF0, 0x9F, 0x98, 'a');
+		assertDecoded("\uFFFDa", 0xED, 0xA0, 'a');
+		// the limits of the valid ranges
+		assertDecoded("\u0080\u07FF\u0800\uD7FF\uE000\uFFFF\uD800\uDC00\uDBFF\uDFFF", 0xC2, 0x80, 0xDF,
+				0xBF, 0xE0, 0xA0, 0x80, 0xED, 0x9F, 0xBF, 0xEE, 0x80, 0x80, 0xEF, 0xBF, 0xBF, 0xF0, 0x90, 0x80,
+				0x80, 0xF4, 0x8F, 0xBF, 0xBF);
+	}
+
+	private void assertDecoded(String expected, int... bytes) throws IOException {
+		byte[] src = new byte[bytes.length + 2];
+		src[0] = '"';
+		for (int i = 0; i < bytes.length; i++)
+			src[i + 1] = (byte) bytes[i];
+		src[src.length - 1] = '"';
+
+		StringWriter jdk = new StringWriter();
+		InputStreamReader jdkReader = new InputStreamReader(new ByteArrayInputStream(src), "UTF-8");
+		for (int c = jdkReader.read(); c >= 0; c = jdkReader.read())
+			jdk.write(c);
+		assertEquals("\"" + expected + "\"", jdk.toString());
+
+		assertEquals(expected, new Utf8JsonReader(src).valueAsString());
+		// one byte per read, so the sequences are split between reads
+		InputStream in = new ByteArrayInputStream(src) {
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				return super.read(b, off, Math.min(len, 1));
+			}
+		};
+		assertEquals(expected, new Utf8JsonReader(in, strictDoubleParse, readMetadata).valueAsString());
+	}
+
+	@Test
+	public void testReadFromOffsetDoesNotModifySource() throws IOException {
+		byte[] json = "xxx[1, \"é\", {\"a\":true}]yyy".getBytes("UTF-8");
+		byte[] copy = json.clone();
+		ObjectReader reader = new Utf8JsonReader(json, 3, json.length - 6, strictDoubleParse,
+				readMetadata);
+		reader.beginArray();
+		reader.next();
+		assertEquals(1, reader.valueAsInt());
+		reader.next();
+		assertEquals("é", reader.valueAsString());
+		reader.next();
+		reader.beginObject();
+		reader.next();
+		assertEquals("a", reader.name());
+		assertTrue(reader.valueAsBoolean());
+		reader.endObject();
+		assertFalse(reader.hasNext());
+		reader.endArray();
+		reader.close();
+		assertArrayEquals(copy, json);
+	}
+
+	@Test
+	public void testReadRootLiterals() throws IOException {
+		assertEquals(1234, new Utf8JsonReader("1234".getBytes()).valueAsInt());
+		assertEquals("été", new Utf8JsonReader("\"été\"".getBytes("UTF-8")).valueAsString());
+		assertTrue(new Utf8JsonReader("true".getBytes()).valueAsBoolean());
+		assertEquals(ValueType.NULL, new Utf8JsonReader("".getBytes()).getValueType());
+	}
+
+	@Test
+	public void testParsingErrorPosition() throws IOException {
+		ObjectReader reader = new Utf8JsonReader(new ByteArrayInputStream(
+				"  [1, 2\n, \"aa vb\",\n4330833    \n}".getBytes("UTF-8")), strictDoubleParse,
+				readMetadata);
+		try {
+			reader.beginArray().next();
+			reader.next();
+			reader.next();
+			reader.next();
+			reader.endArray();
+			fail();
+		} catch (JsonStreamException e) {
+			assertEquals(3, e.getRow());
+			assertEquals(1, e.getColumn());
+		}
+	}
+
+	@Test
+	public void testIncompleteSource() throws IOException {
+		ObjectReader reader = new Utf8JsonReader("[1,".getBytes());
+		try {
+			reader.beginArray();
+			reader.next();
+			reader.next();
+			fail();
+		} catch (JsonStreamException ioe) {
+		}
+		reader.close();
+	}
+
+	@Test
+	public void testSameTokensAsJsonReader() throws IOException {
+		for (String resource : new String[] { "/TWEETS.json", "/READER_SHORT.json",
+				"/MEDIA_CONTENT.json" }) {
+			byte[] json = readResource(resource);
+
+			StringBuilder expected = new StringBuilder();
+			ObjectReader jsonReader = new JsonReader(new InputStreamReader(
+					new ByteArrayInputStream(json), "UTF-8"), strictDoubleParse, readMetadata);
+			walk(jsonReader, expected);
+
+			StringBuilder fromArray = new StringBuilder();
+			walk(new Utf8JsonReader(json, 0, json.length, strictDoubleParse, readMetadata),
+					fromArray);
+			assertEquals(expected.toString(), fromArray.toString());
+
+			StringBuilder fromStream = new StringBuilder();
+			walk(new Utf8JsonReader(new ByteArrayInputStream(json), strictDoubleParse,
+					readMetadata), fromStream);
+			assertEquals(expected.toString(), fromStream.toString());
+		}
+	}
+
+	private void walk(ObjectReader reader, StringBuilder sb) {
+		ValueType type = reader.getValueType();
+		if (type == ValueType.ARRAY) {
+			sb.append('[');
+			reader.beginArray();
+			while (reader.hasNext()) {
+				reader.next();
+				walk(reader, sb);
+				sb.append(',');
+			}
+			reader.endArray();
+			sb.append(']');
+		} else if (type == ValueType.OBJECT) {
+			sb.append('{');
+			reader.beginObject();
+			while (reader.hasNext()) {
+				reader.next();
+				sb.append(reader.name()).append(':');
+				walk(reader, sb);
+				sb.append(',');
+			}
+			reader.endObject();
+			sb.append('}');
+		} else {
+			sb.append(type).append('=').append(reader.valueAsString());
+		}
+	}
+
+	private byte[] readResource(String name) throws IOException {
+		InputStream in = getClass().getResourceAsStream(name);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1024];
+		for (int len = in.read(buffer); len > -1; len = in.read(buffer))
+			baos.write(buffer, 0, len);
+		in.close();
+		return baos.toByteArray();
+	}
+
+	@Test
+	public void testSkipValueOnlyLooksAtStructure() throws IOException {
+		String src = "{\"a\": [\"日本]}\\\"[{\", {\"é\": 1e400, \"c\": [[], {}]}, /* ] */ truE],\n"
+				+ "\"b\": {\"😀\": \"\\\\\"}, \"f\": \"€\"}";
+		byte[] bytes = src.getBytes("UTF-8");
+		for (boolean fromStream : new boolean[] { false, true }) {
+			ObjectReader reader = fromStream ? new Utf8JsonReader(new ByteArrayInputStream(bytes),
+					strictDoubleParse, readMetadata) : new Utf8JsonReader(bytes);
+			reader.beginObject();
+			reader.next();
+			assertEquals("a", reader.name());
+			reader.skipValue();
+			reader.next();
+			assertEquals("b", reader.name());
+			reader.skipValue();
+			reader.next();
+			assertEquals("f", reader.name());
+			assertEquals("€", reader.valueAsString());
+			assertFalse(reader.hasNext());
+			reader.endObject();
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testValueAsCharSequence() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 5000; i++)
+			sb.append((char) ('a' + i % 26));
+		String longValue = sb.toString();
+		String src = "[\"abc\", \"a\\nb\\u00e9\", \"\", \"" + longValue + "\", 12, true, null]";
+		ExtendedObjectReader reader = new Utf8JsonReader(new ByteArrayInputStream(src.getBytes("UTF-8")),
+				strictDoubleParse, readMetadata);
+		reader.beginArray();
+		reader.next();
+		CharSequence value = reader.valueAsCharSequence();
+		assertEquals(3, value.length());
+		assertEquals('b', value.charAt(1));
+		assertEquals("bc", value.subSequence(1, 3).toString());
+		assertEquals("abc", value.toString());
+		reader.next();
+		assertEquals("a\nb\u00e9", reader.valueAsCharSequence().toString());
+		assertEquals("a\nb\u00e9", reader.copyValueTo(new StringBuilder()).toString());
+		assertEquals("a\nb\u00e9", reader.copyValueTo(new StringWriter()).toString());
+		reader.next();
+		assertEquals(0, reader.valueAsCharSequence().length());
+		reader.next();
+		assertEquals(longValue, reader.valueAsCharSequence().toString());
+		assertEquals(longValue, reader.valueAsString());
+		assertSame(reader.valueAsString(), reader.valueAsCharSequence());
+		reader.next();
+		assertEquals("12", reader.valueAsCharSequence().toString());
+		reader.next();
+		assertEquals("true", reader.copyValueTo(new StringBuilder()).toString());
+		reader.next();
+		assertNull(reader.valueAsCharSequence());
+		reader.endArray();
+		reader.close();
+	}
+}
@@ -0,0 +1,119 @@
+package com.owlike.genson.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class Utf8JsonWriterTest {
+	private interface Writes {
+		void write(ObjectWriter writer);
+	}
+
+	@Test
+	public void testRootObjectWithNested() throws IOException {
+		assertSameAsJsonWriter(new Writes() {
+			public void write(ObjectWriter w) {
+				w.beginObject().writeName("nom").writeValue("toto").writeName("null").writeNull()
+						.writeName("doub").writeValue(10.012).writeName("int").writeValue(7)
+						.writeName("bool").writeValue(false).writeName("nestedObj").beginObject()
+						.writeName("h1").writeValue("fd").writeName("h2").writeValue(true)
+						.writeName("htab").beginArray().writeValue(false).writeValue(4)
+						.writeValue("s t").endArray().endObject().writeName("nestedTab")
+						.beginArray().writeValue(8).beginArray().writeValue("hey").writeValue(2.29)
+						.writeValue("bye").endArray().endArray().endObject();
+			}
+		});
+	}
+
+	@Test
+	public void testNumbers() throws IOException {
+		assertSameAsJsonWriter(new Writes() {
+			public void write(ObjectWriter w) {
+				w.beginArray().writeValue(0).writeValue(Integer.MAX_VALUE)
+						.writeValue(Integer.MIN_VALUE).writeValue(0L).writeValue(Long.MAX_VALUE)
+						.writeValue(Long.MIN_VALUE).writeValue((short) -12).writeValue(1.5e-300)
+						.writeValue(-0.09f).writeValue(new java.math.BigDecimal("123.456e-2"))
+						.writeValue(new java.math.BigDecimal("-0.000012"))
+						.writeValue(new java.math.BigDecimal("999999999999999999"))
+						.writeValue(new java.math.BigDecimal("1e-7")).endArray();
+			}
+		});
+	}
+
+	@Test
+	public void testEscapingAndMultiByteCharacters() throws IOException {
+		final String value = "\"\\ \n\t\u0001 é € 中文 😀 \u2028 \u2029 <a href='x'>&=</a>";
+		assertSameAsJsonWriter(new Writes() {
+			public void write(ObjectWriter w) {
+				w.beginObject().writeName("clé").writeValue(value).writeName("unsafe")
+						.writeUnsafeValue("été").endObject();
+			}
+		});
+
+		for (boolean htmlSafe : new boolean[] { true, false }) {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			Utf8JsonWriter writer = new Utf8JsonWriter(baos, false, htmlSafe, false);
+			writer.writeValue(value).flush();
+			StringWriter sw = new StringWriter();
+			new JsonWriter(sw, false, htmlSafe, false).writeValue(value).flush();
+			assertEquals(sw.toString(), new String(baos.toByteArray(), "UTF-8"));
+		}
+	}
+
+	@Test
+	public void testValuesLargerThanBuffer() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 5000; i++)
+			sb.append(i % 4 == 0 ? "€" : i % 4 == 1 ? "\n" : i % 4 == 2 ? "😀" : "a");
+		final String value = sb.toString();
+		final byte[] bytes = value.getBytes("UTF-8");
+		assertSameAsJsonWriter(new Writes() {
+			public void write(ObjectWriter w) {
+				w.beginArray();
+				for (int i = 0; i < 3; i++)
+					w.writeValue(value).writeUnsafeValue("x").writeValue(bytes);
+				w.endArray();
+			}
+		});
+	}
+
+	@Test
+	public void testMetadataSkipNullAndIndentation() throws IOException {
+		for (boolean flag : new boolean[] { true, false }) {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			StringWriter sw = new StringWriter();
+			ObjectWriter[] writers = { new Utf8JsonWriter(baos, flag, false, flag),
+					new JsonWriter(sw, flag, false, flag) };
+			for (ObjectWriter w : writers) {
+				w.beginNextObjectMetadata().writeMetadata("class", "some.Class").beginObject()
+						.writeName("a").writeNull().writeName("b").beginArray().writeValue(1)
+						.beginObject().writeMetadata("doc", "é").endObject().endArray()
+						.endObject().flush();
+			}
+			assertEquals(sw.toString(), new String(baos.toByteArray(), "UTF-8"));
+		}
+	}
+
+	@Test(expected = JsonStreamException.class)
+	public void testPreventInvalidJsonOutputInObject() throws IOException {
+		new Utf8JsonWriter(new ByteArrayOutputStream()).beginObject().writeValue("must fail");
+	}
+
+	private void assertSameAsJsonWriter(Writes writes) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		ObjectWriter utf8Writer = new Utf8JsonWriter(baos);
+		writes.write(utf8Writer);
+		utf8Writer.flush();
+
+		StringWriter sw = new StringWriter();
+		ObjectWriter jsonWriter = new JsonWriter(sw);
+		writes.write(jsonWriter);
+		jsonWriter.flush();
+
+		assertEquals(sw.toString(), new String(baos.toByteArray(), "UTF-8"));
+	}
+}